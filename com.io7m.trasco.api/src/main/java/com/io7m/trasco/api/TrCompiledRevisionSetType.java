@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+/**
+ * A revision set compiled against a fixed set of arguments. Compilation
+ * checks the arguments against the parameters of the revision set, and
+ * prepares every statement for execution ahead of time (stripping the
+ * statement text, resolving the arguments bound to each statement, and
+ * interpolating the arguments of
+ * {@link TrParameterInterpolation#STRING_FORMATTING} statements).
+ *
+ * <p>Compiled revision sets are immutable, and can be shared by any number
+ * of executors running concurrently on different threads and connections.
+ * </p>
+ *
+ * @see TrExecutorFactoryType#compile(TrSchemaRevisionSet, TrArguments)
+ */
+
+public interface TrCompiledRevisionSetType
+{
+  /**
+   * @return The revision set that was compiled
+   */
+
+  TrSchemaRevisionSet revisions();
+
+  /**
+   * @return The arguments that the revision set was compiled against
+   */
+
+  TrArguments arguments();
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Database-specific behaviour that cannot be expressed through JDBC alone.
+ *
+ * <p>Operations other than lock timeouts are optional, and have default
+ * implementations that do nothing or report that the operation is not
+ * supported.</p>
+ *
+ * @see TrExecutorConfiguration
+ */
+
+public interface TrDialectType
+{
+  /**
+   * Limit the time that statements subsequently executed on the given
+   * connection may wait to acquire locks.
+   *
+   * @param connection The connection
+   * @param timeout    The lock timeout
+   *
+   * @throws SQLException On errors
+   */
+
+  void lockTimeoutSet(
+    Connection connection,
+    Duration timeout)
+    throws SQLException;
+
+  /**
+   * Restore the lock timeout changed by
+   * {@link #lockTimeoutSet(Connection, Duration)} to the value it had
+   * before the change.
+   *
+   * @param connection The connection
+   *
+   * @throws SQLException On errors
+   */
+
+  void lockTimeoutReset(
+    Connection connection)
+    throws SQLException;
+
+  /**
+   * @param e An exception raised by a statement
+   *
+   * @return {@code true} if the exception indicates that the statement
+   * failed because the lock timeout expired
+   */
+
+  boolean isLockTimeout(
+    SQLException e);
+
+  /**
+   * Some databases can only limit lock waits for the entire database,
+   * rather than for a single connection. Changing such a timeout affects
+   * every other client of the database, and so executors only apply lock
+   * timeouts with these dialects if the dialect was configured explicitly
+   * rather than detected.
+   *
+   * @return {@code true} if lock timeouts apply to the entire database
+   */
+
+  default boolean isLockTimeoutDatabaseWide()
+  {
+    return false;
+  }
+
+  /**
+   * @return The name of the dialect
+   */
+
+  default String name()
+  {
+    return this.getClass().getSimpleName();
+  }
+
+  /**
+   * @param metadata The metadata of a database
+   *
+   * @return {@code true} if this dialect describes the given database
+   *
+   * @throws SQLException On errors
+   */
+
+  default boolean isApplicable(
+    final DatabaseMetaData metadata)
+    throws SQLException
+  {
+    return false;
+  }
+
+  /**
+   * Refresh the query planner statistics of the database, so that the
+   * tables created or filled by an upgrade are planned using accurate
+   * statistics. The default implementation does nothing.
+   *
+   * @param connection The connection
+   *
+   * @throws SQLException On errors
+   */
+
+  default void statisticsRefresh(
+    final Connection connection)
+    throws SQLException
+  {
+
+  }
+
+  /**
+   * Cancel a statement that is executing on another thread. The default
+   * implementation uses {@link Statement#cancel()}.
+   *
+   * @param statement The statement
+   *
+   * @throws SQLException On errors
+   */
+
+  default void statementCancel(
+    final Statement statement)
+    throws SQLException
+  {
+    statement.cancel();
+  }
+
+  /**
+   * Try to acquire the advisory lock with the given key without blocking.
+   * Advisory locks are held by the session, independently of any
+   * transaction. The default implementation reports that advisory locks
+   * are not supported.
+   *
+   * @param connection The connection
+   * @param key        The lock key
+   *
+   * @return {@code true} if the lock was acquired
+   *
+   * @throws SQLException On errors
+   */
+
+  default boolean advisoryLockTry(
+    final Connection connection,
+    final long key)
+    throws SQLException
+  {
+    throw new SQLFeatureNotSupportedException(
+      String.format("%s does not support advisory locks", this.name())
+    );
+  }
+
+  /**
+   * Release an advisory lock acquired with
+   * {@link #advisoryLockTry(Connection, long)}.
+   *
+   * @param connection The connection
+   * @param key        The lock key
+   *
+   * @throws SQLException On errors
+   */
+
+  default void advisoryLockRelease(
+    final Connection connection,
+    final long key)
+    throws SQLException
+  {
+    throw new SQLFeatureNotSupportedException(
+      String.format("%s does not support advisory locks", this.name())
+    );
+  }
+}
@@ -57,5 +57,77 @@ public enum TrErrorCode
    * One or more argument errors were encountered.
    */
 
-  ARGUMENT_ERRORS
+  ARGUMENT_ERRORS,
+
+  /**
+   * A revision that needed to be applied was parsed with its statements
+   * elided.
+   *
+   * @see TrSchemaRevisionSetParserOptions
+   */
+
+  SCHEMA_REVISION_ELIDED,
+
+  /**
+   * The upgrade lock could not be acquired within the configured time, or
+   * waiting for it was interrupted.
+   *
+   * @see TrExecutorLockType
+   */
+
+  LOCK_NOT_ACQUIRED,
+
+  /**
+   * An execution plan was executed against a database that is no longer at
+   * the schema version the plan was computed against.
+   *
+   * @see TrExecutorType#execute(TrExecutionPlan)
+   */
+
+  PLAN_OUTDATED,
+
+  /**
+   * A statement ran for longer than its query timeout, or waited for longer
+   * than its lock timeout.
+   *
+   * @see TrExecutorTimeouts
+   */
+
+  STATEMENT_TIMED_OUT,
+
+  /**
+   * The upgrade lock was lost while the upgrade was running (for example,
+   * because a lease expired and was taken over by another executor). The
+   * uncommitted work was rolled back.
+   *
+   * @see TrExecutorLockType#checkHeld(java.sql.Connection)
+   */
+
+  LOCK_LOST,
+
+  /**
+   * The operation is not supported by the executor implementation.
+   *
+   * @see TrExecutorType
+   */
+
+  OPERATION_UNSUPPORTED,
+
+  /**
+   * An unexpected exception was raised while upgrading a target in a fleet.
+   * The exception is available as the cause.
+   *
+   * @see TrFleetExecutorType
+   */
+
+  FLEET_TARGET_FAILED,
+
+  /**
+   * The executor was interrupted while waiting for statements that were
+   * executing in parallel.
+   *
+   * @see TrExecutorParallelism
+   */
+
+  INTERRUPTED
 }
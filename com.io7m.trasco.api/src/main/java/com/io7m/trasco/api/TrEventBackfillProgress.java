@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.Objects;
+
+/**
+ * A chunk of a backfill statement was executed and committed.
+ *
+ * @param statement    The statement
+ * @param chunk        The number of chunks executed so far
+ * @param rowsChunk    The number of rows processed by this chunk
+ * @param rowsTotal    The number of rows processed so far
+ * @param elapsedNanos The time elapsed since the backfill started in
+ *                     nanoseconds
+ */
+
+public record TrEventBackfillProgress(
+  String statement,
+  long chunk,
+  long rowsChunk,
+  long rowsTotal,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * A chunk of a backfill statement was executed and committed.
+   *
+   * @param statement    The statement
+   * @param chunk        The number of chunks executed so far
+   * @param rowsChunk    The number of rows processed by this chunk
+   * @param rowsTotal    The number of rows processed so far
+   * @param elapsedNanos The time elapsed since the backfill started in
+   *                     nanoseconds
+   */
+
+  public TrEventBackfillProgress
+  {
+    Objects.requireNonNull(statement, "statement");
+  }
+
+  /**
+   * @return The average number of rows processed per second so far
+   */
+
+  public double rowsPerSecond()
+  {
+    if (this.elapsedNanos <= 0L) {
+      return 0.0;
+    }
+    return (double) this.rowsTotal / ((double) this.elapsedNanos / 1.0e9);
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.Objects;
+
+/**
+ * An SQL statement finished executing.
+ *
+ * @param statement    The statement
+ * @param updateCount  The update count reported by the database, or
+ *                     {@code -1} if the statement did not produce an update
+ *                     count
+ * @param elapsedNanos The time taken to execute the statement in nanoseconds
+ */
+
+public record TrEventExecutedSQL(
+  String statement,
+  long updateCount,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * An SQL statement finished executing.
+   *
+   * @param statement    The statement
+   * @param updateCount  The update count reported by the database, or
+   *                     {@code -1} if the statement did not produce an
+   *                     update count
+   * @param elapsedNanos The time taken to execute the statement in
+   *                     nanoseconds
+   */
+
+  public TrEventExecutedSQL
+  {
+    Objects.requireNonNull(statement, "statement");
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.List;
+
+/**
+ * A JDBC batch of SQL statements finished executing. The statements in the
+ * batch are announced individually with {@link TrEventExecutingSQL} events
+ * before the batch executes; the database does not report the time taken
+ * by the individual statements of a batch.
+ *
+ * @param updateCounts The update counts reported by the database for each
+ *                     statement in the batch
+ * @param elapsedNanos The time taken to execute the batch in nanoseconds
+ */
+
+public record TrEventExecutedSQLBatch(
+  List<Long> updateCounts,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * A JDBC batch of SQL statements finished executing.
+   *
+   * @param updateCounts The update counts reported by the database for each
+   *                     statement in the batch
+   * @param elapsedNanos The time taken to execute the batch in nanoseconds
+   */
+
+  public TrEventExecutedSQLBatch
+  {
+    updateCounts = List.copyOf(updateCounts);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An executor finished successfully. This is the last event published by
+ * an execution that did not raise an exception.
+ *
+ * @param versionBefore      The schema version before execution, if any
+ * @param versionAfter       The schema version after execution, if any
+ * @param revisionsApplied   The number of revisions applied
+ * @param statementsExecuted The number of statements executed
+ * @param elapsedNanos       The total time taken in nanoseconds
+ */
+
+public record TrEventExecutionSummary(
+  Optional<BigInteger> versionBefore,
+  Optional<BigInteger> versionAfter,
+  int revisionsApplied,
+  int statementsExecuted,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * An executor finished successfully.
+   *
+   * @param versionBefore      The schema version before execution, if any
+   * @param versionAfter       The schema version after execution, if any
+   * @param revisionsApplied   The number of revisions applied
+   * @param statementsExecuted The number of statements executed
+   * @param elapsedNanos       The total time taken in nanoseconds
+   */
+
+  public TrEventExecutionSummary
+  {
+    Objects.requireNonNull(versionBefore, "versionBefore");
+    Objects.requireNonNull(versionAfter, "versionAfter");
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The set of event types that an event consumer wishes to receive. The
+ * executor does not construct events of any other type.
+ *
+ * @param types The event types
+ */
+
+public record TrEventInterest(
+  Set<Class<? extends TrEventType>> types)
+{
+  private static final TrEventInterest ALL =
+    new TrEventInterest(
+      Arrays.stream(TrEventType.class.getPermittedSubclasses())
+        .map(c -> c.asSubclass(TrEventType.class))
+        .collect(Collectors.toUnmodifiableSet())
+    );
+
+  private static final TrEventInterest NONE =
+    new TrEventInterest(Set.of());
+
+  /**
+   * The set of event types that an event consumer wishes to receive.
+   *
+   * @param types The event types
+   */
+
+  public TrEventInterest
+  {
+    types = Set.copyOf(types);
+  }
+
+  /**
+   * @return An interest in every type of event
+   */
+
+  public static TrEventInterest all()
+  {
+    return ALL;
+  }
+
+  /**
+   * @return An interest in no events at all
+   */
+
+  public static TrEventInterest none()
+  {
+    return NONE;
+  }
+
+  /**
+   * An interest in the given event types. Duplicate types are permitted,
+   * and are ignored.
+   *
+   * @param types The event types
+   *
+   * @return An interest in the given event types
+   *
+   * @throws NullPointerException If any of the types are {@code null}
+   */
+
+  @SafeVarargs
+  public static TrEventInterest of(
+    final Class<? extends TrEventType>... types)
+  {
+    return new TrEventInterest(Set.copyOf(Arrays.asList(types)));
+  }
+
+  /**
+   * @param type The event type
+   *
+   * @return {@code true} if events of the given type should be delivered
+   */
+
+  public boolean isInterested(
+    final Class<? extends TrEventType> type)
+  {
+    return this.types.contains(Objects.requireNonNull(type, "type"));
+  }
+}
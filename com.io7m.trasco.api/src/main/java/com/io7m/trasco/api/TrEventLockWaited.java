@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+/**
+ * An executor finished waiting for the upgrade lock. If the lock was not
+ * acquired, then another executor upgraded the database while this executor
+ * was waiting, and no upgrade is necessary.
+ *
+ * @param attempts     The number of attempts made to acquire the lock
+ * @param acquired     {@code true} if the lock was acquired
+ * @param elapsedNanos The time spent waiting in nanoseconds
+ *
+ * @see TrExecutorLockType
+ */
+
+public record TrEventLockWaited(
+  int attempts,
+  boolean acquired,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * An executor finished waiting for the upgrade lock.
+   *
+   * @param attempts     The number of attempts made to acquire the lock
+   * @param acquired     {@code true} if the lock was acquired
+   * @param elapsedNanos The time spent waiting in nanoseconds
+   */
+
+  public TrEventLockWaited
+  {
+    if (attempts < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Attempts must be at least 1 (received %d)",
+          Integer.valueOf(attempts)
+        ));
+    }
+  }
+}
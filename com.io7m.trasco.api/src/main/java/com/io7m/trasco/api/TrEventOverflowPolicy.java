@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+/**
+ * The behaviour of an event buffer when an event is published and the
+ * buffer is full.
+ *
+ * @see TrExecutorEventBuffer
+ */
+
+public enum TrEventOverflowPolicy
+{
+  /**
+   * The executor waits until the consumer has made space in the buffer. No
+   * events are lost, but a slow consumer slows down the executor once the
+   * buffer is full.
+   */
+
+  BLOCK,
+
+  /**
+   * The oldest buffered event is discarded to make space. The executor
+   * never waits for the consumer.
+   */
+
+  DROP_OLDEST,
+
+  /**
+   * A {@link TrEventBackfillProgress} event replaces the most recently
+   * buffered event if that event is a progress event for the same
+   * statement, as the newer event supersedes it. Any other event waits for
+   * space as with {@link #BLOCK}.
+   */
+
+  COALESCE_PROGRESS
+}
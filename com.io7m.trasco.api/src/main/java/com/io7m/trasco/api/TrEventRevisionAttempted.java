@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An attempt to apply a revision finished. These events are only published
+ * when the retry policy permits retries.
+ *
+ * @param version      The revision version
+ * @param attempt      The attempt number, starting at {@code 1}
+ * @param succeeded    {@code true} if the attempt succeeded
+ * @param sqlState     The SQLState of the failure, if the attempt failed
+ *                     with one
+ * @param retrying     {@code true} if the revision will be attempted again
+ * @param elapsedNanos The time taken by the attempt in nanoseconds
+ *
+ * @see TrExecutorRetryPolicy
+ */
+
+public record TrEventRevisionAttempted(
+  BigInteger version,
+  int attempt,
+  boolean succeeded,
+  Optional<String> sqlState,
+  boolean retrying,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * An attempt to apply a revision finished.
+   *
+   * @param version      The revision version
+   * @param attempt      The attempt number, starting at {@code 1}
+   * @param succeeded    {@code true} if the attempt succeeded
+   * @param sqlState     The SQLState of the failure, if the attempt failed
+   *                     with one
+   * @param retrying     {@code true} if the revision will be attempted again
+   * @param elapsedNanos The time taken by the attempt in nanoseconds
+   */
+
+  public TrEventRevisionAttempted
+  {
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(sqlState, "sqlState");
+
+    if (attempt < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Attempt must be at least 1 (received %d)",
+          Integer.valueOf(attempt)
+        ));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A revision finished upgrading. The elapsed time covers the execution of
+ * all the statements in the revision and the update of the schema version,
+ * but not any subsequent commit.
+ *
+ * @param version        The version that the database was upgraded to
+ * @param statementCount The number of statements executed
+ * @param elapsedNanos   The time taken in nanoseconds
+ */
+
+public record TrEventRevisionFinished(
+  BigInteger version,
+  int statementCount,
+  long elapsedNanos)
+  implements TrEventType
+{
+  /**
+   * A revision finished upgrading.
+   *
+   * @param version        The version that the database was upgraded to
+   * @param statementCount The number of statements executed
+   * @param elapsedNanos   The time taken in nanoseconds
+   */
+
+  public TrEventRevisionFinished
+  {
+    Objects.requireNonNull(version, "version");
+  }
+}
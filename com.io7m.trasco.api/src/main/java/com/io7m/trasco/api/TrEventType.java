@@ -21,7 +21,16 @@ package com.io7m.trasco.api;
  */
 
 public sealed interface TrEventType
-  permits TrEventExecutingSQL, TrEventUpgrading
+  permits TrEventBackfillProgress,
+  TrEventCommitted,
+  TrEventExecutedSQL,
+  TrEventExecutedSQLBatch,
+  TrEventExecutingSQL,
+  TrEventExecutionSummary,
+  TrEventLockWaited,
+  TrEventRevisionAttempted,
+  TrEventRevisionFinished,
+  TrEventUpgrading
 {
 
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An execution plan describing the revisions that an executor will apply to
+ * a database, computed without executing any statements.
+ *
+ * @param versionBefore The schema version of the database at the time the
+ *                      plan was computed, if the database had one
+ * @param versionAfter  The schema version the database will have after the
+ *                      plan has been executed
+ * @param revisions     The revisions that will be applied, in order
+ *
+ * @see TrExecutorType#plan()
+ * @see TrExecutorType#execute(TrExecutionPlan)
+ */
+
+public record TrExecutionPlan(
+  Optional<BigInteger> versionBefore,
+  Optional<BigInteger> versionAfter,
+  List<TrExecutionPlanRevision> revisions)
+{
+  /**
+   * An execution plan describing the revisions that an executor will apply
+   * to a database.
+   *
+   * @param versionBefore The schema version of the database at the time the
+   *                      plan was computed, if the database had one
+   * @param versionAfter  The schema version the database will have after
+   *                      the plan has been executed
+   * @param revisions     The revisions that will be applied, in order
+   */
+
+  public TrExecutionPlan
+  {
+    Objects.requireNonNull(versionBefore, "versionBefore");
+    Objects.requireNonNull(versionAfter, "versionAfter");
+    revisions = List.copyOf(revisions);
+  }
+
+  /**
+   * @return The total number of statements that will be executed
+   */
+
+  public int statementCount()
+  {
+    return this.revisions.stream()
+      .mapToInt(r -> r.statements().size())
+      .sum();
+  }
+
+  /**
+   * @return {@code true} if any statement in the plan typically takes a
+   * heavy lock
+   *
+   * @see TrExecutionPlanStatement#heavyLock()
+   */
+
+  public boolean hasHeavyLocks()
+  {
+    return this.revisions.stream()
+      .flatMap(r -> r.statements().stream())
+      .anyMatch(TrExecutionPlanStatement::heavyLock);
+  }
+
+  /**
+   * @return The estimated time taken to execute the plan, if an estimate is
+   * available for every revision
+   */
+
+  public Optional<Duration> estimatedDuration()
+  {
+    var total = Duration.ZERO;
+    for (final var revision : this.revisions) {
+      final var estimate = revision.estimatedDuration();
+      if (estimate.isEmpty()) {
+        return Optional.empty();
+      }
+      total = total.plus(estimate.get());
+    }
+    return Optional.of(total);
+  }
+}
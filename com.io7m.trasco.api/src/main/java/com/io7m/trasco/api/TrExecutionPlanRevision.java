@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A revision within an execution plan.
+ *
+ * @param revision          The revision
+ * @param statements        The planned statements, in the same order as the
+ *                          statements of the revision
+ * @param estimatedDuration The estimated time taken to apply the revision,
+ *                          if a timing history is available
+ *
+ * @see TrExecutorTimingHistoryType
+ */
+
+public record TrExecutionPlanRevision(
+  TrSchemaRevision revision,
+  List<TrExecutionPlanStatement> statements,
+  Optional<Duration> estimatedDuration)
+{
+  /**
+   * A revision within an execution plan.
+   *
+   * @param revision          The revision
+   * @param statements        The planned statements, in the same order as
+   *                          the statements of the revision
+   * @param estimatedDuration The estimated time taken to apply the revision,
+   *                          if a timing history is available
+   */
+
+  public TrExecutionPlanRevision
+  {
+    Objects.requireNonNull(revision, "revision");
+    Objects.requireNonNull(estimatedDuration, "estimatedDuration");
+    statements = List.copyOf(statements);
+
+    if (statements.size() != revision.statements().size()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Revision %s has %d statements, but %d planned statements were provided",
+          revision.version(),
+          Integer.valueOf(revision.statements().size()),
+          Integer.valueOf(statements.size())
+        ));
+    }
+  }
+}
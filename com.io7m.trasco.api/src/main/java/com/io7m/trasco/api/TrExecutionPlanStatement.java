@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.Objects;
+
+/**
+ * A statement within an execution plan.
+ *
+ * @param statement The statement
+ * @param text      The exact text that will be sent to the database, after
+ *                  any string interpolation of arguments
+ * @param heavyLock {@code true} if the statement is of a kind that
+ *                  typically takes a lock that blocks concurrent access to
+ *                  a table for the duration of the statement (such as
+ *                  {@code ALTER TABLE} or {@code CREATE INDEX})
+ */
+
+public record TrExecutionPlanStatement(
+  TrStatementType statement,
+  String text,
+  boolean heavyLock)
+{
+  /**
+   * A statement within an execution plan.
+   *
+   * @param statement The statement
+   * @param text      The exact text that will be sent to the database,
+   *                  after any string interpolation of arguments
+   * @param heavyLock {@code true} if the statement is of a kind that
+   *                  typically takes a heavy lock
+   */
+
+  public TrExecutionPlanStatement
+  {
+    Objects.requireNonNull(statement, "statement");
+    Objects.requireNonNull(text, "text");
+  }
+}
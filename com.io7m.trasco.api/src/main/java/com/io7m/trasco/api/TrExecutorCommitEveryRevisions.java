@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+/**
+ * The executor commits after every {@code revisions} revisions have been
+ * applied (and once more after the final revision, if any work remains
+ * uncommitted). The commit always happens after the schema version has been
+ * updated, so an interrupted upgrade can be resumed from the last committed
+ * revision simply by executing it again.
+ *
+ * @param revisions The number of revisions applied between each commit
+ */
+
+public record TrExecutorCommitEveryRevisions(
+  int revisions)
+  implements TrExecutorCommitPolicyType
+{
+  /**
+   * The executor commits after every {@code revisions} revisions have been
+   * applied.
+   *
+   * @param revisions The number of revisions applied between each commit
+   */
+
+  public TrExecutorCommitEveryRevisions
+  {
+    if (revisions < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Revisions per commit must be at least 1 (received %d)",
+          Integer.valueOf(revisions)
+        ));
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.io7m.trasco.api;
 
 import java.sql.Connection;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
@@ -32,6 +33,32 @@ import java.util.function.Consumer;
  *                   version number
  * @param versionSet A function that will be executed to set the schema version
  *                   number
+ * @param statementBatchSize The maximum number of consecutive unparameterized
+ *                   statements that will be sent to the database in a single
+ *                   JDBC batch (a value of {@code 1} disables batching)
+ * @param commitPolicy The policy that decides when the executor commits
+ * @param lock       The lock that serializes upgrades between executors, if
+ *                   any
+ * @param lockWaitPolicy The policy that decides how the executor waits for
+ *                   the lock
+ * @param parallelism The configuration used to execute parallel statement
+ *                   groups concurrently, if any (groups are otherwise
+ *                   executed sequentially on {@code connection})
+ * @param timingHistory The history used to estimate revision durations in
+ *                   execution plans, if any
+ * @param timeouts   The default timeouts applied to statements
+ * @param dialect    The database-specific behaviour, if any
+ * @param retryPolicy The policy that decides how transactional revisions
+ *                   that fail with transient errors are retried
+ * @param eventBuffer The buffer placed between the executor and
+ *                   {@code events}, if any (events are otherwise delivered
+ *                   synchronously on the executing thread)
+ * @param eventInterest The types of events delivered to {@code events}
+ * @param compiled   The compiled form of {@code revisions} and
+ *                   {@code arguments}, if any (statements are otherwise
+ *                   prepared as they are executed)
+ * @param statisticsRefresh {@code true} if the dialect should refresh the
+ *                   query planner statistics after revisions are applied
  */
 
 public record TrExecutorConfiguration(
@@ -41,7 +68,20 @@ public record TrExecutorConfiguration(
   TrSchemaRevisionSet revisions,
   TrExecutorUpgrade upgrade,
   TrArguments arguments,
-  Connection connection)
+  Connection connection,
+  int statementBatchSize,
+  TrExecutorCommitPolicyType commitPolicy,
+  Optional<TrExecutorLockType> lock,
+  TrExecutorLockWaitPolicy lockWaitPolicy,
+  Optional<TrExecutorParallelism> parallelism,
+  Optional<TrExecutorTimingHistoryType> timingHistory,
+  TrExecutorTimeouts timeouts,
+  Optional<TrDialectType> dialect,
+  TrExecutorRetryPolicy retryPolicy,
+  Optional<TrExecutorEventBuffer> eventBuffer,
+  TrEventInterest eventInterest,
+  Optional<TrCompiledRevisionSetType> compiled,
+  boolean statisticsRefresh)
 {
   /**
    * The configuration information required for an executor.
@@ -55,6 +95,29 @@ public record TrExecutorConfiguration(
    *                   version number
    * @param versionSet A function that will be executed to set the schema
    *                   version number
+   * @param statementBatchSize The maximum number of consecutive
+   *                   unparameterized statements that will be sent to the
+   *                   database in a single JDBC batch
+   * @param commitPolicy The policy that decides when the executor commits
+   * @param lock       The lock that serializes upgrades between executors,
+   *                   if any
+   * @param lockWaitPolicy The policy that decides how the executor waits
+   *                   for the lock
+   * @param parallelism The configuration used to execute parallel statement
+   *                   groups concurrently, if any
+   * @param timingHistory The history used to estimate revision durations
+   *                   in execution plans, if any
+   * @param timeouts   The default timeouts applied to statements
+   * @param dialect    The database-specific behaviour, if any
+   * @param retryPolicy The policy that decides how transactional revisions
+   *                   that fail with transient errors are retried
+   * @param eventBuffer The buffer placed between the executor and
+   *                   {@code events}, if any
+   * @param eventInterest The types of events delivered to {@code events}
+   * @param compiled   The compiled form of {@code revisions} and
+   *                   {@code arguments}, if any
+   * @param statisticsRefresh {@code true} if the dialect should refresh the
+   *                   query planner statistics after revisions are applied
    */
 
   public TrExecutorConfiguration
@@ -66,5 +129,463 @@ public record TrExecutorConfiguration(
     Objects.requireNonNull(upgrade, "upgrade");
     Objects.requireNonNull(connection, "connection");
     Objects.requireNonNull(arguments, "arguments");
+    Objects.requireNonNull(commitPolicy, "commitPolicy");
+    Objects.requireNonNull(lock, "lock");
+    Objects.requireNonNull(lockWaitPolicy, "lockWaitPolicy");
+    Objects.requireNonNull(parallelism, "parallelism");
+    Objects.requireNonNull(timingHistory, "timingHistory");
+    Objects.requireNonNull(timeouts, "timeouts");
+    Objects.requireNonNull(dialect, "dialect");
+    Objects.requireNonNull(retryPolicy, "retryPolicy");
+    Objects.requireNonNull(eventBuffer, "eventBuffer");
+    Objects.requireNonNull(eventInterest, "eventInterest");
+    Objects.requireNonNull(compiled, "compiled");
+
+    if (statementBatchSize < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Statement batch size must be at least 1 (received %d)",
+          Integer.valueOf(statementBatchSize)
+        ));
+    }
+
+    if (compiled.isPresent()) {
+      final var c = compiled.get();
+      if (c.revisions() != revisions || !c.arguments().equals(arguments)) {
+        throw new IllegalArgumentException(
+          "Compiled revision set does not match the revisions and arguments"
+        );
+      }
+    }
+  }
+
+  /**
+   * The configuration information required for an executor. Optional
+   * behaviour is set to the defaults described by {@link Builder}.
+   *
+   * @param inConnection An open database connection
+   * @param inEvents     A function that will receive progress events
+   * @param inRevisions  The set of known database schema revisions
+   * @param inUpgrade    The desired upgrade behaviour
+   * @param inArguments  The arguments provided to any required parameters
+   * @param inVersionGet A function that will be executed to retrieve a schema
+   *                     version number
+   * @param inVersionSet A function that will be executed to set the schema
+   *                     version number
+   */
+
+  public TrExecutorConfiguration(
+    final TrExecutorVersionRetrieverType inVersionGet,
+    final TrExecutorVersionUpdaterType inVersionSet,
+    final Consumer<TrEventType> inEvents,
+    final TrSchemaRevisionSet inRevisions,
+    final TrExecutorUpgrade inUpgrade,
+    final TrArguments inArguments,
+    final Connection inConnection)
+  {
+    this(
+      inVersionGet,
+      inVersionSet,
+      inEvents,
+      inRevisions,
+      inUpgrade,
+      inArguments,
+      inConnection,
+      1,
+      new TrExecutorCommitByCaller(),
+      Optional.empty(),
+      TrExecutorLockWaitPolicy.defaults(),
+      Optional.empty(),
+      Optional.empty(),
+      TrExecutorTimeouts.none(),
+      Optional.empty(),
+      TrExecutorRetryPolicy.none(),
+      Optional.empty(),
+      TrEventInterest.all(),
+      Optional.empty(),
+      false
+    );
+  }
+
+  /**
+   * Create a configuration builder. The builder is initialized with the
+   * required values, and all optional behaviour is set to the defaults.
+   *
+   * @param inConnection An open database connection
+   * @param inEvents     A function that will receive progress events
+   * @param inRevisions  The set of known database schema revisions
+   * @param inUpgrade    The desired upgrade behaviour
+   * @param inArguments  The arguments provided to any required parameters
+   * @param inVersionGet A function that will be executed to retrieve a schema
+   *                     version number
+   * @param inVersionSet A function that will be executed to set the schema
+   *                     version number
+   *
+   * @return A configuration builder
+   */
+
+  public static Builder builder(
+    final TrExecutorVersionRetrieverType inVersionGet,
+    final TrExecutorVersionUpdaterType inVersionSet,
+    final Consumer<TrEventType> inEvents,
+    final TrSchemaRevisionSet inRevisions,
+    final TrExecutorUpgrade inUpgrade,
+    final TrArguments inArguments,
+    final Connection inConnection)
+  {
+    return new Builder(
+      inVersionGet,
+      inVersionSet,
+      inEvents,
+      inRevisions,
+      inUpgrade,
+      inArguments,
+      inConnection
+    );
+  }
+
+  /**
+   * A mutable builder for configurations.
+   */
+
+  public static final class Builder
+  {
+    private final TrExecutorVersionRetrieverType versionGet;
+    private final TrExecutorVersionUpdaterType versionSet;
+    private final Consumer<TrEventType> events;
+    private final TrSchemaRevisionSet revisions;
+    private final TrExecutorUpgrade upgrade;
+    private final TrArguments arguments;
+    private final Connection connection;
+    private int statementBatchSize;
+    private TrExecutorCommitPolicyType commitPolicy;
+    private Optional<TrExecutorLockType> lock;
+    private TrExecutorLockWaitPolicy lockWaitPolicy;
+    private Optional<TrExecutorParallelism> parallelism;
+    private Optional<TrExecutorTimingHistoryType> timingHistory;
+    private TrExecutorTimeouts timeouts;
+    private Optional<TrDialectType> dialect;
+    private TrExecutorRetryPolicy retryPolicy;
+    private Optional<TrExecutorEventBuffer> eventBuffer;
+    private TrEventInterest eventInterest;
+    private Optional<TrCompiledRevisionSetType> compiled;
+    private boolean statisticsRefresh;
+
+    private Builder(
+      final TrExecutorVersionRetrieverType inVersionGet,
+      final TrExecutorVersionUpdaterType inVersionSet,
+      final Consumer<TrEventType> inEvents,
+      final TrSchemaRevisionSet inRevisions,
+      final TrExecutorUpgrade inUpgrade,
+      final TrArguments inArguments,
+      final Connection inConnection)
+    {
+      this.versionGet =
+        Objects.requireNonNull(inVersionGet, "versionGet");
+      this.versionSet =
+        Objects.requireNonNull(inVersionSet, "versionSet");
+      this.events =
+        Objects.requireNonNull(inEvents, "events");
+      this.revisions =
+        Objects.requireNonNull(inRevisions, "revisions");
+      this.upgrade =
+        Objects.requireNonNull(inUpgrade, "upgrade");
+      this.arguments =
+        Objects.requireNonNull(inArguments, "arguments");
+      this.connection =
+        Objects.requireNonNull(inConnection, "connection");
+      this.statementBatchSize = 1;
+      this.commitPolicy = new TrExecutorCommitByCaller();
+      this.lock = Optional.empty();
+      this.lockWaitPolicy = TrExecutorLockWaitPolicy.defaults();
+      this.parallelism = Optional.empty();
+      this.timingHistory = Optional.empty();
+      this.timeouts = TrExecutorTimeouts.none();
+      this.dialect = Optional.empty();
+      this.retryPolicy = TrExecutorRetryPolicy.none();
+      this.eventBuffer = Optional.empty();
+      this.eventInterest = TrEventInterest.all();
+      this.compiled = Optional.empty();
+    }
+
+    /**
+     * Set the maximum number of consecutive unparameterized statements that
+     * will be sent to the database in a single JDBC batch. The default is
+     * {@code 1}, meaning that each statement is executed individually.
+     *
+     * @param size The batch size
+     *
+     * @return this
+     */
+
+    public Builder withStatementBatchSize(
+      final int size)
+    {
+      this.statementBatchSize = size;
+      return this;
+    }
+
+    /**
+     * Set the policy that decides when the executor commits. The default is
+     * {@link TrExecutorCommitByCaller}, meaning that the executor never
+     * commits and all revisions are applied in a single transaction.
+     *
+     * @param policy The commit policy
+     *
+     * @return this
+     */
+
+    public Builder withCommitPolicy(
+      final TrExecutorCommitPolicyType policy)
+    {
+      this.commitPolicy = Objects.requireNonNull(policy, "policy");
+      return this;
+    }
+
+    /**
+     * Set the lock that serializes upgrades between executors. By default,
+     * no lock is used.
+     *
+     * <p>If the schema version shows that no upgrade is required, the
+     * executor does not touch the lock at all. Otherwise, the executor
+     * acquires the lock, re-reads the schema version, and performs any
+     * upgrades that are still required. Because other executors must
+     * observe the upgraded schema as soon as the lock is released, the
+     * executor commits before releasing the lock, regardless of the commit
+     * policy, and rolls back if the upgrade fails.</p>
+     *
+     * @param value The lock
+     *
+     * @return this
+     *
+     * @see #withLockWaitPolicy(TrExecutorLockWaitPolicy)
+     */
+
+    public Builder withLock(
+      final TrExecutorLockType value)
+    {
+      this.lock = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set the policy that decides how the executor waits for a lock held by
+     * another executor. The default is
+     * {@link TrExecutorLockWaitPolicy#defaults()}.
+     *
+     * @param policy The wait policy
+     *
+     * @return this
+     */
+
+    public Builder withLockWaitPolicy(
+      final TrExecutorLockWaitPolicy policy)
+    {
+      this.lockWaitPolicy = Objects.requireNonNull(policy, "policy");
+      return this;
+    }
+
+    /**
+     * Set the configuration used to execute parallel statement groups
+     * concurrently. By default, the statements in a parallel group are
+     * executed sequentially on the main connection.
+     *
+     * <p>Events produced by concurrently executing statements are delivered
+     * to the event consumer from multiple threads, but never concurrently.
+     * If any statement in a group fails, the executor waits for the running
+     * statements to finish, skips the statements that have not started, and
+     * fails without updating the schema version.</p>
+     *
+     * @param value The parallelism configuration
+     *
+     * @return this
+     */
+
+    public Builder withParallelism(
+      final TrExecutorParallelism value)
+    {
+      this.parallelism = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set the history used to estimate how long each revision will take in
+     * execution plans. By default, no estimates are produced.
+     *
+     * @param value The timing history
+     *
+     * @return this
+     *
+     * @see TrExecutorType#plan()
+     */
+
+    public Builder withTimingHistory(
+      final TrExecutorTimingHistoryType value)
+    {
+      this.timingHistory = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set the default timeouts applied to statements that do not declare
+     * their own. The default is {@link TrExecutorTimeouts#none()}.
+     *
+     * @param value The timeouts
+     *
+     * @return this
+     */
+
+    public Builder withTimeouts(
+      final TrExecutorTimeouts value)
+    {
+      this.timeouts = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the database-specific behaviour used by the executor. By default,
+     * the dialect is detected from the connection's database metadata, and
+     * the database-specific behaviour is skipped for unrecognized databases.
+     *
+     * @param value The dialect
+     *
+     * @return this
+     */
+
+    public Builder withDialect(
+      final TrDialectType value)
+    {
+      this.dialect = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set the policy that decides how transactional revisions that fail
+     * with transient errors are retried. The default is
+     * {@link TrExecutorRetryPolicy#none()}.
+     *
+     * @param policy The retry policy
+     *
+     * @return this
+     */
+
+    public Builder withRetryPolicy(
+      final TrExecutorRetryPolicy policy)
+    {
+      this.retryPolicy = Objects.requireNonNull(policy, "policy");
+      return this;
+    }
+
+    /**
+     * Set the buffer placed between the executor and the event consumer. By
+     * default, events are delivered synchronously on the thread that
+     * produced them.
+     *
+     * <p>With a buffer, events are delivered in order on a single separate
+     * thread. Execution does not return (normally or exceptionally) until
+     * every buffered event has been delivered. Exceptions raised by the
+     * event consumer are logged rather than failing the execution.</p>
+     *
+     * @param value The event buffer
+     *
+     * @return this
+     */
+
+    public Builder withEventBuffer(
+      final TrExecutorEventBuffer value)
+    {
+      this.eventBuffer = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set the types of events delivered to the event consumer. The default
+     * is {@link TrEventInterest#all()}. Events of any other type are never
+     * constructed, so consumers that only need a few kinds of events (or
+     * none at all) do not pay for the rest.
+     *
+     * @param value The event interest
+     *
+     * @return this
+     */
+
+    public Builder withEventInterest(
+      final TrEventInterest value)
+    {
+      this.eventInterest = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the compiled form of the revisions and arguments. The compiled
+     * revision set must have been compiled from the same revision set
+     * instance and equal arguments. By default, each statement is prepared
+     * as it is executed.
+     *
+     * @param value The compiled revision set
+     *
+     * @return this
+     *
+     * @see TrExecutorFactoryType#compile(TrSchemaRevisionSet, TrArguments)
+     */
+
+    public Builder withCompiled(
+      final TrCompiledRevisionSetType value)
+    {
+      this.compiled = Optional.of(Objects.requireNonNull(value, "value"));
+      return this;
+    }
+
+    /**
+     * Set whether the dialect refreshes the query planner statistics after
+     * revisions are applied. Schema changes and backfills can leave the
+     * statistics badly out of date, which leads to poor plans until the
+     * database gets around to refreshing them itself. The refresh runs on
+     * the executor's connection after the last revision, and is skipped if
+     * no revisions were applied. The default is {@code false}.
+     *
+     * @param value {@code true} if statistics should be refreshed
+     *
+     * @return this
+     *
+     * @see TrDialectType#statisticsRefresh(Connection)
+     */
+
+    public Builder withStatisticsRefresh(
+      final boolean value)
+    {
+      this.statisticsRefresh = value;
+      return this;
+    }
+
+    /**
+     * @return A configuration based on all the values given so far
+     */
+
+    public TrExecutorConfiguration build()
+    {
+      return new TrExecutorConfiguration(
+        this.versionGet,
+        this.versionSet,
+        this.events,
+        this.revisions,
+        this.upgrade,
+        this.arguments,
+        this.connection,
+        this.statementBatchSize,
+        this.commitPolicy,
+        this.lock,
+        this.lockWaitPolicy,
+        this.parallelism,
+        this.timingHistory,
+        this.timeouts,
+        this.dialect,
+        this.retryPolicy,
+        this.eventBuffer,
+        this.eventInterest,
+        this.compiled,
+        this.statisticsRefresh
+      );
+    }
   }
 }
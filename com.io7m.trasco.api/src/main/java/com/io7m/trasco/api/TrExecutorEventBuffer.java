@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.Objects;
+
+/**
+ * The configuration of a buffer placed between an executor and its event
+ * consumer. Events are placed into the buffer by the executor and delivered
+ * to the consumer on a separate thread, so a slow consumer does not slow
+ * down the execution until the buffer is full.
+ *
+ * @param capacity       The maximum number of buffered events
+ * @param overflowPolicy The behaviour when the buffer is full
+ */
+
+public record TrExecutorEventBuffer(
+  int capacity,
+  TrEventOverflowPolicy overflowPolicy)
+{
+  /**
+   * The configuration of a buffer placed between an executor and its event
+   * consumer.
+   *
+   * @param capacity       The maximum number of buffered events
+   * @param overflowPolicy The behaviour when the buffer is full
+   */
+
+  public TrExecutorEventBuffer
+  {
+    Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Event buffer capacity must be at least 1 (received %d)",
+          Integer.valueOf(capacity)
+        ));
+    }
+  }
+}
@@ -32,4 +32,33 @@ public interface TrExecutorFactoryType
 
   TrExecutorType create(
     TrExecutorConfiguration configuration);
+
+  /**
+   * Compile a revision set against the given arguments, for use with any
+   * number of executors created by this factory. The default
+   * implementation fails with {@link TrErrorCode#OPERATION_UNSUPPORTED}.
+   *
+   * @param revisions The revision set
+   * @param arguments The arguments
+   *
+   * @return A compiled revision set
+   *
+   * @throws TrException If the arguments do not satisfy the parameters of
+   *                     the revision set
+   *
+   * @see TrExecutorConfiguration.Builder#withCompiled(TrCompiledRevisionSetType)
+   */
+
+  default TrCompiledRevisionSetType compile(
+    final TrSchemaRevisionSet revisions,
+    final TrArguments arguments)
+    throws TrException
+  {
+    throw new TrException(
+      String.format(
+        "%s does not support compiled revision sets",
+        this.getClass().getName()),
+      TrErrorCode.OPERATION_UNSUPPORTED
+    );
+  }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A lock that ensures that at most one executor upgrades a given database at
+ * any one time. This is typically used when many instances of an application
+ * start concurrently against the same database: one instance performs the
+ * upgrade, and the others wait for it to finish.
+ *
+ * <p>Implementations are not required to be reentrant.</p>
+ *
+ * @see TrExecutorConfiguration.Builder#withLock(TrExecutorLockType)
+ */
+
+public interface TrExecutorLockType
+{
+  /**
+   * Try to acquire the lock without blocking.
+   *
+   * @param connection The connection used by the executor
+   *
+   * @return {@code true} if the lock was acquired
+   *
+   * @throws SQLException On errors
+   */
+
+  boolean tryAcquire(Connection connection)
+    throws SQLException;
+
+  /**
+   * Release a lock previously acquired with
+   * {@link #tryAcquire(Connection)}.
+   *
+   * @param connection The connection used by the executor
+   *
+   * @throws SQLException On errors
+   */
+
+  void release(Connection connection)
+    throws SQLException;
+
+  /**
+   * Check that a lock previously acquired with
+   * {@link #tryAcquire(Connection)} is still held. The executor calls this
+   * before every commit it performs while holding the lock, and fails
+   * with {@link TrErrorCode#LOCK_LOST} if the lock has been lost. Locks
+   * that cannot be lost while the executor's session is open need not
+   * override the default implementation, which does nothing.
+   *
+   * @param connection The connection used by the executor
+   *
+   * @return {@code true} if the lock is still held
+   *
+   * @throws SQLException On errors
+   */
+
+  default boolean checkHeld(Connection connection)
+    throws SQLException
+  {
+    return true;
+  }
+}
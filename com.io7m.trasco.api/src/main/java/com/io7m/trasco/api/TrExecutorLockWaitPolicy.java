@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The policy that decides how an executor waits for an upgrade lock held by
+ * another executor. The executor retries with exponential backoff, starting
+ * at the initial delay and doubling up to the maximum delay, and re-checks
+ * the schema version after every delay. Waiting stops when the lock is
+ * acquired, when the schema version shows that the upgrade has been
+ * performed elsewhere, or when the timeout elapses.
+ *
+ * @param initialDelay The delay after the first failed attempt
+ * @param maximumDelay The maximum delay between attempts
+ * @param timeout      The maximum total time spent waiting
+ */
+
+public record TrExecutorLockWaitPolicy(
+  Duration initialDelay,
+  Duration maximumDelay,
+  Duration timeout)
+{
+  private static final TrExecutorLockWaitPolicy DEFAULTS =
+    new TrExecutorLockWaitPolicy(
+      Duration.ofMillis(100L),
+      Duration.ofSeconds(5L),
+      Duration.ofMinutes(10L)
+    );
+
+  /**
+   * The policy that decides how an executor waits for an upgrade lock.
+   *
+   * @param initialDelay The delay after the first failed attempt
+   * @param maximumDelay The maximum delay between attempts
+   * @param timeout      The maximum total time spent waiting
+   */
+
+  public TrExecutorLockWaitPolicy
+  {
+    Objects.requireNonNull(initialDelay, "initialDelay");
+    Objects.requireNonNull(maximumDelay, "maximumDelay");
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (initialDelay.isNegative() || initialDelay.isZero()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Initial delay must be positive (received %s)",
+          initialDelay
+        ));
+    }
+
+    if (maximumDelay.compareTo(initialDelay) < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum delay %s must not be less than the initial delay %s",
+          maximumDelay,
+          initialDelay
+        ));
+    }
+
+    if (timeout.isNegative()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Timeout must be non-negative (received %s)",
+          timeout
+        ));
+    }
+  }
+
+  /**
+   * @return The default policy: delays of between 100 milliseconds and
+   * five seconds, for up to ten minutes
+   */
+
+  public static TrExecutorLockWaitPolicy defaults()
+  {
+    return DEFAULTS;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import javax.sql.DataSource;
+import java.util.Objects;
+
+/**
+ * The configuration used to execute parallel statement groups concurrently.
+ * Each statement in a group is executed in autocommit mode on its own
+ * connection obtained from the given data source, and at most
+ * {@code degree} statements are executed at any one time. The executor
+ * waits for every statement in a group to finish before continuing.
+ *
+ * @param dataSource The data source used to open a connection for each
+ *                   statement
+ * @param degree     The maximum number of statements executed concurrently
+ *
+ * @see TrStatementOptions#parallelGroup()
+ */
+
+public record TrExecutorParallelism(
+  DataSource dataSource,
+  int degree)
+{
+  /**
+   * The configuration used to execute parallel statement groups
+   * concurrently.
+   *
+   * @param dataSource The data source used to open a connection for each
+   *                   statement
+   * @param degree     The maximum number of statements executed
+   *                   concurrently
+   */
+
+  public TrExecutorParallelism
+  {
+    Objects.requireNonNull(dataSource, "dataSource");
+
+    if (degree < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Degree of parallelism must be at least 1 (received %d)",
+          Integer.valueOf(degree)
+        ));
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The policy that decides how an executor retries transactional revisions
+ * that fail with transient errors, such as deadlocks and serialization
+ * failures caused by concurrent traffic. The delay between attempts starts
+ * at the initial delay and doubles up to the maximum delay, and a random
+ * amount of up to half of each delay is subtracted so that competing
+ * clients do not retry in lockstep.
+ *
+ * <p>How a failure is retried depends on its SQLState:</p>
+ *
+ * <ul>
+ *   <li>Serialization failures ({@code 40001}) are retried by rolling back
+ *   the entire transaction and applying every revision since the last
+ *   commit again. Retrying within the transaction would be pointless, as
+ *   the transaction's snapshot would cause the same conflict. This is only
+ *   possible if the executor controls commits (see
+ *   {@link TrExecutorCommitEveryRevisions}); with
+ *   {@link TrExecutorCommitByCaller}, serialization failures are not retried
+ *   and the caller should retry the entire execution.</li>
+ *   <li>All other given SQLStates (such as deadlocks and lock timeouts) are
+ *   retried by rolling back to a savepoint taken before the failed revision,
+ *   and trying that revision again. If the database cannot roll back to
+ *   the savepoint, the revision is not retried.</li>
+ * </ul>
+ *
+ * <p>The maximum number of attempts applies to each revision, and attempts
+ * made in rolled back transactions count towards it. Non-transactional
+ * revisions are never retried, as their effects cannot be rolled back.</p>
+ *
+ * @param maximumAttempts The maximum number of attempts made for each
+ *                        revision ({@code 1} disables retries)
+ * @param initialDelay    The delay after the first failed attempt
+ * @param maximumDelay    The maximum delay between attempts
+ * @param sqlStates       The SQLStates that indicate retryable failures
+ *
+ * @see TrEventRevisionAttempted
+ */
+
+public record TrExecutorRetryPolicy(
+  int maximumAttempts,
+  Duration initialDelay,
+  Duration maximumDelay,
+  Set<String> sqlStates)
+{
+  /**
+   * The standard SQLStates for serialization failures ({@code 40001}) and
+   * PostgreSQL's deadlock detection ({@code 40P01}).
+   */
+
+  public static final Set<String> SQL_STATES_DEFAULT =
+    Set.of("40001", "40P01");
+
+  private static final TrExecutorRetryPolicy NONE =
+    new TrExecutorRetryPolicy(
+      1,
+      Duration.ofMillis(100L),
+      Duration.ofMillis(100L),
+      Set.of()
+    );
+
+  /**
+   * The policy that decides how an executor retries transactional revisions
+   * that fail with transient errors.
+   *
+   * @param maximumAttempts The maximum number of attempts made for each
+   *                        revision
+   * @param initialDelay    The delay after the first failed attempt
+   * @param maximumDelay    The maximum delay between attempts
+   * @param sqlStates       The SQLStates that indicate retryable failures
+   */
+
+  public TrExecutorRetryPolicy
+  {
+    Objects.requireNonNull(initialDelay, "initialDelay");
+    Objects.requireNonNull(maximumDelay, "maximumDelay");
+    sqlStates = Set.copyOf(sqlStates);
+
+    if (maximumAttempts < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum attempts must be at least 1 (received %d)",
+          Integer.valueOf(maximumAttempts)
+        ));
+    }
+
+    if (initialDelay.isNegative() || initialDelay.isZero()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Initial delay must be positive (received %s)",
+          initialDelay
+        ));
+    }
+
+    if (maximumDelay.compareTo(initialDelay) < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum delay %s must not be less than the initial delay %s",
+          maximumDelay,
+          initialDelay
+        ));
+    }
+  }
+
+  /**
+   * A policy that retries failures with the default SQLStates.
+   *
+   * @param maximumAttempts The maximum number of attempts made for each
+   *                        revision
+   * @param initialDelay    The delay after the first failed attempt
+   * @param maximumDelay    The maximum delay between attempts
+   *
+   * @return A retry policy
+   *
+   * @see #SQL_STATES_DEFAULT
+   */
+
+  public static TrExecutorRetryPolicy of(
+    final int maximumAttempts,
+    final Duration initialDelay,
+    final Duration maximumDelay)
+  {
+    return new TrExecutorRetryPolicy(
+      maximumAttempts,
+      initialDelay,
+      maximumDelay,
+      SQL_STATES_DEFAULT
+    );
+  }
+
+  /**
+   * @return A policy that never retries
+   */
+
+  public static TrExecutorRetryPolicy none()
+  {
+    return NONE;
+  }
+
+  /**
+   * @return {@code true} if this policy permits retries
+   */
+
+  public boolean isEnabled()
+  {
+    return this.maximumAttempts > 1;
+  }
+
+  /**
+   * @param sqlState The SQLState of a failure (possibly {@code null})
+   *
+   * @return {@code true} if the failure is retryable
+   */
+
+  public boolean isRetryable(
+    final String sqlState)
+  {
+    return sqlState != null && this.sqlStates.contains(sqlState);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The default timeouts applied to every statement that does not declare its
+ * own.
+ *
+ * <p>A statement that runs for longer than the query timeout is cancelled,
+ * and the executor fails with {@link TrErrorCode#STATEMENT_TIMED_OUT}. The
+ * timeout is given to the JDBC driver, and is additionally enforced by a
+ * watchdog that cancels the statement from another thread, for drivers that
+ * do not honour query timeouts in every situation.</p>
+ *
+ * <p>The lock timeout limits the time a statement may wait to acquire locks.
+ * Lock timeouts are database-specific, and are only applied if the executor
+ * is configured with (or detects) a {@link TrDialectType}.</p>
+ *
+ * @param queryTimeout The maximum time a statement may run, if any
+ * @param lockTimeout  The maximum time a statement may wait for locks, if
+ *                     any
+ *
+ * @see TrStatementOptions
+ */
+
+public record TrExecutorTimeouts(
+  Optional<Duration> queryTimeout,
+  Optional<Duration> lockTimeout)
+{
+  private static final TrExecutorTimeouts NONE =
+    new TrExecutorTimeouts(Optional.empty(), Optional.empty());
+
+  /**
+   * The default timeouts applied to every statement that does not declare
+   * its own.
+   *
+   * @param queryTimeout The maximum time a statement may run, if any
+   * @param lockTimeout  The maximum time a statement may wait for locks, if
+   *                     any
+   */
+
+  public TrExecutorTimeouts
+  {
+    checkTimeout("Query", queryTimeout);
+    checkTimeout("Lock", lockTimeout);
+  }
+
+  static void checkTimeout(
+    final String name,
+    final Optional<Duration> timeout)
+  {
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (timeout.isPresent()) {
+      final var value = timeout.get();
+      if (value.isNegative() || value.isZero()) {
+        throw new IllegalArgumentException(
+          String.format(
+            "%s timeout must be positive (received %s)",
+            name,
+            value
+          ));
+      }
+    }
+  }
+
+  /**
+   * @return Timeouts that do not limit statements at all
+   */
+
+  public static TrExecutorTimeouts none()
+  {
+    return NONE;
+  }
+}
@@ -17,6 +17,9 @@
 
 package com.io7m.trasco.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * The type of executors.
  */
@@ -31,4 +34,98 @@ public interface TrExecutorType
 
   void execute()
     throws TrException;
+
+  /**
+   * Compute the upgrade path without executing any statements. Only the
+   * schema version is retrieved from the database, and the arguments are
+   * checked against the parameters of the revision set. The default
+   * implementation fails with {@link TrErrorCode#OPERATION_UNSUPPORTED}.
+   *
+   * @return An execution plan
+   *
+   * @throws TrException On errors
+   */
+
+  default TrExecutionPlan plan()
+    throws TrException
+  {
+    throw new TrException(
+      String.format(
+        "%s does not support execution plans", this.getClass().getName()),
+      TrErrorCode.OPERATION_UNSUPPORTED
+    );
+  }
+
+  /**
+   * Execute a plan previously returned by {@link #plan()} on this executor.
+   * The upgrade path and argument checks are not computed again, but the
+   * schema version is retrieved again and the plan is rejected with
+   * {@link TrErrorCode#PLAN_OUTDATED} if the database is no longer at the
+   * version the plan was computed against. The default implementation
+   * fails with {@link TrErrorCode#OPERATION_UNSUPPORTED}.
+   *
+   * @param plan The plan
+   *
+   * @throws TrException On errors
+   */
+
+  default void execute(
+    final TrExecutionPlan plan)
+    throws TrException
+  {
+    throw new TrException(
+      String.format(
+        "%s does not support execution plans", this.getClass().getName()),
+      TrErrorCode.OPERATION_UNSUPPORTED
+    );
+  }
+
+  /**
+   * Execute the operation asynchronously on the given executor. The
+   * returned future completes with the summary of the execution, or
+   * exceptionally with a {@link TrException} on errors.
+   *
+   * <p>Cancelling the returned future cancels any statement that is
+   * currently executing (using {@link java.sql.Statement#cancel()}) and
+   * prevents any further statements from being executed. The execution
+   * then fails as it would for any other database error, and the caller
+   * remains responsible for rolling back the connection.</p>
+   *
+   * <p>The default implementation returns a future that has failed with
+   * {@link TrErrorCode#OPERATION_UNSUPPORTED}.</p>
+   *
+   * @param executor The executor on which the operation runs
+   *
+   * @return The execution in progress
+   */
+
+  default CompletableFuture<TrEventExecutionSummary> executeAsync(
+    final Executor executor)
+  {
+    return CompletableFuture.failedFuture(
+      new TrException(
+        String.format(
+          "%s does not support asynchronous execution",
+          this.getClass().getName()),
+        TrErrorCode.OPERATION_UNSUPPORTED
+      )
+    );
+  }
+
+  /**
+   * Execute the operation asynchronously on a new virtual thread.
+   *
+   * @return The execution in progress
+   *
+   * @see #executeAsync(Executor)
+   */
+
+  default CompletableFuture<TrEventExecutionSummary> executeAsync()
+  {
+    return this.executeAsync(
+      task -> Thread.ofVirtual()
+        .name("com.io7m.trasco.executor")
+        .start(task)
+    );
+  }
 }
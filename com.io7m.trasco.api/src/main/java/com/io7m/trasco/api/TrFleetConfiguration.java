@@ -0,0 +1,340 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The configuration information required for a fleet executor. A fleet
+ * executor applies a single set of revisions to many databases
+ * concurrently. The revision set is parsed once, and the arguments are
+ * checked once, before any target is upgraded.
+ *
+ * <p>Each target is upgraded on its own connection, and the fleet executor
+ * commits the work performed on a target when that target succeeds, and
+ * rolls back the work when it fails. The given commit policy additionally
+ * applies within each target.</p>
+ *
+ * @param versionGet         A function that will be executed to retrieve a
+ *                           schema version number
+ * @param versionSet         A function that will be executed to set the
+ *                           schema version number
+ * @param events             A function that will receive progress events
+ *                           from every target (the function will be called
+ *                           from multiple threads concurrently)
+ * @param revisions          The set of known database schema revisions
+ * @param upgrade            The desired upgrade behaviour
+ * @param arguments          The arguments provided to any required
+ *                           parameters
+ * @param targets            The target databases
+ * @param concurrency        The maximum number of targets that will be
+ *                           upgraded concurrently
+ * @param failurePolicy      The behaviour when a target fails
+ * @param statementBatchSize The statement batch size used for each target
+ * @param commitPolicy       The commit policy used for each target
+ * @param targetOptions      A function that sets any further options on the
+ *                           executor configuration of each target
+ */
+
+public record TrFleetConfiguration(
+  TrExecutorVersionRetrieverType versionGet,
+  TrExecutorVersionUpdaterType versionSet,
+  Consumer<TrFleetEvent> events,
+  TrSchemaRevisionSet revisions,
+  TrExecutorUpgrade upgrade,
+  TrArguments arguments,
+  List<TrFleetTarget> targets,
+  int concurrency,
+  TrFleetFailurePolicy failurePolicy,
+  int statementBatchSize,
+  TrExecutorCommitPolicyType commitPolicy,
+  BiConsumer<TrFleetTarget, TrExecutorConfiguration.Builder> targetOptions)
+{
+  /**
+   * The default maximum number of targets upgraded concurrently.
+   */
+
+  public static final int DEFAULT_CONCURRENCY = 16;
+
+  /**
+   * The configuration information required for a fleet executor.
+   *
+   * @param versionGet         A function that will be executed to retrieve
+   *                           a schema version number
+   * @param versionSet         A function that will be executed to set the
+   *                           schema version number
+   * @param events             A function that will receive progress events
+   *                           from every target
+   * @param revisions          The set of known database schema revisions
+   * @param upgrade            The desired upgrade behaviour
+   * @param arguments          The arguments provided to any required
+   *                           parameters
+   * @param targets            The target databases
+   * @param concurrency        The maximum number of targets that will be
+   *                           upgraded concurrently
+   * @param failurePolicy      The behaviour when a target fails
+   * @param statementBatchSize The statement batch size used for each target
+   * @param commitPolicy       The commit policy used for each target
+   * @param targetOptions      A function that sets any further options on
+   *                           the executor configuration of each target
+   */
+
+  public TrFleetConfiguration
+  {
+    Objects.requireNonNull(versionGet, "versionGet");
+    Objects.requireNonNull(versionSet, "versionSet");
+    Objects.requireNonNull(events, "events");
+    Objects.requireNonNull(revisions, "revisions");
+    Objects.requireNonNull(upgrade, "upgrade");
+    Objects.requireNonNull(arguments, "arguments");
+    Objects.requireNonNull(failurePolicy, "failurePolicy");
+    Objects.requireNonNull(commitPolicy, "commitPolicy");
+    Objects.requireNonNull(targetOptions, "targetOptions");
+
+    targets = List.copyOf(targets);
+
+    if (concurrency < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Concurrency must be at least 1 (received %d)",
+          Integer.valueOf(concurrency)
+        ));
+    }
+
+    if (statementBatchSize < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Statement batch size must be at least 1 (received %d)",
+          Integer.valueOf(statementBatchSize)
+        ));
+    }
+
+    final var names = new HashSet<String>(targets.size());
+    for (final var target : targets) {
+      if (!names.add(target.name())) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Target names must be unique (received %s more than once)",
+            target.name()
+          ));
+      }
+    }
+  }
+
+  /**
+   * Create a configuration builder. The builder is initialized with the
+   * required values, and all optional behaviour is set to the defaults.
+   *
+   * @param inVersionGet A function that will be executed to retrieve a schema
+   *                     version number
+   * @param inVersionSet A function that will be executed to set the schema
+   *                     version number
+   * @param inEvents     A function that will receive progress events
+   * @param inRevisions  The set of known database schema revisions
+   * @param inUpgrade    The desired upgrade behaviour
+   * @param inArguments  The arguments provided to any required parameters
+   * @param inTargets    The target databases
+   *
+   * @return A configuration builder
+   */
+
+  public static Builder builder(
+    final TrExecutorVersionRetrieverType inVersionGet,
+    final TrExecutorVersionUpdaterType inVersionSet,
+    final Consumer<TrFleetEvent> inEvents,
+    final TrSchemaRevisionSet inRevisions,
+    final TrExecutorUpgrade inUpgrade,
+    final TrArguments inArguments,
+    final List<TrFleetTarget> inTargets)
+  {
+    return new Builder(
+      inVersionGet,
+      inVersionSet,
+      inEvents,
+      inRevisions,
+      inUpgrade,
+      inArguments,
+      inTargets
+    );
+  }
+
+  /**
+   * A mutable builder for fleet configurations.
+   */
+
+  public static final class Builder
+  {
+    private final TrExecutorVersionRetrieverType versionGet;
+    private final TrExecutorVersionUpdaterType versionSet;
+    private final Consumer<TrFleetEvent> events;
+    private final TrSchemaRevisionSet revisions;
+    private final TrExecutorUpgrade upgrade;
+    private final TrArguments arguments;
+    private final List<TrFleetTarget> targets;
+    private int concurrency;
+    private TrFleetFailurePolicy failurePolicy;
+    private int statementBatchSize;
+    private TrExecutorCommitPolicyType commitPolicy;
+    private BiConsumer<TrFleetTarget, TrExecutorConfiguration.Builder> targetOptions;
+
+    private Builder(
+      final TrExecutorVersionRetrieverType inVersionGet,
+      final TrExecutorVersionUpdaterType inVersionSet,
+      final Consumer<TrFleetEvent> inEvents,
+      final TrSchemaRevisionSet inRevisions,
+      final TrExecutorUpgrade inUpgrade,
+      final TrArguments inArguments,
+      final List<TrFleetTarget> inTargets)
+    {
+      this.versionGet =
+        Objects.requireNonNull(inVersionGet, "versionGet");
+      this.versionSet =
+        Objects.requireNonNull(inVersionSet, "versionSet");
+      this.events =
+        Objects.requireNonNull(inEvents, "events");
+      this.revisions =
+        Objects.requireNonNull(inRevisions, "revisions");
+      this.upgrade =
+        Objects.requireNonNull(inUpgrade, "upgrade");
+      this.arguments =
+        Objects.requireNonNull(inArguments, "arguments");
+      this.targets =
+        Objects.requireNonNull(inTargets, "targets");
+      this.concurrency = DEFAULT_CONCURRENCY;
+      this.failurePolicy = TrFleetFailurePolicy.CONTINUE_ON_ERROR;
+      this.statementBatchSize = 1;
+      this.commitPolicy = new TrExecutorCommitByCaller();
+      this.targetOptions = (target, builder) -> {
+
+      };
+    }
+
+    /**
+     * Set the maximum number of targets that will be upgraded concurrently.
+     * The default is {@link #DEFAULT_CONCURRENCY}.
+     *
+     * @param limit The concurrency limit
+     *
+     * @return this
+     */
+
+    public Builder withConcurrency(
+      final int limit)
+    {
+      this.concurrency = limit;
+      return this;
+    }
+
+    /**
+     * Set the behaviour when a target fails. The default is
+     * {@link TrFleetFailurePolicy#CONTINUE_ON_ERROR}.
+     *
+     * @param policy The failure policy
+     *
+     * @return this
+     */
+
+    public Builder withFailurePolicy(
+      final TrFleetFailurePolicy policy)
+    {
+      this.failurePolicy = Objects.requireNonNull(policy, "policy");
+      return this;
+    }
+
+    /**
+     * Set the statement batch size used for each target.
+     *
+     * @param size The batch size
+     *
+     * @return this
+     *
+     * @see TrExecutorConfiguration.Builder#withStatementBatchSize(int)
+     */
+
+    public Builder withStatementBatchSize(
+      final int size)
+    {
+      this.statementBatchSize = size;
+      return this;
+    }
+
+    /**
+     * Set the commit policy used for each target.
+     *
+     * @param policy The commit policy
+     *
+     * @return this
+     *
+     * @see TrExecutorConfiguration.Builder#withCommitPolicy(TrExecutorCommitPolicyType)
+     */
+
+    public Builder withCommitPolicy(
+      final TrExecutorCommitPolicyType policy)
+    {
+      this.commitPolicy = Objects.requireNonNull(policy, "policy");
+      return this;
+    }
+
+    /**
+     * Set a function that sets any further options on the executor
+     * configuration of each target, such as the retry policy, lock,
+     * timeouts, dialect, event interest, or event buffer. The function is
+     * called once per target, on the thread that upgrades the target, with
+     * a builder on which the statement batch size and commit policy have
+     * already been set. The fleet executor always supplies its own event
+     * consumer and compiled revision set, and so those cannot be changed.
+     * By default, no further options are set.
+     *
+     * @param options The function
+     *
+     * @return this
+     */
+
+    public Builder withTargetOptions(
+      final BiConsumer<TrFleetTarget, TrExecutorConfiguration.Builder> options)
+    {
+      this.targetOptions = Objects.requireNonNull(options, "options");
+      return this;
+    }
+
+    /**
+     * @return A configuration based on all the values given so far
+     */
+
+    public TrFleetConfiguration build()
+    {
+      return new TrFleetConfiguration(
+        this.versionGet,
+        this.versionSet,
+        this.events,
+        this.revisions,
+        this.upgrade,
+        this.arguments,
+        this.targets,
+        this.concurrency,
+        this.failurePolicy,
+        this.statementBatchSize,
+        this.commitPolicy,
+        this.targetOptions
+      );
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The results of upgrading a fleet of databases.
+ *
+ * @param results The result for each target, in the order that the targets
+ *                were given in the configuration
+ */
+
+public record TrFleetResult(
+  List<TrFleetTargetResultType> results)
+{
+  /**
+   * The results of upgrading a fleet of databases.
+   *
+   * @param results The result for each target, in the order that the
+   *                targets were given in the configuration
+   */
+
+  public TrFleetResult
+  {
+    results = List.copyOf(results);
+  }
+
+  /**
+   * @return The targets that failed
+   */
+
+  public List<TrFleetTargetFailed> failures()
+  {
+    return this.results.stream()
+      .filter(r -> r instanceof TrFleetTargetFailed)
+      .map(TrFleetTargetFailed.class::cast)
+      .toList();
+  }
+
+  /**
+   * @return {@code true} if every target was upgraded successfully
+   */
+
+  public boolean isSuccessful()
+  {
+    return this.results.stream()
+      .allMatch(r -> r instanceof TrFleetTargetSucceeded);
+  }
+
+  /**
+   * @param target The name of the target
+   *
+   * @return The result for the given target, if the target exists
+   */
+
+  public Optional<TrFleetTargetResultType> resultFor(
+    final String target)
+  {
+    Objects.requireNonNull(target, "target");
+    return this.results.stream()
+      .filter(r -> Objects.equals(r.target(), target))
+      .findFirst();
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The upgrade of the target failed, and any uncommitted work was rolled
+ * back.
+ *
+ * @param target    The name of the target
+ * @param exception The exception raised by the upgrade
+ * @param duration  The time spent on the target before it failed
+ */
+
+public record TrFleetTargetFailed(
+  String target,
+  TrException exception,
+  Duration duration)
+  implements TrFleetTargetResultType
+{
+  /**
+   * The upgrade of the target failed, and any uncommitted work was rolled
+   * back.
+   *
+   * @param target    The name of the target
+   * @param exception The exception raised by the upgrade
+   * @param duration  The time spent on the target before it failed
+   */
+
+  public TrFleetTargetFailed
+  {
+    Objects.requireNonNull(target, "target");
+    Objects.requireNonNull(exception, "exception");
+    Objects.requireNonNull(duration, "duration");
+  }
+}
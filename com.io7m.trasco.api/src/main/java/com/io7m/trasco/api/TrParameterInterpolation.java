@@ -31,8 +31,11 @@ public enum TrParameterInterpolation
   PREPARED_STATEMENT,
 
   /**
-   * Manual variable interpolation is performed using String.format(),
-   * and the resulting string constant is passed to JDBC.
+   * Manual variable interpolation is performed by substituting SQL literals
+   * for {@code %s} (sequential) and {@code %n$s} (explicit) placeholders,
+   * and the resulting string constant is passed to JDBC. String arguments
+   * are quoted with embedded quotes doubled, and {@code %%} produces a
+   * literal {@code %}.
    */
 
   STRING_FORMATTING
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A baseline: a consolidated set of statements that produces, in a single
+ * step, a schema equivalent to that produced by applying every revision up
+ * to and including {@code version}. Executors apply the baseline to empty
+ * databases instead of replaying the full revision history, and then
+ * continue with the revisions above {@code version}. Databases that already
+ * have a schema version are always upgraded incrementally.
+ *
+ * @param version    The version that the baseline is equivalent to
+ * @param statements The SQL statements that produce the schema
+ */
+
+public record TrSchemaBaseline(
+  BigInteger version,
+  List<TrStatementType> statements)
+{
+  /**
+   * A baseline.
+   *
+   * @param version    The version that the baseline is equivalent to
+   * @param statements The SQL statements that produce the schema
+   */
+
+  public TrSchemaBaseline
+  {
+    Objects.requireNonNull(version, "version");
+    statements = List.copyOf(statements);
+
+    TrSchemaRevision.checkTransactionalUniform("Baseline", version, statements);
+  }
+}
@@ -23,14 +23,29 @@ import java.util.Objects;
 /**
  * A database schema revision.
  *
+ * <p>The statements of a revision must either all be transactional, or all
+ * be non-transactional. A non-transactional revision is executed in
+ * autocommit mode after committing any preceding work, and its version is
+ * recorded immediately afterwards. If the process fails between executing
+ * the statements and recording the version, the revision is executed again
+ * on the next upgrade, and so non-transactional statements should be
+ * written to be idempotent (for example, using {@code IF NOT EXISTS}).</p>
+ *
  * @param version    The version
  * @param statements The SQL statements used to upgrade the previous version to
  *                   this version
+ * @param elided     {@code true} if the statements of the revision were not
+ *                   read by the parser (in which case {@code statements} is
+ *                   empty and the revision cannot be applied)
+ *
+ * @see TrStatementOptions
+ * @see TrSchemaRevisionSetParserOptions
  */
 
 public record TrSchemaRevision(
   BigInteger version,
-  List<TrStatementType> statements)
+  List<TrStatementType> statements,
+  boolean elided)
   implements Comparable<TrSchemaRevision>
 {
   /**
@@ -39,12 +54,86 @@ public record TrSchemaRevision(
    * @param version    The version
    * @param statements The SQL statements used to upgrade the previous version
    *                   to this version
+   * @param elided     {@code true} if the statements of the revision were not
+   *                   read by the parser (in which case {@code statements} is
+   *                   empty and the revision cannot be applied)
    */
 
   public TrSchemaRevision
   {
     Objects.requireNonNull(version, "version");
     Objects.requireNonNull(statements, "statements");
+
+    if (elided && !statements.isEmpty()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Elided revision %s cannot have statements",
+          version
+        ));
+    }
+
+    checkTransactionalUniform("Revision", version, statements);
+  }
+
+  static void checkTransactionalUniform(
+    final String kind,
+    final BigInteger version,
+    final List<TrStatementType> statements)
+  {
+    final var transactional =
+      statements.stream()
+        .filter(s -> s.options().transactional())
+        .count();
+
+    if (transactional != 0L && transactional != statements.size()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "%s %s mixes transactional and non-transactional statements",
+          kind,
+          version
+        ));
+    }
+  }
+
+  /**
+   * @return {@code true} if the statements of this revision are executed
+   * inside a transaction
+   */
+
+  public boolean isTransactional()
+  {
+    return this.statements.stream()
+      .allMatch(s -> s.options().transactional());
+  }
+
+  /**
+   * A database schema revision.
+   *
+   * @param inVersion    The version
+   * @param inStatements The SQL statements used to upgrade the previous
+   *                     version to this version
+   */
+
+  public TrSchemaRevision(
+    final BigInteger inVersion,
+    final List<TrStatementType> inStatements)
+  {
+    this(inVersion, inStatements, false);
+  }
+
+  /**
+   * An elided database schema revision. The revision records only the
+   * version number; the statements were skipped by the parser.
+   *
+   * @param inVersion The version
+   *
+   * @return An elided revision
+   */
+
+  public static TrSchemaRevision elidedRevision(
+    final BigInteger inVersion)
+  {
+    return new TrSchemaRevision(inVersion, List.of(), true);
   }
 
   @Override
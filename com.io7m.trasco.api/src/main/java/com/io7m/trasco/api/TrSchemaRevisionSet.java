@@ -20,29 +20,34 @@ import java.math.BigInteger;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A set of schema revisions.
  *
  * @param parameters The parameters
  * @param revisions  The revisions
+ * @param baseline   The baseline, if any
  */
 
 public record TrSchemaRevisionSet(
   Map<String, TrParameter> parameters,
-  NavigableMap<BigInteger, TrSchemaRevision> revisions)
+  NavigableMap<BigInteger, TrSchemaRevision> revisions,
+  Optional<TrSchemaBaseline> baseline)
 {
   /**
    * A set of schema revisions.
    *
    * @param parameters The parameters
    * @param revisions  The revisions
+   * @param baseline   The baseline, if any
    */
 
   public TrSchemaRevisionSet
   {
     Objects.requireNonNull(parameters, "parameters");
     Objects.requireNonNull(revisions, "revisions");
+    Objects.requireNonNull(baseline, "baseline");
 
     if (revisions.size() >= 2) {
       BigInteger previous = null;
@@ -79,5 +84,54 @@ public record TrSchemaRevisionSet(
         }
       }
     }
+
+    if (baseline.isPresent()) {
+      checkBaseline(parameters, revisions, baseline.get());
+    }
+  }
+
+  /**
+   * A set of schema revisions with no baseline.
+   *
+   * @param inParameters The parameters
+   * @param inRevisions  The revisions
+   */
+
+  public TrSchemaRevisionSet(
+    final Map<String, TrParameter> inParameters,
+    final NavigableMap<BigInteger, TrSchemaRevision> inRevisions)
+  {
+    this(inParameters, inRevisions, Optional.empty());
+  }
+
+  private static void checkBaseline(
+    final Map<String, TrParameter> parameters,
+    final NavigableMap<BigInteger, TrSchemaRevision> revisions,
+    final TrSchemaBaseline baseline)
+  {
+    if (!revisions.containsKey(baseline.version())) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Baseline version %s does not refer to a known revision",
+          baseline.version()
+        ));
+    }
+
+    for (final var statement : baseline.statements()) {
+      if (statement instanceof final TrStatementParameterized parameterized) {
+        final var values =
+          parameterized.references().byName().values();
+        for (final var parameter : values) {
+          if (!parameters.containsKey(parameter.name())) {
+            throw new IllegalArgumentException(
+              String.format(
+                "Baseline %s specifies a reference to a nonexistent parameter %s",
+                baseline.version(),
+                parameter
+              ));
+          }
+        }
+      }
+    }
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Options that control the parsing of revision sets. An instance of this
+ * type may be passed as the {@code context} parameter of
+ * {@link TrSchemaRevisionSetParserFactoryType#createParserWithContext}.
+ *
+ * <p>If {@code elideUpTo} is present, the parser reads only the version
+ * numbers of revisions with versions less than or equal to the given
+ * version, and does not materialize their statements. Typically, the given
+ * version is the version returned by a {@link TrExecutorVersionRetrieverType}
+ * for the target database: the revisions up to and including that version
+ * have already been applied, and will never be executed again. The
+ * resulting {@link TrSchemaRevision} values are marked as elided, and an
+ * executor will refuse to apply them.</p>
+ *
+ * @param elideUpTo The version up to which (inclusive) statements are elided
+ */
+
+public record TrSchemaRevisionSetParserOptions(
+  Optional<BigInteger> elideUpTo)
+{
+  private static final TrSchemaRevisionSetParserOptions DEFAULTS =
+    new TrSchemaRevisionSetParserOptions(Optional.empty());
+
+  /**
+   * Options that control the parsing of revision sets.
+   *
+   * @param elideUpTo The version up to which (inclusive) statements are
+   *                  elided
+   */
+
+  public TrSchemaRevisionSetParserOptions
+  {
+    Objects.requireNonNull(elideUpTo, "elideUpTo");
+  }
+
+  /**
+   * @return The default options (nothing is elided)
+   */
+
+  public static TrSchemaRevisionSetParserOptions defaults()
+  {
+    return DEFAULTS;
+  }
+
+  /**
+   * @param version The version up to which (inclusive) statements are elided
+   *
+   * @return Options that elide statements up to the given version
+   */
+
+  public static TrSchemaRevisionSetParserOptions elidingUpTo(
+    final BigInteger version)
+  {
+    return new TrSchemaRevisionSetParserOptions(Optional.of(version));
+  }
+
+  /**
+   * Obtain options from a parser context value. Values that are not
+   * options (including {@code null}) yield the default options.
+   *
+   * @param context The context value
+   *
+   * @return The options
+   */
+
+  public static TrSchemaRevisionSetParserOptions fromContext(
+    final Object context)
+  {
+    if (context instanceof final TrSchemaRevisionSetParserOptions options) {
+      return options;
+    }
+    return DEFAULTS;
+  }
+
+  /**
+   * @param version The revision version
+   *
+   * @return {@code true} if statements of the given revision should be elided
+   */
+
+  public boolean isElided(
+    final BigInteger version)
+  {
+    Objects.requireNonNull(version, "version");
+    return this.elideUpTo
+      .map(upTo -> Boolean.valueOf(version.compareTo(upTo) <= 0))
+      .orElse(Boolean.FALSE)
+      .booleanValue();
+  }
+}
@@ -22,20 +22,37 @@ import java.util.Objects;
 /**
  * A statement with no parameters.
  *
- * @param text The text
+ * @param text    The text
+ * @param options The statement options
  */
 
-public record TrStatement(String text)
+public record TrStatement(
+  String text,
+  TrStatementOptions options)
   implements TrStatementType
 {
   /**
    * A statement with no parameters.
    *
-   * @param text The text
+   * @param text    The text
+   * @param options The statement options
    */
 
   public TrStatement
   {
     Objects.requireNonNull(text, "text");
+    Objects.requireNonNull(options, "options");
+  }
+
+  /**
+   * A statement with no parameters and default options.
+   *
+   * @param inText The text
+   */
+
+  public TrStatement(
+    final String inText)
+  {
+    this(inText, TrStatementOptions.defaults());
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A data backfill statement. The statement is a bounded {@code UPDATE} or
+ * {@code INSERT ... SELECT} that processes at most {@code chunkSize} rows;
+ * the chunk size is supplied as the statement's only {@code ?} parameter,
+ * and so the text must contain exactly one {@code ?} character.
+ * The statement is executed repeatedly, committing after each execution,
+ * until it reports an update count of zero.
+ *
+ * <p>Backfills are always non-transactional. A backfill that is interrupted
+ * is executed again from the beginning on the next upgrade, and so the
+ * statement must only select rows that have not yet been processed (for
+ * example, {@code WHERE new_column IS NULL}).</p>
+ *
+ * @param text      The text
+ * @param chunkSize The maximum number of rows processed by each execution
+ * @param throttle  The delay between consecutive executions
+ * @param options   The statement options
+ */
+
+public record TrStatementBackfill(
+  String text,
+  int chunkSize,
+  Duration throttle,
+  TrStatementOptions options)
+  implements TrStatementType
+{
+  /**
+   * A data backfill statement.
+   *
+   * @param text      The text
+   * @param chunkSize The maximum number of rows processed by each execution
+   * @param throttle  The delay between consecutive executions
+   * @param options   The statement options
+   */
+
+  public TrStatementBackfill
+  {
+    Objects.requireNonNull(text, "text");
+    Objects.requireNonNull(throttle, "throttle");
+    Objects.requireNonNull(options, "options");
+
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Backfill chunk size must be at least 1 (received %d)",
+          Integer.valueOf(chunkSize)
+        ));
+    }
+    final var placeholders =
+      text.chars().filter(c -> c == '?').count();
+    if (placeholders != 1L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Backfill statements must contain exactly one '?' placeholder (received %d)",
+          Long.valueOf(placeholders)
+        ));
+    }
+    if (throttle.isNegative()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Backfill throttle must be non-negative (received %s)",
+          throttle
+        ));
+    }
+    if (options.transactional()) {
+      throw new IllegalArgumentException(
+        "Backfill statements cannot be transactional"
+      );
+    }
+  }
+
+  /**
+   * A data backfill statement that is not in a parallel group.
+   *
+   * @param inText      The text
+   * @param inChunkSize The maximum number of rows processed by each execution
+   * @param inThrottle  The delay between consecutive executions
+   */
+
+  public TrStatementBackfill(
+    final String inText,
+    final int inChunkSize,
+    final Duration inThrottle)
+  {
+    this(inText, inChunkSize, inThrottle, new TrStatementOptions(false));
+  }
+}
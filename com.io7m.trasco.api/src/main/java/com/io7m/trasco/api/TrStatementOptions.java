@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Options that control how a statement is executed.
+ *
+ * @param transactional {@code true} if the statement runs inside the
+ *                      transaction used for the revision, {@code false} if
+ *                      the statement must run outside of any transaction
+ *                      (such as PostgreSQL's
+ *                      {@code CREATE INDEX CONCURRENTLY})
+ * @param parallelGroup The parallel group to which the statement belongs,
+ *                      if any. Consecutive statements in a revision with the
+ *                      same group may be executed concurrently, and are
+ *                      always non-transactional.
+ * @param queryTimeout  The maximum time the statement may run before it is
+ *                      cancelled, overriding the executor default
+ * @param lockTimeout   The maximum time the statement may wait for locks,
+ *                      overriding the executor default
+ *
+ * @see TrExecutorParallelism
+ * @see TrExecutorTimeouts
+ */
+
+public record TrStatementOptions(
+  boolean transactional,
+  OptionalInt parallelGroup,
+  Optional<Duration> queryTimeout,
+  Optional<Duration> lockTimeout)
+{
+  private static final TrStatementOptions DEFAULTS =
+    new TrStatementOptions(true);
+
+  /**
+   * Options that control how a statement is executed.
+   *
+   * @param transactional {@code true} if the statement runs inside the
+   *                      transaction used for the revision
+   * @param parallelGroup The parallel group to which the statement belongs,
+   *                      if any
+   * @param queryTimeout  The maximum time the statement may run before it
+   *                      is cancelled, overriding the executor default
+   * @param lockTimeout   The maximum time the statement may wait for locks,
+   *                      overriding the executor default
+   */
+
+  public TrStatementOptions
+  {
+    Objects.requireNonNull(parallelGroup, "parallelGroup");
+    TrExecutorTimeouts.checkTimeout("Query", queryTimeout);
+    TrExecutorTimeouts.checkTimeout("Lock", lockTimeout);
+
+    if (parallelGroup.isPresent() && transactional) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Statements in parallel group %d cannot be transactional",
+          Integer.valueOf(parallelGroup.getAsInt())
+        ));
+    }
+  }
+
+  /**
+   * Options for a statement that uses the executor default timeouts.
+   *
+   * @param inTransactional {@code true} if the statement runs inside the
+   *                        transaction used for the revision
+   * @param inParallelGroup The parallel group to which the statement
+   *                        belongs, if any
+   */
+
+  public TrStatementOptions(
+    final boolean inTransactional,
+    final OptionalInt inParallelGroup)
+  {
+    this(
+      inTransactional,
+      inParallelGroup,
+      Optional.empty(),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Options for a statement that is not in a parallel group.
+   *
+   * @param inTransactional {@code true} if the statement runs inside the
+   *                        transaction used for the revision
+   */
+
+  public TrStatementOptions(
+    final boolean inTransactional)
+  {
+    this(inTransactional, OptionalInt.empty());
+  }
+
+  /**
+   * @param group The parallel group
+   *
+   * @return Non-transactional options for a statement in the given group
+   */
+
+  public static TrStatementOptions inParallelGroup(
+    final int group)
+  {
+    return new TrStatementOptions(false, OptionalInt.of(group));
+  }
+
+  /**
+   * @param group The parallel group
+   *
+   * @return These options, made non-transactional and placed in the given
+   * parallel group
+   */
+
+  public TrStatementOptions withParallelGroup(
+    final int group)
+  {
+    return new TrStatementOptions(
+      false,
+      OptionalInt.of(group),
+      this.queryTimeout,
+      this.lockTimeout
+    );
+  }
+
+  /**
+   * @return The default options
+   */
+
+  public static TrStatementOptions defaults()
+  {
+    return DEFAULTS;
+  }
+}
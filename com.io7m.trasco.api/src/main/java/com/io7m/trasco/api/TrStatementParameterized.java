@@ -25,12 +25,14 @@ import java.util.Objects;
  * @param text          The text
  * @param references    The references
  * @param interpolation The type of parameter interpolation to use
+ * @param options       The statement options
  */
 
 public record TrStatementParameterized(
   TrParameterReferences references,
   String text,
-  TrParameterInterpolation interpolation)
+  TrParameterInterpolation interpolation,
+  TrStatementOptions options)
   implements TrStatementType
 {
   /**
@@ -39,6 +41,7 @@ public record TrStatementParameterized(
    * @param text          The text
    * @param references    The references
    * @param interpolation The type of parameter interpolation to use
+   * @param options       The statement options
    */
 
   public TrStatementParameterized
@@ -46,5 +49,22 @@ public record TrStatementParameterized(
     Objects.requireNonNull(references, "references");
     Objects.requireNonNull(text, "text");
     Objects.requireNonNull(interpolation, "interpolation");
+    Objects.requireNonNull(options, "options");
+  }
+
+  /**
+   * A statement with parameters and default options.
+   *
+   * @param inText          The text
+   * @param inReferences    The references
+   * @param inInterpolation The type of parameter interpolation to use
+   */
+
+  public TrStatementParameterized(
+    final TrParameterReferences inReferences,
+    final String inText,
+    final TrParameterInterpolation inInterpolation)
+  {
+    this(inReferences, inText, inInterpolation, TrStatementOptions.defaults());
   }
 }
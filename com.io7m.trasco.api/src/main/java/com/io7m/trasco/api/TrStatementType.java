@@ -21,11 +21,20 @@ package com.io7m.trasco.api;
  */
 
 public sealed interface TrStatementType
-  permits TrStatement, TrStatementParameterized
+  permits TrStatement, TrStatementBackfill, TrStatementParameterized
 {
   /**
    * @return The statement text
    */
 
   String text();
+
+  /**
+   * @return The statement options
+   */
+
+  default TrStatementOptions options()
+  {
+    return TrStatementOptions.defaults();
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.benchmarks;
+
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrParameterKind;
+import com.io7m.trasco.api.TrParameterReference;
+import com.io7m.trasco.api.TrParameterReferences;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetGenerator;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetGeneratorConfiguration;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetXMLSerializers;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Synthetic revision sets used by the benchmarks.
+ */
+
+public final class TrBenchmarkRevisionSets
+{
+  private TrBenchmarkRevisionSets()
+  {
+
+  }
+
+  /**
+   * The kind of statements used to populate tables.
+   */
+
+  public enum StatementKind
+  {
+    /**
+     * Plain statements.
+     */
+
+    PLAIN,
+
+    /**
+     * Parameterized statements using prepared statements.
+     */
+
+    PREPARED_STATEMENT,
+
+    /**
+     * Parameterized statements using string formatting.
+     */
+
+    STRING_FORMATTING
+  }
+
+  /**
+   * Generate a revision set document containing the given number of
+   * revisions, each of four statements, one quarter of which are
+   * parameterized.
+   *
+   * @param revisions The number of revisions
+   *
+   * @return The UTF-8 encoded document
+   *
+   * @throws SerializationException On errors
+   *
+   * @see TrSchemaRevisionSetGenerator
+   */
+
+  public static byte[] xml(
+    final int revisions)
+    throws SerializationException
+  {
+    final var set =
+      TrSchemaRevisionSetGenerator.generate(
+        TrSchemaRevisionSetGeneratorConfiguration.builder()
+          .withRevisions(revisions)
+          .withStatementsPerRevision(4)
+          .build()
+      );
+
+    final var output = new ByteArrayOutputStream();
+    new TrSchemaRevisionSetXMLSerializers()
+      .serialize(URI.create("urn:benchmark"), output, set);
+    return output.toByteArray();
+  }
+
+  /**
+   * Generate a revision set that creates a single table and then inserts
+   * {@code rows} rows into it, spread evenly over {@code revisions}
+   * revisions.
+   *
+   * @param kind      The kind of insert statements
+   * @param revisions The number of revisions that insert rows
+   * @param rows      The number of rows inserted per revision
+   *
+   * @return A revision set
+   */
+
+  public static TrSchemaRevisionSet inserts(
+    final StatementKind kind,
+    final int revisions,
+    final int rows)
+  {
+    final var revisionMap = new TreeMap<BigInteger, TrSchemaRevision>();
+    revisionMap.put(
+      BigInteger.ZERO,
+      new TrSchemaRevision(
+        BigInteger.ZERO,
+        List.of(new TrStatement(
+          "create table t (f0 integer not null, f1 varchar(64) not null)"))
+      )
+    );
+
+    for (int index = 1; index <= revisions; ++index) {
+      final var statements = new ArrayList<TrStatementType>(rows);
+      for (int row = 0; row < rows; ++row) {
+        statements.add(insert(kind, index * rows + row));
+      }
+      final var version = BigInteger.valueOf(index);
+      revisionMap.put(version, new TrSchemaRevision(version, statements));
+    }
+
+    return new TrSchemaRevisionSet(
+      Map.ofEntries(
+        Map.entry(
+          "number0", new TrParameter("number0", TrParameterKind.NUMERIC)),
+        Map.entry(
+          "string0", new TrParameter("string0", TrParameterKind.STRING))
+      ),
+      revisionMap
+    );
+  }
+
+  private static TrStatementType insert(
+    final StatementKind kind,
+    final int key)
+  {
+    final var references =
+      TrParameterReferences.of(
+        new TrParameterReference(0, "number0"),
+        new TrParameterReference(1, "string0")
+      );
+
+    return switch (kind) {
+      case PLAIN -> new TrStatement(
+        "insert into t values (%d, 'x')".formatted(Integer.valueOf(key)));
+      case PREPARED_STATEMENT -> new TrStatementParameterized(
+        references,
+        "insert into t values (?, ?)",
+        TrParameterInterpolation.PREPARED_STATEMENT
+      );
+      case STRING_FORMATTING -> new TrStatementParameterized(
+        references,
+        "insert into t values (%s, %s)",
+        TrParameterInterpolation.STRING_FORMATTING
+      );
+    };
+  }
+}
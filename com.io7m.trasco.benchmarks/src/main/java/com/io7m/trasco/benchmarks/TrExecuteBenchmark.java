@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.benchmarks;
+
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrExecutorUpgrade;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.trasco.benchmarks.TrBenchmarkRevisionSets.StatementKind;
+
+/**
+ * Benchmarks for executing revision sets against an in-memory Derby
+ * database.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrExecuteBenchmark
+{
+  private static final int REVISIONS = 10;
+  private static final int ROWS_PER_REVISION = 100;
+
+  /**
+   * The kind of insert statements executed.
+   */
+
+  @Param({"PLAIN", "PREPARED_STATEMENT", "STRING_FORMATTING"})
+  private StatementKind kind;
+
+  private TrExecutors executors;
+  private TrSchemaRevisionSet revisions;
+  private TrArguments arguments;
+  private Connection connection;
+  private String databaseName;
+  private long databaseIndex;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public TrExecuteBenchmark()
+  {
+
+  }
+
+  /**
+   * Build the revision set.
+   */
+
+  @Setup(Level.Trial)
+  public void setupTrial()
+  {
+    this.executors =
+      new TrExecutors();
+    this.revisions =
+      TrBenchmarkRevisionSets.inserts(
+        this.kind, REVISIONS, ROWS_PER_REVISION);
+    this.arguments =
+      new TrArguments(Map.ofEntries(
+        Map.entry("number0", new TrArgumentNumeric("number0", 23)),
+        Map.entry("string0", new TrArgumentString("string0", "x"))
+      ));
+  }
+
+  /**
+   * Create a fresh, empty database.
+   *
+   * @throws SQLException On errors
+   */
+
+  @Setup(Level.Invocation)
+  public void setupInvocation()
+    throws SQLException
+  {
+    this.databaseName =
+      String.format("memory:trasco%d", Long.valueOf(++this.databaseIndex));
+    this.connection =
+      DriverManager.getConnection(
+        String.format("jdbc:derby:%s;create=true", this.databaseName));
+    this.connection.setAutoCommit(false);
+  }
+
+  /**
+   * Drop the database.
+   *
+   * @throws SQLException On errors
+   */
+
+  @TearDown(Level.Invocation)
+  public void tearDownInvocation()
+    throws SQLException
+  {
+    this.connection.rollback();
+    this.connection.close();
+
+    try {
+      DriverManager.getConnection(
+        String.format("jdbc:derby:%s;drop=true", this.databaseName));
+    } catch (final SQLException e) {
+      /*
+       * Derby signals a successful drop with SQL state 08006.
+       */
+
+      if (!"08006".equals(e.getSQLState())) {
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Execute the full revision set.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void execute()
+    throws Exception
+  {
+    this.executors.create(new TrExecutorConfiguration(
+      c -> Optional.empty(),
+      (version, c) -> {
+
+      },
+      event -> {
+
+      },
+      this.revisions,
+      TrExecutorUpgrade.PERFORM_UPGRADES,
+      this.arguments,
+      this.connection
+    )).execute();
+  }
+}
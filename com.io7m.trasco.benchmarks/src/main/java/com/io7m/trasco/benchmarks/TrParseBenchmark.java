@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.benchmarks;
+
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinaryParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinarySerializers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing revision sets in both the XML and binary formats.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrParseBenchmark
+{
+  private static final URI SOURCE =
+    URI.create("urn:benchmark");
+
+  /**
+   * The size of the parsed revision set.
+   */
+
+  @Param({"small", "medium", "synthetic10k"})
+  private String size;
+
+  private TrSchemaRevisionSetParsers parsers;
+  private TrSchemaRevisionSetBinaryParsers binaryParsers;
+  private byte[] xml;
+  private byte[] binary;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public TrParseBenchmark()
+  {
+
+  }
+
+  /**
+   * Generate the input documents.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.parsers =
+      new TrSchemaRevisionSetParsers();
+    this.binaryParsers =
+      new TrSchemaRevisionSetBinaryParsers();
+
+    this.xml = TrBenchmarkRevisionSets.xml(revisionCount(this.size));
+
+    final TrSchemaRevisionSet set =
+      this.parsers.parse(SOURCE, new ByteArrayInputStream(this.xml));
+    final var output = new ByteArrayOutputStream();
+    new TrSchemaRevisionSetBinarySerializers()
+      .serialize(SOURCE, output, set);
+    this.binary = output.toByteArray();
+  }
+
+  private static int revisionCount(
+    final String size)
+  {
+    return switch (size) {
+      case "small" -> 10;
+      case "medium" -> 500;
+      case "synthetic10k" -> 10_000;
+      default -> throw new IllegalArgumentException(
+        String.format("Unrecognized size: %s", size));
+    };
+  }
+
+  /**
+   * Parse the XML document.
+   *
+   * @return The parsed revision set
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public TrSchemaRevisionSet parseXML()
+    throws Exception
+  {
+    return this.parsers.parse(SOURCE, new ByteArrayInputStream(this.xml));
+  }
+
+  /**
+   * Parse the binary document.
+   *
+   * @return The parsed revision set
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public TrSchemaRevisionSet parseBinary()
+    throws Exception
+  {
+    return this.binaryParsers.parse(
+      SOURCE, new ByteArrayInputStream(this.binary));
+  }
+}
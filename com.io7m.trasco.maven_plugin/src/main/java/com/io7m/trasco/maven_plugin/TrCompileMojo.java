@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.maven_plugin;
+
+import com.io7m.anethum.api.ParseStatus;
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinaryParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinarySerializers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Parse and validate revision set XML files, and write each one to the
+ * precompiled binary format. The binary files are added to the project's
+ * resources, so that applications can load them at run time using
+ * {@code TrSchemaRevisionSetBinaryParsers} without any XML parsing or
+ * schema validation.
+ *
+ * <p>A file {@code com/example/database.xml} in the input directory results
+ * in a file {@code com/example/database.trb} in the output directory.</p>
+ */
+
+@Mojo(
+  name = "compile",
+  defaultPhase = LifecyclePhase.GENERATE_RESOURCES,
+  threadSafe = true
+)
+public final class TrCompileMojo extends AbstractMojo
+{
+  /**
+   * The file suffix used for binary revision sets.
+   */
+
+  public static final String BINARY_SUFFIX = ".trb";
+
+  /**
+   * The directory containing revision set XML files.
+   */
+
+  @Parameter(
+    name = "inputDirectory",
+    defaultValue = "${project.basedir}/src/main/resources",
+    required = true
+  )
+  private File inputDirectory;
+
+  /**
+   * The directory to which binary revision sets will be written.
+   */
+
+  @Parameter(
+    name = "outputDirectory",
+    defaultValue = "${project.build.directory}/generated-resources/trasco",
+    required = true
+  )
+  private File outputDirectory;
+
+  /**
+   * Glob patterns, relative to the input directory, that select the revision
+   * set XML files to compile (such as {@code com/example/*.xml}).
+   */
+
+  @Parameter(
+    name = "includes",
+    required = true
+  )
+  private List<String> includes;
+
+  /**
+   * Whether the binary revision sets should be added to the project
+   * resources.
+   */
+
+  @Parameter(
+    name = "addResources",
+    defaultValue = "true",
+    required = false
+  )
+  private boolean addResources;
+
+  /**
+   * Skip execution of the plugin.
+   */
+
+  @Parameter(
+    name = "skip",
+    property = "trasco.skip",
+    defaultValue = "false",
+    required = false
+  )
+  private boolean skip;
+
+  @Parameter(
+    defaultValue = "${project}",
+    readonly = true,
+    required = true
+  )
+  private MavenProject project;
+
+  /**
+   * Parse and precompile revision sets.
+   */
+
+  public TrCompileMojo()
+  {
+
+  }
+
+  @Override
+  public void execute()
+    throws MojoExecutionException, MojoFailureException
+  {
+    if (this.skip) {
+      this.getLog().info("Skipping execution.");
+      return;
+    }
+
+    final var input = this.inputDirectory.toPath();
+    final var output = this.outputDirectory.toPath();
+
+    final List<Path> files;
+    try {
+      files = this.findFiles(input);
+    } catch (final IOException e) {
+      throw new MojoExecutionException(e.getMessage(), e);
+    }
+
+    if (files.isEmpty()) {
+      this.getLog().warn(
+        "No revision set files matched %s in %s"
+          .formatted(this.includes, input)
+      );
+    }
+
+    this.compileAll(input, output, files);
+
+    if (this.addResources && this.project != null) {
+      final var resource = new Resource();
+      resource.setDirectory(output.toString());
+      this.project.addResource(resource);
+    }
+  }
+
+  private void compileAll(
+    final Path input,
+    final Path output,
+    final List<Path> files)
+    throws MojoExecutionException, MojoFailureException
+  {
+    var failed = false;
+    for (final var file : files) {
+      try {
+        this.compile(input, output, file);
+      } catch (final ParsingException e) {
+        failed = true;
+      } catch (final IOException | SerializationException e) {
+        throw new MojoExecutionException(e.getMessage(), e);
+      }
+    }
+
+    if (failed) {
+      throw new MojoFailureException(
+        "One or more revision set files failed to parse.");
+    }
+  }
+
+  private List<Path> findFiles(
+    final Path input)
+    throws IOException
+  {
+    final var fileSystem = FileSystems.getDefault();
+    final var matchers = new ArrayList<PathMatcher>();
+    for (final var include : this.includes) {
+      matchers.add(fileSystem.getPathMatcher("glob:" + include));
+    }
+
+    try (var stream = Files.walk(input)) {
+      return stream.filter(Files::isRegularFile)
+        .filter(path -> {
+          final var relative = input.relativize(path);
+          return matchers.stream().anyMatch(m -> m.matches(relative));
+        })
+        .sorted()
+        .toList();
+    }
+  }
+
+  private void compile(
+    final Path input,
+    final Path output,
+    final Path file)
+    throws IOException, ParsingException, SerializationException
+  {
+    final var relative =
+      input.relativize(file).toString();
+    final var target =
+      output.resolve(replaceSuffix(relative));
+
+    if (isUpToDate(file, target)) {
+      this.getLog().debug("Up to date: %s".formatted(target));
+      return;
+    }
+
+    this.getLog().info("Compiling %s -> %s".formatted(file, target));
+
+    final TrSchemaRevisionSet set =
+      new TrSchemaRevisionSetParsers()
+        .parseFile(file, this::logStatus);
+
+    final var targetParent = target.getParent();
+    if (targetParent != null) {
+      Files.createDirectories(targetParent);
+    }
+
+    final var temporary =
+      target.resolveSibling(target.getFileName() + ".tmp");
+
+    try (var stream =
+           Files.newOutputStream(temporary, WRITE, CREATE, TRUNCATE_EXISTING)) {
+      new TrSchemaRevisionSetBinarySerializers()
+        .serialize(temporary.toUri(), stream, set);
+    }
+
+    Files.move(
+      temporary,
+      target,
+      REPLACE_EXISTING,
+      ATOMIC_MOVE
+    );
+  }
+
+  /**
+   * A binary file is up-to-date if it is newer than the source file, and
+   * was written in the current format version. Files written by older
+   * versions of the plugin are rebuilt even if they are newer.
+   */
+
+  private static boolean isUpToDate(
+    final Path file,
+    final Path target)
+    throws IOException
+  {
+    if (!Files.isRegularFile(target)) {
+      return false;
+    }
+
+    final var timeSource = Files.getLastModifiedTime(file);
+    final var timeTarget = Files.getLastModifiedTime(target);
+    if (timeTarget.compareTo(timeSource) < 0) {
+      return false;
+    }
+
+    try (var stream = Files.newInputStream(target)) {
+      final var version =
+        TrSchemaRevisionSetBinaryParsers.formatVersionOf(stream);
+      return version.isPresent()
+             && version.getAsInt() == TrSchemaRevisionSetBinaryParsers.formatVersion();
+    }
+  }
+
+  private static String replaceSuffix(
+    final String name)
+  {
+    final var index = name.lastIndexOf('.');
+    if (index <= 0) {
+      return name + BINARY_SUFFIX;
+    }
+    return name.substring(0, index) + BINARY_SUFFIX;
+  }
+
+  private void logStatus(
+    final ParseStatus status)
+  {
+    final var lexical = status.lexical();
+    final var message =
+      "%s:%d:%d: %s: %s".formatted(
+        lexical.file().map(Object::toString).orElse(""),
+        Integer.valueOf(lexical.line()),
+        Integer.valueOf(lexical.column()),
+        status.errorCode(),
+        status.message()
+      );
+
+    switch (status.severity()) {
+      case PARSE_ERROR -> this.getLog().error(message);
+      case PARSE_WARNING -> this.getLog().warn(message);
+      case PARSE_INFO -> this.getLog().info(message);
+    }
+  }
+}
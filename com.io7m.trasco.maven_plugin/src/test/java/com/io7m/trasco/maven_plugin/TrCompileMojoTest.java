@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.maven_plugin;
+
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinaryParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TrCompileMojoTest
+{
+  @TempDir
+  private Path directory;
+  private Path input;
+  private Path output;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.input = this.directory.resolve("input");
+    this.output = this.directory.resolve("output");
+    Files.createDirectories(this.input.resolve("com/example"));
+  }
+
+  /**
+   * Revision set files are compiled to binary files at the corresponding
+   * paths in the output directory, and the binary files parse to the same
+   * revision sets as the XML files.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompile()
+    throws Exception
+  {
+    final var source = this.copy("valid.xml", "com/example/db.xml");
+    this.mojo().execute();
+
+    final var target = this.output.resolve("com/example/db.trb");
+    assertTrue(Files.isRegularFile(target));
+    assertFalse(Files.exists(target.resolveSibling("db.trb.tmp")));
+
+    final TrSchemaRevisionSet expected =
+      new TrSchemaRevisionSetParsers()
+        .parseFile(source, status -> { });
+    final TrSchemaRevisionSet received;
+    try (var stream = Files.newInputStream(target)) {
+      received = new TrSchemaRevisionSetBinaryParsers()
+        .parse(URI.create("urn:stdin"), stream);
+    }
+    assertEquals(expected, received);
+  }
+
+  /**
+   * Invalid revision set files fail the build, and produce no output.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    this.copy("invalid.xml", "com/example/db.xml");
+
+    assertThrows(MojoFailureException.class, () -> this.mojo().execute());
+    assertFalse(Files.exists(this.output.resolve("com/example/db.trb")));
+  }
+
+  /**
+   * Binary files that are newer than their sources are not rebuilt.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUpToDate()
+    throws Exception
+  {
+    this.copy("valid.xml", "com/example/db.xml");
+    this.mojo().execute();
+
+    final var target = this.output.resolve("com/example/db.trb");
+    final var bytes = Files.readAllBytes(target);
+    final var time = FileTime.from(Instant.now().plusSeconds(60L));
+    Files.setLastModifiedTime(target, time);
+
+    this.mojo().execute();
+    assertEquals(time, Files.getLastModifiedTime(target));
+    assertArrayEquals(bytes, Files.readAllBytes(target));
+  }
+
+  /**
+   * Binary files written in an older format version are rebuilt even if
+   * they are newer than their sources.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOlderFormatRebuilt()
+    throws Exception
+  {
+    this.copy("valid.xml", "com/example/db.xml");
+
+    final var target = this.output.resolve("com/example/db.trb");
+    Files.createDirectories(target.getParent());
+    try (var stream = new DataOutputStream(Files.newOutputStream(target))) {
+      stream.writeInt(0x54525342);
+      stream.writeInt(1);
+    }
+    Files.setLastModifiedTime(
+      target, FileTime.from(Instant.now().plusSeconds(60L)));
+
+    this.mojo().execute();
+
+    try (var stream = Files.newInputStream(target)) {
+      assertEquals(
+        OptionalInt.of(TrSchemaRevisionSetBinaryParsers.formatVersion()),
+        TrSchemaRevisionSetBinaryParsers.formatVersionOf(stream)
+      );
+    }
+    try (var stream = Files.newInputStream(target)) {
+      new TrSchemaRevisionSetBinaryParsers()
+        .parse(URI.create("urn:stdin"), stream);
+    }
+  }
+
+  private Path copy(
+    final String name,
+    final String path)
+    throws IOException
+  {
+    final var internal =
+      "/com/io7m/trasco/maven_plugin/%s".formatted(name);
+    final var target = this.input.resolve(path);
+    try (var stream = TrCompileMojoTest.class.getResourceAsStream(internal)) {
+      if (stream == null) {
+        throw new NoSuchFileException(internal);
+      }
+      Files.copy(stream, target);
+    }
+    return target;
+  }
+
+  /**
+   * Create a mojo, setting the parameters that Maven would inject.
+   */
+
+  private TrCompileMojo mojo()
+    throws Exception
+  {
+    final var mojo = new TrCompileMojo();
+    setField(mojo, "inputDirectory", this.input.toFile());
+    setField(mojo, "outputDirectory", this.output.toFile());
+    setField(mojo, "includes", List.of("**/*.xml"));
+    setField(mojo, "addResources", Boolean.FALSE);
+    return mojo;
+  }
+
+  private static void setField(
+    final Object target,
+    final String name,
+    final Object value)
+    throws Exception
+  {
+    final var field = target.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(target, value);
+  }
+}
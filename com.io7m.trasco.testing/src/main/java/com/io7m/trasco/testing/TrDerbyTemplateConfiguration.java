@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.testing;
+
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrExecutorVersionRetrieverType;
+import com.io7m.trasco.api.TrExecutorVersionUpdaterType;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+
+import java.util.Objects;
+
+/**
+ * The information required to produce a template database. Templates are
+ * identified by a hash of the revision set and the arguments; the version
+ * functions are not part of the hash and are assumed to behave identically
+ * for every configuration that shares a cache directory.
+ *
+ * @param versionGet A function that will be executed to retrieve a schema
+ *                   version number
+ * @param versionSet A function that will be executed to set the schema
+ *                   version number
+ * @param revisions  The set of known database schema revisions
+ * @param arguments  The arguments provided to any required parameters
+ */
+
+public record TrDerbyTemplateConfiguration(
+  TrExecutorVersionRetrieverType versionGet,
+  TrExecutorVersionUpdaterType versionSet,
+  TrSchemaRevisionSet revisions,
+  TrArguments arguments)
+{
+  /**
+   * The information required to produce a template database.
+   *
+   * @param versionGet A function that will be executed to retrieve a schema
+   *                   version number
+   * @param versionSet A function that will be executed to set the schema
+   *                   version number
+   * @param revisions  The set of known database schema revisions
+   * @param arguments  The arguments provided to any required parameters
+   */
+
+  public TrDerbyTemplateConfiguration
+  {
+    Objects.requireNonNull(versionGet, "versionGet");
+    Objects.requireNonNull(versionSet, "versionSet");
+    Objects.requireNonNull(revisions, "revisions");
+    Objects.requireNonNull(arguments, "arguments");
+  }
+}
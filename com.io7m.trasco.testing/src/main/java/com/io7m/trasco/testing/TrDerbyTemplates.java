@@ -0,0 +1,384 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.testing;
+
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrExecutorUpgrade;
+import com.io7m.trasco.vanilla.TrExecutors;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinarySerializers;
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.io7m.trasco.api.TrErrorCode.SCHEMA_REVISION_ELIDED;
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * A cache of template Derby databases.
+ *
+ * <p>Executing a long revision history into a fresh database for every test
+ * can be slow. A template cache executes the revisions once into a template
+ * database, and then produces a database for each test by copying the
+ * files of the template. Templates are stored in a cache directory, keyed by
+ * a hash of the revision set and arguments, and so survive between runs of
+ * a test suite. A template is rebuilt automatically when the revisions or
+ * arguments change.</p>
+ *
+ * <p>Templates are built in a temporary directory and moved into place
+ * atomically, and so a cache directory may be safely shared by concurrent
+ * test processes.</p>
+ */
+
+public final class TrDerbyTemplates
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrDerbyTemplates.class);
+
+  /**
+   * A string mixed into every template key. This must be changed whenever
+   * the way templates are produced changes.
+   */
+
+  private static final String KEY_FORMAT =
+    "com.io7m.trasco.testing.derby:1";
+
+  private static final String DATABASE_NAME =
+    "database";
+
+  private final Path cacheDirectory;
+  private final ConcurrentHashMap<String, Object> locks;
+
+  /**
+   * A cache of template Derby databases.
+   *
+   * @param inCacheDirectory The directory that will hold templates
+   */
+
+  public TrDerbyTemplates(
+    final Path inCacheDirectory)
+  {
+    this.cacheDirectory =
+      Objects.requireNonNull(inCacheDirectory, "cacheDirectory")
+        .toAbsolutePath();
+    this.locks =
+      new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return The cache directory
+   */
+
+  public Path cacheDirectory()
+  {
+    return this.cacheDirectory;
+  }
+
+  /**
+   * Calculate the key that identifies the template for the given
+   * configuration.
+   *
+   * @param configuration The configuration
+   *
+   * @return The template key as a hex string
+   *
+   * @throws TrException If the revision set contains elided revisions
+   */
+
+  public static String keyOf(
+    final TrDerbyTemplateConfiguration configuration)
+    throws TrException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var revisions = configuration.revisions();
+    for (final var revision : revisions.revisions().values()) {
+      if (revision.elided()) {
+        throw new TrException(
+          "Templates cannot be produced from revision sets with elided revisions.",
+          Map.of("Revision", revision.version().toString()),
+          SCHEMA_REVISION_ELIDED
+        );
+      }
+    }
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new UnreachableCodeException(e);
+    }
+
+    digest.update(KEY_FORMAT.getBytes(UTF_8));
+
+    /*
+     * The binary serialization of a revision set is deterministic.
+     */
+
+    final var bytes = new ByteArrayOutputStream();
+    try {
+      new TrSchemaRevisionSetBinarySerializers()
+        .serialize(URI.create("urn:template"), bytes, revisions);
+    } catch (final SerializationException e) {
+      throw new UnreachableCodeException(e);
+    }
+    digest.update(bytes.toByteArray());
+
+    final var arguments =
+      new TreeMap<>(configuration.arguments().arguments());
+    for (final var argument : arguments.values()) {
+      final String text;
+      if (argument instanceof final TrArgumentNumeric a) {
+        text = "N:%s=%s".formatted(a.name(), a.value());
+      } else if (argument instanceof final TrArgumentString a) {
+        text = "S:%s=%s".formatted(a.name(), a.value());
+      } else {
+        throw new UnreachableCodeException();
+      }
+      final var textBytes = text.getBytes(UTF_8);
+      digest.update(HexFormat.of().toHexDigits(textBytes.length).getBytes(UTF_8));
+      digest.update(textBytes);
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Produce a data source for the Derby database in the given directory.
+   *
+   * @param database The database directory
+   *
+   * @return A data source
+   */
+
+  public static DataSource dataSourceOf(
+    final Path database)
+  {
+    final var dataSource = new EmbeddedDataSource();
+    dataSource.setDatabaseName(database.toAbsolutePath().toString());
+    return dataSource;
+  }
+
+  /**
+   * Retrieve the template database for the given configuration, creating
+   * it if it does not already exist. The returned database must not be
+   * opened or modified; use {@link #cloneTo(TrDerbyTemplateConfiguration, Path)}
+   * to obtain a database for use.
+   *
+   * @param configuration The configuration
+   *
+   * @return The template database directory
+   *
+   * @throws TrException On errors executing revisions
+   * @throws IOException On I/O errors
+   */
+
+  public Path template(
+    final TrDerbyTemplateConfiguration configuration)
+    throws TrException, IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var key = keyOf(configuration);
+    final var templateDirectory = this.cacheDirectory.resolve(key);
+    final var database = templateDirectory.resolve(DATABASE_NAME);
+    if (Files.isDirectory(database)) {
+      return database;
+    }
+
+    synchronized (this.locks.computeIfAbsent(key, k -> new Object())) {
+      if (Files.isDirectory(database)) {
+        return database;
+      }
+      this.build(configuration, key, templateDirectory);
+      return database;
+    }
+  }
+
+  /**
+   * Create a new database at {@code target} by copying the template
+   * database for the given configuration, creating the template if it
+   * does not already exist.
+   *
+   * @param configuration The configuration
+   * @param target        The directory that will hold the new database,
+   *                      which must not already exist
+   *
+   * @return {@code target}
+   *
+   * @throws TrException On errors executing revisions
+   * @throws IOException On I/O errors
+   */
+
+  public Path cloneTo(
+    final TrDerbyTemplateConfiguration configuration,
+    final Path target)
+    throws TrException, IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(target, "target");
+
+    final var template = this.template(configuration);
+    LOG.debug("cloning template {} to {}", template, target);
+    copyTree(template, target);
+    return target;
+  }
+
+  private void build(
+    final TrDerbyTemplateConfiguration configuration,
+    final String key,
+    final Path templateDirectory)
+    throws TrException, IOException
+  {
+    LOG.debug("building template {}", key);
+
+    Files.createDirectories(this.cacheDirectory);
+    final var temporary =
+      Files.createTempDirectory(this.cacheDirectory, key + ".tmp");
+
+    try {
+      final var database = temporary.resolve(DATABASE_NAME);
+      executeInto(configuration, database);
+
+      try {
+        Files.move(temporary, templateDirectory, ATOMIC_MOVE);
+      } catch (final FileAlreadyExistsException
+                     | DirectoryNotEmptyException e) {
+
+        /*
+         * Another process built the same template concurrently.
+         */
+
+        LOG.debug("template {} was built concurrently", key);
+        deleteTree(temporary);
+      }
+    } catch (final TrException | IOException e) {
+      deleteTree(temporary);
+      throw e;
+    }
+  }
+
+  private static void executeInto(
+    final TrDerbyTemplateConfiguration configuration,
+    final Path database)
+    throws TrException
+  {
+    final var dataSource = new EmbeddedDataSource();
+    dataSource.setDatabaseName(database.toString());
+    dataSource.setCreateDatabase("create");
+
+    try (var connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      new TrExecutors().create(new TrExecutorConfiguration(
+        configuration.versionGet(),
+        configuration.versionSet(),
+        event -> LOG.trace("template: {}", event),
+        configuration.revisions(),
+        TrExecutorUpgrade.PERFORM_UPGRADES,
+        configuration.arguments(),
+        connection
+      )).execute();
+      connection.commit();
+    } catch (final SQLException e) {
+      throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
+    }
+
+    shutdown(database);
+  }
+
+  /**
+   * Shut down the database so that all of its files are consistent and
+   * can be copied.
+   */
+
+  private static void shutdown(
+    final Path database)
+    throws TrException
+  {
+    final var dataSource = new EmbeddedDataSource();
+    dataSource.setDatabaseName(database.toString());
+    dataSource.setShutdownDatabase("shutdown");
+
+    try {
+      dataSource.getConnection().close();
+    } catch (final SQLException e) {
+      /*
+       * Derby signals a successful shutdown with SQL state 08006.
+       */
+
+      if ("08006".equals(e.getSQLState())) {
+        return;
+      }
+      throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
+    }
+  }
+
+  private static void copyTree(
+    final Path source,
+    final Path target)
+    throws IOException
+  {
+    try (var paths = Files.walk(source)) {
+      for (final var path : paths.toList()) {
+        final var output = target.resolve(source.relativize(path).toString());
+        if (Files.isDirectory(path)) {
+          Files.createDirectories(output);
+        } else if (!path.getFileName().toString().endsWith(".lck")) {
+          Files.copy(path, output);
+        }
+      }
+    }
+  }
+
+  private static void deleteTree(
+    final Path directory)
+    throws IOException
+  {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (var paths = Files.walk(directory)) {
+      for (final var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
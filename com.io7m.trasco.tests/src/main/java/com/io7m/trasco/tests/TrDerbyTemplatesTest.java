@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrErrorCode;
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.testing.TrDerbyTemplateConfiguration;
+import com.io7m.trasco.testing.TrDerbyTemplates;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TrDerbyTemplatesTest
+{
+  private Path directory;
+  private TrSchemaRevisionSet all;
+  private TrSchemaRevisionSet revisions;
+  private TrArguments arguments;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.directory = TrTestDirectories.createTempDirectory();
+
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrDerbyTemplatesTest.class, this.directory, "example-9.xml")) {
+      this.all =
+        new TrSchemaRevisionSetParsers()
+          .parse(URI.create("urn:stdin"), stream);
+    }
+
+    this.revisions =
+      new TrSchemaRevisionSet(
+        this.all.parameters(),
+        new TreeMap<>(this.all.revisions().headMap(BigInteger.TWO, true))
+      );
+
+    this.arguments =
+      new TrArguments(Map.ofEntries(
+        entry("number0", new TrArgumentNumeric("number0", 23)),
+        entry("string0", new TrArgumentString("string0", "x"))
+      ));
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private TrDerbyTemplateConfiguration configuration(
+    final TrSchemaRevisionSet set,
+    final TrArguments args)
+  {
+    return new TrDerbyTemplateConfiguration(
+      TrExecutorTest::schemaVersionGet,
+      TrExecutorTest::schemaVersionSet,
+      set,
+      args
+    );
+  }
+
+  private static Optional<BigInteger> versionOf(
+    final Path database)
+    throws Exception
+  {
+    try (var connection =
+           TrDerbyTemplates.dataSourceOf(database).getConnection()) {
+      return TrExecutorTest.schemaVersionGet(connection);
+    }
+  }
+
+  /**
+   * Clones of a template are independent, fully upgraded databases.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloneIndependent()
+    throws Exception
+  {
+    final var templates =
+      new TrDerbyTemplates(this.directory.resolve("cache"));
+    final var configuration =
+      this.configuration(this.revisions, this.arguments);
+
+    final var a =
+      templates.cloneTo(configuration, this.directory.resolve("a"));
+    final var b =
+      templates.cloneTo(configuration, this.directory.resolve("b"));
+
+    final var highest = this.revisions.revisions().lastKey();
+    assertEquals(Optional.of(highest), versionOf(a));
+    assertEquals(Optional.of(highest), versionOf(b));
+
+    try (var connection =
+           TrDerbyTemplates.dataSourceOf(a).getConnection()) {
+      TrExecutorTest.schemaVersionSet(BigInteger.valueOf(1000L), connection);
+    }
+
+    assertEquals(Optional.of(BigInteger.valueOf(1000L)), versionOf(a));
+    assertEquals(Optional.of(highest), versionOf(b));
+  }
+
+  /**
+   * Templates survive between instances sharing a cache directory, and are
+   * not rebuilt.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTemplateCached()
+    throws Exception
+  {
+    final var cache = this.directory.resolve("cache");
+    final var configuration =
+      this.configuration(this.revisions, this.arguments);
+
+    final var template0 =
+      new TrDerbyTemplates(cache).template(configuration);
+    final var time0 =
+      Files.getLastModifiedTime(template0);
+
+    final var template1 =
+      new TrDerbyTemplates(cache).template(configuration);
+
+    assertEquals(template0, template1);
+    assertEquals(time0, Files.getLastModifiedTime(template1));
+
+    try (var files = Files.list(cache)) {
+      assertEquals(1L, files.count());
+    }
+  }
+
+  /**
+   * Changing the revisions or the arguments changes the template key.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testKeys()
+    throws Exception
+  {
+    final var key =
+      TrDerbyTemplates.keyOf(
+        this.configuration(this.revisions, this.arguments));
+
+    assertEquals(
+      key,
+      TrDerbyTemplates.keyOf(
+        this.configuration(this.revisions, this.arguments))
+    );
+
+    final var fewer =
+      new TrSchemaRevisionSet(
+        this.revisions.parameters(),
+        new TreeMap<>(this.revisions.revisions().headMap(BigInteger.ONE, true))
+      );
+    assertNotEquals(
+      key,
+      TrDerbyTemplates.keyOf(this.configuration(fewer, this.arguments))
+    );
+
+    final var otherArguments =
+      new TrArguments(Map.ofEntries(
+        entry("number0", new TrArgumentNumeric("number0", 24)),
+        entry("string0", new TrArgumentString("string0", "x"))
+      ));
+    assertNotEquals(
+      key,
+      TrDerbyTemplates.keyOf(this.configuration(this.revisions, otherArguments))
+    );
+  }
+
+  /**
+   * Revision sets with elided revisions cannot be used as templates.
+   */
+
+  @Test
+  public void testElided()
+  {
+    final var elided = new TreeMap<>(this.revisions.revisions());
+    elided.put(BigInteger.ZERO, TrSchemaRevision.elidedRevision(BigInteger.ZERO));
+
+    final var ex = assertThrows(TrException.class, () -> {
+      TrDerbyTemplates.keyOf(
+        this.configuration(
+          new TrSchemaRevisionSet(this.revisions.parameters(), elided),
+          this.arguments));
+    });
+    assertEquals(TrErrorCode.SCHEMA_REVISION_ELIDED, ex.errorCode());
+  }
+
+  /**
+   * A template that fails to build leaves nothing in the cache.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBuildFailure()
+    throws Exception
+  {
+    final var cache = this.directory.resolve("cache");
+    final var templates = new TrDerbyTemplates(cache);
+
+    assertThrows(TrException.class, () -> {
+      templates.template(this.configuration(this.all, this.arguments));
+    });
+
+    try (var files = Files.list(cache)) {
+      assertEquals(0L, files.count());
+    }
+    assertTrue(Files.isDirectory(cache));
+  }
+}
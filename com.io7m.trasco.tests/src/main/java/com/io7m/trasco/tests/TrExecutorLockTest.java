@@ -0,0 +1,738 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrEventCommitted;
+import com.io7m.trasco.api.TrEventExecutionSummary;
+import com.io7m.trasco.api.TrEventLockWaited;
+import com.io7m.trasco.api.TrEventType;
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorCommitEveryRevisions;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrExecutorLockType;
+import com.io7m.trasco.api.TrExecutorLockWaitPolicy;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrDialectDerby;
+import com.io7m.trasco.vanilla.TrExecutorAdvisoryLock;
+import com.io7m.trasco.vanilla.TrExecutorTableLease;
+import com.io7m.trasco.vanilla.TrExecutors;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.io7m.trasco.api.TrErrorCode.LOCK_LOST;
+import static com.io7m.trasco.api.TrErrorCode.LOCK_NOT_ACQUIRED;
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TrExecutorLockTest
+{
+  private Path directory;
+  private EmbeddedConnectionPoolDataSource dataSource;
+  private TrSchemaRevisionSet revisions;
+  private ConcurrentLinkedQueue<TrEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.directory = TrTestDirectories.createTempDirectory();
+    this.dataSource = new EmbeddedConnectionPoolDataSource();
+    this.dataSource.setDatabaseName(this.directory.resolve("db").toString());
+    this.dataSource.setCreateDatabase("true");
+    this.dataSource.setConnectionAttributes("create=true");
+    this.events = new ConcurrentLinkedQueue<>();
+
+    final TrSchemaRevisionSet all;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrExecutorLockTest.class, this.directory, "example-9.xml")) {
+      all = new TrSchemaRevisionSetParsers()
+        .parse(URI.create("urn:stdin"), stream);
+    }
+
+    this.revisions =
+      new TrSchemaRevisionSet(
+        all.parameters(),
+        new TreeMap<>(all.revisions().headMap(BigInteger.TWO, true))
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private TrExecutorConfiguration configuration(
+    final Connection connection,
+    final TrExecutorLockType lock,
+    final TrExecutorLockWaitPolicy waitPolicy)
+  {
+    return TrExecutorConfiguration.builder(
+        TrExecutorTest::schemaVersionGet,
+        TrExecutorTest::schemaVersionSet,
+        this.events::add,
+        this.revisions,
+        PERFORM_UPGRADES,
+        TrArguments.empty(),
+        connection
+      )
+      .withLock(lock)
+      .withLockWaitPolicy(waitPolicy)
+      .build();
+  }
+
+  private static TrExecutorLockWaitPolicy fastPolicy(
+    final Duration timeout)
+  {
+    return new TrExecutorLockWaitPolicy(
+      Duration.ofMillis(10L),
+      Duration.ofMillis(50L),
+      timeout
+    );
+  }
+
+  /**
+   * A lease can only be held by one holder at a time.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaseExclusive()
+    throws Exception
+  {
+    final var a =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("a")
+        .build();
+    final var b =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("b")
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(a.tryAcquire(connection));
+      assertFalse(b.tryAcquire(connection));
+      assertFalse(b.tryAcquire(connection));
+
+      /*
+       * Releasing a lease that is not held has no effect.
+       */
+
+      b.release(connection);
+      assertFalse(b.tryAcquire(connection));
+
+      a.release(connection);
+      assertTrue(b.tryAcquire(connection));
+      b.release(connection);
+    }
+  }
+
+  /**
+   * Leases with different names do not exclude each other.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaseNamesIndependent()
+    throws Exception
+  {
+    final var a =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withLeaseName("x")
+        .build();
+    final var b =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withLeaseName("y")
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(a.tryAcquire(connection));
+      assertTrue(b.tryAcquire(connection));
+    }
+  }
+
+  /**
+   * An expired lease can be taken over.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaseExpiredTakeover()
+    throws Exception
+  {
+    final var time = Instant.parse("2024-01-01T00:00:00Z");
+
+    final var a =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("a")
+        .withLeaseDuration(Duration.ofSeconds(10L))
+        .withClock(Clock.fixed(time, ZoneOffset.UTC))
+        .build();
+    final var b =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("b")
+        .withClock(Clock.fixed(time.plusSeconds(5L), ZoneOffset.UTC))
+        .build();
+    final var c =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("c")
+        .withClock(Clock.fixed(time.plusSeconds(11L), ZoneOffset.UTC))
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(a.tryAcquire(connection));
+      assertFalse(b.tryAcquire(connection));
+      assertTrue(c.tryAcquire(connection));
+
+      /*
+       * The original holder can no longer release the lease.
+       */
+
+      a.release(connection);
+      assertFalse(a.tryAcquire(connection));
+    }
+  }
+
+  /**
+   * A held lease is renewed in the background, and so cannot be taken over
+   * even after the lease duration has elapsed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaseRenewed()
+    throws Exception
+  {
+    final var a =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("a")
+        .withLeaseDuration(Duration.ofMillis(300L))
+        .build();
+    final var b =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("b")
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(a.tryAcquire(connection));
+      Thread.sleep(1_000L);
+      assertFalse(b.tryAcquire(connection));
+      assertTrue(a.checkHeld(connection));
+
+      a.release(connection);
+      assertTrue(b.tryAcquire(connection));
+      b.release(connection);
+    }
+  }
+
+  /**
+   * A lease that has been taken over is no longer held once a renewal has
+   * noticed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaseLost()
+    throws Exception
+  {
+    final var a =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("a")
+        .withLeaseDuration(Duration.ofMillis(300L))
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertFalse(a.checkHeld(connection));
+      assertTrue(a.tryAcquire(connection));
+      assertTrue(a.checkHeld(connection));
+      this.leaseSteal("b");
+      Thread.sleep(1_000L);
+      assertFalse(a.checkHeld(connection));
+      a.release(connection);
+      assertFalse(a.checkHeld(connection));
+    }
+  }
+
+  /**
+   * An upgrade that loses its lease is rolled back rather than committed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockLostAbortsUpgrade()
+    throws Exception
+  {
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("a")
+        .withLeaseDuration(Duration.ofMillis(300L))
+        .build();
+
+    /*
+     * Create the lease table, and prepare the statement used to steal the
+     * lease before the upgrade holds any locks on the system catalogs.
+     */
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(lease.tryAcquire(connection));
+      lease.release(connection);
+      this.leaseSteal("b");
+    }
+
+    final var stolen = new AtomicBoolean(false);
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+
+      final var configuration =
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            (version, c) -> {
+              TrExecutorTest.schemaVersionSet(version, c);
+              if (stolen.compareAndSet(false, true)) {
+                this.leaseSteal("b");
+                pause(Duration.ofSeconds(1L));
+              }
+            },
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection
+          )
+          .withLock(lease)
+          .withLockWaitPolicy(fastPolicy(Duration.ofSeconds(1L)))
+          .build();
+
+      final var ex =
+        assertThrows(TrException.class, () -> {
+          new TrExecutors().create(configuration).execute();
+        });
+
+      assertEquals(LOCK_LOST, ex.errorCode());
+      assertEquals(Optional.empty(), TrExecutorTest.schemaVersionGet(connection));
+      connection.rollback();
+    }
+  }
+
+  private static void pause(
+    final Duration duration)
+  {
+    try {
+      Thread.sleep(duration);
+    } catch (final InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void leaseSteal(
+    final String holder)
+    throws SQLException
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(true);
+      try (var statement = connection.prepareStatement(
+        "update trasco_lease set lease_holder = ?")) {
+        statement.setString(1, holder);
+        statement.executeUpdate();
+      }
+    }
+  }
+
+  /**
+   * Invalid table names are rejected.
+   */
+
+  @Test
+  public void testLeaseTableNameInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrExecutorTableLease.builder(this.dataSource)
+        .withTableName("x; drop table y")
+        .build();
+    });
+  }
+
+  /**
+   * Advisory lock keys are derived from lock names.
+   */
+
+  @Test
+  public void testAdvisoryLockKeys()
+  {
+    final var dialect = new TrDialectDerby();
+    assertEquals(
+      TrExecutorAdvisoryLock.create(dialect, "upgrade").key(),
+      TrExecutorAdvisoryLock.create(dialect, "upgrade").key()
+    );
+    assertNotEquals(
+      TrExecutorAdvisoryLock.create(dialect, "upgrade").key(),
+      TrExecutorAdvisoryLock.create(dialect, "other").key()
+    );
+    assertEquals(23L, TrExecutorAdvisoryLock.create(dialect, 23L).key());
+  }
+
+  /**
+   * Derby does not support advisory locks, and so an executor configured
+   * to use one fails without applying any revisions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAdvisoryLockUnsupported()
+    throws Exception
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      final var lock =
+        TrExecutorAdvisoryLock.create(new TrDialectDerby(), "upgrade");
+      final var executor =
+        new TrExecutors().create(
+          this.configuration(
+            connection, lock, fastPolicy(Duration.ofSeconds(1L))));
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      assertInstanceOf(SQLFeatureNotSupportedException.class, ex.getCause());
+      connection.rollback();
+    }
+  }
+
+  /**
+   * When many executors start concurrently, exactly one of them applies
+   * the revisions, and the others wait for it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrentExecutorsUpgradeOnce()
+    throws Exception
+  {
+    final var count = 8;
+    final var start = new CountDownLatch(1);
+    final var futures = new ArrayList<Future<?>>(count);
+
+    try (var threads = Executors.newFixedThreadPool(count)) {
+      for (int index = 0; index < count; ++index) {
+        final var lease =
+          TrExecutorTableLease.builder(this.dataSource)
+            .withHolder("node-" + index)
+            .build();
+
+        futures.add(threads.submit(() -> {
+          start.await();
+          try (var connection = this.dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            new TrExecutors()
+              .create(this.configuration(
+                connection, lease, fastPolicy(Duration.ofMinutes(1L))))
+              .execute();
+            connection.commit();
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (final var future : futures) {
+        future.get();
+      }
+    }
+
+    final var summaries =
+      this.events.stream()
+        .filter(e -> e instanceof TrEventExecutionSummary)
+        .map(TrEventExecutionSummary.class::cast)
+        .toList();
+
+    assertEquals(count, summaries.size());
+    assertEquals(
+      3,
+      summaries.stream().mapToInt(TrEventExecutionSummary::revisionsApplied).sum()
+    );
+    for (final var summary : summaries) {
+      assertEquals(Optional.of(BigInteger.TWO), summary.versionAfter());
+    }
+
+    final var acquired =
+      this.events.stream()
+        .filter(e -> e instanceof TrEventLockWaited)
+        .map(TrEventLockWaited.class::cast)
+        .filter(TrEventLockWaited::acquired)
+        .count();
+    assertTrue(acquired >= 1L);
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(
+        Optional.of(BigInteger.TWO),
+        TrExecutorTest.schemaVersionGet(connection));
+    }
+  }
+
+  /**
+   * The commit performed before the lock is released is published.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockedCommitPublished()
+    throws Exception
+  {
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      new TrExecutors()
+        .create(this.configuration(
+          connection, lease, TrExecutorLockWaitPolicy.defaults()))
+        .execute();
+    }
+
+    assertEquals(
+      List.of(new TrEventCommitted(BigInteger.TWO)),
+      this.events.stream()
+        .filter(e -> e instanceof TrEventCommitted)
+        .toList()
+    );
+  }
+
+  /**
+   * Revisions committed by the commit policy are not published again when
+   * the lock is released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockedCommitPublishedOnce()
+    throws Exception
+  {
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      new TrExecutors()
+        .create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this.events::add,
+              this.revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection
+            )
+            .withLock(lease)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(2))
+            .build())
+        .execute();
+    }
+
+    assertEquals(
+      List.of(
+        new TrEventCommitted(BigInteger.ONE),
+        new TrEventCommitted(BigInteger.TWO)
+      ),
+      this.events.stream()
+        .filter(e -> e instanceof TrEventCommitted)
+        .toList()
+    );
+  }
+
+  /**
+   * An executor that cannot acquire the lock in time fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockTimeout()
+    throws Exception
+  {
+    final var held =
+      TrExecutorTableLease.builder(this.dataSource)
+        .withHolder("elsewhere")
+        .build();
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertTrue(held.tryAcquire(connection));
+
+      connection.setAutoCommit(false);
+      final var executor =
+        new TrExecutors().create(this.configuration(
+          connection, lease, fastPolicy(Duration.ofMillis(100L))));
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(LOCK_NOT_ACQUIRED, ex.errorCode());
+      assertTrue(this.events.isEmpty());
+      connection.rollback();
+    }
+  }
+
+  /**
+   * The lock is released, and the work is rolled back, if an upgrade fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockReleasedOnFailure()
+    throws Exception
+  {
+    final TrSchemaRevisionSet all;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrExecutorLockTest.class, this.directory, "example-9.xml")) {
+      all = new TrSchemaRevisionSetParsers()
+        .parse(URI.create("urn:stdin"), stream);
+    }
+    this.revisions = all;
+
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      final var executor =
+        new TrExecutors().create(this.configuration(
+          connection, lease, fastPolicy(Duration.ofMillis(100L))));
+
+      assertThrows(TrException.class, executor::execute);
+      assertEquals(Optional.empty(), TrExecutorTest.schemaVersionGet(connection));
+      assertTrue(lease.tryAcquire(connection));
+      connection.rollback();
+    }
+  }
+
+  /**
+   * The lock is not touched if no upgrade is required.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockUnusedWhenUpToDate()
+    throws Exception
+  {
+    final var lease =
+      TrExecutorTableLease.builder(this.dataSource)
+        .build();
+
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      new TrExecutors()
+        .create(this.configuration(
+          connection, lease, TrExecutorLockWaitPolicy.defaults()))
+        .execute();
+
+      this.events.clear();
+
+      final var refusing = new TrExecutorLockType()
+      {
+        @Override
+        public boolean tryAcquire(
+          final Connection c)
+        {
+          throw new IllegalStateException();
+        }
+
+        @Override
+        public void release(
+          final Connection c)
+          throws SQLException
+        {
+          throw new IllegalStateException();
+        }
+      };
+
+      new TrExecutors()
+        .create(this.configuration(
+          connection, refusing, TrExecutorLockWaitPolicy.defaults()))
+        .execute();
+
+      assertEquals(1, this.events.size());
+      assertTrue(this.events.peek() instanceof TrEventExecutionSummary);
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Invalid wait policies are rejected.
+   */
+
+  @Test
+  public void testWaitPolicyInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TrExecutorLockWaitPolicy(
+        Duration.ZERO, Duration.ofSeconds(1L), Duration.ofSeconds(1L));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TrExecutorLockWaitPolicy(
+        Duration.ofSeconds(2L), Duration.ofSeconds(1L), Duration.ofSeconds(1L));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TrExecutorLockWaitPolicy(
+        Duration.ofSeconds(1L), Duration.ofSeconds(1L), Duration.ofSeconds(-1L));
+    });
+  }
+}
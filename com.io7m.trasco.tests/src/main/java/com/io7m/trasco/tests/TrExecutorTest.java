@@ -19,12 +19,33 @@ package com.io7m.trasco.tests;
 import com.io7m.trasco.api.TrArgumentNumeric;
 import com.io7m.trasco.api.TrArgumentString;
 import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrEventBackfillProgress;
+import com.io7m.trasco.api.TrEventCommitted;
+import com.io7m.trasco.api.TrEventExecutedSQL;
+import com.io7m.trasco.api.TrEventExecutedSQLBatch;
 import com.io7m.trasco.api.TrEventExecutingSQL;
+import com.io7m.trasco.api.TrEventExecutionSummary;
+import com.io7m.trasco.api.TrEventInterest;
+import com.io7m.trasco.api.TrEventOverflowPolicy;
+import com.io7m.trasco.api.TrEventRevisionAttempted;
+import com.io7m.trasco.api.TrEventRevisionFinished;
 import com.io7m.trasco.api.TrEventType;
 import com.io7m.trasco.api.TrEventUpgrading;
 import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorCommitEveryRevisions;
 import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrExecutorEventBuffer;
+import com.io7m.trasco.api.TrExecutorFactoryType;
+import com.io7m.trasco.api.TrExecutorParallelism;
+import com.io7m.trasco.api.TrExecutorRetryPolicy;
+import com.io7m.trasco.api.TrExecutorTimeouts;
+import com.io7m.trasco.api.TrExecutorType;
+import com.io7m.trasco.api.TrSchemaRevision;
 import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.vanilla.TrDialectDerby;
+import com.io7m.trasco.vanilla.TrDialects;
 import com.io7m.trasco.vanilla.TrExecutors;
 import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
 import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
@@ -38,18 +59,42 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static com.io7m.trasco.api.TrErrorCode.INTERRUPTED;
+import static com.io7m.trasco.api.TrErrorCode.OPERATION_UNSUPPORTED;
+import static com.io7m.trasco.api.TrErrorCode.PLAN_OUTDATED;
+import static com.io7m.trasco.api.TrErrorCode.SCHEMA_REVISION_ELIDED;
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static com.io7m.trasco.api.TrErrorCode.STATEMENT_TIMED_OUT;
 import static com.io7m.trasco.api.TrErrorCode.UNRECOGNIZED_SCHEMA_REVISION;
 import static com.io7m.trasco.api.TrErrorCode.UPGRADE_DISALLOWED;
 import static com.io7m.trasco.api.TrExecutorUpgrade.FAIL_INSTEAD_OF_UPGRADING;
 import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class TrExecutorTest
 {
@@ -58,6 +103,7 @@ public final class TrExecutorTest
   private TrExecutors executors;
   private TrSchemaRevisionSetParsers parsers;
   private ArrayDeque<TrEventType> events;
+  private ArrayDeque<TrEventType> timings;
 
   @BeforeEach
   public void setup()
@@ -71,6 +117,7 @@ public final class TrExecutorTest
     this.dataSource.setCreateDatabase("true");
     this.dataSource.setConnectionAttributes("create=true");
     this.events = new ArrayDeque<TrEventType>();
+    this.timings = new ArrayDeque<TrEventType>();
   }
 
   @AfterEach
@@ -83,7 +130,48 @@ public final class TrExecutorTest
   private void onEvent(
     final TrEventType event)
   {
-    this.events.add(event);
+    switch (event) {
+      case final TrEventExecutedSQL e -> this.timings.add(e);
+      case final TrEventExecutedSQLBatch e -> this.timings.add(e);
+      case final TrEventRevisionFinished e -> this.timings.add(e);
+      case final TrEventExecutionSummary e -> this.timings.add(e);
+      default -> this.events.add(event);
+    }
+  }
+
+  private void checkRevisionFinished(
+    final int version,
+    final int statements)
+  {
+    final var e = assertInstanceOf(
+      TrEventRevisionFinished.class,
+      this.timings.remove()
+    );
+    assertEquals(BigInteger.valueOf(version), e.version());
+    assertEquals(statements, e.statementCount());
+    assertTrue(e.elapsedNanos() >= 0L);
+  }
+
+  private void checkExecuted(
+    final long updateCount)
+  {
+    final var e = assertInstanceOf(
+      TrEventExecutedSQL.class,
+      this.timings.remove()
+    );
+    assertEquals(updateCount, e.updateCount());
+    assertTrue(e.elapsedNanos() >= 0L);
+  }
+
+  private void checkExecutedBatch(
+    final int size)
+  {
+    final var e = assertInstanceOf(
+      TrEventExecutedSQLBatch.class,
+      this.timings.remove()
+    );
+    assertEquals(size, e.updateCounts().size());
+    assertTrue(e.elapsedNanos() >= 0L);
   }
 
   /**
@@ -297,6 +385,20 @@ public final class TrExecutorTest
     );
 
     assertEquals(0, this.events.size());
+
+    for (int index = 0; index < 4; ++index) {
+      this.checkExecuted(0L);
+      this.checkRevisionFinished(index, 1);
+    }
+
+    final var summary =
+      assertInstanceOf(TrEventExecutionSummary.class, this.timings.remove());
+    assertEquals(Optional.empty(), summary.versionBefore());
+    assertEquals(Optional.of(new BigInteger("3")), summary.versionAfter());
+    assertEquals(4, summary.revisionsApplied());
+    assertEquals(4, summary.statementsExecuted());
+    assertTrue(summary.elapsedNanos() >= 0L);
+    assertEquals(0, this.timings.size());
   }
 
   /**
@@ -475,13 +577,2534 @@ public final class TrExecutorTest
 
     final var statement = (TrEventExecutingSQL) this.events.remove();
     assertEquals(
-      "insert into x values (23, 23, '\\\"23', 23.0, 23.0)",
+      "insert into x values (23, 23, '\"23', 23.0, 23.0)",
       statement.statement()
     );
 
     assertEquals(0, this.events.size());
   }
 
+  /**
+   * String arguments interpolated by formatting are quoted as SQL literals,
+   * and quotes within them do not terminate the literal.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUpgradeParameterizedFormattedQuotes()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-6.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var text = "it's a '); drop table x; --";
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(new TrExecutorConfiguration(
+          c -> Optional.empty(),
+          (version, c) -> {
+
+          },
+          this::onEvent,
+          revisions,
+          PERFORM_UPGRADES,
+          new TrArguments(
+            Map.ofEntries(
+              entry("number0", new TrArgumentNumeric("number0", 23)),
+              entry("number1", new TrArgumentNumeric("number1", 23L)),
+              entry("string0", new TrArgumentString("string0", text)),
+              entry("number2", new TrArgumentNumeric("number2", 23.0)),
+              entry("number3", new TrArgumentNumeric("number3", BigDecimal.valueOf(23.0)))
+            )
+          ),
+          connection
+        ));
+
+      executor.execute();
+
+      try (var statement =
+             connection.prepareStatement("select f2 from x")) {
+        try (var result = statement.executeQuery()) {
+          result.next();
+          assertEquals(text, result.getString(1));
+        }
+      }
+      connection.commit();
+    }
+  }
+
+  /**
+   * Upgrading with statement batching enabled works, and preserves the
+   * declared statement order around parameterized statements.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUpgradeFullOKBatched()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-7.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              c -> Optional.empty(),
+              (version, c) -> {
+
+              },
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              new TrArguments(
+                Map.ofEntries(
+                  entry("number0", new TrArgumentNumeric("number0", 23))
+                )
+              ),
+              connection)
+            .withStatementBatchSize(2)
+            .build()
+        );
+
+      executor.execute();
+
+      try (var statement =
+             connection.prepareStatement("select f0, f1 from y")) {
+        try (var result = statement.executeQuery()) {
+          result.next();
+          assertEquals(23, result.getInt(1));
+        }
+      }
+      connection.commit();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("-1"),
+        new BigInteger("0")),
+      this.events.remove()
+    );
+    for (int index = 0; index < 6; ++index) {
+      assertEquals(
+        TrEventExecutingSQL.class,
+        this.events.remove().getClass()
+      );
+    }
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("0"),
+        new BigInteger("1")),
+      this.events.remove()
+    );
+    for (int index = 0; index < 2; ++index) {
+      assertEquals(
+        TrEventExecutingSQL.class,
+        this.events.remove().getClass()
+      );
+    }
+
+    assertEquals(0, this.events.size());
+
+    this.checkExecutedBatch(2);
+    this.checkExecuted(0L);
+    this.checkExecuted(1L);
+    this.checkExecutedBatch(2);
+    this.checkRevisionFinished(0, 6);
+    this.checkExecutedBatch(2);
+    this.checkRevisionFinished(1, 2);
+
+    final var summary =
+      assertInstanceOf(TrEventExecutionSummary.class, this.timings.remove());
+    assertEquals(Optional.empty(), summary.versionBefore());
+    assertEquals(Optional.of(BigInteger.ONE), summary.versionAfter());
+    assertEquals(2, summary.revisionsApplied());
+    assertEquals(8, summary.statementsExecuted());
+    assertEquals(0, this.timings.size());
+  }
+
+  /**
+   * A failing statement within a batch is identified precisely.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUpgradeBatchedFailureIdentifiesStatement()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-8.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var executor =
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            connection -> Optional.empty(),
+            (version, connection) -> {
+
+            },
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            this.dataSource.getConnection())
+          .withStatementBatchSize(100)
+          .build()
+      );
+
+    final var ex =
+      assertThrows(TrException.class, executor::execute);
+
+    assertEquals(SQL_EXCEPTION, ex.errorCode());
+    assertEquals("0", ex.attributes().get("Revision"));
+    assertEquals("2", ex.attributes().get("Statement Index"));
+    assertEquals(
+      "insert into nonexistent values (23)",
+      ex.attributes().get("Statement")
+    );
+  }
+
+  /**
+   * Batch sizes must be positive.
+   */
+
+  @Test
+  public void testBatchSizeInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrExecutorConfiguration.builder(
+          connection -> Optional.empty(),
+          (version, connection) -> {
+
+          },
+          this::onEvent,
+          new TrSchemaRevisionSet(Map.of(), new TreeMap<>()),
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          this.dataSource.getConnection())
+        .withStatementBatchSize(0)
+        .build();
+    });
+  }
+
+  /**
+   * Committing after every revision allows a failed upgrade to be resumed
+   * from the last committed revision.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCommitEveryRevisionResumes()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-9.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(1))
+            .build()
+        );
+
+      final var ex =
+        assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      connection.rollback();
+    }
+
+    assertEquals(
+      List.of(
+        new TrEventCommitted(new BigInteger("0")),
+        new TrEventCommitted(new BigInteger("1")),
+        new TrEventCommitted(new BigInteger("2"))
+      ),
+      this.events.stream()
+        .filter(e -> e instanceof TrEventCommitted)
+        .toList()
+    );
+    this.events.clear();
+
+    /*
+     * Replace the broken revision, and execute the upgrade again.
+     */
+
+    final var fixed =
+      new TreeMap<>(revisions.revisions().headMap(BigInteger.TWO, true));
+    fixed.put(
+      new BigInteger("3"),
+      new TrSchemaRevision(
+        new BigInteger("3"),
+        List.of(new TrStatement("create table c (f0 integer)"))
+      )
+    );
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(
+        Optional.of(BigInteger.TWO),
+        schemaVersionGet(connection)
+      );
+
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              new TrSchemaRevisionSet(revisions.parameters(), fixed),
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(1))
+            .build()
+        );
+
+      executor.execute();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("2"),
+        new BigInteger("3")),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(
+      new TrEventCommitted(new BigInteger("3")),
+      this.events.remove()
+    );
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Committing after every N revisions commits at each N, and at the end.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCommitEveryTwoRevisions()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-9.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var valid =
+      new TrSchemaRevisionSet(
+        revisions.parameters(),
+        new TreeMap<>(revisions.revisions().headMap(BigInteger.TWO, true))
+      );
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              valid,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(2))
+            .build()
+        );
+
+      executor.execute();
+    }
+
+    assertEquals(
+      List.of(
+        new TrEventCommitted(new BigInteger("1")),
+        new TrEventCommitted(new BigInteger("2"))
+      ),
+      this.events.stream()
+        .filter(e -> e instanceof TrEventCommitted)
+        .toList()
+    );
+  }
+
+  /**
+   * Revisions that must be applied cannot be elided.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testElidedRevisionRequired()
+    throws Exception
+  {
+    final var revisions =
+      this.parseWithOptions(
+        "example-9.xml",
+        TrSchemaRevisionSetParserOptions.elidingUpTo(BigInteger.ONE)
+      );
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          new TrExecutorConfiguration(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection
+          )
+        );
+
+      final var ex =
+        assertThrows(TrException.class, executor::execute);
+      assertEquals(SCHEMA_REVISION_ELIDED, ex.errorCode());
+      assertEquals("0", ex.attributes().get("Revision"));
+    }
+
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Revisions that have already been applied can be elided.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testElidedRevisionsApplied()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-9.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(1))
+            .build()
+        );
+
+      assertThrows(TrException.class, executor::execute);
+      connection.rollback();
+    }
+    this.events.clear();
+
+    /*
+     * Parse the revisions again, eliding everything that the database
+     * already has, and replace the broken revision.
+     */
+
+    final Optional<BigInteger> existing;
+    try (var connection = this.dataSource.getConnection()) {
+      existing = schemaVersionGet(connection);
+    }
+    assertEquals(Optional.of(BigInteger.TWO), existing);
+
+    final var elided =
+      this.parseWithOptions(
+        "example-9.xml",
+        TrSchemaRevisionSetParserOptions.elidingUpTo(existing.get())
+      );
+
+    assertEquals(
+      TrSchemaRevision.elidedRevision(BigInteger.TWO),
+      elided.revisions().get(BigInteger.TWO)
+    );
+
+    final var fixed = new TreeMap<>(elided.revisions());
+    fixed.put(
+      new BigInteger("3"),
+      new TrSchemaRevision(
+        new BigInteger("3"),
+        List.of(new TrStatement("create table c (f0 integer)"))
+      )
+    );
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              new TrSchemaRevisionSet(elided.parameters(), fixed),
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withCommitPolicy(new TrExecutorCommitEveryRevisions(1))
+            .build()
+        );
+
+      executor.execute();
+      assertEquals(
+        Optional.of(new BigInteger("3")),
+        schemaVersionGet(connection)
+      );
+      connection.rollback();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("2"),
+        new BigInteger("3")),
+      this.events.remove()
+    );
+  }
+
+  /**
+   * Empty databases are created using the baseline, followed by any later
+   * revisions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBaselineFresh()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-10.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+
+      assertEquals(
+        Optional.of(new BigInteger("3")),
+        schemaVersionGet(connection)
+      );
+
+      try (var statement = connection.prepareStatement(
+        "insert into a (f0, f1) values (1, 2)")) {
+        statement.execute();
+      }
+      connection.rollback();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("-1"),
+        new BigInteger("2")),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("2"),
+        new BigInteger("3")),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(0, this.events.size());
+
+    this.checkExecuted(0L);
+    this.checkExecuted(0L);
+    this.checkRevisionFinished(2, 2);
+    this.checkExecuted(0L);
+    this.checkRevisionFinished(3, 1);
+
+    final var summary = assertInstanceOf(
+      TrEventExecutionSummary.class,
+      this.timings.remove()
+    );
+    assertEquals(2, summary.revisionsApplied());
+    assertEquals(3, summary.statementsExecuted());
+  }
+
+  /**
+   * Databases that already have a schema version are upgraded using the
+   * individual revisions, even if a baseline is present.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBaselineIgnoredForExisting()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-10.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            new TrSchemaRevisionSet(
+              revisions.parameters(),
+              revisions.revisions().headMap(BigInteger.ONE, true)),
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+      connection.commit();
+    }
+    this.events.clear();
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+
+      assertEquals(
+        Optional.of(new BigInteger("3")),
+        schemaVersionGet(connection)
+      );
+      connection.rollback();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("1"),
+        new BigInteger("2")),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventExecutingSQL("alter table a add column f1 integer"),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventUpgrading(
+        new BigInteger("2"),
+        new BigInteger("3")),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Revisions covered by the baseline can be elided when creating empty
+   * databases.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBaselineElided()
+    throws Exception
+  {
+    final var revisions =
+      this.parseWithOptions(
+        "example-10.xml",
+        TrSchemaRevisionSetParserOptions.elidingUpTo(BigInteger.TWO)
+      );
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+
+      assertEquals(
+        Optional.of(new BigInteger("3")),
+        schemaVersionGet(connection)
+      );
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Non-transactional revisions commit the preceding work, and remain
+   * committed (along with their version) if a later revision fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNonTransactionalRevision()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-11.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    assertTrue(revisions.revisions().get(BigInteger.ONE).isTransactional());
+    assertFalse(revisions.revisions().get(BigInteger.TWO).isTransactional());
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      connection.rollback();
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(Optional.of(BigInteger.TWO), schemaVersionGet(connection));
+      try (var statement = connection.prepareStatement(
+        "select count(*) from a")) {
+        statement.execute();
+      }
+      connection.rollback();
+    }
+
+    assertEquals(
+      new TrEventUpgrading(new BigInteger("-1"), BigInteger.ZERO),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(
+      new TrEventUpgrading(BigInteger.ZERO, BigInteger.ONE),
+      this.events.remove()
+    );
+    assertEquals(
+      TrEventExecutingSQL.class,
+      this.events.remove().getClass()
+    );
+    assertEquals(
+      new TrEventUpgrading(BigInteger.ONE, BigInteger.TWO),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventCommitted(BigInteger.ONE),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventExecutingSQL("create index a_f0 on a (f0)"),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventCommitted(BigInteger.TWO),
+      this.events.remove()
+    );
+    assertEquals(
+      new TrEventUpgrading(BigInteger.TWO, new BigInteger("3")),
+      this.events.remove()
+    );
+  }
+
+  /**
+   * Parallel groups are executed concurrently on separate connections.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelGroup()
+    throws Exception
+  {
+    this.checkParallelGroup(
+      Optional.of(new TrExecutorParallelism(this.dataSource, 2)), 1);
+  }
+
+  /**
+   * Parallel groups are still executed concurrently when statement batching
+   * is enabled, and their statements are never batched.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelGroupBatched()
+    throws Exception
+  {
+    this.checkParallelGroup(
+      Optional.of(new TrExecutorParallelism(this.dataSource, 2)), 8);
+
+    final var batched =
+      this.timings.stream()
+        .filter(e -> e instanceof TrEventExecutedSQLBatch)
+        .map(TrEventExecutedSQLBatch.class::cast)
+        .mapToInt(e -> e.updateCounts().size())
+        .sum();
+
+    /*
+     * Only the table creations in revision 1 are batched.
+     */
+
+    assertEquals(4, batched);
+  }
+
+  /**
+   * Parallel groups are executed sequentially on the main connection if no
+   * parallelism is configured.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelGroupSequential()
+    throws Exception
+  {
+    this.checkParallelGroup(Optional.empty(), 1);
+  }
+
+  private void checkParallelGroup(
+    final Optional<TrExecutorParallelism> parallelism,
+    final int batchSize)
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-12.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var builder =
+        TrExecutorConfiguration.builder(
+          TrExecutorTest::schemaVersionGet,
+          TrExecutorTest::schemaVersionSet,
+          this::onEvent,
+          new TrSchemaRevisionSet(
+            revisions.parameters(),
+            revisions.revisions().headMap(BigInteger.TWO, true)),
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          connection);
+
+      parallelism.ifPresent(builder::withParallelism);
+      builder.withStatementBatchSize(batchSize);
+      this.executors.create(builder.build()).execute();
+      connection.rollback();
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(Optional.of(BigInteger.TWO), schemaVersionGet(connection));
+      assertEquals(4, indexCount(connection));
+      connection.rollback();
+    }
+
+    final var executing =
+      this.events.stream()
+        .filter(e -> e instanceof TrEventExecutingSQL)
+        .count();
+    assertEquals(9L, executing);
+
+    final var summary = assertInstanceOf(
+      TrEventExecutionSummary.class,
+      this.timings.removeLast()
+    );
+    assertEquals(3, summary.revisionsApplied());
+    assertEquals(9, summary.statementsExecuted());
+  }
+
+  /**
+   * If a statement in a parallel group fails, the version is not updated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelGroupFailure()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-12.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withParallelism(new TrExecutorParallelism(this.dataSource, 1))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      assertEquals("3", ex.attributes().get("Revision"));
+      assertEquals(
+        "create index nonexistent_f0 on nonexistent (f0)",
+        ex.attributes().get("Statement")
+      );
+      connection.rollback();
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(Optional.of(BigInteger.TWO), schemaVersionGet(connection));
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Interrupting the executor while a parallel group is executing raises an
+   * exception with an error code.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelGroupInterrupted()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-12.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var main = Thread.currentThread();
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              event -> {
+                if (event instanceof final TrEventExecutingSQL e
+                    && e.statement().startsWith("create index a_f0 ")) {
+                  main.interrupt();
+                }
+                this.onEvent(event);
+              },
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withParallelism(new TrExecutorParallelism(this.dataSource, 1))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertTrue(Thread.interrupted());
+      assertEquals(INTERRUPTED, ex.errorCode());
+      assertEquals("2", ex.attributes().get("Revision"));
+      assertInstanceOf(InterruptedException.class, ex.getCause());
+      connection.rollback();
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(Optional.of(BigInteger.ONE), schemaVersionGet(connection));
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Backfill statements are executed in chunks until no rows remain.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBackfill()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-13.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+      connection.rollback();
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      assertEquals(Optional.of(BigInteger.TWO), schemaVersionGet(connection));
+      try (var statement = connection.prepareStatement(
+        "select count(*) from t where f1 = f0")) {
+        try (var result = statement.executeQuery()) {
+          result.next();
+          assertEquals(5, result.getInt(1));
+        }
+      }
+      connection.rollback();
+    }
+
+    final var progress =
+      this.events.stream()
+        .filter(e -> e instanceof TrEventBackfillProgress)
+        .map(TrEventBackfillProgress.class::cast)
+        .toList();
+
+    assertEquals(3, progress.size());
+    assertEquals(List.of(1L, 2L, 3L), progress.stream()
+      .map(TrEventBackfillProgress::chunk)
+      .toList());
+    assertEquals(List.of(2L, 2L, 1L), progress.stream()
+      .map(TrEventBackfillProgress::rowsChunk)
+      .toList());
+    assertEquals(List.of(2L, 4L, 5L), progress.stream()
+      .map(TrEventBackfillProgress::rowsTotal)
+      .toList());
+
+    final var executed =
+      this.timings.stream()
+        .filter(e -> e instanceof TrEventExecutedSQL)
+        .map(TrEventExecutedSQL.class::cast)
+        .toList();
+    assertEquals(5L, executed.get(executed.size() - 1).updateCount());
+  }
+
+  /**
+   * Planning an upgrade computes the revisions and statements without
+   * executing anything, and the plan can then be executed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPlan()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-11.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              new TrSchemaRevisionSet(
+                revisions.parameters(),
+                revisions.revisions().headMap(BigInteger.TWO, true)),
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withTimingHistory(v -> Optional.of(Duration.ofSeconds(v.longValue())))
+            .build()
+        );
+
+      final var plan = executor.plan();
+      assertEquals(Optional.empty(), plan.versionBefore());
+      assertEquals(Optional.of(BigInteger.TWO), plan.versionAfter());
+      assertEquals(3, plan.revisions().size());
+      assertEquals(3, plan.statementCount());
+      assertEquals(Optional.of(Duration.ofSeconds(3L)), plan.estimatedDuration());
+      assertTrue(plan.hasHeavyLocks());
+
+      final var index = plan.revisions().get(2).statements().get(0);
+      assertEquals("create index a_f0 on a (f0)", index.text());
+      assertTrue(index.heavyLock());
+      assertFalse(plan.revisions().get(1).statements().get(0).heavyLock());
+
+      assertEquals(0, this.events.size());
+      assertEquals(Optional.empty(), schemaVersionGet(connection));
+
+      executor.execute(plan);
+      connection.commit();
+
+      assertEquals(Optional.of(BigInteger.TWO), schemaVersionGet(connection));
+
+      final var ex =
+        assertThrows(TrException.class, () -> executor.execute(plan));
+      assertEquals(PLAN_OUTDATED, ex.errorCode());
+      assertEquals("2", ex.attributes().get("Schema Version"));
+
+      final var planAfter = executor.plan();
+      assertEquals(Optional.of(BigInteger.TWO), planAfter.versionBefore());
+      assertEquals(Optional.of(BigInteger.TWO), planAfter.versionAfter());
+      assertEquals(List.of(), planAfter.revisions());
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Plans contain the exact text of statements after interpolation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPlanFormatted()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-6.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(new TrExecutorConfiguration(
+          c -> Optional.empty(),
+          (version, c) -> {
+
+          },
+          this::onEvent,
+          revisions,
+          PERFORM_UPGRADES,
+          new TrArguments(
+            Map.ofEntries(
+              entry("number0", new TrArgumentNumeric("number0", 23)),
+              entry("number1", new TrArgumentNumeric("number1", 23L)),
+              entry("string0", new TrArgumentString("string0", "\"23")),
+              entry("number2", new TrArgumentNumeric("number2", 23.0)),
+              entry("number3", new TrArgumentNumeric("number3", BigDecimal.valueOf(23.0)))
+            )
+          ),
+          connection
+        ));
+
+      final var plan = executor.plan();
+      final var statements = plan.revisions().get(0).statements();
+      assertEquals(
+        "insert into x values (23, 23, '\"23', 23.0, 23.0)",
+        statements.get(statements.size() - 1).text()
+      );
+      assertEquals(Optional.empty(), plan.estimatedDuration());
+      assertEquals(0, this.events.size());
+      connection.rollback();
+    }
+  }
+
+  /**
+   * Executors that do not implement plans report that plans are not
+   * supported.
+   */
+
+  @Test
+  public void testPlanUnsupported()
+  {
+    final TrExecutorType executor = () -> {
+
+    };
+
+    final var ex0 = assertThrows(TrException.class, executor::plan);
+    assertEquals(OPERATION_UNSUPPORTED, ex0.errorCode());
+
+    final var ex1 = assertThrows(TrException.class, () -> {
+      executor.execute(null);
+    });
+    assertEquals(OPERATION_UNSUPPORTED, ex1.errorCode());
+  }
+
+  /**
+   * Statements that run for longer than the query timeout fail.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testQueryTimeout()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-14.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withTimeouts(new TrExecutorTimeouts(
+              Optional.of(Duration.ofSeconds(1L)),
+              Optional.empty()))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(STATEMENT_TIMED_OUT, ex.errorCode());
+      assertEquals("3", ex.attributes().get("Revision"));
+      assertEquals("PT1S", ex.attributes().get("Query Timeout"));
+      assertEquals(
+        "insert into t (x) select 1 from sys.syscolumns a, sys.syscolumns b, sys.syscolumns c",
+        ex.attributes().get("Statement")
+      );
+      connection.rollback();
+    }
+  }
+
+  /**
+   * A statement that waits too long for a lock fails with a timeout when
+   * the Derby dialect is configured explicitly, and the lock timeout the
+   * database had beforehand is restored afterwards.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockTimeout()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-14.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    assertEquals(
+      Optional.of(Duration.ofSeconds(2L)),
+      revisions.revisions()
+        .get(BigInteger.TWO)
+        .statements()
+        .get(0)
+        .options()
+        .lockTimeout()
+    );
+
+    this.lockTimeoutPrepare(revisions, "30");
+
+    try (var holder = this.dataSource.getConnection()) {
+      holder.setAutoCommit(false);
+      try (var statement = holder.prepareStatement(
+        "insert into t (x) values (1)")) {
+        statement.execute();
+      }
+
+      try (var connection = this.dataSource.getConnection()) {
+        final var executor =
+          this.executors.create(
+            TrExecutorConfiguration.builder(
+                TrExecutorTest::schemaVersionGet,
+                TrExecutorTest::schemaVersionSet,
+                this::onEvent,
+                new TrSchemaRevisionSet(
+                  revisions.parameters(),
+                  revisions.revisions().headMap(BigInteger.TWO, true)),
+                PERFORM_UPGRADES,
+                TrArguments.empty(),
+                connection)
+              .withDialect(new TrDialectDerby())
+              .build()
+          );
+
+        final var ex = assertThrows(TrException.class, executor::execute);
+        assertEquals(STATEMENT_TIMED_OUT, ex.errorCode());
+        assertEquals("2", ex.attributes().get("Revision"));
+        assertEquals("PT2S", ex.attributes().get("Lock Timeout"));
+        connection.rollback();
+
+        assertEquals("30", waitTimeoutGet(connection));
+        connection.rollback();
+      }
+      holder.rollback();
+    }
+  }
+
+  /**
+   * Lock timeouts are not applied with a detected Derby dialect, as Derby
+   * can only apply them to the entire database.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLockTimeoutDetectedIgnored()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-14.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    this.lockTimeoutPrepare(revisions, "1");
+
+    try (var holder = this.dataSource.getConnection()) {
+      holder.setAutoCommit(false);
+      try (var statement = holder.prepareStatement(
+        "insert into t (x) values (1)")) {
+        statement.execute();
+      }
+
+      try (var connection = this.dataSource.getConnection()) {
+        final var executor =
+          this.executors.create(
+            TrExecutorConfiguration.builder(
+                TrExecutorTest::schemaVersionGet,
+                TrExecutorTest::schemaVersionSet,
+                this::onEvent,
+                new TrSchemaRevisionSet(
+                  revisions.parameters(),
+                  revisions.revisions().headMap(BigInteger.TWO, true)),
+                PERFORM_UPGRADES,
+                TrArguments.empty(),
+                connection)
+              .build()
+          );
+
+        final var ex = assertThrows(TrException.class, executor::execute);
+        assertEquals(SQL_EXCEPTION, ex.errorCode());
+        connection.rollback();
+
+        assertEquals("1", waitTimeoutGet(connection));
+        connection.rollback();
+      }
+      holder.rollback();
+    }
+  }
+
+  private void lockTimeoutPrepare(
+    final TrSchemaRevisionSet revisions,
+    final String waitTimeout)
+    throws Exception
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            new TrSchemaRevisionSet(
+              revisions.parameters(),
+              revisions.revisions().headMap(BigInteger.ONE, true)),
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .build()
+      ).execute();
+
+      try (var statement = connection.prepareCall(
+        "CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY('derby.locks.waitTimeout', ?)")) {
+        statement.setString(1, waitTimeout);
+        statement.execute();
+      }
+      connection.commit();
+    }
+  }
+
+  private static String waitTimeoutGet(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.prepareStatement(
+      "values SYSCS_UTIL.SYSCS_GET_DATABASE_PROPERTY('derby.locks.waitTimeout')")) {
+      try (var result = statement.executeQuery()) {
+        result.next();
+        return result.getString(1);
+      }
+    }
+  }
+
+  /**
+   * The Derby dialect is detected from the database metadata.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDialectDetected()
+    throws Exception
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      final var dialect =
+        TrDialects.detect(connection.getMetaData()).orElseThrow();
+      assertInstanceOf(TrDialectDerby.class, dialect);
+      assertEquals("Derby", dialect.name());
+    }
+  }
+
+  /**
+   * Statistics are refreshed after upgrades if requested.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStatisticsRefresh()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-15.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            c -> Optional.empty(),
+            (version, c) -> {
+
+            },
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withStatisticsRefresh(true)
+          .build()
+      ).execute();
+      connection.commit();
+
+      try (var statement = connection.prepareStatement(
+        "select count(*) from sys.sysstatistics")) {
+        try (var result = statement.executeQuery()) {
+          result.next();
+          assertTrue(result.getInt(1) > 0);
+        }
+      }
+      connection.rollback();
+    }
+  }
+
+  private static int indexCount(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.prepareStatement(
+      "select count(*) from sys.sysconglomerates where conglomeratename like '%_F0'")) {
+      try (var result = statement.executeQuery()) {
+        result.next();
+        return result.getInt(1);
+      }
+    }
+  }
+
+  private TrSchemaRevisionSet parseWithOptions(
+    final String name,
+    final TrSchemaRevisionSetParserOptions options)
+    throws Exception
+  {
+    try (var stream = this.resourceOf(name);
+         var parser = this.parsers.createParserWithContext(
+           options,
+           URI.create("urn:stdin"),
+           stream,
+           status -> {
+           })) {
+      return parser.execute();
+    }
+  }
+
+  /**
+   * Revisions that fail with a retryable SQL state are rolled back to a
+   * savepoint and retried.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetryTransient()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var failures = new int[]{1};
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            (version, c) -> {
+              if (version.equals(BigInteger.ONE) && failures[0]-- > 0) {
+                throw new SQLException("Deadlock.", "40P01");
+              }
+              schemaVersionSet(version, c);
+            },
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withRetryPolicy(
+            TrExecutorRetryPolicy.of(
+              3, Duration.ofMillis(1L), Duration.ofMillis(10L)))
+          .build()
+      ).execute();
+
+      assertEquals(
+        revisions.revisions().lastKey(),
+        schemaVersionGet(connection).orElseThrow()
+      );
+      connection.commit();
+    }
+
+    final var attempts =
+      this.attemptsOf(BigInteger.ONE);
+
+    assertEquals(2, attempts.size());
+    assertEquals(1, attempts.get(0).attempt());
+    assertFalse(attempts.get(0).succeeded());
+    assertTrue(attempts.get(0).retrying());
+    assertEquals(Optional.of("40P01"), attempts.get(0).sqlState());
+    assertEquals(2, attempts.get(1).attempt());
+    assertTrue(attempts.get(1).succeeded());
+    assertFalse(attempts.get(1).retrying());
+
+    /*
+     * Revision 0 was not applied again.
+     */
+
+    assertEquals(1, this.attemptsOf(BigInteger.ZERO).size());
+  }
+
+  /**
+   * Revisions that fail with a serialization failure cause the entire
+   * transaction to be rolled back and applied again, if the executor
+   * controls commits.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetrySerializationFailure()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var failures = new int[]{1};
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            (version, c) -> {
+              if (version.equals(BigInteger.ONE) && failures[0]-- > 0) {
+                throw new SQLException("Serialization failure.", "40001");
+              }
+              schemaVersionSet(version, c);
+            },
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withCommitPolicy(new TrExecutorCommitEveryRevisions(10))
+          .withRetryPolicy(
+            TrExecutorRetryPolicy.of(
+              3, Duration.ofMillis(1L), Duration.ofMillis(10L)))
+          .build()
+      ).execute();
+
+      assertEquals(
+        revisions.revisions().lastKey(),
+        schemaVersionGet(connection).orElseThrow()
+      );
+      connection.rollback();
+    }
+
+    final var attempts =
+      this.attemptsOf(BigInteger.ONE);
+
+    assertEquals(2, attempts.size());
+    assertFalse(attempts.get(0).succeeded());
+    assertTrue(attempts.get(0).retrying());
+    assertEquals(Optional.of("40001"), attempts.get(0).sqlState());
+    assertEquals(2, attempts.get(1).attempt());
+    assertTrue(attempts.get(1).succeeded());
+
+    /*
+     * Revision 0 was in the same transaction, and so was applied again.
+     */
+
+    final var attemptsZero =
+      this.attemptsOf(BigInteger.ZERO);
+
+    assertEquals(2, attemptsZero.size());
+    assertTrue(attemptsZero.get(0).succeeded());
+    assertEquals(1, attemptsZero.get(0).attempt());
+    assertTrue(attemptsZero.get(1).succeeded());
+    assertEquals(2, attemptsZero.get(1).attempt());
+
+    final var summary = assertInstanceOf(
+      TrEventExecutionSummary.class,
+      this.timings.removeLast()
+    );
+    assertEquals(4, summary.revisionsApplied());
+  }
+
+  /**
+   * Serialization failures are not retried if the caller controls commits,
+   * as the caller's transaction cannot be rolled back by the executor.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetrySerializationFailureByCaller()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              (version, c) -> {
+                if (version.equals(BigInteger.ONE)) {
+                  throw new SQLException("Serialization failure.", "40001");
+                }
+                schemaVersionSet(version, c);
+              },
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withRetryPolicy(
+              TrExecutorRetryPolicy.of(
+                3, Duration.ofMillis(1L), Duration.ofMillis(10L)))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      connection.rollback();
+    }
+
+    final var attempts =
+      this.attemptsOf(BigInteger.ONE);
+
+    assertEquals(1, attempts.size());
+    assertFalse(attempts.get(0).retrying());
+    assertEquals(Optional.of("40001"), attempts.get(0).sqlState());
+  }
+
+  /**
+   * Revisions that fail with a non-retryable SQL state are not retried.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetryNotRetryable()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              (version, c) -> {
+                if (version.equals(BigInteger.ONE)) {
+                  throw new SQLException("Syntax error.", "42000");
+                }
+                schemaVersionSet(version, c);
+              },
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withRetryPolicy(
+              TrExecutorRetryPolicy.of(
+                3, Duration.ofMillis(1L), Duration.ofMillis(10L)))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      connection.rollback();
+    }
+
+    final var attempts =
+      this.attemptsOf(BigInteger.ONE);
+
+    assertEquals(1, attempts.size());
+    assertFalse(attempts.get(0).succeeded());
+    assertFalse(attempts.get(0).retrying());
+    assertEquals(Optional.of("42000"), attempts.get(0).sqlState());
+  }
+
+  /**
+   * Revisions that keep failing are retried at most the configured number
+   * of times, and the earlier failures are attached to the final failure.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetryExhausted()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var executor =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              (version, c) -> {
+                if (version.equals(BigInteger.ONE)) {
+                  throw new SQLException("Deadlock.", "40P01");
+                }
+                schemaVersionSet(version, c);
+              },
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withRetryPolicy(
+              TrExecutorRetryPolicy.of(
+                3, Duration.ofMillis(1L), Duration.ofMillis(10L)))
+            .build()
+        );
+
+      final var ex = assertThrows(TrException.class, executor::execute);
+      assertEquals(SQL_EXCEPTION, ex.errorCode());
+      assertEquals(2, ex.getCause().getSuppressed().length);
+      connection.rollback();
+    }
+
+    final var attempts =
+      this.attemptsOf(BigInteger.ONE);
+
+    assertEquals(3, attempts.size());
+    assertTrue(attempts.get(0).retrying());
+    assertTrue(attempts.get(1).retrying());
+    assertFalse(attempts.get(2).retrying());
+  }
+
+  /**
+   * Asynchronous executions complete with the execution summary.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExecuteAsync()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var summary =
+        this.executors.create(new TrExecutorConfiguration(
+          TrExecutorTest::schemaVersionGet,
+          TrExecutorTest::schemaVersionSet,
+          this::onEvent,
+          revisions,
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          connection
+        )).executeAsync().get(30L, TimeUnit.SECONDS);
+
+      connection.commit();
+      assertEquals(Optional.empty(), summary.versionBefore());
+      assertEquals(
+        Optional.of(revisions.revisions().lastKey()),
+        summary.versionAfter()
+      );
+      assertEquals(revisions.revisions().size(), summary.revisionsApplied());
+    }
+  }
+
+  /**
+   * Executors that do not implement asynchronous execution return a failed
+   * future.
+   */
+
+  @Test
+  public void testExecuteAsyncUnsupported()
+  {
+    final TrExecutorType executor = () -> {
+
+    };
+
+    final var ex = assertThrows(ExecutionException.class, () -> {
+      executor.executeAsync(Runnable::run).get();
+    });
+    assertEquals(
+      OPERATION_UNSUPPORTED,
+      assertInstanceOf(TrException.class, ex.getCause()).errorCode()
+    );
+  }
+
+  /**
+   * Cancelling an asynchronous execution prevents any further statements
+   * from being executed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExecuteAsyncCancelled()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var future =
+      new AtomicReference<CompletableFuture<TrEventExecutionSummary>>();
+    final var tasks =
+      new ArrayList<Runnable>();
+
+    try (var connection = this.dataSource.getConnection()) {
+      future.set(
+        this.executors.create(new TrExecutorConfiguration(
+          TrExecutorTest::schemaVersionGet,
+          TrExecutorTest::schemaVersionSet,
+          event -> {
+            if (event instanceof TrEventExecutingSQL) {
+              future.get().cancel(false);
+            }
+            this.onEvent(event);
+          },
+          revisions,
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          connection
+        )).executeAsync(tasks::add)
+      );
+
+      assertEquals(1, tasks.size());
+      tasks.get(0).run();
+      connection.rollback();
+    }
+
+    assertTrue(future.get().isCancelled());
+    assertThrows(CancellationException.class, future.get()::join);
+    assertEquals(
+      1L,
+      this.events.stream()
+        .filter(e -> e instanceof TrEventExecutingSQL)
+        .count()
+    );
+    assertTrue(
+      this.timings.stream().noneMatch(e -> e instanceof TrEventExecutedSQL)
+    );
+  }
+
+  /**
+   * Cancelling an asynchronous execution aborts the statement that is
+   * currently executing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExecuteAsyncCancelledExecuting()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-14.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var executing = new CountDownLatch(1);
+    final CompletableFuture<TrEventExecutionSummary> future;
+
+    try (var connection = this.dataSource.getConnection();
+         var threads = Executors.newSingleThreadExecutor()) {
+      future =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              event -> {
+                if (event instanceof final TrEventExecutingSQL e
+                    && e.statement().startsWith("insert into t")) {
+                  executing.countDown();
+                }
+                this.onEvent(event);
+              },
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withRetryPolicy(TrExecutorRetryPolicy.of(
+              3, Duration.ofMillis(10L), Duration.ofMillis(10L)))
+            .build()
+        ).executeAsync(threads);
+
+      assertTrue(executing.await(10L, TimeUnit.SECONDS));
+
+      /*
+       * The event is published just before the statement starts, so wait
+       * for long enough that the statement is certain to be executing.
+       */
+
+      Thread.sleep(500L);
+      assertTrue(future.cancel(false));
+      threads.shutdown();
+      assertTrue(threads.awaitTermination(10L, TimeUnit.SECONDS));
+      connection.rollback();
+    }
+
+    assertTrue(future.isCancelled());
+
+    final var attempt =
+      this.events.stream()
+        .filter(e -> e instanceof TrEventRevisionAttempted)
+        .map(TrEventRevisionAttempted.class::cast)
+        .filter(e -> e.version().equals(BigInteger.valueOf(3L)))
+        .findFirst()
+        .orElseThrow();
+
+    assertFalse(attempt.succeeded());
+    assertFalse(attempt.retrying());
+    assertEquals(Optional.of("57014"), attempt.sqlState());
+    assertTrue(
+      this.timings.stream().noneMatch(e -> e instanceof TrEventExecutionSummary)
+    );
+  }
+
+  /**
+   * Buffered events are delivered on a separate thread, and every event has
+   * been delivered by the time execution returns.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventBufferBlock()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var threads = new ArrayList<Thread>();
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            event -> {
+              threads.add(Thread.currentThread());
+              sleepBriefly();
+              this.onEvent(event);
+            },
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withEventBuffer(
+            new TrExecutorEventBuffer(1, TrEventOverflowPolicy.BLOCK))
+          .build()
+      ).execute();
+      connection.commit();
+    }
+
+    assertInstanceOf(TrEventExecutionSummary.class, this.timings.peekLast());
+    assertEquals(
+      revisions.revisions().size(),
+      this.timings.stream()
+        .filter(e -> e instanceof TrEventRevisionFinished)
+        .count()
+    );
+    assertTrue(threads.stream().noneMatch(t -> t == Thread.currentThread()));
+  }
+
+  /**
+   * Buffers that drop the oldest events never make the executor wait.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventBufferDropOldest()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var executing = Thread.currentThread();
+    final var received = new ArrayList<TrEventType>();
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            event -> {
+              if (received.isEmpty()) {
+                awaitWaiting(executing);
+              }
+              received.add(event);
+            },
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withEventBuffer(
+            new TrExecutorEventBuffer(2, TrEventOverflowPolicy.DROP_OLDEST))
+          .build()
+      ).execute();
+      connection.commit();
+    }
+
+    assertEquals(3, received.size());
+    assertInstanceOf(TrEventUpgrading.class, received.get(0));
+    assertInstanceOf(TrEventRevisionFinished.class, received.get(1));
+    assertInstanceOf(TrEventExecutionSummary.class, received.get(2));
+  }
+
+  /**
+   * Buffers that coalesce progress events replace superseded progress
+   * events.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventBufferCoalesceProgress()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-13.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var executing = Thread.currentThread();
+    final var received = new ArrayList<TrEventBackfillProgress>();
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            event -> {
+              if (event instanceof final TrEventBackfillProgress p) {
+                if (received.isEmpty()) {
+                  awaitWaiting(executing);
+                }
+                received.add(p);
+              }
+            },
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withEventBuffer(
+            new TrExecutorEventBuffer(
+              1, TrEventOverflowPolicy.COALESCE_PROGRESS))
+          .build()
+      ).execute();
+      connection.rollback();
+    }
+
+    assertEquals(List.of(1L, 3L), received.stream()
+      .map(TrEventBackfillProgress::chunk)
+      .toList());
+    assertEquals(5L, received.get(1).rowsTotal());
+  }
+
+  /**
+   * Buffers that coalesce progress events replace superseded progress
+   * events even when progress events for other statements have been buffered
+   * since, so interleaved backfills in parallel groups never block.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventBufferCoalesceProgressInterleaved()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-16.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var received = new ArrayList<TrEventBackfillProgress>();
+    final var completed = new AtomicBoolean(false);
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            event -> {
+              if (event instanceof final TrEventBackfillProgress p) {
+                if (received.isEmpty()) {
+                  completed.set(this.awaitBackfilled());
+                }
+                received.add(p);
+              }
+            },
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withParallelism(new TrExecutorParallelism(this.dataSource, 2))
+          .withEventBuffer(
+            new TrExecutorEventBuffer(
+              3, TrEventOverflowPolicy.COALESCE_PROGRESS))
+          .build()
+      ).execute();
+      connection.rollback();
+    }
+
+    /*
+     * Both backfills completed while the consumer was blocked on the first
+     * progress event, so most progress events were coalesced.
+     */
+
+    assertTrue(completed.get());
+    assertTrue(received.size() < 20);
+
+    final var lastByStatement = new HashMap<String, TrEventBackfillProgress>();
+    for (final var p : received) {
+      lastByStatement.put(p.statement(), p);
+    }
+    assertEquals(2, lastByStatement.size());
+    for (final var p : lastByStatement.values()) {
+      assertEquals(10L, p.chunk());
+      assertEquals(20L, p.rowsTotal());
+    }
+  }
+
+  /**
+   * Wait until every row of the tables in example-16 has been backfilled.
+   */
+
+  private boolean awaitBackfilled()
+  {
+    final var timeEnd = System.nanoTime() + Duration.ofSeconds(10L).toNanos();
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(true);
+      while (System.nanoTime() < timeEnd) {
+        try (var st = connection.prepareStatement(
+          "select (select count(*) from a where f1 is null)"
+          + " + (select count(*) from b where f1 is null)"
+          + " from sysibm.sysdummy1")) {
+          try (var rs = st.executeQuery()) {
+            rs.next();
+            if (rs.getLong(1) == 0L) {
+              return true;
+            }
+          }
+        }
+        sleepBriefly();
+      }
+      return false;
+    } catch (final SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Only events of the types that the consumer is interested in are
+   * delivered.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventInterest()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    try (var connection = this.dataSource.getConnection()) {
+      this.executors.create(
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withEventInterest(
+            TrEventInterest.of(
+              TrEventUpgrading.class,
+              TrEventRevisionFinished.class))
+          .build()
+      ).execute();
+      connection.commit();
+    }
+
+    final var size = revisions.revisions().size();
+    assertEquals(size, this.events.size());
+    assertTrue(this.events.stream().allMatch(TrEventUpgrading.class::isInstance));
+    assertEquals(size, this.timings.size());
+    assertTrue(
+      this.timings.stream().allMatch(TrEventRevisionFinished.class::isInstance)
+    );
+  }
+
+  /**
+   * Duplicate event types are ignored, and null event types are rejected.
+   */
+
+  @Test
+  public void testEventInterestDuplicates()
+  {
+    assertEquals(
+      TrEventInterest.of(TrEventUpgrading.class, TrEventCommitted.class),
+      TrEventInterest.of(
+        TrEventUpgrading.class,
+        TrEventCommitted.class,
+        TrEventUpgrading.class)
+    );
+
+    assertThrows(NullPointerException.class, () -> {
+      TrEventInterest.of(TrEventUpgrading.class, null);
+    });
+  }
+
+  /**
+   * Consumers that are interested in no events receive nothing, but the
+   * execution summary is still available.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventInterestNone()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    assertTrue(
+      TrEventInterest.all().isInterested(TrEventRevisionAttempted.class)
+    );
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var summary =
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection)
+            .withEventInterest(TrEventInterest.none())
+            .build()
+        ).executeAsync().get(30L, TimeUnit.SECONDS);
+      connection.commit();
+
+      assertEquals(revisions.revisions().size(), summary.revisionsApplied());
+    }
+
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.timings.size());
+  }
+
+  /**
+   * A revision set compiled once can be executed by several executors, and
+   * binds the same values as an uncompiled revision set.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompiled()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-5.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var arguments =
+      new TrArguments(
+        Map.ofEntries(
+          entry("number0", new TrArgumentNumeric("number0", 23)),
+          entry("number1", new TrArgumentNumeric("number1", 23L)),
+          entry("string0", new TrArgumentString("string0", "23")),
+          entry("number2", new TrArgumentNumeric("number2", 23.0)),
+          entry("number3", new TrArgumentNumeric("number3", BigDecimal.valueOf(23.0)))
+        )
+      );
+
+    final var compiled =
+      this.executors.compile(revisions, arguments);
+
+    assertSame(revisions, compiled.revisions());
+    assertEquals(arguments, compiled.arguments());
+
+    for (int index = 0; index < 2; ++index) {
+      try (var connection = this.dataSource.getConnection()) {
+        this.executors.create(
+          TrExecutorConfiguration.builder(
+              c -> Optional.empty(),
+              (version, c) -> {
+
+              },
+              this::onEvent,
+              revisions,
+              PERFORM_UPGRADES,
+              arguments,
+              connection)
+            .withCompiled(compiled)
+            .build()
+        ).execute();
+
+        try (var statement = connection.prepareStatement(
+          "select f0, f1, f2, f3, f4 from x")) {
+          try (var result = statement.executeQuery()) {
+            assertTrue(result.next());
+            assertEquals(23, result.getInt(1));
+            assertEquals(23L, result.getLong(2));
+            assertEquals("23", result.getString(3));
+            assertEquals(23.0, result.getDouble(4));
+            assertEquals(23, result.getBigDecimal(5).intValueExact());
+            assertFalse(result.next());
+          }
+        }
+        connection.rollback();
+      }
+    }
+  }
+
+  /**
+   * Factories that do not implement compilation report that compiled
+   * revision sets are not supported.
+   */
+
+  @Test
+  public void testCompiledUnsupported()
+  {
+    final TrExecutorFactoryType factory = configuration -> {
+      throw new UnsupportedOperationException();
+    };
+
+    final var ex = assertThrows(TrException.class, () -> {
+      factory.compile(
+        new TrSchemaRevisionSet(Map.of(), new TreeMap<>()),
+        TrArguments.empty());
+    });
+    assertEquals(OPERATION_UNSUPPORTED, ex.errorCode());
+  }
+
+  /**
+   * Compiling a revision set fails if the arguments are missing, and
+   * compiled revision sets cannot be used with other revision sets.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompiledMismatch()
+    throws Exception
+  {
+    final TrSchemaRevisionSet revisions;
+    try (var stream = this.resourceOf("example-5.xml")) {
+      revisions = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    assertThrows(TrException.class, () -> {
+      this.executors.compile(revisions, TrArguments.empty());
+    });
+
+    final TrSchemaRevisionSet other;
+    try (var stream = this.resourceOf("example-1.xml")) {
+      other = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var compiled =
+      this.executors.compile(other, TrArguments.empty());
+
+    try (var connection = this.dataSource.getConnection()) {
+      final var builder =
+        TrExecutorConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this::onEvent,
+            revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            connection)
+          .withCompiled(compiled);
+
+      assertThrows(IllegalArgumentException.class, builder::build);
+    }
+  }
+
+  /**
+   * Wait until the given thread is blocked waiting for another thread.
+   */
+
+  private static void awaitWaiting(
+    final Thread thread)
+  {
+    final var timeEnd = System.nanoTime() + Duration.ofSeconds(10L).toNanos();
+    while (thread.getState() != Thread.State.WAITING) {
+      if (System.nanoTime() > timeEnd) {
+        throw new IllegalStateException("Thread did not block.");
+      }
+      sleepBriefly();
+    }
+  }
+
+  private static void sleepBriefly()
+  {
+    try {
+      Thread.sleep(1L);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private List<TrEventRevisionAttempted> attemptsOf(
+    final BigInteger version)
+  {
+    return this.events.stream()
+      .filter(e -> e instanceof TrEventRevisionAttempted)
+      .map(TrEventRevisionAttempted.class::cast)
+      .filter(e -> e.version().equals(version))
+      .toList();
+  }
+
+  static Optional<BigInteger> schemaVersionGet(
+    final Connection connection)
+    throws SQLException
+  {
+    final var metadata = connection.getMetaData();
+    try (var tables =
+           metadata.getTables(null, null, "SCHEMA_VERSION", null)) {
+      if (!tables.next()) {
+        return Optional.empty();
+      }
+    }
+
+    try (var statement = connection.prepareStatement(
+      "select version_number from schema_version")) {
+      try (var result = statement.executeQuery()) {
+        if (!result.next()) {
+          return Optional.empty();
+        }
+        return Optional.of(BigInteger.valueOf(result.getLong(1)));
+      }
+    }
+  }
+
+  static void schemaVersionSet(
+    final BigInteger version,
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.prepareStatement(
+      "update schema_version set version_number = ?")) {
+      statement.setLong(1, version.longValueExact());
+      if (statement.executeUpdate() > 0) {
+        return;
+      }
+    }
+
+    try (var statement = connection.prepareStatement(
+      "insert into schema_version (version_number) values (?)")) {
+      statement.setLong(1, version.longValueExact());
+      statement.execute();
+    }
+  }
+
   private InputStream resourceOf(
     final String name)
     throws IOException
@@ -0,0 +1,560 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrEventInterest;
+import com.io7m.trasco.api.TrEventUpgrading;
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorRetryPolicy;
+import com.io7m.trasco.api.TrFleetConfiguration;
+import com.io7m.trasco.api.TrFleetEvent;
+import com.io7m.trasco.api.TrFleetFailurePolicy;
+import com.io7m.trasco.api.TrFleetTarget;
+import com.io7m.trasco.api.TrFleetTargetFailed;
+import com.io7m.trasco.api.TrFleetTargetSkipped;
+import com.io7m.trasco.api.TrFleetTargetSucceeded;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrFleetExecutors;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.io7m.trasco.api.TrErrorCode.FLEET_TARGET_FAILED;
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TrFleetExecutorTest
+{
+  private Path directory;
+  private TrFleetExecutors executors;
+  private TrSchemaRevisionSetParsers parsers;
+  private ConcurrentLinkedQueue<TrFleetEvent> events;
+  private TrSchemaRevisionSet revisions;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.parsers = new TrSchemaRevisionSetParsers();
+    this.executors = new TrFleetExecutors();
+    this.directory = TrTestDirectories.createTempDirectory();
+    this.events = new ConcurrentLinkedQueue<>();
+
+    final TrSchemaRevisionSet all;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrFleetExecutorTest.class, this.directory, "example-9.xml")) {
+      all = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    this.revisions =
+      new TrSchemaRevisionSet(
+        all.parameters(),
+        new TreeMap<>(all.revisions().headMap(BigInteger.TWO, true))
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private EmbeddedConnectionPoolDataSource dataSource(
+    final String name)
+  {
+    final var dataSource = new EmbeddedConnectionPoolDataSource();
+    dataSource.setDatabaseName(this.directory.resolve(name).toString());
+    dataSource.setCreateDatabase("true");
+    dataSource.setConnectionAttributes("create=true");
+    return dataSource;
+  }
+
+  private List<TrFleetTarget> targets(
+    final int count)
+  {
+    final var targets = new ArrayList<TrFleetTarget>(count);
+    for (int index = 0; index < count; ++index) {
+      final var name = "tenant-%d".formatted(Integer.valueOf(index));
+      final var dataSource = this.dataSource(name);
+      targets.add(new TrFleetTarget(name, dataSource::getConnection));
+    }
+    return targets;
+  }
+
+  private static TrFleetTarget broken(
+    final String name)
+  {
+    return new TrFleetTarget(name, () -> {
+      throw new SQLException("Connection refused.");
+    });
+  }
+
+  private Optional<BigInteger> versionOf(
+    final String name)
+    throws SQLException
+  {
+    try (var connection = this.dataSource(name).getConnection()) {
+      return TrExecutorTest.schemaVersionGet(connection);
+    }
+  }
+
+  /**
+   * Every target in a fleet is upgraded and committed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetUpgradeOK()
+    throws Exception
+  {
+    final var targets = this.targets(6);
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(3)
+          .build()
+      ).execute();
+
+    assertTrue(result.isSuccessful());
+    assertEquals(6, result.results().size());
+
+    for (int index = 0; index < targets.size(); ++index) {
+      final var name = targets.get(index).name();
+      assertEquals(name, result.results().get(index).target());
+      assertInstanceOf(TrFleetTargetSucceeded.class, result.results().get(index));
+      assertEquals(Optional.of(BigInteger.TWO), this.versionOf(name));
+      assertEquals(
+        3L,
+        this.events.stream()
+          .filter(e -> e.target().equals(name))
+          .filter(e -> e.event() instanceof TrEventUpgrading)
+          .count()
+      );
+    }
+  }
+
+  /**
+   * Failures of individual targets do not affect other targets.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetContinueOnError()
+    throws Exception
+  {
+    final var targets = new ArrayList<>(this.targets(2));
+    targets.add(1, broken("broken"));
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(1)
+          .build()
+      ).execute();
+
+    assertFalse(result.isSuccessful());
+    assertEquals(1, result.failures().size());
+
+    final var failed = result.failures().get(0);
+    assertEquals("broken", failed.target());
+    assertEquals(SQL_EXCEPTION, failed.exception().errorCode());
+
+    assertInstanceOf(
+      TrFleetTargetSucceeded.class,
+      result.resultFor("tenant-0").orElseThrow());
+    assertInstanceOf(
+      TrFleetTargetSucceeded.class,
+      result.resultFor("tenant-1").orElseThrow());
+    assertEquals(Optional.of(BigInteger.TWO), this.versionOf("tenant-1"));
+  }
+
+  /**
+   * Failed upgrades are rolled back.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetFailureRolledBack()
+    throws Exception
+  {
+    final TrSchemaRevisionSet all;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrFleetExecutorTest.class, this.directory, "example-9.xml")) {
+      all = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var targets = this.targets(2);
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            all,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .build()
+      ).execute();
+
+    assertEquals(2, result.failures().size());
+    assertEquals(Optional.empty(), this.versionOf("tenant-0"));
+    assertEquals(Optional.empty(), this.versionOf("tenant-1"));
+  }
+
+  /**
+   * With a fail-fast policy, targets are not started after a failure.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetFailFast()
+    throws Exception
+  {
+    final var targets = new ArrayList<TrFleetTarget>();
+    targets.add(broken("broken"));
+    targets.addAll(this.targets(3));
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(1)
+          .withFailurePolicy(TrFleetFailurePolicy.FAIL_FAST)
+          .build()
+      ).execute();
+
+    assertInstanceOf(TrFleetTargetFailed.class, result.results().get(0));
+    assertInstanceOf(TrFleetTargetSkipped.class, result.results().get(1));
+    assertInstanceOf(TrFleetTargetSkipped.class, result.results().get(2));
+    assertInstanceOf(TrFleetTargetSkipped.class, result.results().get(3));
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * A failure in one fail-fast execution does not cause targets to be
+   * skipped in later executions of the same executor.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetFailFastRepeated()
+    throws Exception
+  {
+    final var attempts = new AtomicInteger(0);
+    final var dataSource = this.dataSource("flaky");
+    final var targets = new ArrayList<TrFleetTarget>();
+    targets.add(new TrFleetTarget("flaky", () -> {
+      if (attempts.getAndIncrement() == 0) {
+        throw new SQLException("Connection refused.");
+      }
+      return dataSource.getConnection();
+    }));
+    targets.addAll(this.targets(2));
+
+    final var executor =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(1)
+          .withFailurePolicy(TrFleetFailurePolicy.FAIL_FAST)
+          .build()
+      );
+
+    final var first = executor.execute();
+    assertInstanceOf(TrFleetTargetFailed.class, first.results().get(0));
+    assertInstanceOf(TrFleetTargetSkipped.class, first.results().get(1));
+    assertInstanceOf(TrFleetTargetSkipped.class, first.results().get(2));
+
+    final var second = executor.execute();
+    assertTrue(second.isSuccessful());
+    for (final var result : second.results()) {
+      assertInstanceOf(TrFleetTargetSucceeded.class, result);
+    }
+    assertEquals(Optional.of(BigInteger.TWO), this.versionOf("flaky"));
+  }
+
+  /**
+   * Unexpected exceptions raised for one target are reported as failures of
+   * that target, and do not affect other targets.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetUnexpectedException()
+    throws Exception
+  {
+    final var targets = this.targets(3);
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(1)
+          .withTargetOptions((target, builder) -> {
+            if ("tenant-1".equals(target.name())) {
+              throw new IllegalStateException("Misconfigured.");
+            }
+          })
+          .build()
+      ).execute();
+
+    assertEquals(3, result.results().size());
+    assertEquals(1, result.failures().size());
+
+    final var failed = result.failures().get(0);
+    assertEquals("tenant-1", failed.target());
+    assertEquals(FLEET_TARGET_FAILED, failed.exception().errorCode());
+    assertInstanceOf(IllegalStateException.class, failed.exception().getCause());
+
+    assertInstanceOf(
+      TrFleetTargetSucceeded.class,
+      result.resultFor("tenant-0").orElseThrow());
+    assertInstanceOf(
+      TrFleetTargetSucceeded.class,
+      result.resultFor("tenant-2").orElseThrow());
+    assertEquals(Optional.empty(), this.versionOf("tenant-1"));
+    assertEquals(Optional.of(BigInteger.TWO), this.versionOf("tenant-2"));
+  }
+
+  /**
+   * Upgrades that fail with unexpected exceptions are rolled back, and
+   * honour the fail-fast policy.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetUnexpectedExceptionRolledBack()
+    throws Exception
+  {
+    final var targets = new ArrayList<TrFleetTarget>();
+    final var faulty = this.dataSource("faulty");
+    targets.add(new TrFleetTarget("faulty", faulty::getConnection));
+    targets.addAll(this.targets(2));
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            (version, connection) -> {
+              if (connection.getMetaData().getURL().endsWith("faulty")) {
+                throw new IllegalStateException("Version rejected.");
+              }
+              TrExecutorTest.schemaVersionSet(version, connection);
+            },
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withConcurrency(1)
+          .withFailurePolicy(TrFleetFailurePolicy.FAIL_FAST)
+          .build()
+      ).execute();
+
+    final var failed =
+      assertInstanceOf(TrFleetTargetFailed.class, result.results().get(0));
+    assertEquals(FLEET_TARGET_FAILED, failed.exception().errorCode());
+    assertEquals(0, failed.exception().getSuppressed().length);
+    assertInstanceOf(TrFleetTargetSkipped.class, result.results().get(1));
+    assertInstanceOf(TrFleetTargetSkipped.class, result.results().get(2));
+    assertEquals(Optional.empty(), this.versionOf("faulty"));
+  }
+
+  /**
+   * Further options are set on the executor configuration of every target.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetTargetOptions()
+    throws Exception
+  {
+    final var targets = this.targets(3);
+    final var configured = new ConcurrentLinkedQueue<String>();
+
+    final var result =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            this.revisions,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            targets)
+          .withTargetOptions((target, builder) -> {
+            configured.add(target.name());
+            builder.withEventInterest(TrEventInterest.none())
+              .withRetryPolicy(TrExecutorRetryPolicy.of(
+                3, Duration.ofMillis(10L), Duration.ofMillis(10L)));
+          })
+          .build()
+      ).execute();
+
+    assertTrue(result.isSuccessful());
+    assertEquals(
+      List.of("tenant-0", "tenant-1", "tenant-2"),
+      configured.stream().sorted().toList()
+    );
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Arguments are checked once, before any target is opened.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFleetArgumentsCheckedOnce()
+    throws Exception
+  {
+    final TrSchemaRevisionSet parameterized;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrFleetExecutorTest.class, this.directory, "example-7.xml")) {
+      parameterized = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var opened = new AtomicInteger(0);
+    final var target =
+      new TrFleetTarget("t", () -> {
+        opened.incrementAndGet();
+        throw new SQLException("Unreachable.");
+      });
+
+    final var executor =
+      this.executors.create(
+        TrFleetConfiguration.builder(
+            TrExecutorTest::schemaVersionGet,
+            TrExecutorTest::schemaVersionSet,
+            this.events::add,
+            parameterized,
+            PERFORM_UPGRADES,
+            TrArguments.empty(),
+            List.of(target))
+          .build()
+      );
+
+    assertThrows(TrException.class, executor::execute);
+    assertEquals(0, opened.get());
+  }
+
+  /**
+   * Target names must be unique.
+   */
+
+  @Test
+  public void testFleetDuplicateTargets()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrFleetConfiguration.builder(
+          TrExecutorTest::schemaVersionGet,
+          TrExecutorTest::schemaVersionSet,
+          this.events::add,
+          this.revisions,
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          List.of(broken("x"), broken("x")))
+        .build();
+    });
+  }
+
+  /**
+   * The concurrency limit must be positive.
+   */
+
+  @Test
+  public void testFleetConcurrencyInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrFleetConfiguration.builder(
+          TrExecutorTest::schemaVersionGet,
+          TrExecutorTest::schemaVersionSet,
+          this.events::add,
+          this.revisions,
+          PERFORM_UPGRADES,
+          TrArguments.empty(),
+          List.of())
+        .withConcurrency(0)
+        .build();
+    });
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.TrExecutors;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class TrJFRTest
+{
+  private Path directory;
+  private EmbeddedConnectionPoolDataSource dataSource;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory = TrTestDirectories.createTempDirectory();
+    this.dataSource = new EmbeddedConnectionPoolDataSource();
+    this.dataSource.setDatabaseName(this.directory.resolve("db").toString());
+    this.dataSource.setCreateDatabase("true");
+    this.dataSource.setConnectionAttributes("create=true");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Parsing and upgrading publish flight recorder events.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEventsRecorded()
+    throws Exception
+  {
+    final var output = this.directory.resolve("recording.jfr");
+
+    try (var recording = new Recording()) {
+      recording.enable("com.io7m.trasco.Parse");
+      recording.enable("com.io7m.trasco.Upgrade");
+      recording.enable("com.io7m.trasco.Statement");
+      recording.enable("com.io7m.trasco.VersionRetrieve");
+      recording.start();
+
+      final TrSchemaRevisionSet revisions;
+      try (var stream = TrTestDirectories.resourceStreamOf(
+        TrJFRTest.class, this.directory, "example-1.xml")) {
+        revisions = new TrSchemaRevisionSetParsers()
+          .parse(URI.create("urn:stdin"), stream);
+      }
+
+      try (var connection = this.dataSource.getConnection()) {
+        new TrExecutors()
+          .create(
+            new TrExecutorConfiguration(
+              TrExecutorTest::schemaVersionGet,
+              TrExecutorTest::schemaVersionSet,
+              e -> {
+              },
+              revisions,
+              PERFORM_UPGRADES,
+              TrArguments.empty(),
+              connection
+            )
+          ).execute();
+        connection.rollback();
+      }
+
+      recording.stop();
+      recording.dump(output);
+    }
+
+    final var events = RecordingFile.readAllEvents(output);
+
+    final var parses = named(events, "com.io7m.trasco.Parse");
+    assertEquals(1, parses.size());
+    assertEquals("xml", parses.get(0).getString("format"));
+    assertEquals(4, parses.get(0).getInt("revisions"));
+
+    final var versions = named(events, "com.io7m.trasco.VersionRetrieve");
+    assertEquals(1, versions.size());
+    assertEquals("", versions.get(0).getString("version"));
+
+    final var upgrades = named(events, "com.io7m.trasco.Upgrade");
+    assertEquals(4, upgrades.size());
+    assertEquals("-1", upgrades.get(0).getString("versionFrom"));
+    assertEquals("0", upgrades.get(0).getString("versionTo"));
+    assertEquals(1, upgrades.get(0).getInt("statements"));
+
+    final var statements = named(events, "com.io7m.trasco.Statement");
+    assertEquals(4, statements.size());
+    assertEquals("0", statements.get(0).getString("revision"));
+    assertEquals(
+      "create table schema_version",
+      statements.get(0).getString("sql").substring(0, 27)
+    );
+  }
+
+  private static List<RecordedEvent> named(
+    final List<RecordedEvent> events,
+    final String name)
+  {
+    return events.stream()
+      .filter(e -> e.getEventType().getName().equals(name))
+      .sorted((x, y) -> x.getStartTime().compareTo(y.getStartTime()))
+      .toList();
+  }
+}
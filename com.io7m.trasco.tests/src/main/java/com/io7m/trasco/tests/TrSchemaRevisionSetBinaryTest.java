@@ -0,0 +1,347 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.anethum.api.ParseStatus;
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinaryParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinarySerializers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TrSchemaRevisionSetBinaryTest
+{
+  private TrSchemaRevisionSetParsers parsers;
+  private TrSchemaRevisionSetBinaryParsers binaryParsers;
+  private TrSchemaRevisionSetBinarySerializers binarySerializers;
+  private Path directory;
+  private ArrayList<ParseStatus> statuses;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.parsers =
+      new TrSchemaRevisionSetParsers();
+    this.binaryParsers =
+      new TrSchemaRevisionSetBinaryParsers();
+    this.binarySerializers =
+      new TrSchemaRevisionSetBinarySerializers();
+    this.directory =
+      TrTestDirectories.createTempDirectory();
+    this.statuses =
+      new ArrayList<>();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testRoundTrip()
+  {
+    return Stream.of(
+        "example-0.xml",
+        "example-1.xml",
+        "example-4.xml",
+        "example-5.xml",
+        "example-6.xml",
+        "example-7.xml",
+        "example-9.xml",
+        "example-10.xml",
+        "example-11.xml",
+        "example-12.xml",
+        "example-13.xml",
+        "example-14.xml")
+      .map(name -> {
+        return DynamicTest.dynamicTest(
+          "testRoundTrip_" + name,
+          () -> this.roundTrip(name));
+      });
+  }
+
+  private void roundTrip(
+    final String name)
+    throws Exception
+  {
+    final TrSchemaRevisionSet set;
+    try (var stream = this.resourceOf(name)) {
+      set = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var bytes = this.serialize(set);
+    final var result =
+      this.binaryParsers.parse(
+        URI.create("urn:stdin"),
+        new ByteArrayInputStream(bytes),
+        this.statuses::add
+      );
+
+    assertEquals(set, result);
+    assertEquals(0, this.statuses.size());
+
+    /*
+     * Serialization is deterministic.
+     */
+
+    assertArrayEquals(bytes, this.serialize(result));
+  }
+
+  /**
+   * Eliding revisions in the binary parser produces the same results as
+   * eliding revisions in the XML parser.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testElided()
+    throws Exception
+  {
+    final var options =
+      TrSchemaRevisionSetParserOptions.elidingUpTo(BigInteger.ONE);
+
+    final TrSchemaRevisionSet full;
+    final TrSchemaRevisionSet elided;
+    try (var stream = this.resourceOf("example-9.xml")) {
+      full = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+    try (var stream = this.resourceOf("example-9.xml");
+         var parser = this.parsers.createParserWithContext(
+           options, URI.create("urn:stdin"), stream, this.statuses::add)) {
+      elided = parser.execute();
+    }
+
+    final TrSchemaRevisionSet elidedBinary;
+    try (var parser = this.binaryParsers.createParserWithContext(
+      options,
+      URI.create("urn:stdin"),
+      new ByteArrayInputStream(this.serialize(full)),
+      this.statuses::add)) {
+      elidedBinary = parser.execute();
+    }
+
+    assertEquals(elided, elidedBinary);
+    assertEquals(0, this.statuses.size());
+
+    final var revisions = elided.revisions();
+    assertEquals(full.revisions().keySet(), revisions.keySet());
+    assertEquals(
+      TrSchemaRevision.elidedRevision(BigInteger.ZERO),
+      revisions.get(BigInteger.ZERO)
+    );
+    assertEquals(
+      TrSchemaRevision.elidedRevision(BigInteger.ONE),
+      revisions.get(BigInteger.ONE)
+    );
+    assertEquals(
+      full.revisions().get(BigInteger.TWO),
+      revisions.get(BigInteger.TWO)
+    );
+    assertEquals(
+      full.revisions().get(new BigInteger("3")),
+      revisions.get(new BigInteger("3"))
+    );
+
+    assertThrows(SerializationException.class, () -> this.serialize(elided));
+  }
+
+  @Test
+  public void testBadMagic()
+    throws Exception
+  {
+    final var bytes = this.serializeExample();
+    bytes[0] = 0x7f;
+
+    final var ex = this.parseFails(bytes);
+    assertEquals(
+      "error-binary-magic",
+      ex.statusValues().get(0).errorCode()
+    );
+    assertEquals(1, this.statuses.size());
+  }
+
+  @Test
+  public void testBadVersion()
+    throws Exception
+  {
+    final var bytes = this.serializeExample();
+    bytes[7] = 0x7f;
+
+    final var ex = this.parseFails(bytes);
+    assertEquals(
+      "error-binary-version",
+      ex.statusValues().get(0).errorCode()
+    );
+  }
+
+  /**
+   * Version 1 files, which have no baseline section, are still accepted.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testVersion1()
+    throws Exception
+  {
+    final var text = "create table x (f0 integer)".getBytes(UTF_8);
+
+    final var statements = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(statements)) {
+      output.writeInt(1);
+      output.writeByte(0);
+      output.writeInt(text.length);
+      output.write(text);
+    }
+
+    final var body = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(body)) {
+      output.writeInt(0);
+      output.writeInt(1);
+      output.writeInt(1);
+      output.writeByte(0);
+      output.writeInt(statements.size());
+      statements.writeTo(output);
+    }
+
+    final var file = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(file)) {
+      output.writeInt(0x54525342);
+      output.writeInt(1);
+      output.write(
+        MessageDigest.getInstance("SHA-256").digest(body.toByteArray()));
+      output.writeInt(body.size());
+      body.writeTo(output);
+    }
+
+    final var result =
+      this.binaryParsers.parse(
+        URI.create("urn:stdin"),
+        new ByteArrayInputStream(file.toByteArray()),
+        this.statuses::add
+      );
+
+    assertEquals(
+      List.of(new TrStatement("create table x (f0 integer)")),
+      result.revisions().get(BigInteger.ZERO).statements()
+    );
+    assertEquals(Optional.empty(), result.baseline());
+    assertEquals(0, this.statuses.size());
+  }
+
+  @Test
+  public void testBadHash()
+    throws Exception
+  {
+    final var bytes = this.serializeExample();
+    bytes[bytes.length - 1] ^= 0x1;
+
+    final var ex = this.parseFails(bytes);
+    assertEquals(
+      "error-binary-hash",
+      ex.statusValues().get(0).errorCode()
+    );
+  }
+
+  @Test
+  public void testTruncated()
+    throws Exception
+  {
+    final var bytes = this.serializeExample();
+
+    final var ex =
+      this.parseFails(Arrays.copyOf(bytes, bytes.length - 10));
+    assertEquals(
+      "error-binary-truncated",
+      ex.statusValues().get(0).errorCode()
+    );
+  }
+
+  private ParsingException parseFails(
+    final byte[] bytes)
+  {
+    return assertThrows(ParsingException.class, () -> {
+      this.binaryParsers.parse(
+        URI.create("urn:stdin"),
+        new ByteArrayInputStream(bytes),
+        this.statuses::add
+      );
+    });
+  }
+
+  private byte[] serializeExample()
+    throws Exception
+  {
+    try (var stream = this.resourceOf("example-5.xml")) {
+      return this.serialize(
+        this.parsers.parse(URI.create("urn:stdin"), stream));
+    }
+  }
+
+  private byte[] serialize(
+    final TrSchemaRevisionSet set)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    this.binarySerializers.serialize(URI.create("urn:stdout"), output, set);
+    return output.toByteArray();
+  }
+
+  private InputStream resourceOf(
+    final String name)
+    throws IOException
+  {
+    return TrTestDirectories.resourceStreamOf(
+      TrSchemaRevisionSetBinaryTest.class,
+      this.directory,
+      name
+    );
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.tests;
+
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.vanilla.TrExecutors;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetBinaryParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetGenerator;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetGeneratorConfiguration;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetGeneratorMain;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetXMLSerializers;
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TrSchemaRevisionSetGeneratorTest
+{
+  private Path directory;
+  private TrSchemaRevisionSetParsers parsers;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory = TrTestDirectories.createTempDirectory();
+    this.parsers = new TrSchemaRevisionSetParsers();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    TrTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static TrSchemaRevisionSetGeneratorConfiguration.Builder mixed()
+  {
+    return TrSchemaRevisionSetGeneratorConfiguration.builder()
+      .withSeed(0x5eedL)
+      .withRevisions(20)
+      .withStatementsPerRevision(8)
+      .withParameters(6)
+      .withParameterizedFraction(0.5)
+      .withStringFormattingFraction(0.5);
+  }
+
+  /**
+   * Generation is deterministic for a given seed.
+   */
+
+  @Test
+  public void testDeterministic()
+  {
+    final var configuration = mixed().build();
+
+    assertEquals(
+      TrSchemaRevisionSetGenerator.generate(configuration),
+      TrSchemaRevisionSetGenerator.generate(configuration)
+    );
+    assertNotEquals(
+      TrSchemaRevisionSetGenerator.generate(configuration),
+      TrSchemaRevisionSetGenerator.generate(mixed().withSeed(1L).build())
+    );
+  }
+
+  /**
+   * The generated revision set has the requested shape.
+   */
+
+  @Test
+  public void testShape()
+  {
+    final var set =
+      TrSchemaRevisionSetGenerator.generate(mixed().build());
+
+    assertEquals(6, set.parameters().size());
+    assertEquals(20, set.revisions().size());
+
+    var parameterized = 0;
+    var formatted = 0;
+    for (final var revision : set.revisions().values()) {
+      assertEquals(8, revision.statements().size());
+      for (final var statement : revision.statements()) {
+        if (statement instanceof final TrStatementParameterized p) {
+          ++parameterized;
+          if (p.interpolation() == TrParameterInterpolation.STRING_FORMATTING) {
+            ++formatted;
+          }
+        }
+      }
+    }
+
+    assertTrue(parameterized > 0);
+    assertTrue(formatted > 0);
+    assertTrue(formatted < parameterized);
+  }
+
+  /**
+   * Statements are padded to sizes within the requested range.
+   */
+
+  @Test
+  public void testStatementSizes()
+  {
+    final var set =
+      TrSchemaRevisionSetGenerator.generate(
+        TrSchemaRevisionSetGeneratorConfiguration.builder()
+          .withParameters(0)
+          .withStatementSizeMinimum(100)
+          .withStatementSizeMaximum(200)
+          .build()
+      );
+
+    for (final var revision : set.revisions().values()) {
+      final var inserts =
+        revision.statements().subList(1, revision.statements().size());
+      for (final var statement : inserts) {
+        final var text = assertInstanceOf(TrStatement.class, statement).text();
+        assertTrue(text.length() >= 100, text);
+        assertTrue(text.length() <= 200, text);
+      }
+    }
+  }
+
+  /**
+   * Generated revision sets survive a round trip through the XML format,
+   * and so the generated documents are valid.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testXMLRoundTrip()
+    throws Exception
+  {
+    final var set =
+      TrSchemaRevisionSetGenerator.generate(mixed().build());
+
+    final var output = new ByteArrayOutputStream();
+    new TrSchemaRevisionSetXMLSerializers()
+      .serialize(URI.create("urn:stdout"), output, set);
+
+    final var result =
+      this.parsers.parse(
+        URI.create("urn:stdin"),
+        new ByteArrayInputStream(output.toByteArray())
+      );
+
+    assertEquals(set, result);
+  }
+
+  /**
+   * Revision sets containing text that cannot appear in CDATA sections
+   * survive a round trip through the XML format.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testXMLRoundTripCDATATerminator()
+    throws Exception
+  {
+    final TrSchemaRevisionSet set;
+    try (var stream = TrTestDirectories.resourceStreamOf(
+      TrSchemaRevisionSetGeneratorTest.class,
+      this.directory,
+      "example-5.xml")) {
+      set = this.parsers.parse(URI.create("urn:stdin"), stream);
+    }
+
+    final var revision = set.revisions().firstEntry().getValue();
+    final var statements = new ArrayList<>(revision.statements());
+    statements.add(new TrStatement("select ']]>' from sysibm.sysdummy1"));
+
+    final var revisions = new TreeMap<>(set.revisions());
+    revisions.put(
+      revision.version(),
+      new TrSchemaRevision(revision.version(), statements)
+    );
+    final var modified =
+      new TrSchemaRevisionSet(set.parameters(), revisions);
+
+    final var output = new ByteArrayOutputStream();
+    new TrSchemaRevisionSetXMLSerializers()
+      .serialize(URI.create("urn:stdout"), output, modified);
+
+    assertEquals(
+      modified,
+      this.parsers.parse(
+        URI.create("urn:stdin"),
+        new ByteArrayInputStream(output.toByteArray())
+      )
+    );
+  }
+
+  /**
+   * Generated revision sets can be executed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExecute()
+    throws Exception
+  {
+    final var configuration = mixed().build();
+
+    final var dataSource = new EmbeddedConnectionPoolDataSource();
+    dataSource.setDatabaseName(this.directory.resolve("db").toString());
+    dataSource.setConnectionAttributes("create=true");
+
+    try (var connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+
+      new TrExecutors().create(new TrExecutorConfiguration(
+        c -> Optional.empty(),
+        (version, c) -> {
+
+        },
+        event -> {
+
+        },
+        TrSchemaRevisionSetGenerator.generate(configuration),
+        PERFORM_UPGRADES,
+        TrSchemaRevisionSetGenerator.arguments(configuration),
+        connection
+      )).execute();
+
+      try (var statement = connection.createStatement()) {
+        try (var result = statement.executeQuery(
+          "select count(*) from gen_19")) {
+          result.next();
+          assertEquals(7, result.getInt(1));
+        }
+      }
+      connection.rollback();
+    }
+  }
+
+  /**
+   * The command-line program writes documents in both formats.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMain()
+    throws Exception
+  {
+    final var xml = this.directory.resolve("out.xml");
+    final var binary = this.directory.resolve("out.trb");
+
+    final var options = new String[] {
+      "--seed", "23",
+      "--revisions", "5",
+      "--statements-per-revision", "3",
+      "--parameters", "2",
+      "--statement-size-minimum", "10",
+      "--statement-size-maximum", "20",
+      "--parameterized-fraction", "1.0",
+      "--string-formatting-fraction", "0.0",
+    };
+
+    TrSchemaRevisionSetGeneratorMain.main(withOutput(xml, options));
+    TrSchemaRevisionSetGeneratorMain.main(withOutput(binary, options));
+
+    final var expected =
+      TrSchemaRevisionSetGenerator.generate(
+        TrSchemaRevisionSetGeneratorConfiguration.builder()
+          .withSeed(23L)
+          .withRevisions(5)
+          .withStatementsPerRevision(3)
+          .withParameters(2)
+          .withStatementSizeMinimum(10)
+          .withStatementSizeMaximum(20)
+          .withParameterizedFraction(1.0)
+          .withStringFormattingFraction(0.0)
+          .build()
+      );
+
+    try (var stream = Files.newInputStream(xml)) {
+      assertEquals(
+        expected,
+        this.parsers.parse(URI.create("urn:stdin"), stream));
+    }
+    try (var stream = Files.newInputStream(binary)) {
+      assertEquals(
+        expected,
+        new TrSchemaRevisionSetBinaryParsers()
+          .parse(URI.create("urn:stdin"), stream));
+    }
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> TrSchemaRevisionSetGeneratorMain.main(
+        withOutput(xml, "--unknown", "x")));
+  }
+
+  /**
+   * Invalid configurations are rejected.
+   */
+
+  @Test
+  public void testConfigurationInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withRevisions(0)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withStatementsPerRevision(0)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withStatementSizeMinimum(300)
+        .withStatementSizeMaximum(200)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withStatementSizeMaximum(1_000_000)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withParameterizedFraction(1.5)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      TrSchemaRevisionSetGeneratorConfiguration.builder()
+        .withStringFormattingFraction(Double.NaN)
+        .build();
+    });
+  }
+
+  private static String[] withOutput(
+    final Path output,
+    final String... options)
+  {
+    final var args = new String[options.length + 1];
+    args[0] = output.toString();
+    System.arraycopy(options, 0, args, 1, options.length);
+    return args;
+  }
+}
@@ -20,29 +20,41 @@ package com.io7m.trasco.tests;
 import com.io7m.anethum.api.ParsingException;
 import com.io7m.trasco.api.TrParameterReference;
 import com.io7m.trasco.api.TrParameterReferences;
+import com.io7m.trasco.api.TrSchemaBaseline;
 import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
 import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
 import com.io7m.trasco.api.TrStatementParameterized;
 import com.io7m.trasco.vanilla.TrSchemaRevisionSetParsers;
+import com.io7m.trasco.vanilla.TrSchemaRevisionSetXMLSerializers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.math.BigInteger;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import static com.io7m.trasco.api.TrParameterInterpolation.PREPARED_STATEMENT;
 import static com.io7m.trasco.api.TrParameterInterpolation.STRING_FORMATTING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class TrSchemaRevisionSetParsersTest
@@ -221,6 +233,150 @@ insert into x values (%s, %s, %s, %s, %s)
     }
   }
 
+  @Test
+  public void testExample10()
+    throws Exception
+  {
+    try (var stream = this.resourceOf("example-10.xml")) {
+      final var set =
+        this.parsers.parse(URI.create("urn:stdin"), stream);
+
+      assertEquals(4, set.revisions().size());
+
+      final var baseline = set.baseline().orElseThrow();
+      assertEquals(BigInteger.TWO, baseline.version());
+      assertEquals(2, baseline.statements().size());
+      assertEquals(
+        new TrStatement("create table a (f0 integer, f1 integer)"),
+        baseline.statements().get(1)
+      );
+    }
+  }
+
+  @Test
+  public void testExample12()
+    throws Exception
+  {
+    try (var stream = this.resourceOf("example-12.xml")) {
+      final var set =
+        this.parsers.parse(URI.create("urn:stdin"), stream);
+
+      final var rev2 = set.revisions().get(BigInteger.TWO);
+      assertEquals(4, rev2.statements().size());
+      assertFalse(rev2.isTransactional());
+      for (final var statement : rev2.statements()) {
+        assertEquals(
+          TrStatementOptions.inParallelGroup(0),
+          statement.options()
+        );
+      }
+
+      final var output = new ByteArrayOutputStream();
+      new TrSchemaRevisionSetXMLSerializers()
+        .serialize(URI.create("urn:stdout"), output, set);
+
+      assertEquals(
+        set,
+        this.parsers.parse(
+          URI.create("urn:stdin"),
+          new ByteArrayInputStream(output.toByteArray()))
+      );
+    }
+  }
+
+  @Test
+  public void testExample13()
+    throws Exception
+  {
+    try (var stream = this.resourceOf("example-13.xml")) {
+      final var set =
+        this.parsers.parse(URI.create("urn:stdin"), stream);
+
+      final var rev2 = set.revisions().get(BigInteger.TWO);
+      assertFalse(rev2.isTransactional());
+      assertEquals(
+        List.of(
+          new TrStatementBackfill(
+            "update t set f1 = f0\n  where id in (select id from t where f1 is null order by id fetch first ? rows only)",
+            2,
+            Duration.ofMillis(1L))
+        ),
+        rev2.statements()
+      );
+
+      final var output = new ByteArrayOutputStream();
+      new TrSchemaRevisionSetXMLSerializers()
+        .serialize(URI.create("urn:stdout"), output, set);
+
+      assertEquals(
+        set,
+        this.parsers.parse(
+          URI.create("urn:stdin"),
+          new ByteArrayInputStream(output.toByteArray()))
+      );
+    }
+  }
+
+  @Test
+  public void testExample14()
+    throws Exception
+  {
+    try (var stream = this.resourceOf("example-14.xml")) {
+      final var set =
+        this.parsers.parse(URI.create("urn:stdin"), stream);
+
+      assertEquals(
+        new TrStatementOptions(
+          true,
+          OptionalInt.empty(),
+          Optional.of(Duration.ofMinutes(1L)),
+          Optional.empty()),
+        set.revisions().get(BigInteger.ONE).statements().get(0).options()
+      );
+      assertEquals(
+        new TrStatementOptions(
+          true,
+          OptionalInt.empty(),
+          Optional.empty(),
+          Optional.of(Duration.ofSeconds(2L))),
+        set.revisions().get(BigInteger.TWO).statements().get(0).options()
+      );
+
+      final var output = new ByteArrayOutputStream();
+      new TrSchemaRevisionSetXMLSerializers()
+        .serialize(URI.create("urn:stdout"), output, set);
+
+      assertEquals(
+        set,
+        this.parsers.parse(
+          URI.create("urn:stdin"),
+          new ByteArrayInputStream(output.toByteArray()))
+      );
+    }
+  }
+
+  /**
+   * Baselines must refer to known revisions.
+   */
+
+  @Test
+  public void testBaselineUnknownVersion()
+  {
+    final var revisions = new TreeMap<BigInteger, TrSchemaRevision>();
+    revisions.put(
+      BigInteger.ZERO,
+      new TrSchemaRevision(BigInteger.ZERO, List.of())
+    );
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TrSchemaRevisionSet(
+        Map.of(),
+        revisions,
+        Optional.of(new TrSchemaBaseline(BigInteger.ONE, List.of()))
+      );
+    });
+  }
+
   @TestFactory
   public Stream<DynamicTest> testErrors()
   {
@@ -229,7 +385,18 @@ insert into x values (%s, %s, %s, %s, %s)
       "error-1.xml",
       "error-2.xml",
       "error-3.xml",
-      "error-4.xml")
+      "error-4.xml",
+      "error-5.xml",
+      "error-6.xml",
+      "error-7.xml",
+      "error-8.xml",
+      "error-9.xml",
+      "error-10.xml",
+      "error-11.xml",
+      "error-12.xml",
+      "error-13.xml",
+      "error-14.xml",
+      "error-15.xml")
       .map(name -> {
         return DynamicTest.dynamicTest(
           "testError_" + name,
@@ -26,7 +26,9 @@ open module com.io7m.trasco.tests
   requires org.junit.platform.engine;
 
   requires com.io7m.trasco.api;
+  requires com.io7m.trasco.testing;
   requires com.io7m.trasco.vanilla;
+  requires jdk.jfr;
   requires org.apache.derby.tools;
   requires org.slf4j;
 
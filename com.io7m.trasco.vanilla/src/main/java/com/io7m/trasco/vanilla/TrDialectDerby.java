@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrDialectType;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The Apache Derby dialect.
+ *
+ * <p>Derby only supports a database-wide lock timeout, with a granularity
+ * of seconds, set using the {@code derby.locks.waitTimeout} database
+ * property. Lock timeouts are therefore only applied if this dialect is
+ * configured explicitly (see {@link #isLockTimeoutDatabaseWide()}). The
+ * value the property had before the first statement with a lock timeout
+ * is restored once the last such statement executing on the same database
+ * in this JVM has finished. The property is persistent, and so an executor
+ * that is killed while a statement with a lock timeout is running will
+ * leave the timeout in place.</p>
+ *
+ * <p>Statistics are refreshed using {@code SYSCS_UPDATE_STATISTICS} for
+ * every user table. Derby does not support advisory locks.</p>
+ *
+ * <p>The embedded driver does not implement {@link Statement#cancel()}, so
+ * statements are cancelled using the {@code cancelRunningStatement} method
+ * of the underlying embedded connection, which is located reflectively in
+ * order to avoid a dependency on Derby.</p>
+ */
+
+public final class TrDialectDerby implements TrDialectType
+{
+  private static final String LOCK_TIMEOUT_STATE = "40XL1";
+  private static final String LOCK_TIMEOUT_PROPERTY = "derby.locks.waitTimeout";
+  private static final Map<String, WaitTimeoutSaved> WAIT_TIMEOUTS_SAVED =
+    new HashMap<>();
+
+  /**
+   * The Apache Derby dialect.
+   */
+
+  public TrDialectDerby()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return "Derby";
+  }
+
+  @Override
+  public boolean isApplicable(
+    final DatabaseMetaData metadata)
+    throws SQLException
+  {
+    return "Apache Derby".equals(metadata.getDatabaseProductName());
+  }
+
+  @Override
+  public void lockTimeoutSet(
+    final Connection connection,
+    final Duration timeout)
+    throws SQLException
+  {
+    final var seconds = Math.max(1L, (timeout.toMillis() + 999L) / 1000L);
+    final var database = connection.getMetaData().getURL();
+
+    /*
+     * Statements with lock timeouts may be executing concurrently on other
+     * connections to the same database, so the value to restore is the one
+     * saved by the first of them, and is only restored by the last.
+     */
+
+    synchronized (WAIT_TIMEOUTS_SAVED) {
+      final var saved = WAIT_TIMEOUTS_SAVED.get(database);
+      if (saved == null) {
+        final var previous = getWaitTimeout(connection);
+        setWaitTimeout(connection, Long.toString(seconds));
+        WAIT_TIMEOUTS_SAVED.put(database, new WaitTimeoutSaved(previous, 1));
+      } else {
+        setWaitTimeout(connection, Long.toString(seconds));
+        WAIT_TIMEOUTS_SAVED.put(
+          database, new WaitTimeoutSaved(saved.value(), saved.users() + 1));
+      }
+    }
+  }
+
+  @Override
+  public void lockTimeoutReset(
+    final Connection connection)
+    throws SQLException
+  {
+    final var database = connection.getMetaData().getURL();
+
+    synchronized (WAIT_TIMEOUTS_SAVED) {
+      final var saved = WAIT_TIMEOUTS_SAVED.get(database);
+      if (saved == null) {
+        return;
+      }
+      if (saved.users() > 1) {
+        WAIT_TIMEOUTS_SAVED.put(
+          database, new WaitTimeoutSaved(saved.value(), saved.users() - 1));
+        return;
+      }
+      WAIT_TIMEOUTS_SAVED.remove(database);
+      setWaitTimeout(connection, saved.value());
+    }
+  }
+
+  @Override
+  public boolean isLockTimeoutDatabaseWide()
+  {
+    return true;
+  }
+
+  private static String getWaitTimeout(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.prepareStatement(
+      "VALUES SYSCS_UTIL.SYSCS_GET_DATABASE_PROPERTY(?)")) {
+      statement.setString(1, LOCK_TIMEOUT_PROPERTY);
+      try (var result = statement.executeQuery()) {
+        result.next();
+        return result.getString(1);
+      }
+    }
+  }
+
+  private static void setWaitTimeout(
+    final Connection connection,
+    final String value)
+    throws SQLException
+  {
+    try (var statement = connection.prepareCall(
+      "CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY(?, ?)")) {
+      statement.setString(1, LOCK_TIMEOUT_PROPERTY);
+      statement.setString(2, value);
+      statement.execute();
+    }
+  }
+
+  @Override
+  public boolean isLockTimeout(
+    final SQLException e)
+  {
+    Objects.requireNonNull(e, "e");
+    return LOCK_TIMEOUT_STATE.equals(e.getSQLState());
+  }
+
+  @Override
+  public void statementCancel(
+    final Statement statement)
+    throws SQLException
+  {
+    final var connection =
+      statement.getConnection().unwrap(Connection.class);
+
+    try {
+      connection.getClass()
+        .getMethod("cancelRunningStatement")
+        .invoke(connection);
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      statement.cancel();
+    } catch (final InvocationTargetException e) {
+      if (e.getCause() instanceof final SQLException ex) {
+        throw ex;
+      }
+      throw new SQLException(e.getCause());
+    }
+  }
+
+  @Override
+  public void statisticsRefresh(
+    final Connection connection)
+    throws SQLException
+  {
+    final var tables = new ArrayList<String[]>();
+    try (var result = connection.getMetaData()
+      .getTables(null, null, "%", new String[]{"TABLE"})) {
+      while (result.next()) {
+        tables.add(new String[]{
+          result.getString("TABLE_SCHEM"),
+          result.getString("TABLE_NAME"),
+        });
+      }
+    }
+
+    updateStatistics(connection, tables);
+  }
+
+  private static void updateStatistics(
+    final Connection connection,
+    final List<String[]> tables)
+    throws SQLException
+  {
+    try (var statement = connection.prepareCall(
+      "CALL SYSCS_UTIL.SYSCS_UPDATE_STATISTICS(?, ?, NULL)")) {
+      for (final var table : tables) {
+        statement.setString(1, table[0]);
+        statement.setString(2, table[1]);
+        statement.execute();
+      }
+    }
+  }
+
+  private record WaitTimeoutSaved(
+    String value,
+    int users)
+  {
+
+  }
+}
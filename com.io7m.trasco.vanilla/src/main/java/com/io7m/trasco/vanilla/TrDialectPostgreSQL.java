@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrDialectType;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The PostgreSQL dialect.
+ *
+ * <p>Lock timeouts are set using the session's {@code lock_timeout}
+ * setting. Statistics are refreshed using {@code ANALYZE}, and advisory
+ * locks are session-level advisory locks
+ * ({@code pg_try_advisory_lock}).</p>
+ */
+
+public final class TrDialectPostgreSQL implements TrDialectType
+{
+  private static final String LOCK_NOT_AVAILABLE_STATE = "55P03";
+
+  /**
+   * The PostgreSQL dialect.
+   */
+
+  public TrDialectPostgreSQL()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return "PostgreSQL";
+  }
+
+  @Override
+  public boolean isApplicable(
+    final DatabaseMetaData metadata)
+    throws SQLException
+  {
+    return "PostgreSQL".equals(metadata.getDatabaseProductName());
+  }
+
+  /*
+   * SET does not accept parameters, so the timeout is formatted into the
+   * statement. The value is always an integer.
+   */
+
+  @Override
+  public void lockTimeoutSet(
+    final Connection connection,
+    final Duration timeout)
+    throws SQLException
+  {
+    final var millis = Math.max(1L, timeout.toMillis());
+    try (var statement = connection.createStatement()) {
+      statement.execute(String.format("SET lock_timeout = %d", Long.valueOf(millis)));
+    }
+  }
+
+  @Override
+  public void lockTimeoutReset(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.createStatement()) {
+      statement.execute("RESET lock_timeout");
+    }
+  }
+
+  @Override
+  public boolean isLockTimeout(
+    final SQLException e)
+  {
+    Objects.requireNonNull(e, "e");
+    return LOCK_NOT_AVAILABLE_STATE.equals(e.getSQLState());
+  }
+
+  @Override
+  public void statisticsRefresh(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.createStatement()) {
+      statement.execute("ANALYZE");
+    }
+  }
+
+  @Override
+  public boolean advisoryLockTry(
+    final Connection connection,
+    final long key)
+    throws SQLException
+  {
+    try (var statement =
+           connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+      statement.setLong(1, key);
+      try (var result = statement.executeQuery()) {
+        result.next();
+        return result.getBoolean(1);
+      }
+    }
+  }
+
+  @Override
+  public void advisoryLockRelease(
+    final Connection connection,
+    final long key)
+    throws SQLException
+  {
+    try (var statement =
+           connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+      statement.setLong(1, key);
+      try (var result = statement.executeQuery()) {
+        result.next();
+      }
+    }
+  }
+}
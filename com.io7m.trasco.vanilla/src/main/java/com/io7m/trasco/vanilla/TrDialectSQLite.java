@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrDialectType;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The SQLite dialect.
+ *
+ * <p>Lock timeouts are set using the connection's {@code busy_timeout}.
+ * SQLite provides no way to restore the previous value, so resetting the
+ * lock timeout restores the default used by the Xerial SQLite JDBC driver
+ * (three seconds). Statistics are refreshed using {@code ANALYZE}. SQLite
+ * does not support advisory locks.</p>
+ */
+
+public final class TrDialectSQLite implements TrDialectType
+{
+  private static final long BUSY_TIMEOUT_DEFAULT = 3000L;
+  private static final int SQLITE_BUSY = 5;
+  private static final int SQLITE_LOCKED = 6;
+
+  /**
+   * The SQLite dialect.
+   */
+
+  public TrDialectSQLite()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return "SQLite";
+  }
+
+  @Override
+  public boolean isApplicable(
+    final DatabaseMetaData metadata)
+    throws SQLException
+  {
+    return "SQLite".equals(metadata.getDatabaseProductName());
+  }
+
+  @Override
+  public void lockTimeoutSet(
+    final Connection connection,
+    final Duration timeout)
+    throws SQLException
+  {
+    setBusyTimeout(connection, Math.max(1L, timeout.toMillis()));
+  }
+
+  @Override
+  public void lockTimeoutReset(
+    final Connection connection)
+    throws SQLException
+  {
+    setBusyTimeout(connection, BUSY_TIMEOUT_DEFAULT);
+  }
+
+  private static void setBusyTimeout(
+    final Connection connection,
+    final long millis)
+    throws SQLException
+  {
+    try (var statement = connection.createStatement()) {
+      statement.execute(
+        String.format("PRAGMA busy_timeout = %d", Long.valueOf(millis)));
+    }
+  }
+
+  /*
+   * The driver reports extended result codes when they are enabled, and
+   * so only the primary result code (the low eight bits) is examined.
+   */
+
+  @Override
+  public boolean isLockTimeout(
+    final SQLException e)
+  {
+    Objects.requireNonNull(e, "e");
+    final var code = e.getErrorCode() & 0xff;
+    return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+  }
+
+  @Override
+  public void statisticsRefresh(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.createStatement()) {
+      statement.execute("ANALYZE");
+    }
+  }
+}
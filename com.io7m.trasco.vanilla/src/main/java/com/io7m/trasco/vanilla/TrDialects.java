@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrDialectType;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The dialects supported out of the box.
+ */
+
+public final class TrDialects
+{
+  private static final List<TrDialectType> DIALECTS =
+    List.of(
+      new TrDialectDerby(),
+      new TrDialectPostgreSQL(),
+      new TrDialectSQLite()
+    );
+
+  private TrDialects()
+  {
+
+  }
+
+  /**
+   * @return The dialects supported out of the box
+   */
+
+  public static List<TrDialectType> dialects()
+  {
+    return DIALECTS;
+  }
+
+  /**
+   * Detect the dialect of a database.
+   *
+   * @param metadata The database metadata
+   *
+   * @return The dialect, or nothing if the database is not recognized
+   *
+   * @throws SQLException On errors
+   */
+
+  public static Optional<TrDialectType> detect(
+    final DatabaseMetaData metadata)
+    throws SQLException
+  {
+    Objects.requireNonNull(metadata, "metadata");
+
+    for (final var dialect : DIALECTS) {
+      if (dialect.isApplicable(metadata)) {
+        return Optional.of(dialect);
+      }
+    }
+    return Optional.empty();
+  }
+}
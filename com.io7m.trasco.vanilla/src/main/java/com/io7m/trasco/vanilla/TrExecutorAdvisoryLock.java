@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrDialectType;
+import com.io7m.trasco.api.TrExecutorLockType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * An upgrade lock implemented as a database advisory lock.
+ *
+ * <p>Advisory locks are held by the executor's session rather than stored
+ * in a table, and so they are released by the database if the executor's
+ * connection is lost. Not every database supports advisory locks;
+ * acquiring the lock fails with an exception if the dialect does not.</p>
+ *
+ * @see TrDialectType#advisoryLockTry(Connection, long)
+ * @see TrExecutorTableLease
+ */
+
+public final class TrExecutorAdvisoryLock implements TrExecutorLockType
+{
+  private final TrDialectType dialect;
+  private final long key;
+
+  private TrExecutorAdvisoryLock(
+    final TrDialectType inDialect,
+    final long inKey)
+  {
+    this.dialect = Objects.requireNonNull(inDialect, "dialect");
+    this.key = inKey;
+  }
+
+  /**
+   * Create an advisory lock.
+   *
+   * @param dialect The database dialect
+   * @param key     The lock key
+   *
+   * @return The lock
+   */
+
+  public static TrExecutorAdvisoryLock create(
+    final TrDialectType dialect,
+    final long key)
+  {
+    return new TrExecutorAdvisoryLock(dialect, key);
+  }
+
+  /**
+   * Create an advisory lock. The lock key is derived from the lock name,
+   * so executors that use the same name use the same lock.
+   *
+   * @param dialect The database dialect
+   * @param name    The lock name
+   *
+   * @return The lock
+   */
+
+  public static TrExecutorAdvisoryLock create(
+    final TrDialectType dialect,
+    final String name)
+  {
+    return new TrExecutorAdvisoryLock(dialect, keyOf(name));
+  }
+
+  private static long keyOf(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      final var hash = digest.digest(name.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(hash).getLong();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @return The lock key
+   */
+
+  public long key()
+  {
+    return this.key;
+  }
+
+  @Override
+  public boolean tryAcquire(
+    final Connection connection)
+    throws SQLException
+  {
+    return this.dialect.advisoryLockTry(connection, this.key);
+  }
+
+  @Override
+  public void release(
+    final Connection connection)
+    throws SQLException
+  {
+    this.dialect.advisoryLockRelease(connection, this.key);
+  }
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrExecutorLockType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * An upgrade lock implemented as a lease stored in a database table.
+ *
+ * <p>The lease table holds one row per named lease, recording the holder
+ * and the time at which the lease expires. Acquiring the lease inserts the
+ * row, or takes over an existing row whose lease has expired (because the
+ * holder crashed, for example). Releasing the lease deletes the row. The
+ * table is created on first use if it does not already exist.</p>
+ *
+ * <p>The lease is managed on connections obtained from a separate data
+ * source in auto-commit mode, so that the lease is visible to other
+ * executors while the executor's own upgrade transaction is still open.
+ * While the lease is held, a background thread renews it every third of
+ * the lease duration, so upgrades may run for longer than the lease
+ * duration. The executor checks the lease before each commit (see
+ * {@link #checkHeld(Connection)}), and aborts the upgrade if the lease was
+ * found to have been taken over by another executor, or if it has not been
+ * renewed successfully within the lease duration (and so may have been taken
+ * over).</p>
+ *
+ * <p>The statements used are standard SQL and work with any database that
+ * reports unique constraint violations with an SQL state of class
+ * {@code 23}.</p>
+ */
+
+public final class TrExecutorTableLease implements TrExecutorLockType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrExecutorTableLease.class);
+
+  private static final Pattern VALID_TABLE_NAME =
+    Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+  private final DataSource dataSource;
+  private final String tableName;
+  private final String leaseName;
+  private final String holder;
+  private final Duration leaseDuration;
+  private final Clock clock;
+  private final AtomicReference<Heartbeat> heartbeat;
+  private volatile boolean tableChecked;
+  private volatile boolean lost;
+  private volatile long renewedUntil;
+
+  private TrExecutorTableLease(
+    final DataSource inDataSource,
+    final String inTableName,
+    final String inLeaseName,
+    final String inHolder,
+    final Duration inLeaseDuration,
+    final Clock inClock)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.tableName =
+      Objects.requireNonNull(inTableName, "tableName");
+    this.leaseName =
+      Objects.requireNonNull(inLeaseName, "leaseName");
+    this.holder =
+      Objects.requireNonNull(inHolder, "holder");
+    this.leaseDuration =
+      Objects.requireNonNull(inLeaseDuration, "leaseDuration");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.heartbeat =
+      new AtomicReference<>();
+
+    if (!VALID_TABLE_NAME.matcher(this.tableName).matches()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Table name %s must match the pattern %s",
+          this.tableName,
+          VALID_TABLE_NAME
+        ));
+    }
+
+    if (this.leaseDuration.isNegative() || this.leaseDuration.isZero()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Lease duration must be positive (received %s)",
+          this.leaseDuration
+        ));
+    }
+  }
+
+  /**
+   * Create a lease builder.
+   *
+   * @param dataSource The data source used to manage the lease
+   *
+   * @return A lease builder
+   */
+
+  public static Builder builder(
+    final DataSource dataSource)
+  {
+    return new Builder(dataSource);
+  }
+
+  /**
+   * @return The name of the holder that this lease identifies itself as
+   */
+
+  public String holder()
+  {
+    return this.holder;
+  }
+
+  @Override
+  public boolean tryAcquire(
+    final Connection connection)
+    throws SQLException
+  {
+    /*
+     * The connection used to acquire the lease is kept open for renewals
+     * while the lease is held, with the renewal statement prepared before
+     * the upgrade begins. Some databases (such as Derby) cannot compile new
+     * statements while another transaction holds uncommitted DDL.
+     */
+
+    final var leaseConnection = this.dataSource.getConnection();
+    try {
+      leaseConnection.setAutoCommit(true);
+      this.checkTable(leaseConnection);
+
+      final var now = this.clock.millis();
+      final var expires = now + this.leaseDuration.toMillis();
+      if (this.tryInsert(leaseConnection, expires)) {
+        LOG.debug("acquired lease {} as {}", this.leaseName, this.holder);
+        this.heartbeatStart(leaseConnection, expires);
+        return true;
+      }
+      if (this.tryTakeOver(leaseConnection, now, expires)) {
+        LOG.debug(
+          "acquired expired lease {} as {}", this.leaseName, this.holder);
+        this.heartbeatStart(leaseConnection, expires);
+        return true;
+      }
+      leaseConnection.close();
+      return false;
+    } catch (final SQLException e) {
+      try {
+        leaseConnection.close();
+      } catch (final SQLException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The check does not access the database: Renewing the lease here
+   * could wait on locks held by other executors that are themselves waiting
+   * for this executor's upgrade transaction. Instead, the lease is considered
+   * held if the background renewals have not found it to be taken over, and
+   * the expiry time set by the most recent successful renewal has not yet
+   * passed.</p>
+   */
+
+  @Override
+  public boolean checkHeld(
+    final Connection connection)
+  {
+    return this.heartbeat.get() != null
+           && !this.lost
+           && this.clock.millis() < this.renewedUntil;
+  }
+
+  @Override
+  public void release(
+    final Connection connection)
+    throws SQLException
+  {
+    this.heartbeatStop();
+
+    try (var leaseConnection = this.dataSource.getConnection()) {
+      leaseConnection.setAutoCommit(true);
+
+      final var text =
+        "delete from %s where lease_name = ? and lease_holder = ?"
+          .formatted(this.tableName);
+
+      try (var statement = leaseConnection.prepareStatement(text)) {
+        statement.setString(1, this.leaseName);
+        statement.setString(2, this.holder);
+        statement.executeUpdate();
+      }
+    }
+    LOG.debug("released lease {} as {}", this.leaseName, this.holder);
+  }
+
+  private void heartbeatStart(
+    final Connection leaseConnection,
+    final long initialExpires)
+    throws SQLException
+  {
+    this.lost = false;
+    this.renewedUntil = initialExpires;
+
+    final var text =
+      "update %s set lease_expires = ? where lease_name = ? and lease_holder = ?"
+        .formatted(this.tableName);
+
+    /*
+     * The heartbeat is stopped with a latch rather than by interruption,
+     * as some drivers (such as Derby) abandon the connection if a thread
+     * is interrupted during a statement.
+     */
+
+    final var stop = new CountDownLatch(1);
+    final var current =
+      new Heartbeat(
+        leaseConnection,
+        leaseConnection.prepareStatement(text),
+        Thread.ofVirtual()
+          .name("com.io7m.trasco.lease[%s]".formatted(this.leaseName))
+          .unstarted(() -> this.heartbeatRun(stop)),
+        stop
+      );
+
+    this.heartbeatClose(this.heartbeat.getAndSet(current));
+    current.thread().start();
+  }
+
+  private void heartbeatStop()
+    throws SQLException
+  {
+    this.heartbeatClose(this.heartbeat.getAndSet(null));
+  }
+
+  private void heartbeatClose(
+    final Heartbeat current)
+    throws SQLException
+  {
+    if (current == null) {
+      return;
+    }
+
+    current.stop().countDown();
+    try {
+      current.thread().join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    try {
+      current.renewal().close();
+    } finally {
+      current.connection().close();
+    }
+  }
+
+  private void heartbeatRun(
+    final CountDownLatch stop)
+  {
+    final var interval =
+      Math.max(1L, this.leaseDuration.toMillis() / 3L);
+
+    while (true) {
+      try {
+        if (stop.await(interval, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      } catch (final InterruptedException e) {
+        return;
+      }
+
+      final var current = this.heartbeat.get();
+      if (current == null) {
+        return;
+      }
+
+      try {
+        if (!this.renew(current)) {
+          LOG.warn(
+            "lease {} is no longer held by {}", this.leaseName, this.holder);
+          this.lost = true;
+          return;
+        }
+      } catch (final SQLException e) {
+
+        /*
+         * The lease may still be renewed successfully before it expires,
+         * so transient failures are retried on the next interval.
+         */
+
+        LOG.warn(
+          "failed to renew lease {} as {}: ", this.leaseName, this.holder, e);
+      }
+    }
+  }
+
+  private boolean renew(
+    final Heartbeat current)
+    throws SQLException
+  {
+    final var statement = current.renewal();
+    final var newExpires =
+      this.clock.millis() + this.leaseDuration.toMillis();
+
+    statement.setLong(1, newExpires);
+    statement.setString(2, this.leaseName);
+    statement.setString(3, this.holder);
+    if (statement.executeUpdate() == 1) {
+      LOG.trace("renewed lease {} as {}", this.leaseName, this.holder);
+      this.renewedUntil = newExpires;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean tryInsert(
+    final Connection connection,
+    final long expires)
+    throws SQLException
+  {
+    final var text =
+      "insert into %s (lease_name, lease_holder, lease_expires) values (?, ?, ?)"
+        .formatted(this.tableName);
+
+    try (var statement = connection.prepareStatement(text)) {
+      statement.setString(1, this.leaseName);
+      statement.setString(2, this.holder);
+      statement.setLong(3, expires);
+      statement.executeUpdate();
+      return true;
+    } catch (final SQLException e) {
+      if (isConstraintViolation(e)) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  private boolean tryTakeOver(
+    final Connection connection,
+    final long now,
+    final long expires)
+    throws SQLException
+  {
+    final var text =
+      "update %s set lease_holder = ?, lease_expires = ? where lease_name = ? and lease_expires < ?"
+        .formatted(this.tableName);
+
+    try (var statement = connection.prepareStatement(text)) {
+      statement.setString(1, this.holder);
+      statement.setLong(2, expires);
+      statement.setString(3, this.leaseName);
+      statement.setLong(4, now);
+      return statement.executeUpdate() == 1;
+    }
+  }
+
+  private static boolean isConstraintViolation(
+    final SQLException e)
+  {
+    final var state = e.getSQLState();
+    return state != null && state.startsWith("23");
+  }
+
+  private void checkTable(
+    final Connection connection)
+    throws SQLException
+  {
+    if (this.tableChecked) {
+      return;
+    }
+
+    if (!this.tableExists(connection)) {
+      final var text = """
+        create table %s (
+          lease_name    varchar(128) not null primary key,
+          lease_holder  varchar(256) not null,
+          lease_expires bigint       not null
+        )
+        """.formatted(this.tableName);
+
+      try (var statement = connection.createStatement()) {
+        statement.execute(text);
+        LOG.debug("created lease table {}", this.tableName);
+      } catch (final SQLException e) {
+
+        /*
+         * Another executor may have created the table concurrently.
+         */
+
+        if (!this.tableExists(connection)) {
+          throw e;
+        }
+      }
+    }
+    this.tableChecked = true;
+  }
+
+  private boolean tableExists(
+    final Connection connection)
+  {
+    final var text =
+      "select lease_name from %s where 1 = 0"
+        .formatted(this.tableName);
+
+    try (var statement = connection.createStatement()) {
+      statement.executeQuery(text).close();
+      return true;
+    } catch (final SQLException e) {
+      return false;
+    }
+  }
+
+  private record Heartbeat(
+    Connection connection,
+    PreparedStatement renewal,
+    Thread thread,
+    CountDownLatch stop)
+  {
+
+  }
+
+  /**
+   * A mutable builder for table leases.
+   */
+
+  public static final class Builder
+  {
+    private final DataSource dataSource;
+    private String tableName;
+    private String leaseName;
+    private String holder;
+    private Duration leaseDuration;
+    private Clock clock;
+
+    private Builder(
+      final DataSource inDataSource)
+    {
+      this.dataSource =
+        Objects.requireNonNull(inDataSource, "dataSource");
+      this.tableName = "trasco_lease";
+      this.leaseName = "upgrade";
+      this.holder = UUID.randomUUID().toString();
+      this.leaseDuration = Duration.ofMinutes(15L);
+      this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Set the name of the lease table. The default is
+     * {@code trasco_lease}.
+     *
+     * @param value The table name, optionally qualified with a schema name
+     *
+     * @return this
+     */
+
+    public Builder withTableName(
+      final String value)
+    {
+      this.tableName = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the name of the lease. Executors only exclude each other if they
+     * use the same lease name. The default is {@code upgrade}.
+     *
+     * @param value The lease name
+     *
+     * @return this
+     */
+
+    public Builder withLeaseName(
+      final String value)
+    {
+      this.leaseName = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the name that the holder of the lease identifies itself as,
+     * such as a host name. The default is a random UUID.
+     *
+     * @param value The holder name
+     *
+     * @return this
+     */
+
+    public Builder withHolder(
+      final String value)
+    {
+      this.holder = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the time after which an unreleased lease may be taken over by
+     * another executor. The default is fifteen minutes.
+     *
+     * @param value The lease duration
+     *
+     * @return this
+     */
+
+    public Builder withLeaseDuration(
+      final Duration value)
+    {
+      this.leaseDuration = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * Set the clock used to compute lease expiry times. The default is the
+     * system UTC clock.
+     *
+     * @param value The clock
+     *
+     * @return this
+     */
+
+    public Builder withClock(
+      final Clock value)
+    {
+      this.clock = Objects.requireNonNull(value, "value");
+      return this;
+    }
+
+    /**
+     * @return A lease based on all the values given so far
+     */
+
+    public TrExecutorTableLease build()
+    {
+      return new TrExecutorTableLease(
+        this.dataSource,
+        this.tableName,
+        this.leaseName,
+        this.holder,
+        this.leaseDuration,
+        this.clock
+      );
+    }
+  }
+}
@@ -17,9 +17,14 @@
 
 package com.io7m.trasco.vanilla;
 
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrCompiledRevisionSetType;
+import com.io7m.trasco.api.TrException;
 import com.io7m.trasco.api.TrExecutorConfiguration;
 import com.io7m.trasco.api.TrExecutorFactoryType;
 import com.io7m.trasco.api.TrExecutorType;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.vanilla.internal.TrCompiledRevisionSet;
 import com.io7m.trasco.vanilla.internal.TrExecutor;
 
 import java.util.Objects;
@@ -46,4 +51,13 @@ public final class TrExecutors implements TrExecutorFactoryType
     Objects.requireNonNull(configuration, "configuration");
     return new TrExecutor(configuration);
   }
+
+  @Override
+  public TrCompiledRevisionSetType compile(
+    final TrSchemaRevisionSet revisions,
+    final TrArguments arguments)
+    throws TrException
+  {
+    return TrCompiledRevisionSet.compile(revisions, arguments);
+  }
 }
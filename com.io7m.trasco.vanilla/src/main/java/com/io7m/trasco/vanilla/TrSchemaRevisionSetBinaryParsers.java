@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.anethum.api.ParseStatus;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserFactoryType;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserType;
+import com.io7m.trasco.vanilla.internal.TrBinary;
+import com.io7m.trasco.vanilla.internal.TrBinaryParser;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * A factory of parsers for revision sets in the precompiled binary format
+ * produced by {@link TrSchemaRevisionSetBinarySerializers}. Parsing a binary
+ * revision set is a single linear read, and does not involve any XML
+ * parsing or schema validation. A {@link TrSchemaRevisionSetParserOptions}
+ * value may be passed as the parser context.
+ */
+
+public final class TrSchemaRevisionSetBinaryParsers
+  implements TrSchemaRevisionSetParserFactoryType
+{
+  /**
+   * A factory of parsers for revision sets in the binary format.
+   */
+
+  public TrSchemaRevisionSetBinaryParsers()
+  {
+
+  }
+
+  @Override
+  public TrSchemaRevisionSetParserType createParserWithContext(
+    final Object context,
+    final URI source,
+    final InputStream stream,
+    final Consumer<ParseStatus> statusConsumer)
+  {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(stream, "stream");
+    Objects.requireNonNull(statusConsumer, "statusConsumer");
+
+    return new TrBinaryParser(
+      TrSchemaRevisionSetParserOptions.fromContext(context),
+      source,
+      stream,
+      statusConsumer
+    );
+  }
+
+  /**
+   * @return The format version written by
+   * {@link TrSchemaRevisionSetBinarySerializers}
+   */
+
+  public static int formatVersion()
+  {
+    return TrBinary.VERSION;
+  }
+
+  /**
+   * Read the format version declared in the header of a binary revision
+   * set. Only the header is read, and the rest of the stream is not
+   * validated.
+   *
+   * @param stream The stream, positioned at the start of the revision set
+   *
+   * @return The format version, or nothing if the stream does not begin
+   * with a binary revision set header
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static OptionalInt formatVersionOf(
+    final InputStream stream)
+    throws IOException
+  {
+    Objects.requireNonNull(stream, "stream");
+
+    final var input = new DataInputStream(stream);
+    try {
+      if (input.readInt() != TrBinary.MAGIC) {
+        return OptionalInt.empty();
+      }
+      return OptionalInt.of(input.readInt());
+    } catch (final EOFException e) {
+      return OptionalInt.empty();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrSchemaRevisionSetSerializerFactoryType;
+import com.io7m.trasco.api.TrSchemaRevisionSetSerializerType;
+import com.io7m.trasco.vanilla.internal.TrBinarySerializer;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * A factory of serializers that write revision sets in a precompiled binary
+ * format. The format consists of a versioned header, a content hash, and a
+ * compact encoding of the parameters and revisions. Binary revision sets
+ * can be read with {@link TrSchemaRevisionSetBinaryParsers}.
+ */
+
+public final class TrSchemaRevisionSetBinarySerializers
+  implements TrSchemaRevisionSetSerializerFactoryType
+{
+  /**
+   * A factory of serializers for revision sets in the binary format.
+   */
+
+  public TrSchemaRevisionSetBinarySerializers()
+  {
+
+  }
+
+  @Override
+  public TrSchemaRevisionSetSerializerType createSerializerWithContext(
+    final Object context,
+    final URI target,
+    final OutputStream stream)
+  {
+    Objects.requireNonNull(target, "target");
+    Objects.requireNonNull(stream, "stream");
+
+    return new TrBinarySerializer(target, stream);
+  }
+}
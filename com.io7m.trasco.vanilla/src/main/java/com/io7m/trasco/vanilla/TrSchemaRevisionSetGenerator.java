@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrArgumentType;
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrParameterKind;
+import com.io7m.trasco.api.TrParameterReference;
+import com.io7m.trasco.api.TrParameterReferences;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static com.io7m.trasco.api.TrParameterInterpolation.PREPARED_STATEMENT;
+import static com.io7m.trasco.api.TrParameterInterpolation.STRING_FORMATTING;
+
+/**
+ * A generator of synthetic revision sets for scale and stress testing.
+ *
+ * <p>Every generated revision {@code r} begins by creating a table
+ * {@code gen_r}, and all subsequent statements in the revision insert a
+ * single row into that table. Parameter {@code p_j} is {@code NUMERIC}
+ * when {@code j} is even, and {@code STRING} otherwise, and each table has
+ * a column per parameter of the matching type. Generated revision sets can
+ * therefore be executed against a real database using the arguments
+ * returned by {@link #arguments(TrSchemaRevisionSetGeneratorConfiguration)}.
+ * Statements are padded with string literals to reach their requested
+ * sizes.</p>
+ *
+ * <p>Generation is deterministic: equal configurations always produce
+ * equal revision sets.</p>
+ */
+
+public final class TrSchemaRevisionSetGenerator
+{
+  private static final char[] PADDING =
+    "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+  private TrSchemaRevisionSetGenerator()
+  {
+
+  }
+
+  /**
+   * Generate a revision set.
+   *
+   * @param configuration The generator configuration
+   *
+   * @return A revision set
+   */
+
+  public static TrSchemaRevisionSet generate(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var random = new Random(configuration.seed());
+    final var parameters = parameters(configuration);
+    final var revisions = new TreeMap<BigInteger, TrSchemaRevision>();
+
+    for (int index = 0; index < configuration.revisions(); ++index) {
+      final var version = BigInteger.valueOf(index);
+      revisions.put(
+        version,
+        new TrSchemaRevision(
+          version,
+          revision(configuration, random, index)
+        )
+      );
+    }
+
+    return new TrSchemaRevisionSet(parameters, revisions);
+  }
+
+  /**
+   * Produce arguments for all the parameters declared by revision sets
+   * generated with the given configuration.
+   *
+   * @param configuration The generator configuration
+   *
+   * @return A set of arguments
+   */
+
+  public static TrArguments arguments(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var arguments = new HashMap<String, TrArgumentType>();
+    for (int index = 0; index < configuration.parameters(); ++index) {
+      final var name = parameterName(index);
+      final TrArgumentType argument;
+      if (parameterKind(index) == TrParameterKind.NUMERIC) {
+        argument = new TrArgumentNumeric(name, Integer.valueOf(index));
+      } else {
+        argument = new TrArgumentString(name, "v" + index);
+      }
+      arguments.put(name, argument);
+    }
+    return new TrArguments(arguments);
+  }
+
+  private static Map<String, TrParameter> parameters(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration)
+  {
+    final var parameters = new HashMap<String, TrParameter>();
+    for (int index = 0; index < configuration.parameters(); ++index) {
+      final var name = parameterName(index);
+      parameters.put(name, new TrParameter(name, parameterKind(index)));
+    }
+    return parameters;
+  }
+
+  private static String parameterName(
+    final int index)
+  {
+    return "p_" + index;
+  }
+
+  private static TrParameterKind parameterKind(
+    final int index)
+  {
+    return index % 2 == 0 ? TrParameterKind.NUMERIC : TrParameterKind.STRING;
+  }
+
+  private static List<TrStatementType> revision(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration,
+    final Random random,
+    final int revision)
+  {
+    final var count = configuration.statementsPerRevision();
+    final var statements = new ArrayList<TrStatementType>(count);
+    statements.add(createTable(configuration, revision));
+
+    for (int index = 1; index < count; ++index) {
+      final var parameterized =
+        configuration.parameters() > 0
+        && random.nextDouble() < configuration.parameterizedFraction();
+
+      if (parameterized) {
+        statements.add(
+          insertParameterized(configuration, random, revision, index));
+      } else {
+        statements.add(
+          new TrStatement(insertText(
+            configuration, random, revision, index, List.of(), "")));
+      }
+    }
+    return statements;
+  }
+
+  private static TrStatement createTable(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration,
+    final int revision)
+  {
+    final var text = new StringBuilder(128);
+    text.append("create table gen_");
+    text.append(revision);
+    text.append(" (k integer not null primary key, filler varchar(");
+    text.append(TrSchemaRevisionSetGeneratorConfiguration.STATEMENT_SIZE_LIMIT);
+    text.append(')');
+
+    for (int index = 0; index < configuration.parameters(); ++index) {
+      text.append(", ");
+      text.append(parameterName(index));
+      if (parameterKind(index) == TrParameterKind.NUMERIC) {
+        text.append(" bigint");
+      } else {
+        text.append(" varchar(256)");
+      }
+    }
+    text.append(')');
+    return new TrStatement(text.toString());
+  }
+
+  private static TrStatementParameterized insertParameterized(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration,
+    final Random random,
+    final int revision,
+    final int row)
+  {
+    final var indices =
+      new ArrayList<>(
+        IntStream.range(0, configuration.parameters())
+          .boxed()
+          .toList()
+      );
+    Collections.shuffle(indices, random);
+
+    final var count = 1 + random.nextInt(indices.size());
+    final var selected = indices.subList(0, count);
+    final var references = new ArrayList<TrParameterReference>(count);
+    for (int order = 0; order < count; ++order) {
+      references.add(
+        new TrParameterReference(order, parameterName(selected.get(order))));
+    }
+
+    final TrParameterInterpolation interpolation;
+    if (random.nextDouble() < configuration.stringFormattingFraction()) {
+      interpolation = STRING_FORMATTING;
+    } else {
+      interpolation = PREPARED_STATEMENT;
+    }
+
+    final var placeholder =
+      interpolation == STRING_FORMATTING ? "%s" : "?";
+
+    return new TrStatementParameterized(
+      TrParameterReferences.of(references),
+      insertText(configuration, random, revision, row, selected, placeholder),
+      interpolation
+    );
+  }
+
+  private static String insertText(
+    final TrSchemaRevisionSetGeneratorConfiguration configuration,
+    final Random random,
+    final int revision,
+    final int row,
+    final List<Integer> columns,
+    final String placeholder)
+  {
+    final var names = new StringBuilder(64);
+    final var values = new StringBuilder(64);
+    for (final var column : columns) {
+      names.append(", ");
+      names.append(parameterName(column.intValue()));
+      values.append(", ");
+      values.append(placeholder);
+    }
+
+    final var prefix =
+      "insert into gen_%d (k, filler%s) values (%d, '"
+        .formatted(Integer.valueOf(revision), names, Integer.valueOf(row));
+    final var suffix =
+      "'%s)".formatted(values);
+
+    final var minimum = configuration.statementSizeMinimum();
+    final var maximum = configuration.statementSizeMaximum();
+    final var size = minimum + random.nextInt(maximum - minimum + 1);
+    final var padding =
+      Math.max(0, size - (prefix.length() + suffix.length()));
+
+    final var text = new StringBuilder(prefix.length() + padding + 32);
+    text.append(prefix);
+    for (int index = 0; index < padding; ++index) {
+      text.append(PADDING[random.nextInt(PADDING.length)]);
+    }
+    text.append(suffix);
+    return text.toString();
+  }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+/**
+ * The configuration of a synthetic revision set generator.
+ *
+ * @param seed                     The seed used for all random choices;
+ *                                 generators given equal configurations
+ *                                 produce equal revision sets
+ * @param revisions                The number of revisions
+ * @param statementsPerRevision    The number of statements in each revision
+ * @param parameters               The number of declared parameters
+ * @param statementSizeMinimum     The minimum approximate size of each
+ *                                 statement in characters
+ * @param statementSizeMaximum     The maximum approximate size of each
+ *                                 statement in characters
+ * @param parameterizedFraction    The fraction of statements that are
+ *                                 parameterized, in the range {@code [0, 1]}
+ * @param stringFormattingFraction The fraction of parameterized statements
+ *                                 that use string formatting rather than
+ *                                 prepared statements, in the range
+ *                                 {@code [0, 1]}
+ */
+
+public record TrSchemaRevisionSetGeneratorConfiguration(
+  long seed,
+  int revisions,
+  int statementsPerRevision,
+  int parameters,
+  int statementSizeMinimum,
+  int statementSizeMaximum,
+  double parameterizedFraction,
+  double stringFormattingFraction)
+{
+  /**
+   * The largest permitted statement size. This keeps generated statements
+   * within the string length limits of common databases.
+   */
+
+  public static final int STATEMENT_SIZE_LIMIT = 32_000;
+
+  /**
+   * The configuration of a synthetic revision set generator.
+   *
+   * @param seed                     The seed used for all random choices
+   * @param revisions                The number of revisions
+   * @param statementsPerRevision    The number of statements in each revision
+   * @param parameters               The number of declared parameters
+   * @param statementSizeMinimum     The minimum approximate size of each
+   *                                 statement in characters
+   * @param statementSizeMaximum     The maximum approximate size of each
+   *                                 statement in characters
+   * @param parameterizedFraction    The fraction of statements that are
+   *                                 parameterized
+   * @param stringFormattingFraction The fraction of parameterized statements
+   *                                 that use string formatting
+   */
+
+  public TrSchemaRevisionSetGeneratorConfiguration
+  {
+    checkAtLeast("Revisions", revisions, 1);
+    checkAtLeast("Statements per revision", statementsPerRevision, 1);
+    checkAtLeast("Parameters", parameters, 0);
+    checkAtLeast("Minimum statement size", statementSizeMinimum, 0);
+    checkAtLeast(
+      "Maximum statement size", statementSizeMaximum, statementSizeMinimum);
+
+    if (statementSizeMaximum > STATEMENT_SIZE_LIMIT) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum statement size must be at most %d (received %d)",
+          Integer.valueOf(STATEMENT_SIZE_LIMIT),
+          Integer.valueOf(statementSizeMaximum)
+        ));
+    }
+
+    checkFraction("Parameterized fraction", parameterizedFraction);
+    checkFraction("String formatting fraction", stringFormattingFraction);
+  }
+
+  private static void checkAtLeast(
+    final String name,
+    final int value,
+    final int minimum)
+  {
+    if (value < minimum) {
+      throw new IllegalArgumentException(
+        String.format(
+          "%s must be at least %d (received %d)",
+          name,
+          Integer.valueOf(minimum),
+          Integer.valueOf(value)
+        ));
+    }
+  }
+
+  private static void checkFraction(
+    final String name,
+    final double value)
+  {
+    if (!(value >= 0.0 && value <= 1.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "%s must be in the range [0, 1] (received %s)",
+          name,
+          Double.valueOf(value)
+        ));
+    }
+  }
+
+  /**
+   * Create a configuration builder. The builder is initialized with a small
+   * configuration: a seed of {@code 0}, ten revisions of ten statements,
+   * four parameters, statements of between 32 and 256 characters, and one
+   * quarter of the statements parameterized.
+   *
+   * @return A configuration builder
+   */
+
+  public static Builder builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * A mutable builder for generator configurations.
+   */
+
+  public static final class Builder
+  {
+    private long seed;
+    private int revisions;
+    private int statementsPerRevision;
+    private int parameters;
+    private int statementSizeMinimum;
+    private int statementSizeMaximum;
+    private double parameterizedFraction;
+    private double stringFormattingFraction;
+
+    private Builder()
+    {
+      this.seed = 0L;
+      this.revisions = 10;
+      this.statementsPerRevision = 10;
+      this.parameters = 4;
+      this.statementSizeMinimum = 32;
+      this.statementSizeMaximum = 256;
+      this.parameterizedFraction = 0.25;
+      this.stringFormattingFraction = 0.0;
+    }
+
+    /**
+     * Set the seed used for all random choices.
+     *
+     * @param value The seed
+     *
+     * @return this
+     */
+
+    public Builder withSeed(
+      final long value)
+    {
+      this.seed = value;
+      return this;
+    }
+
+    /**
+     * Set the number of revisions.
+     *
+     * @param value The number of revisions
+     *
+     * @return this
+     */
+
+    public Builder withRevisions(
+      final int value)
+    {
+      this.revisions = value;
+      return this;
+    }
+
+    /**
+     * Set the number of statements in each revision.
+     *
+     * @param value The number of statements
+     *
+     * @return this
+     */
+
+    public Builder withStatementsPerRevision(
+      final int value)
+    {
+      this.statementsPerRevision = value;
+      return this;
+    }
+
+    /**
+     * Set the number of declared parameters.
+     *
+     * @param value The number of parameters
+     *
+     * @return this
+     */
+
+    public Builder withParameters(
+      final int value)
+    {
+      this.parameters = value;
+      return this;
+    }
+
+    /**
+     * Set the minimum approximate statement size.
+     *
+     * @param value The minimum size in characters
+     *
+     * @return this
+     */
+
+    public Builder withStatementSizeMinimum(
+      final int value)
+    {
+      this.statementSizeMinimum = value;
+      return this;
+    }
+
+    /**
+     * Set the maximum approximate statement size.
+     *
+     * @param value The maximum size in characters
+     *
+     * @return this
+     */
+
+    public Builder withStatementSizeMaximum(
+      final int value)
+    {
+      this.statementSizeMaximum = value;
+      return this;
+    }
+
+    /**
+     * Set the fraction of statements that are parameterized.
+     *
+     * @param value The fraction
+     *
+     * @return this
+     */
+
+    public Builder withParameterizedFraction(
+      final double value)
+    {
+      this.parameterizedFraction = value;
+      return this;
+    }
+
+    /**
+     * Set the fraction of parameterized statements that use string
+     * formatting.
+     *
+     * @param value The fraction
+     *
+     * @return this
+     */
+
+    public Builder withStringFormattingFraction(
+      final double value)
+    {
+      this.stringFormattingFraction = value;
+      return this;
+    }
+
+    /**
+     * @return A configuration based on all the values given so far
+     */
+
+    public TrSchemaRevisionSetGeneratorConfiguration build()
+    {
+      return new TrSchemaRevisionSetGeneratorConfiguration(
+        this.seed,
+        this.revisions,
+        this.statementsPerRevision,
+        this.parameters,
+        this.statementSizeMinimum,
+        this.statementSizeMaximum,
+        this.parameterizedFraction,
+        this.stringFormattingFraction
+      );
+    }
+  }
+}
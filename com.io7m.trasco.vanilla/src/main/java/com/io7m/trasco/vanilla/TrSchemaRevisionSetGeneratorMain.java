@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla;
+
+import com.io7m.trasco.api.TrSchemaRevisionSetSerializerFactoryType;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Command-line program for generating synthetic revision sets.
+ */
+
+public final class TrSchemaRevisionSetGeneratorMain
+{
+  private static final String USAGE = """
+    usage: output.(xml|trb) [options ...]
+      --seed n
+      --revisions n
+      --statements-per-revision n
+      --parameters n
+      --statement-size-minimum n
+      --statement-size-maximum n
+      --parameterized-fraction f
+      --string-formatting-fraction f""";
+
+  private TrSchemaRevisionSetGeneratorMain()
+  {
+
+  }
+
+  /**
+   * Main command-line entry point. The output is written in the binary
+   * format if the output file name ends with {@code .trb}, and in the XML
+   * format otherwise.
+   *
+   * @param args The arguments
+   *
+   * @throws Exception On error
+   */
+
+  public static void main(
+    final String[] args)
+    throws Exception
+  {
+    if (args.length < 1 || args.length % 2 != 1) {
+      System.err.println(USAGE);
+      throw new IllegalArgumentException(USAGE);
+    }
+
+    final var output =
+      Paths.get(args[0]);
+    final var configuration =
+      configuration(args);
+
+    final TrSchemaRevisionSetSerializerFactoryType serializers;
+    if (output.toString().endsWith(".trb")) {
+      serializers = new TrSchemaRevisionSetBinarySerializers();
+    } else {
+      serializers = new TrSchemaRevisionSetXMLSerializers();
+    }
+
+    try (var stream =
+           Files.newOutputStream(output, WRITE, TRUNCATE_EXISTING, CREATE)) {
+      serializers.serialize(
+        output.toUri(),
+        stream,
+        TrSchemaRevisionSetGenerator.generate(configuration)
+      );
+    }
+  }
+
+  private static TrSchemaRevisionSetGeneratorConfiguration configuration(
+    final String[] args)
+  {
+    final var builder =
+      TrSchemaRevisionSetGeneratorConfiguration.builder();
+
+    for (int index = 1; index < args.length; index += 2) {
+      final var value = args[index + 1];
+      switch (args[index]) {
+        case "--seed" -> builder.withSeed(Long.parseLong(value));
+        case "--revisions" -> builder.withRevisions(Integer.parseInt(value));
+        case "--statements-per-revision" ->
+          builder.withStatementsPerRevision(Integer.parseInt(value));
+        case "--parameters" -> builder.withParameters(Integer.parseInt(value));
+        case "--statement-size-minimum" ->
+          builder.withStatementSizeMinimum(Integer.parseInt(value));
+        case "--statement-size-maximum" ->
+          builder.withStatementSizeMaximum(Integer.parseInt(value));
+        case "--parameterized-fraction" ->
+          builder.withParameterizedFraction(Double.parseDouble(value));
+        case "--string-formatting-fraction" ->
+          builder.withStringFormattingFraction(Double.parseDouble(value));
+        default -> {
+          System.err.println(USAGE);
+          throw new IllegalArgumentException(
+            String.format("Unrecognized option: %s", args[index]));
+        }
+      }
+    }
+
+    return builder.build();
+  }
+}
@@ -18,6 +18,7 @@ package com.io7m.trasco.vanilla;
 
 import com.io7m.anethum.api.ParseStatus;
 import com.io7m.trasco.api.TrSchemaRevisionSetParserFactoryType;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
 import com.io7m.trasco.api.TrSchemaRevisionSetParserType;
 import com.io7m.trasco.vanilla.internal.TrSchemaSetRevisionParser;
 
@@ -27,7 +28,9 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
- * A factory of schema revision set parsers.
+ * A factory of schema revision set parsers. A
+ * {@link TrSchemaRevisionSetParserOptions} value may be passed as the parser
+ * context.
  */
 
 public final class TrSchemaRevisionSetParsers
@@ -53,6 +56,11 @@ public final class TrSchemaRevisionSetParsers
     Objects.requireNonNull(stream, "stream");
     Objects.requireNonNull(statusConsumer, "statusConsumer");
 
-    return new TrSchemaSetRevisionParser(source, stream, statusConsumer);
+    return new TrSchemaSetRevisionParser(
+      TrSchemaRevisionSetParserOptions.fromContext(context),
+      source,
+      stream,
+      statusConsumer
+    );
   }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Constants for the binary revision set format.
+ *
+ * <p>A binary revision set consists of a fixed header followed by a body.
+ * The header contains the magic number {@link #MAGIC}, the format version
+ * {@link #VERSION}, the SHA-256 hash of the body, and the length of the body
+ * in octets. All integers are big-endian, and all strings are encoded as a
+ * 32-bit length followed by that many octets of UTF-8.</p>
+ *
+ * <p>The body contains the parameters (sorted by name), followed by the
+ * revisions (sorted by version). Each revision consists of the version,
+ * followed by the length in octets of its statements, followed by the
+ * statements themselves.</p>
+ *
+ * <p>In version 2 of the format, the revisions are followed by a single
+ * octet that is {@code 1} if a baseline is present and {@code 0} otherwise.
+ * A present baseline consists of the version, followed by the number of
+ * statements, followed by the statements themselves. Version 1 bodies end
+ * after the revisions, and are still accepted by the parser. Version 2 also
+ * adds an octet of option flags (see {@link #OPTION_NON_TRANSACTIONAL})
+ * directly after the tag of every statement. If the
+ * {@link #OPTION_PARALLEL_GROUP} flag is set, the flags are followed by the
+ * 32-bit parallel group number. If the {@link #OPTION_QUERY_TIMEOUT} or
+ * {@link #OPTION_LOCK_TIMEOUT} flags are set, the 64-bit query and lock
+ * timeouts in milliseconds follow, in that order.</p>
+ */
+
+public final class TrBinary
+{
+  /**
+   * The magic number that begins every binary revision set ("TRSB").
+   */
+
+  public static final int MAGIC = 0x54525342;
+
+  /**
+   * The current format version.
+   */
+
+  public static final int VERSION = 2;
+
+  /**
+   * The oldest format version that can still be read.
+   */
+
+  public static final int VERSION_MINIMUM = 1;
+
+  /**
+   * The length of the body hash.
+   */
+
+  public static final int HASH_LENGTH = 32;
+
+  /**
+   * The tag that denotes a statement with no parameters.
+   */
+
+  public static final byte TAG_STATEMENT = 0;
+
+  /**
+   * The tag that denotes a parameterized statement.
+   */
+
+  public static final byte TAG_STATEMENT_PARAMETERIZED = 1;
+
+  /**
+   * The tag that denotes a backfill statement. The options are followed by
+   * the 32-bit chunk size, the 64-bit throttle delay in nanoseconds, and the
+   * text. This tag only appears in version 2 and later.
+   */
+
+  public static final byte TAG_STATEMENT_BACKFILL = 2;
+
+  /**
+   * The statement option flag that denotes a non-transactional statement.
+   */
+
+  public static final byte OPTION_NON_TRANSACTIONAL = 0x1;
+
+  /**
+   * The statement option flag that denotes a statement in a parallel group.
+   */
+
+  public static final byte OPTION_PARALLEL_GROUP = 0x2;
+
+  /**
+   * The statement option flag that denotes a statement with a query timeout.
+   */
+
+  public static final byte OPTION_QUERY_TIMEOUT = 0x4;
+
+  /**
+   * The statement option flag that denotes a statement with a lock timeout.
+   */
+
+  public static final byte OPTION_LOCK_TIMEOUT = 0x8;
+
+  private TrBinary()
+  {
+
+  }
+
+  /**
+   * @return A new message digest for the body hash
+   */
+
+  public static MessageDigest digest()
+  {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.anethum.api.ParseSeverity;
+import com.io7m.anethum.api.ParseStatus;
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrParameterKind;
+import com.io7m.trasco.api.TrParameterReference;
+import com.io7m.trasco.api.TrParameterReferences;
+import com.io7m.trasco.api.TrSchemaBaseline;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserType;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A parser of revision sets in the binary format.
+ *
+ * @see TrBinary
+ */
+
+public final class TrBinaryParser
+  implements TrSchemaRevisionSetParserType
+{
+  private final URI source;
+  private final InputStream stream;
+  private final Consumer<ParseStatus> statusConsumer;
+  private final TrSchemaRevisionSetParserOptions options;
+
+  /**
+   * A parser of revision sets in the binary format.
+   *
+   * @param inOptions        The parser options
+   * @param inSource         The source
+   * @param inStream         The stream
+   * @param inStatusConsumer A status consumer
+   */
+
+  public TrBinaryParser(
+    final TrSchemaRevisionSetParserOptions inOptions,
+    final URI inSource,
+    final InputStream inStream,
+    final Consumer<ParseStatus> inStatusConsumer)
+  {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.stream =
+      Objects.requireNonNull(inStream, "stream");
+    this.statusConsumer =
+      Objects.requireNonNull(inStatusConsumer, "statusConsumer");
+  }
+
+  @Override
+  public TrSchemaRevisionSet execute()
+    throws ParsingException
+  {
+    final var jfr = new TrJFRParse();
+    jfr.begin();
+
+    final TrBinaryBody body;
+    try {
+      body = this.readBody();
+    } catch (final EOFException e) {
+      throw this.error("error-binary-truncated", "Unexpected end of file.");
+    } catch (final IOException e) {
+      throw this.error("error-binary-io", e.getMessage());
+    }
+
+    try {
+      final var result =
+        this.parseBody(body.version(), ByteBuffer.wrap(body.data()));
+      jfr.end();
+      if (jfr.shouldCommit()) {
+        jfr.setSource(this.source.toString());
+        jfr.setFormat("binary");
+        jfr.setRevisions(result.revisions().size());
+        jfr.commit();
+      }
+      return result;
+    } catch (final BufferUnderflowException e) {
+      throw this.error(
+        "error-binary-malformed",
+        "Unexpected end of revision set data.");
+    } catch (final IllegalArgumentException e) {
+      throw this.error("error-binary-malformed", e.getMessage());
+    }
+  }
+
+  private record TrBinaryBody(
+    int version,
+    byte[] data)
+  {
+
+  }
+
+  private TrBinaryBody readBody()
+    throws IOException, ParsingException
+  {
+    final var input = new DataInputStream(this.stream);
+
+    final var magic = input.readInt();
+    if (magic != TrBinary.MAGIC) {
+      throw this.error(
+        "error-binary-magic",
+        "Unrecognized magic number 0x%08x (expected 0x%08x)."
+          .formatted(Integer.valueOf(magic), Integer.valueOf(TrBinary.MAGIC))
+      );
+    }
+
+    final var version = input.readInt();
+    if (version < TrBinary.VERSION_MINIMUM || version > TrBinary.VERSION) {
+      throw this.error(
+        "error-binary-version",
+        "Unsupported format version %d (expected %d to %d)."
+          .formatted(
+            Integer.valueOf(version),
+            Integer.valueOf(TrBinary.VERSION_MINIMUM),
+            Integer.valueOf(TrBinary.VERSION))
+      );
+    }
+
+    final var hashExpected = new byte[TrBinary.HASH_LENGTH];
+    input.readFully(hashExpected);
+
+    final var length = input.readInt();
+    if (length < 0) {
+      throw this.error(
+        "error-binary-malformed",
+        "Negative body length %d.".formatted(Integer.valueOf(length))
+      );
+    }
+
+    final var body = new byte[length];
+    input.readFully(body);
+
+    final var hashReceived = TrBinary.digest().digest(body);
+    if (!MessageDigest.isEqual(hashExpected, hashReceived)) {
+      final var hex = HexFormat.of();
+      throw this.error(
+        "error-binary-hash",
+        "Revision set hash mismatch (expected %s, received %s)."
+          .formatted(hex.formatHex(hashExpected), hex.formatHex(hashReceived))
+      );
+    }
+    return new TrBinaryBody(version, body);
+  }
+
+  private TrSchemaRevisionSet parseBody(
+    final int version,
+    final ByteBuffer data)
+  {
+    final var parameterCount = readCount(data);
+    final var parameters = new HashMap<String, TrParameter>(parameterCount);
+    for (int index = 0; index < parameterCount; ++index) {
+      final var name = readString(data);
+      final var kind = kindOf(data.get());
+      parameters.put(name, new TrParameter(name, kind));
+    }
+
+    final var revisionCount = readCount(data);
+    final var revisions = new TreeMap<BigInteger, TrSchemaRevision>();
+    for (int index = 0; index < revisionCount; ++index) {
+      final var revision = this.readRevision(version, data);
+      revisions.put(revision.version(), revision);
+    }
+
+    final var baseline =
+      version >= 2 ? readBaseline(version, data) : Optional.<TrSchemaBaseline>empty();
+
+    if (data.hasRemaining()) {
+      throw new IllegalArgumentException(
+        "%d octets of trailing data.".formatted(Integer.valueOf(data.remaining()))
+      );
+    }
+
+    return new TrSchemaRevisionSet(
+      Map.copyOf(parameters),
+      revisions,
+      baseline
+    );
+  }
+
+  private static Optional<TrSchemaBaseline> readBaseline(
+    final int formatVersion,
+    final ByteBuffer data)
+  {
+    final var present = data.get();
+    return switch (present) {
+      case 0 -> Optional.empty();
+      case 1 -> {
+        final var version = readBigInteger(data);
+        yield Optional.of(
+          new TrSchemaBaseline(version, readStatements(formatVersion, data))
+        );
+      }
+      default -> {
+        throw new IllegalArgumentException(
+          "Unrecognized baseline tag %d.".formatted(Byte.valueOf(present))
+        );
+      }
+    };
+  }
+
+  private static List<TrStatementType> readStatements(
+    final int formatVersion,
+    final ByteBuffer data)
+  {
+    final var statementCount = readCount(data);
+    final var statements = new ArrayList<TrStatementType>(statementCount);
+    for (int index = 0; index < statementCount; ++index) {
+      statements.add(readStatement(formatVersion, data));
+    }
+    return List.copyOf(statements);
+  }
+
+  private TrSchemaRevision readRevision(
+    final int formatVersion,
+    final ByteBuffer data)
+  {
+    final var version = readBigInteger(data);
+    final var length = readCount(data);
+    if (length > data.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final var end = data.position() + length;
+
+    /*
+     * The statements of elided revisions are skipped entirely using the
+     * length prefix; no statement objects or strings are allocated.
+     */
+
+    if (this.options.isElided(version)) {
+      data.position(end);
+      return TrSchemaRevision.elidedRevision(version);
+    }
+
+    final var statements = readStatements(formatVersion, data);
+    if (data.position() != end) {
+      throw new IllegalArgumentException(
+        "Revision %s has an incorrect length.".formatted(version)
+      );
+    }
+    return new TrSchemaRevision(version, statements);
+  }
+
+  private static TrStatementType readStatement(
+    final int formatVersion,
+    final ByteBuffer data)
+  {
+    final var tag = data.get();
+    final var options =
+      formatVersion >= 2 ? readOptions(data) : TrStatementOptions.defaults();
+
+    return switch (tag) {
+      case TrBinary.TAG_STATEMENT -> {
+        yield new TrStatement(readString(data), options);
+      }
+      case TrBinary.TAG_STATEMENT_PARAMETERIZED -> {
+        final var interpolation = interpolationOf(data.get());
+        final var referenceCount = readCount(data);
+        final var references =
+          new ArrayList<TrParameterReference>(referenceCount);
+        for (int index = 0; index < referenceCount; ++index) {
+          final var order = data.getInt();
+          references.add(new TrParameterReference(order, readString(data)));
+        }
+        yield TrStatementTemplate.checked(
+          new TrStatementParameterized(
+            TrParameterReferences.of(references),
+            readString(data),
+            interpolation,
+            options
+          ));
+      }
+      case TrBinary.TAG_STATEMENT_BACKFILL -> {
+        final var chunkSize = data.getInt();
+        final var throttle = Duration.ofNanos(data.getLong());
+        yield new TrStatementBackfill(
+          readString(data),
+          chunkSize,
+          throttle,
+          options
+        );
+      }
+      default -> {
+        throw new IllegalArgumentException(
+          "Unrecognized statement tag %d.".formatted(Byte.valueOf(tag))
+        );
+      }
+    };
+  }
+
+  private static TrStatementOptions readOptions(
+    final ByteBuffer data)
+  {
+    final var code = data.get();
+    final var known =
+      TrBinary.OPTION_NON_TRANSACTIONAL
+      | TrBinary.OPTION_PARALLEL_GROUP
+      | TrBinary.OPTION_QUERY_TIMEOUT
+      | TrBinary.OPTION_LOCK_TIMEOUT;
+
+    if ((code & ~known) != 0) {
+      throw new IllegalArgumentException(
+        "Unrecognized statement options 0x%02x.".formatted(Byte.valueOf(code))
+      );
+    }
+
+    final var transactional =
+      (code & TrBinary.OPTION_NON_TRANSACTIONAL) == 0;
+
+    var group = OptionalInt.empty();
+    if ((code & TrBinary.OPTION_PARALLEL_GROUP) != 0) {
+      group = OptionalInt.of(data.getInt());
+    }
+
+    return new TrStatementOptions(
+      transactional,
+      group,
+      readTimeout(code, TrBinary.OPTION_QUERY_TIMEOUT, data),
+      readTimeout(code, TrBinary.OPTION_LOCK_TIMEOUT, data)
+    );
+  }
+
+  private static Optional<Duration> readTimeout(
+    final byte code,
+    final byte flag,
+    final ByteBuffer data)
+  {
+    if ((code & flag) != 0) {
+      return Optional.of(Duration.ofMillis(data.getLong()));
+    }
+    return Optional.empty();
+  }
+
+  private static TrParameterKind kindOf(
+    final byte code)
+  {
+    return switch (code) {
+      case 0 -> TrParameterKind.STRING;
+      case 1 -> TrParameterKind.NUMERIC;
+      default -> {
+        throw new IllegalArgumentException(
+          "Unrecognized parameter kind %d.".formatted(Byte.valueOf(code))
+        );
+      }
+    };
+  }
+
+  private static TrParameterInterpolation interpolationOf(
+    final byte code)
+  {
+    return switch (code) {
+      case 0 -> TrParameterInterpolation.PREPARED_STATEMENT;
+      case 1 -> TrParameterInterpolation.STRING_FORMATTING;
+      default -> {
+        throw new IllegalArgumentException(
+          "Unrecognized parameter interpolation %d."
+            .formatted(Byte.valueOf(code))
+        );
+      }
+    };
+  }
+
+  private static int readCount(
+    final ByteBuffer data)
+  {
+    final var count = data.getInt();
+    if (count < 0 || count > data.remaining()) {
+      throw new IllegalArgumentException(
+        "Invalid count or length %d.".formatted(Integer.valueOf(count))
+      );
+    }
+    return count;
+  }
+
+  private static BigInteger readBigInteger(
+    final ByteBuffer data)
+  {
+    final var length = readCount(data);
+    final var bytes = new byte[length];
+    data.get(bytes);
+    return new BigInteger(bytes);
+  }
+
+  private static String readString(
+    final ByteBuffer data)
+  {
+    final var length = readCount(data);
+    final var text =
+      UTF_8.decode(data.slice(data.position(), length)).toString();
+    data.position(data.position() + length);
+    return text;
+  }
+
+  private ParsingException error(
+    final String code,
+    final String message)
+  {
+    final var status =
+      ParseStatus.builder(code, message)
+        .withSeverity(ParseSeverity.PARSE_ERROR)
+        .withLexical(LexicalPosition.of(0, 0, Optional.of(this.source)))
+        .build();
+
+    this.statusConsumer.accept(status);
+    return new ParsingException(message, List.of(status));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.stream.close();
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrParameterKind;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetSerializerType;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A serializer of revision sets in the binary format.
+ *
+ * @see TrBinary
+ */
+
+public final class TrBinarySerializer
+  implements TrSchemaRevisionSetSerializerType
+{
+  private final URI target;
+  private final OutputStream stream;
+
+  /**
+   * A serializer of revision sets in the binary format.
+   *
+   * @param inTarget The target
+   * @param inStream The output stream
+   */
+
+  public TrBinarySerializer(
+    final URI inTarget,
+    final OutputStream inStream)
+  {
+    this.target =
+      Objects.requireNonNull(inTarget, "target");
+    this.stream =
+      Objects.requireNonNull(inStream, "stream");
+  }
+
+  @Override
+  public void execute(
+    final TrSchemaRevisionSet value)
+    throws SerializationException
+  {
+    Objects.requireNonNull(value, "value");
+
+    for (final var revision : value.revisions().values()) {
+      if (revision.elided()) {
+        throw new SerializationException(
+          "Cannot serialize revision set to %s: Revision %s is elided."
+            .formatted(this.target, revision.version())
+        );
+      }
+    }
+
+    try {
+      final var body = serializeBody(value);
+      final var hash = TrBinary.digest().digest(body);
+
+      final var output = new DataOutputStream(this.stream);
+      output.writeInt(TrBinary.MAGIC);
+      output.writeInt(TrBinary.VERSION);
+      output.write(hash);
+      output.writeInt(body.length);
+      output.write(body);
+      output.flush();
+    } catch (final IOException e) {
+      throw new SerializationException(
+        "Failed to serialize revision set to %s: %s"
+          .formatted(this.target, e.getMessage()),
+        e
+      );
+    }
+  }
+
+  private static byte[] serializeBody(
+    final TrSchemaRevisionSet value)
+    throws IOException
+  {
+    final var bytes = new ByteArrayOutputStream(4096);
+    final var output = new DataOutputStream(bytes);
+
+    final var parameters =
+      value.parameters()
+        .values()
+        .stream()
+        .sorted(Comparator.comparing(TrParameter::name))
+        .toList();
+
+    output.writeInt(parameters.size());
+    for (final var parameter : parameters) {
+      writeString(output, parameter.name());
+      output.writeByte(kindCode(parameter.kind()));
+    }
+
+    final var revisions = value.revisions();
+    output.writeInt(revisions.size());
+    for (final var revision : revisions.values()) {
+      writeRevision(output, revision);
+    }
+
+    final var baselineOpt = value.baseline();
+    if (baselineOpt.isPresent()) {
+      final var baseline = baselineOpt.get();
+      output.writeByte(1);
+      writeBigInteger(output, baseline.version());
+      writeStatements(output, baseline.statements());
+    } else {
+      output.writeByte(0);
+    }
+
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void writeRevision(
+    final DataOutputStream output,
+    final TrSchemaRevision revision)
+    throws IOException
+  {
+    writeBigInteger(output, revision.version());
+
+    /*
+     * The statements are prefixed with their length so that readers
+     * can skip over revisions that they do not need to materialize.
+     */
+
+    final var bytes = new ByteArrayOutputStream(1024);
+    final var statements = new DataOutputStream(bytes);
+    writeStatements(statements, revision.statements());
+    statements.flush();
+
+    output.writeInt(bytes.size());
+    bytes.writeTo(output);
+  }
+
+  private static void writeStatements(
+    final DataOutputStream output,
+    final List<TrStatementType> statements)
+    throws IOException
+  {
+    output.writeInt(statements.size());
+    for (final var statement : statements) {
+      writeStatement(output, statement);
+    }
+  }
+
+  private static void writeStatement(
+    final DataOutputStream output,
+    final TrStatementType statement)
+    throws IOException
+  {
+    if (statement instanceof final TrStatement st) {
+      output.writeByte(TrBinary.TAG_STATEMENT);
+      writeOptions(output, st.options());
+      writeString(output, st.text());
+      return;
+    }
+
+    if (statement instanceof final TrStatementBackfill st) {
+      output.writeByte(TrBinary.TAG_STATEMENT_BACKFILL);
+      writeOptions(output, st.options());
+      output.writeInt(st.chunkSize());
+      output.writeLong(st.throttle().toNanos());
+      writeString(output, st.text());
+      return;
+    }
+
+    if (statement instanceof final TrStatementParameterized st) {
+      output.writeByte(TrBinary.TAG_STATEMENT_PARAMETERIZED);
+      writeOptions(output, st.options());
+      output.writeByte(interpolationCode(st.interpolation()));
+
+      final var references = st.references().inOrder().values();
+      output.writeInt(references.size());
+      for (final var reference : references) {
+        output.writeInt(reference.order());
+        writeString(output, reference.name());
+      }
+      writeString(output, st.text());
+    }
+  }
+
+  private static void writeOptions(
+    final DataOutputStream output,
+    final TrStatementOptions options)
+    throws IOException
+  {
+    var code = 0;
+    if (!options.transactional()) {
+      code |= TrBinary.OPTION_NON_TRANSACTIONAL;
+    }
+
+    final var group = options.parallelGroup();
+    if (group.isPresent()) {
+      code |= TrBinary.OPTION_PARALLEL_GROUP;
+    }
+    if (options.queryTimeout().isPresent()) {
+      code |= TrBinary.OPTION_QUERY_TIMEOUT;
+    }
+    if (options.lockTimeout().isPresent()) {
+      code |= TrBinary.OPTION_LOCK_TIMEOUT;
+    }
+
+    output.writeByte(code);
+    if (group.isPresent()) {
+      output.writeInt(group.getAsInt());
+    }
+    if (options.queryTimeout().isPresent()) {
+      output.writeLong(options.queryTimeout().get().toMillis());
+    }
+    if (options.lockTimeout().isPresent()) {
+      output.writeLong(options.lockTimeout().get().toMillis());
+    }
+  }
+
+  private static int kindCode(
+    final TrParameterKind kind)
+  {
+    return switch (kind) {
+      case STRING -> 0;
+      case NUMERIC -> 1;
+    };
+  }
+
+  private static int interpolationCode(
+    final TrParameterInterpolation interpolation)
+  {
+    return switch (interpolation) {
+      case PREPARED_STATEMENT -> 0;
+      case STRING_FORMATTING -> 1;
+    };
+  }
+
+  private static void writeBigInteger(
+    final DataOutputStream output,
+    final BigInteger value)
+    throws IOException
+  {
+    final var bytes = value.toByteArray();
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeString(
+    final DataOutputStream output,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.stream.close();
+  }
+}
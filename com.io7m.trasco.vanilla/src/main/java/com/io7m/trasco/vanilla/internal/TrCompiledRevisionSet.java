@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrCompiledRevisionSetType;
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A revision set compiled against a fixed set of arguments. Statements are
+ * looked up by identity, as the statements of large revision sets are
+ * expensive to hash and compare.
+ */
+
+public final class TrCompiledRevisionSet implements TrCompiledRevisionSetType
+{
+  private final TrSchemaRevisionSet revisions;
+  private final TrArguments arguments;
+  private final Map<TrStatementType, TrCompiledStatement> statements;
+
+  private TrCompiledRevisionSet(
+    final TrSchemaRevisionSet inRevisions,
+    final TrArguments inArguments,
+    final Map<TrStatementType, TrCompiledStatement> inStatements)
+  {
+    this.revisions =
+      Objects.requireNonNull(inRevisions, "revisions");
+    this.arguments =
+      Objects.requireNonNull(inArguments, "arguments");
+    this.statements =
+      Objects.requireNonNull(inStatements, "statements");
+  }
+
+  /**
+   * Compile every statement in the given revision set (including the
+   * baseline, if any).
+   *
+   * @param revisions The revision set
+   * @param arguments The arguments
+   *
+   * @return A compiled revision set
+   *
+   * @throws TrException If the arguments do not satisfy the parameters of
+   *                     the revision set
+   */
+
+  public static TrCompiledRevisionSet compile(
+    final TrSchemaRevisionSet revisions,
+    final TrArguments arguments)
+    throws TrException
+  {
+    Objects.requireNonNull(revisions, "revisions");
+    Objects.requireNonNull(arguments, "arguments");
+
+    arguments.checkSatisfies(revisions.parameters());
+
+    final var statements =
+      new IdentityHashMap<TrStatementType, TrCompiledStatement>();
+
+    for (final var revision : revisions.revisions().values()) {
+      for (final var statement : revision.statements()) {
+        statements.put(
+          statement, TrCompiledStatement.compile(statement, arguments));
+      }
+    }
+
+    if (revisions.baseline().isPresent()) {
+      for (final var statement : revisions.baseline().get().statements()) {
+        statements.put(
+          statement, TrCompiledStatement.compile(statement, arguments));
+      }
+    }
+
+    return new TrCompiledRevisionSet(revisions, arguments, statements);
+  }
+
+  /**
+   * Create a revision set that compiles each statement when it is
+   * requested. The arguments are assumed to have been checked.
+   *
+   * @param revisions The revision set
+   * @param arguments The arguments
+   *
+   * @return A compiled revision set
+   */
+
+  public static TrCompiledRevisionSet onDemand(
+    final TrSchemaRevisionSet revisions,
+    final TrArguments arguments)
+  {
+    return new TrCompiledRevisionSet(
+      revisions, arguments, new IdentityHashMap<>());
+  }
+
+  @Override
+  public TrSchemaRevisionSet revisions()
+  {
+    return this.revisions;
+  }
+
+  @Override
+  public TrArguments arguments()
+  {
+    return this.arguments;
+  }
+
+  /**
+   * @param statement The statement
+   *
+   * @return The compiled statement
+   */
+
+  public TrCompiledStatement statement(
+    final TrStatementType statement)
+  {
+    final var compiled = this.statements.get(statement);
+    if (compiled != null) {
+      return compiled;
+    }
+    return TrCompiledStatement.compile(statement, this.arguments);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.junreachable.UnimplementedCodeException;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrArgumentType;
+import com.io7m.trasco.api.TrArguments;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import static com.io7m.trasco.api.TrParameterInterpolation.STRING_FORMATTING;
+
+/**
+ * A statement prepared for execution: the text that is sent to the
+ * database, and the functions that bind the arguments of the statement (if
+ * the statement is a parameterized prepared statement). Compiled statements
+ * are immutable.
+ */
+
+public final class TrCompiledStatement
+{
+  private static final BinderType[] NO_BINDERS = new BinderType[0];
+
+  private final String text;
+  private final BinderType[] binders;
+
+  private TrCompiledStatement(
+    final String inText,
+    final BinderType[] inBinders)
+  {
+    this.text = Objects.requireNonNull(inText, "text");
+    this.binders = Objects.requireNonNull(inBinders, "binders");
+  }
+
+  /**
+   * Compile a statement.
+   *
+   * @param statement The statement
+   * @param arguments The arguments, which must satisfy the parameters
+   *                  referenced by the statement
+   *
+   * @return The compiled statement
+   */
+
+  public static TrCompiledStatement compile(
+    final TrStatementType statement,
+    final TrArguments arguments)
+  {
+    Objects.requireNonNull(statement, "statement");
+    Objects.requireNonNull(arguments, "arguments");
+
+    if (statement instanceof final TrStatementParameterized st) {
+      if (st.interpolation() == STRING_FORMATTING) {
+        return new TrCompiledStatement(format(st, arguments), NO_BINDERS);
+      }
+      return new TrCompiledStatement(st.text().strip(), binders(st, arguments));
+    }
+    return new TrCompiledStatement(statement.text().strip(), NO_BINDERS);
+  }
+
+  /**
+   * @return The text sent to the database
+   */
+
+  public String text()
+  {
+    return this.text;
+  }
+
+  /**
+   * Bind all the arguments of the statement.
+   *
+   * @param sql The prepared statement
+   *
+   * @throws SQLException On errors
+   */
+
+  public void bind(
+    final PreparedStatement sql)
+    throws SQLException
+  {
+    for (final var binder : this.binders) {
+      binder.bind(sql);
+    }
+  }
+
+  private static String format(
+    final TrStatementParameterized st,
+    final TrArguments arguments)
+  {
+    final var referencesInOrder =
+      st.references().inOrder();
+    final var template =
+      TrStatementTemplate.parse(st.text().strip(), referencesInOrder.size());
+    final var values =
+      new TrArgumentType[referencesInOrder.size()];
+
+    int index = 0;
+    for (final var parameterRef : referencesInOrder.values()) {
+      values[index] = arguments.arguments().get(parameterRef.name());
+      ++index;
+    }
+    return template.render(values);
+  }
+
+  private static BinderType[] binders(
+    final TrStatementParameterized st,
+    final TrArguments arguments)
+  {
+    final var referencesInOrder =
+      st.references().inOrder();
+    final var binders =
+      new BinderType[referencesInOrder.size()];
+
+    int index = 0;
+    for (final var entry : referencesInOrder.entrySet()) {
+      final var argument =
+        arguments.arguments().get(entry.getValue().name());
+      binders[index] =
+        binder(entry.getKey().intValue() + 1, argument);
+      ++index;
+    }
+    return binders;
+  }
+
+  private static BinderType binder(
+    final int paramIndex,
+    final TrArgumentType argument)
+  {
+    if (argument instanceof final TrArgumentString s) {
+      final var value = s.value();
+      return sql -> sql.setString(paramIndex, value);
+    }
+
+    if (argument instanceof final TrArgumentNumeric n) {
+      final var value = n.value();
+      if (value instanceof final Integer x) {
+        final var v = x.intValue();
+        return sql -> sql.setInt(paramIndex, v);
+      }
+      if (value instanceof final Long x) {
+        final var v = x.longValue();
+        return sql -> sql.setLong(paramIndex, v);
+      }
+      if (value instanceof final Double x) {
+        final var v = x.doubleValue();
+        return sql -> sql.setDouble(paramIndex, v);
+      }
+      if (value instanceof final BigDecimal x) {
+        return sql -> sql.setBigDecimal(paramIndex, x);
+      }
+      throw new UnimplementedCodeException();
+    }
+
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * A function that binds a single argument of a prepared statement.
+   */
+
+  private interface BinderType
+  {
+    void bind(PreparedStatement sql)
+      throws SQLException;
+  }
+}
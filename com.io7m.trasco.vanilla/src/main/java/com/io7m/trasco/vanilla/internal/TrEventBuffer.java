@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrEventBackfillProgress;
+import com.io7m.trasco.api.TrEventType;
+import com.io7m.trasco.api.TrExecutorEventBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A bounded buffer of events delivered to a consumer on a separate virtual
+ * thread. The buffer may be published to from any number of threads.
+ * Closing the buffer waits until every buffered event has been delivered.
+ */
+
+public final class TrEventBuffer
+  implements Consumer<TrEventType>, AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrEventBuffer.class);
+
+  private final Consumer<TrEventType> consumer;
+  private final TrExecutorEventBuffer configuration;
+  private final ArrayDeque<TrEventType> events;
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final Condition notFull;
+  private final Thread thread;
+  private boolean closed;
+  private long dropped;
+
+  /**
+   * A bounded buffer of events.
+   *
+   * @param inConsumer      The event consumer
+   * @param inConfiguration The buffer configuration
+   */
+
+  public TrEventBuffer(
+    final Consumer<TrEventType> inConsumer,
+    final TrExecutorEventBuffer inConfiguration)
+  {
+    this.consumer =
+      Objects.requireNonNull(inConsumer, "consumer");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.events =
+      new ArrayDeque<>(inConfiguration.capacity());
+    this.lock =
+      new ReentrantLock();
+    this.notEmpty =
+      this.lock.newCondition();
+    this.notFull =
+      this.lock.newCondition();
+    this.thread =
+      Thread.ofVirtual()
+        .name("com.io7m.trasco.events")
+        .start(this::deliverAll);
+  }
+
+  @Override
+  public void accept(
+    final TrEventType event)
+  {
+    Objects.requireNonNull(event, "event");
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Event buffer is closed.");
+      }
+
+      while (this.events.size() >= this.configuration.capacity()) {
+        if (this.overflow(event)) {
+          return;
+        }
+      }
+
+      this.events.addLast(event);
+      this.notEmpty.signal();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Handle an event published to a full buffer.
+   *
+   * @return {@code true} if the event has been consumed by the buffer
+   */
+
+  private boolean overflow(
+    final TrEventType event)
+  {
+    return switch (this.configuration.overflowPolicy()) {
+      case BLOCK -> {
+        this.notFull.awaitUninterruptibly();
+        yield false;
+      }
+      case DROP_OLDEST -> {
+        this.events.pollFirst();
+        ++this.dropped;
+        yield false;
+      }
+      case COALESCE_PROGRESS -> {
+        if (this.removeSuperseded(event)) {
+          this.events.addLast(event);
+          ++this.dropped;
+          yield true;
+        }
+        this.notFull.awaitUninterruptibly();
+        yield false;
+      }
+    };
+  }
+
+  /**
+   * Remove the most recently buffered progress event for the same statement
+   * as the given progress event. Progress events for other statements (such
+   * as those published by the members of parallel groups) may have been
+   * buffered since, so the whole buffer is searched.
+   *
+   * @return {@code true} if a superseded event was removed
+   */
+
+  private boolean removeSuperseded(
+    final TrEventType event)
+  {
+    if (event instanceof final TrEventBackfillProgress progress) {
+      final var iterator = this.events.descendingIterator();
+      while (iterator.hasNext()) {
+        if (iterator.next() instanceof final TrEventBackfillProgress queued
+            && Objects.equals(queued.statement(), progress.statement())) {
+          iterator.remove();
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void deliverAll()
+  {
+    while (true) {
+      final TrEventType event;
+
+      this.lock.lock();
+      try {
+        while (this.events.isEmpty() && !this.closed) {
+          this.notEmpty.awaitUninterruptibly();
+        }
+        event = this.events.pollFirst();
+        this.notFull.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+
+      if (event == null) {
+        return;
+      }
+
+      try {
+        this.consumer.accept(event);
+      } catch (final RuntimeException e) {
+        LOG.error("event consumer raised an exception: ", e);
+      }
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.lock.lock();
+    try {
+      this.closed = true;
+      this.notEmpty.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+
+    try {
+      this.thread.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (this.dropped > 0L) {
+      LOG.debug("{} events were dropped or coalesced", this.dropped);
+    }
+  }
+}
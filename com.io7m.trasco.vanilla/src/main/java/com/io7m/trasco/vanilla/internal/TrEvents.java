@@ -0,0 +1,281 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrEventBackfillProgress;
+import com.io7m.trasco.api.TrEventCommitted;
+import com.io7m.trasco.api.TrEventExecutedSQL;
+import com.io7m.trasco.api.TrEventExecutedSQLBatch;
+import com.io7m.trasco.api.TrEventExecutingSQL;
+import com.io7m.trasco.api.TrEventExecutionSummary;
+import com.io7m.trasco.api.TrEventInterest;
+import com.io7m.trasco.api.TrEventLockWaited;
+import com.io7m.trasco.api.TrEventRevisionAttempted;
+import com.io7m.trasco.api.TrEventRevisionFinished;
+import com.io7m.trasco.api.TrEventType;
+import com.io7m.trasco.api.TrEventUpgrading;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The construction and publication of events. Events of types that the
+ * consumer is not interested in are never constructed.
+ */
+
+public final class TrEvents
+{
+  private final Consumer<TrEventType> consumer;
+  private final TrEventInterest interest;
+  private final boolean backfillProgress;
+  private final boolean committed;
+  private final boolean executedSQL;
+  private final boolean executedSQLBatch;
+  private final boolean executingSQL;
+  private final boolean executionSummary;
+  private final boolean lockWaited;
+  private final boolean revisionAttempted;
+  private final boolean revisionFinished;
+  private final boolean upgrading;
+
+  /**
+   * The construction and publication of events.
+   *
+   * @param inConsumer The event consumer
+   * @param inInterest The types of events the consumer wishes to receive
+   */
+
+  public TrEvents(
+    final Consumer<TrEventType> inConsumer,
+    final TrEventInterest inInterest)
+  {
+    this.consumer =
+      Objects.requireNonNull(inConsumer, "consumer");
+    this.interest =
+      Objects.requireNonNull(inInterest, "interest");
+
+    this.backfillProgress =
+      inInterest.isInterested(TrEventBackfillProgress.class);
+    this.committed =
+      inInterest.isInterested(TrEventCommitted.class);
+    this.executedSQL =
+      inInterest.isInterested(TrEventExecutedSQL.class);
+    this.executedSQLBatch =
+      inInterest.isInterested(TrEventExecutedSQLBatch.class);
+    this.executingSQL =
+      inInterest.isInterested(TrEventExecutingSQL.class);
+    this.executionSummary =
+      inInterest.isInterested(TrEventExecutionSummary.class);
+    this.lockWaited =
+      inInterest.isInterested(TrEventLockWaited.class);
+    this.revisionAttempted =
+      inInterest.isInterested(TrEventRevisionAttempted.class);
+    this.revisionFinished =
+      inInterest.isInterested(TrEventRevisionFinished.class);
+    this.upgrading =
+      inInterest.isInterested(TrEventUpgrading.class);
+  }
+
+  /**
+   * @param newConsumer The new event consumer
+   *
+   * @return These events published to a different consumer
+   */
+
+  public TrEvents withConsumer(
+    final Consumer<TrEventType> newConsumer)
+  {
+    return new TrEvents(newConsumer, this.interest);
+  }
+
+  /**
+   * @return The event consumer
+   */
+
+  public Consumer<TrEventType> consumer()
+  {
+    return this.consumer;
+  }
+
+  /**
+   * @see TrEventBackfillProgress
+   */
+
+  void backfillProgress(
+    final String statement,
+    final long chunk,
+    final long rowsChunk,
+    final long rowsTotal,
+    final long elapsedNanos)
+  {
+    if (this.backfillProgress) {
+      this.consumer.accept(new TrEventBackfillProgress(
+        statement, chunk, rowsChunk, rowsTotal, elapsedNanos));
+    }
+  }
+
+  /**
+   * @see TrEventCommitted
+   */
+
+  void committed(
+    final BigInteger version)
+  {
+    if (this.committed) {
+      this.consumer.accept(new TrEventCommitted(version));
+    }
+  }
+
+  /**
+   * @see TrEventExecutedSQL
+   */
+
+  void executedSQL(
+    final String statement,
+    final long updateCount,
+    final long elapsedNanos)
+  {
+    if (this.executedSQL) {
+      this.consumer.accept(
+        new TrEventExecutedSQL(statement, updateCount, elapsedNanos));
+    }
+  }
+
+  /**
+   * The update count is only retrieved from the statement if the event is
+   * published.
+   *
+   * @see TrEventExecutedSQL
+   */
+
+  void executedSQL(
+    final String statement,
+    final Statement sql,
+    final long elapsedNanos)
+    throws SQLException
+  {
+    if (this.executedSQL) {
+      this.executedSQL(statement, sql.getUpdateCount(), elapsedNanos);
+    }
+  }
+
+  /**
+   * @see TrEventExecutedSQLBatch
+   */
+
+  void executedSQLBatch(
+    final int[] updateCounts,
+    final long elapsedNanos)
+  {
+    if (this.executedSQLBatch) {
+      this.consumer.accept(new TrEventExecutedSQLBatch(
+        Arrays.stream(updateCounts).mapToObj(Long::valueOf).toList(),
+        elapsedNanos
+      ));
+    }
+  }
+
+  /**
+   * @see TrEventExecutingSQL
+   */
+
+  void executingSQL(
+    final String statement)
+  {
+    if (this.executingSQL) {
+      this.consumer.accept(new TrEventExecutingSQL(statement));
+    }
+  }
+
+  /**
+   * @see TrEventExecutionSummary
+   */
+
+  void executionSummary(
+    final TrEventExecutionSummary summary)
+  {
+    if (this.executionSummary) {
+      this.consumer.accept(summary);
+    }
+  }
+
+  /**
+   * @see TrEventLockWaited
+   */
+
+  void lockWaited(
+    final int attempts,
+    final boolean acquired,
+    final long elapsedNanos)
+  {
+    if (this.lockWaited) {
+      this.consumer.accept(
+        new TrEventLockWaited(attempts, acquired, elapsedNanos));
+    }
+  }
+
+  /**
+   * @see TrEventRevisionAttempted
+   */
+
+  void revisionAttempted(
+    final BigInteger version,
+    final int attempt,
+    final boolean succeeded,
+    final Optional<String> sqlState,
+    final boolean retrying,
+    final long elapsedNanos)
+  {
+    if (this.revisionAttempted) {
+      this.consumer.accept(new TrEventRevisionAttempted(
+        version, attempt, succeeded, sqlState, retrying, elapsedNanos));
+    }
+  }
+
+  /**
+   * @see TrEventRevisionFinished
+   */
+
+  void revisionFinished(
+    final BigInteger version,
+    final int statementCount,
+    final long elapsedNanos)
+  {
+    if (this.revisionFinished) {
+      this.consumer.accept(
+        new TrEventRevisionFinished(version, statementCount, elapsedNanos));
+    }
+  }
+
+  /**
+   * @see TrEventUpgrading
+   */
+
+  void upgrading(
+    final BigInteger fromVersion,
+    final BigInteger toVersion)
+  {
+    if (this.upgrading) {
+      this.consumer.accept(new TrEventUpgrading(fromVersion, toVersion));
+    }
+  }
+}
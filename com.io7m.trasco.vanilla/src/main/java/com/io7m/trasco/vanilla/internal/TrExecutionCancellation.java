@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cancellation state of a single execution. Cancelling an execution
+ * cancels every statement that is currently executing on its behalf, and
+ * causes any statement that is subsequently started to fail immediately.
+ */
+
+public final class TrExecutionCancellation
+{
+  /**
+   * The SQL state used for statements that failed due to cancellation.
+   */
+
+  public static final String SQL_STATE_CANCELLED = "57014";
+
+  private final Set<TrStatementWatchdog.Guard> executing;
+  private volatile boolean cancelled;
+
+  /**
+   * The cancellation state of a single execution.
+   */
+
+  public TrExecutionCancellation()
+  {
+    this.executing = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Cancel the execution.
+   */
+
+  public void cancel()
+  {
+    this.cancelled = true;
+    for (final var guard : this.executing) {
+      guard.cancel();
+    }
+  }
+
+  /**
+   * @return {@code true} if the execution has been cancelled
+   */
+
+  public boolean isCancelled()
+  {
+    return this.cancelled;
+  }
+
+  /**
+   * Register a statement that is about to execute. The registration must be
+   * made before the statement starts, so that a cancellation that happens
+   * concurrently either sees the statement or is seen by
+   * {@link #checkNotCancelled()}.
+   *
+   * @param guard The guard of the statement
+   */
+
+  public void register(
+    final TrStatementWatchdog.Guard guard)
+  {
+    this.executing.add(Objects.requireNonNull(guard, "guard"));
+  }
+
+  /**
+   * Unregister a statement that has finished executing.
+   *
+   * @param guard The guard of the statement
+   */
+
+  public void unregister(
+    final TrStatementWatchdog.Guard guard)
+  {
+    this.executing.remove(guard);
+  }
+
+  /**
+   * @throws SQLException If the execution has been cancelled
+   */
+
+  public void checkNotCancelled()
+    throws SQLException
+  {
+    if (this.cancelled) {
+      throw cancelledException(null);
+    }
+  }
+
+  /**
+   * @param cause The exception raised by the cancelled statement, if any
+   *
+   * @return An exception indicating that the execution was cancelled
+   */
+
+  public static SQLException cancelledException(
+    final SQLException cause)
+  {
+    return new SQLException(
+      "Execution was cancelled.",
+      SQL_STATE_CANCELLED,
+      cause
+    );
+  }
+}
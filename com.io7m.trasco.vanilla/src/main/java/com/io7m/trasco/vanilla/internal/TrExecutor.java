@@ -16,33 +16,55 @@
 
 package com.io7m.trasco.vanilla.internal;
 
-import com.io7m.junreachable.UnimplementedCodeException;
-import com.io7m.junreachable.UnreachableCodeException;
-import com.io7m.trasco.api.TrArgumentNumeric;
-import com.io7m.trasco.api.TrArgumentString;
-import com.io7m.trasco.api.TrEventExecutingSQL;
-import com.io7m.trasco.api.TrEventUpgrading;
+import com.io7m.trasco.api.TrCompiledRevisionSetType;
+import com.io7m.trasco.api.TrDialectType;
+import com.io7m.trasco.api.TrEventExecutionSummary;
+import com.io7m.trasco.api.TrEventType;
 import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutionPlan;
+import com.io7m.trasco.api.TrExecutionPlanRevision;
+import com.io7m.trasco.api.TrExecutionPlanStatement;
+import com.io7m.trasco.api.TrExecutorCommitEveryRevisions;
 import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrExecutorLockType;
+import com.io7m.trasco.api.TrExecutorParallelism;
 import com.io7m.trasco.api.TrExecutorType;
 import com.io7m.trasco.api.TrExecutorUpgrade;
 import com.io7m.trasco.api.TrSchemaRevision;
 import com.io7m.trasco.api.TrStatement;
-import com.io7m.trasco.api.TrStatementParameterized;
-import org.apache.commons.text.StringEscapeUtils;
+import com.io7m.trasco.api.TrStatementType;
+import com.io7m.trasco.vanilla.TrDialects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
+import static com.io7m.trasco.api.TrErrorCode.INTERRUPTED;
+import static com.io7m.trasco.api.TrErrorCode.LOCK_LOST;
+import static com.io7m.trasco.api.TrErrorCode.LOCK_NOT_ACQUIRED;
+import static com.io7m.trasco.api.TrErrorCode.PLAN_OUTDATED;
+import static com.io7m.trasco.api.TrErrorCode.SCHEMA_REVISION_ELIDED;
 import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static com.io7m.trasco.api.TrErrorCode.STATEMENT_TIMED_OUT;
 import static com.io7m.trasco.api.TrErrorCode.UNRECOGNIZED_SCHEMA_REVISION;
 import static com.io7m.trasco.api.TrErrorCode.UPGRADE_DISALLOWED;
 import static java.util.Map.entry;
@@ -57,6 +79,16 @@ public final class TrExecutor implements TrExecutorType
     LoggerFactory.getLogger(TrExecutor.class);
 
   private final TrExecutorConfiguration configuration;
+  private final TrRevisionRetries retries;
+  private final TrCompiledRevisionSet compiled;
+  private TrEvents events;
+  private int statementsExecuted;
+  private int revisionsApplied;
+  private BigInteger revisionCurrent;
+  private TrStatementTimeouts timeouts;
+  private Optional<TrDialectType> dialect;
+  private Optional<TrExecutorLockType> lockHeld;
+  private boolean uncommittedWork;
 
   /**
    * An executor.
@@ -69,6 +101,38 @@ public final class TrExecutor implements TrExecutorType
   {
     this.configuration =
       Objects.requireNonNull(inConfiguration, "configuration");
+    this.events =
+      new TrEvents(inConfiguration.events(), inConfiguration.eventInterest());
+    this.retries =
+      new TrRevisionRetries(
+        inConfiguration.retryPolicy(),
+        inConfiguration.commitPolicy()
+          instanceof TrExecutorCommitEveryRevisions
+      );
+    this.compiled =
+      inConfiguration.compiled()
+        .map(TrExecutor::compiledOf)
+        .orElseGet(() -> TrCompiledRevisionSet.onDemand(
+          inConfiguration.revisions(),
+          inConfiguration.arguments()
+        ));
+    this.dialect =
+      inConfiguration.dialect();
+    this.lockHeld =
+      Optional.empty();
+  }
+
+  private static TrCompiledRevisionSet compiledOf(
+    final TrCompiledRevisionSetType compiled)
+  {
+    if (compiled instanceof final TrCompiledRevisionSet c) {
+      return c;
+    }
+    throw new IllegalArgumentException(
+      String.format(
+        "Unsupported compiled revision set type: %s",
+        compiled.getClass()
+      ));
   }
 
   @Override
@@ -78,40 +142,420 @@ public final class TrExecutor implements TrExecutorType
     this.configuration.arguments()
       .checkSatisfies(this.configuration.revisions().parameters());
 
+    this.executeWithCheckedArguments();
+  }
+
+  @Override
+  public TrExecutionPlan plan()
+    throws TrException
+  {
+    this.configuration.arguments()
+      .checkSatisfies(this.configuration.revisions().parameters());
+
+    return this.createPlan(this.retrieveVersion());
+  }
+
+  @Override
+  public void execute(
+    final TrExecutionPlan plan)
+    throws TrException
+  {
+    Objects.requireNonNull(plan, "plan");
+    this.executeChecked(Optional.of(plan), new TrExecutionCancellation());
+  }
+
+  @Override
+  public CompletableFuture<TrEventExecutionSummary> executeAsync(
+    final Executor executor)
+  {
+    Objects.requireNonNull(executor, "executor");
+
+    final var cancellation =
+      new TrExecutionCancellation();
+    final var future =
+      new CompletableFuture<TrEventExecutionSummary>();
+
+    /*
+     * Cancelling a CompletableFuture does not interrupt the task that would
+     * have completed it, so cancellation is propagated to the execution
+     * explicitly.
+     */
+
+    future.whenComplete((summary, exception) -> {
+      if (future.isCancelled()) {
+        LOG.debug("execution cancelled");
+        cancellation.cancel();
+      }
+    });
+
+    executor.execute(() -> {
+      if (future.isDone()) {
+        return;
+      }
+
+      try {
+        this.configuration.arguments()
+          .checkSatisfies(this.configuration.revisions().parameters());
+        future.complete(this.executeChecked(Optional.empty(), cancellation));
+      } catch (final TrException | RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Execute the upgrade, assuming that the arguments have already been
+   * checked against the parameters of the revision set. This allows for
+   * checking arguments once on behalf of many executors.
+   *
+   * @throws TrException On errors
+   */
+
+  public void executeWithCheckedArguments()
+    throws TrException
+  {
+    this.executeChecked(Optional.empty(), new TrExecutionCancellation());
+  }
+
+  private TrEventExecutionSummary executeChecked(
+    final Optional<TrExecutionPlan> planned,
+    final TrExecutionCancellation cancellation)
+    throws TrException
+  {
+    final var bufferOpt = this.configuration.eventBuffer();
+    if (bufferOpt.isEmpty()) {
+      return this.executeCheckedWithTimeouts(planned, cancellation);
+    }
+
+    try (var buffer =
+           new TrEventBuffer(this.configuration.events(), bufferOpt.get())) {
+      this.events = this.events.withConsumer(buffer);
+      return this.executeCheckedWithTimeouts(planned, cancellation);
+    } finally {
+      this.events = this.events.withConsumer(this.configuration.events());
+    }
+  }
+
+  private TrEventExecutionSummary executeCheckedWithTimeouts(
+    final Optional<TrExecutionPlan> planned,
+    final TrExecutionCancellation cancellation)
+    throws TrException
+  {
+    final var timeStart = System.nanoTime();
+    this.statementsExecuted = 0;
+    this.revisionsApplied = 0;
+
+    final var existing = this.retrieveVersion();
+    final var lock = this.configuration.lock();
+
+    final Optional<BigInteger> versionAfter;
+    try (var statementTimeouts = new TrStatementTimeouts(
+      this.configuration, this.dialectResolve(), cancellation)) {
+      this.timeouts = statementTimeouts;
+      if (lock.isPresent() && !this.isUpgradeUnnecessary(existing)) {
+        versionAfter =
+          this.executeUpgradesLocked(lock.get(), existing, planned);
+      } else {
+        versionAfter = this.executeUpgrades(existing, planned);
+      }
+    } catch (final TrStatementTimedOutException e) {
+      throw this.timedOut(e);
+    } catch (final SQLException e) {
+      throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
+    }
+
+    final var summary =
+      new TrEventExecutionSummary(
+        existing,
+        versionAfter,
+        this.revisionsApplied,
+        this.statementsExecuted,
+        System.nanoTime() - timeStart
+      );
+
+    this.events.executionSummary(summary);
+    return summary;
+  }
+
+  private TrException timedOut(
+    final TrStatementTimedOutException e)
+  {
+    return new TrException(
+      e.getMessage(),
+      e,
+      Map.ofEntries(
+        entry("Revision", String.valueOf(this.revisionCurrent)),
+        entry("Statement", e.statement()),
+        entry(e.kind() + " Timeout", e.timeout().toString())
+      ),
+      STATEMENT_TIMED_OUT
+    );
+  }
+
+  private Optional<BigInteger> retrieveVersion()
+    throws TrException
+  {
     final Optional<BigInteger> existing;
+    final var jfr = new TrJFRVersionRetrieve();
     try {
+      jfr.begin();
       existing = this.configuration.versionGet()
         .determineVersion(this.configuration.connection());
     } catch (final SQLException e) {
       throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
     }
 
+    jfr.end();
+    if (jfr.shouldCommit()) {
+      jfr.setVersion(existing.map(BigInteger::toString).orElse(""));
+      jfr.commit();
+    }
+    return existing;
+  }
+
+  /**
+   * @return {@code true} if the given version shows that no revisions need
+   * to be applied (or that the database is in a state that no upgrade could
+   * fix), and so the upgrade lock does not need to be acquired
+   */
+
+  private boolean isUpgradeUnnecessary(
+    final Optional<BigInteger> version)
+  {
+    final var revisionsMap = this.configuration.revisions().revisions();
+    if (revisionsMap.isEmpty()) {
+      return true;
+    }
+    return version.isPresent()
+           && version.get().compareTo(revisionsMap.lastKey()) >= 0;
+  }
+
+  private Optional<BigInteger> executeUpgradesLocked(
+    final TrExecutorLockType lock,
+    final Optional<BigInteger> startVersion,
+    final Optional<TrExecutionPlan> planned)
+    throws TrException, SQLException
+  {
+    final var connection = this.configuration.connection();
+    if (!this.waitForLock(lock, startVersion)) {
+      return this.executeUpgrades(this.retrieveVersion(), planned);
+    }
+
+    /*
+     * Other executors may begin as soon as the lock is released, so the
+     * work must be committed (or rolled back) before then.
+     */
+
+    final Optional<BigInteger> result;
     try {
-      this.executeUpgrades(existing);
-    } catch (final SQLException e) {
-      throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
+      this.lockHeld = Optional.of(lock);
+      this.uncommittedWork = false;
+      result = this.executeUpgrades(this.retrieveVersion(), planned);
+      this.lockCheck(connection, result);
+      connection.commit();
+      if (this.uncommittedWork) {
+        this.events.committed(result.orElseThrow());
+      }
+    } catch (final TrException | SQLException e) {
+      try {
+        connection.rollback();
+      } catch (final SQLException ex) {
+        e.addSuppressed(ex);
+      }
+      try {
+        lock.release(connection);
+      } catch (final SQLException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
+    } finally {
+      this.lockHeld = Optional.empty();
+    }
+
+    lock.release(connection);
+    return result;
+  }
+
+  /**
+   * Check that the upgrade lock (if any) is still held. This is called
+   * before every commit, so that work is never committed by an executor
+   * that has lost the lock to another executor.
+   */
+
+  private void lockCheck(
+    final Connection connection,
+    final Optional<BigInteger> version)
+    throws TrException, SQLException
+  {
+    if (this.lockHeld.isEmpty()) {
+      return;
+    }
+
+    if (!this.lockHeld.get().checkHeld(connection)) {
+      throw new TrException(
+        "The upgrade lock was lost while the upgrade was running.",
+        Map.ofEntries(
+          entry("Schema Version", version.map(BigInteger::toString).orElse("None"))
+        ),
+        LOCK_LOST
+      );
     }
   }
 
-  private void executeUpgrades(
+  /**
+   * Wait for the given lock.
+   *
+   * @return {@code true} if the lock was acquired, or {@code false} if
+   * another executor performed the upgrade while this executor was waiting
+   */
+
+  private boolean waitForLock(
+    final TrExecutorLockType lock,
     final Optional<BigInteger> startVersion)
     throws TrException, SQLException
   {
-    if (startVersion.isEmpty()) {
-      if (this.configuration.upgrade() == TrExecutorUpgrade.FAIL_INSTEAD_OF_UPGRADING) {
+    final var connection = this.configuration.connection();
+    final var policy = this.configuration.lockWaitPolicy();
+    final var timeStart = System.nanoTime();
+    final var timeout = policy.timeout().toNanos();
+
+    var delay = policy.initialDelay().toNanos();
+    var attempts = 0;
+    var version = startVersion;
+
+    while (true) {
+      ++attempts;
+      if (lock.tryAcquire(connection)) {
+        this.publishLockWaited(attempts, true, timeStart);
+        return true;
+      }
+
+      final var elapsed = System.nanoTime() - timeStart;
+      if (elapsed >= timeout) {
         throw new TrException(
-          "Incompatible database schema, and upgrades are not permitted by the configuration.",
+          "Timed out waiting for the upgrade lock.",
           Map.ofEntries(
-            entry("Configuration", this.configuration.upgrade().toString())
+            entry("Attempts", Integer.toString(attempts)),
+            entry("Timeout", policy.timeout().toString()),
+            entry("Schema Version", version.map(BigInteger::toString).orElse("None"))
           ),
-          UPGRADE_DISALLOWED
+          LOCK_NOT_ACQUIRED
         );
       }
+
+      LOG.debug("upgrade lock is held elsewhere, retrying in {}ns", delay);
+
+      try {
+        Thread.sleep(Duration.ofNanos(Math.min(delay, timeout - elapsed)));
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TrException(
+          "Interrupted while waiting for the upgrade lock.",
+          e,
+          LOCK_NOT_ACQUIRED
+        );
+      }
+
+      delay = Math.min(delay * 2L, policy.maximumDelay().toNanos());
+      version = this.retrieveVersion();
+      if (this.isUpgradeUnnecessary(version)) {
+        this.publishLockWaited(attempts, false, timeStart);
+        return false;
+      }
+    }
+  }
+
+  private void publishLockWaited(
+    final int attempts,
+    final boolean acquired,
+    final long timeStart)
+  {
+    this.events.lockWaited(attempts, acquired, System.nanoTime() - timeStart);
+  }
+
+  private Optional<BigInteger> executeUpgrades(
+    final Optional<BigInteger> startVersion,
+    final Optional<TrExecutionPlan> planned)
+    throws TrException, SQLException
+  {
+    final TrExecutionPlan plan;
+    if (planned.isPresent()) {
+      plan = checkPlanCurrent(planned.get(), startVersion);
+    } else {
+      plan = this.createPlan(startVersion);
     }
 
     final var connection = this.configuration.connection();
     connection.setAutoCommit(false);
 
+    if (plan.revisions().isEmpty()) {
+      return plan.versionAfter();
+    }
+
+    final var versionAfter = this.executeRevisions(connection, plan);
+    this.statisticsRefresh(connection);
+    return Optional.of(versionAfter);
+  }
+
+  /**
+   * Detect the dialect from the database metadata, if no dialect was
+   * configured or previously detected.
+   */
+
+  private Optional<TrDialectType> dialectResolve()
+    throws SQLException
+  {
+    if (this.dialect.isEmpty()) {
+      final var metadata = this.configuration.connection().getMetaData();
+      this.dialect = TrDialects.detect(metadata);
+      LOG.debug(
+        "detected dialect {} for {}",
+        this.dialect.map(TrDialectType::name).orElse("(none)"),
+        metadata.getDatabaseProductName()
+      );
+    }
+    return this.dialect;
+  }
+
+  private void statisticsRefresh(
+    final Connection connection)
+    throws SQLException
+  {
+    if (!this.configuration.statisticsRefresh()) {
+      return;
+    }
+    if (this.dialect.isEmpty()) {
+      LOG.warn("statistics are not refreshed because the database dialect is unknown");
+      return;
+    }
+
+    LOG.debug("refreshing statistics");
+    this.dialect.get().statisticsRefresh(connection);
+  }
+
+  private static TrExecutionPlan checkPlanCurrent(
+    final TrExecutionPlan plan,
+    final Optional<BigInteger> version)
+    throws TrException
+  {
+    if (!plan.versionBefore().equals(version)) {
+      throw new TrException(
+        "The database schema version has changed since the plan was computed.",
+        Map.ofEntries(
+          entry("Plan Version", plan.versionBefore().map(BigInteger::toString).orElse("None")),
+          entry("Schema Version", version.map(BigInteger::toString).orElse("None"))
+        ),
+        PLAN_OUTDATED
+      );
+    }
+    return plan;
+  }
+
+  private TrExecutionPlan createPlan(
+    final Optional<BigInteger> startVersion)
+    throws TrException
+  {
     final var revisionsMap =
       this.configuration.revisions()
         .revisions();
@@ -121,19 +565,75 @@ public final class TrExecutor implements TrExecutorType
       Integer.valueOf(revisionsMap.size())
     );
 
+    this.checkUpgradePermitted(startVersion);
+
     if (revisionsMap.isEmpty()) {
-      return;
+      return new TrExecutionPlan(startVersion, startVersion, List.of());
     }
 
-    BigInteger versionHaveNow;
-    if (startVersion.isEmpty()) {
-      versionHaveNow = revisionsMap.firstKey().subtract(BigInteger.ONE);
+    final var versionHaveNow =
+      this.versionBefore(startVersion);
+
+    LOG.debug("database schema version is {}", versionHaveNow);
+
+    final var upgrades = this.upgradesRequired(startVersion, versionHaveNow);
+    checkNotElided(upgrades);
+
+    final var revisions = new ArrayList<TrExecutionPlanRevision>(upgrades.size());
+    for (final var revision : upgrades.values()) {
+      revisions.add(this.planRevision(revision));
+    }
+
+    final Optional<BigInteger> versionAfter;
+    if (upgrades.isEmpty()) {
+      versionAfter = startVersion;
     } else {
-      versionHaveNow = startVersion.get();
+      versionAfter = Optional.of(upgrades.lastKey());
     }
+    return new TrExecutionPlan(startVersion, versionAfter, revisions);
+  }
 
-    LOG.debug("database schema version is {}", versionHaveNow);
+  /**
+   * @return The version from which the first revision will be applied
+   */
+
+  private BigInteger versionBefore(
+    final Optional<BigInteger> startVersion)
+  {
+    return startVersion.orElseGet(() -> {
+      return this.configuration.revisions()
+        .revisions()
+        .firstKey()
+        .subtract(BigInteger.ONE);
+    });
+  }
+
+  private void checkUpgradePermitted(
+    final Optional<BigInteger> startVersion)
+    throws TrException
+  {
+    final var upgrade = this.configuration.upgrade();
+    if (startVersion.isEmpty()) {
+      if (upgrade == TrExecutorUpgrade.FAIL_INSTEAD_OF_UPGRADING) {
+        throw new TrException(
+          "Incompatible database schema, and upgrades are not permitted by the configuration.",
+          Map.ofEntries(
+            entry("Configuration", upgrade.toString())
+          ),
+          UPGRADE_DISALLOWED
+        );
+      }
+    }
+
+    final var revisionsMap =
+      this.configuration.revisions()
+        .revisions();
+
+    if (revisionsMap.isEmpty()) {
+      return;
+    }
 
+    final var versionHaveNow = this.versionBefore(startVersion);
     final var highestKnown = revisionsMap.lastKey();
     if (versionHaveNow.compareTo(highestKnown) > 0) {
       throw new TrException(
@@ -147,24 +647,89 @@ public final class TrExecutor implements TrExecutorType
     }
 
     if (!startVersion.equals(Optional.of(highestKnown))) {
-      if (this.configuration.upgrade() == TrExecutorUpgrade.FAIL_INSTEAD_OF_UPGRADING) {
+      if (upgrade == TrExecutorUpgrade.FAIL_INSTEAD_OF_UPGRADING) {
         throw new TrException(
           "Incompatible database schema, and upgrades are not permitted by the configuration.",
           Map.ofEntries(
             entry("Schema Version", startVersion.get().toString()),
             entry("Highest Known Version", highestKnown.toString()),
-            entry("Configuration", this.configuration.upgrade().toString())
+            entry("Configuration", upgrade.toString())
           ),
           UPGRADE_DISALLOWED
         );
       }
     }
+  }
+
+  private TrExecutionPlanRevision planRevision(
+    final TrSchemaRevision revision)
+  {
+    final var statements =
+      new ArrayList<TrExecutionPlanStatement>(revision.statements().size());
+
+    for (final var statement : revision.statements()) {
+      final var text = this.compiled.statement(statement).text();
+      statements.add(
+        new TrExecutionPlanStatement(
+          statement,
+          text,
+          TrStatementLocks.isHeavyLock(text)
+        )
+      );
+    }
+
+    final var estimate =
+      this.configuration.timingHistory()
+        .flatMap(h -> h.revisionDuration(revision.version()));
+
+    return new TrExecutionPlanRevision(revision, statements, estimate);
+  }
+
+  /**
+   * Empty databases are created using the baseline (if there is one) in
+   * place of every revision up to and including the baseline version. The
+   * baseline is executed as if it were a single revision with the baseline
+   * version.
+   */
+
+  private NavigableMap<BigInteger, TrSchemaRevision> upgradesRequired(
+    final Optional<BigInteger> startVersion,
+    final BigInteger versionHaveNow)
+  {
+    final var revisionsMap =
+      this.configuration.revisions().revisions();
+    final var baselineOpt =
+      this.configuration.revisions().baseline();
+
+    if (startVersion.isPresent() || baselineOpt.isEmpty()) {
+      return revisionsMap.tailMap(versionHaveNow, false);
+    }
+
+    final var baseline = baselineOpt.get();
+    LOG.debug("database is empty, using baseline {}", baseline.version());
 
     final var upgrades =
-      revisionsMap.tailMap(versionHaveNow, false);
+      new TreeMap<>(revisionsMap.tailMap(baseline.version(), false));
+    upgrades.put(
+      baseline.version(),
+      new TrSchemaRevision(baseline.version(), baseline.statements())
+    );
+    return upgrades;
+  }
 
-    for (final var entry : upgrades.entrySet()) {
-      final var revision = entry.getValue();
+  private BigInteger executeRevisions(
+    final Connection connection,
+    final TrExecutionPlan plan)
+    throws SQLException, TrException
+  {
+    final var revisions = plan.revisions();
+    BigInteger versionHaveNow = this.versionBefore(plan.versionBefore());
+    this.retries.transactionStarted(
+      0, versionHaveNow, this.statementsExecuted, this.revisionsApplied);
+    int uncommitted = 0;
+    int index = 0;
+    while (index < revisions.size()) {
+      final var revision = revisions.get(index).revision();
 
       LOG.debug(
         "upgrading revision {} to revision {}",
@@ -172,159 +737,496 @@ public final class TrExecutor implements TrExecutorType
         revision.version()
       );
 
-      this.configuration.events()
-        .accept(new TrEventUpgrading(versionHaveNow, revision.version()));
+      this.events.upgrading(versionHaveNow, revision.version());
+
+      final var jfr = new TrJFRUpgrade();
+      jfr.begin();
+
+      final var timeThen = System.nanoTime();
+      final var statementsThen = this.statementsExecuted;
+
+      this.revisionCurrent = revision.version();
+      if (revision.isTransactional()) {
+        final var applied = this.retries.execute(
+          connection, this.events, revision.version(), () -> {
+            this.statementsExecuted = statementsThen;
+            this.executeRevision(revision);
+            this.configuration.versionSet()
+              .updateVersion(revision.version(), connection);
+          });
+
+        /*
+         * The transaction was rolled back after a serialization failure, so
+         * every revision applied since the last commit is applied again.
+         */
+
+        if (!applied) {
+          final var restart = this.retries.restartPoint();
+          index = restart.index();
+          versionHaveNow = restart.version();
+          this.statementsExecuted = restart.statements();
+          this.revisionsApplied = restart.revisions();
+          uncommitted = 0;
+          continue;
+        }
+        ++uncommitted;
+      } else {
+        if (uncommitted > 0) {
+          this.commit(connection, versionHaveNow);
+          uncommitted = 0;
+        }
+        this.lockCheck(connection, Optional.of(versionHaveNow));
+        this.executeRevisionNonTransactional(connection, revision);
+      }
+      ++this.revisionsApplied;
+
+      final var statementCount = this.statementsExecuted - statementsThen;
+      this.events.revisionFinished(
+        revision.version(),
+        statementCount,
+        System.nanoTime() - timeThen
+      );
+
+      jfr.end();
+      if (jfr.shouldCommit()) {
+        jfr.setVersionFrom(versionHaveNow.toString());
+        jfr.setVersionTo(revision.version().toString());
+        jfr.setStatements(statementCount);
+        jfr.commit();
+      }
+      versionHaveNow = revision.version();
+
+      if (this.configuration.commitPolicy()
+        instanceof final TrExecutorCommitEveryRevisions every) {
+        if (uncommitted >= every.revisions()) {
+          this.commit(connection, versionHaveNow);
+          uncommitted = 0;
+        }
+      }
+
+      ++index;
+      if (uncommitted == 0) {
+        this.retries.transactionStarted(
+          index, versionHaveNow, this.statementsExecuted, this.revisionsApplied);
+      }
+    }
+
+    if (uncommitted > 0) {
+      if (this.configuration.commitPolicy()
+        instanceof TrExecutorCommitEveryRevisions) {
+        this.commit(connection, versionHaveNow);
+        uncommitted = 0;
+      }
+    }
+    this.uncommittedWork = uncommitted > 0;
+    return versionHaveNow;
+  }
+
+  /**
+   * Execute a revision outside of any transaction. The version is recorded
+   * in autocommit mode directly after the statements, so a failure at any
+   * point leaves the database at either the previous version or this one
+   * (with the statements possibly having been executed).
+   */
 
+  private void executeRevisionNonTransactional(
+    final Connection connection,
+    final TrSchemaRevision revision)
+    throws SQLException, TrException
+  {
+    LOG.debug("revision {} is non-transactional", revision.version());
+
+    connection.setAutoCommit(true);
+    try {
       this.executeRevision(revision);
       this.configuration.versionSet()
         .updateVersion(revision.version(), connection);
-      versionHaveNow = revision.version();
+    } finally {
+      connection.setAutoCommit(false);
     }
+
+    this.events.committed(revision.version());
+  }
+
+  private static void checkNotElided(
+    final NavigableMap<BigInteger, TrSchemaRevision> upgrades)
+    throws TrException
+  {
+    for (final var revision : upgrades.values()) {
+      if (revision.elided()) {
+        throw new TrException(
+          "A revision that must be applied was parsed with its statements elided.",
+          Map.ofEntries(
+            entry("Revision", revision.version().toString()),
+            entry("Lowest Required Revision", upgrades.firstKey().toString())
+          ),
+          SCHEMA_REVISION_ELIDED
+        );
+      }
+    }
+  }
+
+  private void commit(
+    final Connection connection,
+    final BigInteger version)
+    throws SQLException, TrException
+  {
+    this.lockCheck(connection, Optional.of(version));
+    LOG.debug("committing at revision {}", version);
+    connection.commit();
+    this.events.committed(version);
   }
 
   private void executeRevision(
     final TrSchemaRevision revision)
-    throws SQLException
+    throws SQLException, TrException
   {
     final var connection = this.configuration.connection();
+    final var batchSize = this.configuration.statementBatchSize();
+    final var runner =
+      new TrStatementRunner(
+        this.compiled, this.timeouts, this.events, revision.version());
 
-    for (final var statement : revision.statements()) {
-      if (statement instanceof final TrStatement st) {
-        this.executeStatement(connection, st);
-        continue;
+    try {
+      if (batchSize > 1) {
+        this.executeRevisionBatched(connection, runner, revision, batchSize);
+        return;
       }
-      if (statement instanceof final TrStatementParameterized st) {
-        this.executeStatementParameterized(connection, st);
-        continue;
+
+      if (hasParallelGroups(revision)) {
+        this.executeRevisionGrouped(connection, runner, revision);
+        return;
       }
+
+      for (final var statement : revision.statements()) {
+        runner.execute(connection, statement);
+      }
+    } finally {
+      this.statementsExecuted += runner.statementsExecuted();
     }
   }
 
-  private void executeStatementParameterized(
-    final Connection connection,
-    final TrStatementParameterized st)
-    throws SQLException
+  private static boolean hasParallelGroups(
+    final TrSchemaRevision revision)
   {
-    switch (st.interpolation()) {
-      case PREPARED_STATEMENT ->
-        this.executeStatementParameterizedPrepared(connection, st);
-      case STRING_FORMATTING ->
-        this.executeStatementParameterizedManual(connection, st);
-    }
+    return revision.statements()
+      .stream()
+      .anyMatch(s -> s.options().parallelGroup().isPresent());
   }
 
-  private void executeStatementParameterizedManual(
+  /**
+   * Execute a revision that contains parallel groups. Consecutive statements
+   * that belong to the same group are executed as a unit; all other
+   * statements are executed individually on the main connection.
+   */
+
+  private void executeRevisionGrouped(
     final Connection connection,
-    final TrStatementParameterized st)
-    throws SQLException
+    final TrStatementRunner runner,
+    final TrSchemaRevision revision)
+    throws SQLException, TrException
   {
-    final var arguments =
-      this.configuration.arguments().arguments();
-    final var referencesInOrder =
-      st.references().inOrder();
-
-    final var formatArguments =
-      new Object[referencesInOrder.size()];
+    final var statements = revision.statements();
 
     int index = 0;
-    for (final var order : referencesInOrder.keySet()) {
-      final var parameterRef =
-        referencesInOrder.get(order);
-      final var argument =
-        arguments.get(parameterRef.name());
-
-      if (argument instanceof final TrArgumentString s) {
-        formatArguments[index] =
-          "\'" + StringEscapeUtils.escapeJava(s.value()) + "\'";
-        ++index;
-        continue;
-      }
-
-      if (argument instanceof final TrArgumentNumeric n) {
-        formatArguments[index] = n.value().toString();
+    while (index < statements.size()) {
+      final var group = statements.get(index).options().parallelGroup();
+      if (group.isEmpty()) {
+        runner.execute(connection, statements.get(index));
         ++index;
         continue;
       }
 
-      throw new UnreachableCodeException();
+      final var end = groupEnd(statements, index);
+      this.executeParallelGroup(
+        connection,
+        runner,
+        revision,
+        statements.subList(index, end)
+      );
+      index = end;
     }
+  }
 
-    final var formatted = String.format(st.text().strip(), formatArguments);
-    LOG.trace("execute: {}", formatted);
-
-    this.configuration.events()
-      .accept(new TrEventExecutingSQL(formatted));
+  /**
+   * @return The index after the run of consecutive statements that belong
+   * to the same parallel group as the statement at {@code start}
+   */
 
-    try (Statement sql = connection.createStatement()) {
-      sql.execute(formatted);
+  private static int groupEnd(
+    final List<TrStatementType> statements,
+    final int start)
+  {
+    final var group = statements.get(start).options().parallelGroup();
+    int end = start + 1;
+    while (end < statements.size()
+           && statements.get(end).options().parallelGroup().equals(group)) {
+      ++end;
     }
+    return end;
   }
 
-  private void executeStatementParameterizedPrepared(
+  private void executeParallelGroup(
     final Connection connection,
-    final TrStatementParameterized st)
-    throws SQLException
+    final TrStatementRunner runner,
+    final TrSchemaRevision revision,
+    final List<TrStatementType> members)
+    throws SQLException, TrException
   {
-    final var stripped = st.text().strip();
-    LOG.trace("execute: {}", stripped);
+    final var parallelismOpt = this.configuration.parallelism();
+    if (parallelismOpt.isEmpty()) {
+      LOG.debug(
+        "no parallelism configured, executing {} statements sequentially",
+        Integer.valueOf(members.size())
+      );
+      for (final var statement : members) {
+        runner.execute(connection, statement);
+      }
+      return;
+    }
 
-    this.configuration.events()
-      .accept(new TrEventExecutingSQL(stripped));
+    final var parallelism = parallelismOpt.get();
+    LOG.debug(
+      "executing {} statements with parallelism {}",
+      Integer.valueOf(members.size()),
+      Integer.valueOf(parallelism.degree())
+    );
 
-    final var arguments =
-      this.configuration.arguments().arguments();
-    final var referencesInOrder =
-      st.references().inOrder();
+    /*
+     * The event consumer is not required to be thread-safe, so events
+     * published by the members are serialized. The consumer may block (on a
+     * full event buffer, for example), and a virtual thread that blocks while
+     * holding a monitor pins its carrier thread, so a lock is used instead.
+     */
 
-    try (var sql = connection.prepareStatement(stripped)) {
+    final var eventsShared = this.events.consumer();
+    final var eventLock = new ReentrantLock();
+    final Consumer<TrEventType> eventsSerialized = event -> {
+      eventLock.lock();
+      try {
+        eventsShared.accept(event);
+      } finally {
+        eventLock.unlock();
+      }
+    };
+    final var memberRunner =
+      runner.withEvents(this.events.withConsumer(eventsSerialized));
 
-      /*
-       * Set all of the required arguments.
-       */
+    final var failed =
+      new AtomicBoolean(false);
+    final var semaphore =
+      new Semaphore(parallelism.degree());
+    final var futures =
+      new ArrayList<Future<Boolean>>(members.size());
+    final var threads =
+      Thread.ofVirtual()
+        .name("com.io7m.trasco.parallel-", 0L)
+        .factory();
 
-      for (final var order : referencesInOrder.keySet()) {
-        final var parameterRef =
-          referencesInOrder.get(order);
-        final var argument =
-          arguments.get(parameterRef.name());
+    try (var executor = Executors.newThreadPerTaskExecutor(threads)) {
+      for (final var statement : members) {
+        semaphore.acquire();
+        futures.add(executor.submit(() -> {
+          try {
+            return Boolean.valueOf(
+              executeParallelMember(
+                parallelism, memberRunner, statement, failed)
+            );
+          } finally {
+            semaphore.release();
+          }
+        }));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw interrupted(revision, e);
+    }
 
-        final int paramIndex = order.intValue() + 1;
-        if (argument instanceof final TrArgumentString s) {
-          sql.setString(paramIndex, s.value());
-          continue;
+    this.collectParallelResults(runner, revision, members, futures);
+  }
+
+  private static TrException interrupted(
+    final TrSchemaRevision revision,
+    final InterruptedException e)
+  {
+    return new TrException(
+      "Interrupted while executing statements in parallel.",
+      e,
+      Map.ofEntries(
+        entry("Revision", revision.version().toString())
+      ),
+      INTERRUPTED
+    );
+  }
+
+  /**
+   * Execute a single member of a parallel group on its own connection. Once
+   * any member has failed, members that have not yet started are skipped.
+   *
+   * @return {@code true} if the statement was executed
+   */
+
+  private static boolean executeParallelMember(
+    final TrExecutorParallelism parallelism,
+    final TrStatementRunner runner,
+    final TrStatementType statement,
+    final AtomicBoolean failed)
+    throws SQLException
+  {
+    if (failed.get()) {
+      return false;
+    }
+
+    try (var connection = parallelism.dataSource().getConnection()) {
+      connection.setAutoCommit(true);
+      runner.execute(connection, statement);
+      return true;
+    } catch (final SQLException | RuntimeException e) {
+      failed.set(true);
+      throw e;
+    }
+  }
+
+  private void collectParallelResults(
+    final TrStatementRunner runner,
+    final TrSchemaRevision revision,
+    final List<TrStatementType> members,
+    final List<Future<Boolean>> futures)
+    throws TrException
+  {
+    final var others = new ArrayList<Throwable>();
+    Throwable failure = null;
+    TrStatementType failedStatement = null;
+    int skipped = 0;
+
+    for (int index = 0; index < futures.size(); ++index) {
+      try {
+        if (futures.get(index).get().booleanValue()) {
+          ++this.statementsExecuted;
+        } else {
+          ++skipped;
         }
-        if (argument instanceof final TrArgumentNumeric n) {
-          if (n.value() instanceof final Integer x) {
-            sql.setInt(paramIndex, x.intValue());
-          } else if (n.value() instanceof final Long x) {
-            sql.setLong(paramIndex, x.longValue());
-          } else if (n.value() instanceof final Double x) {
-            sql.setDouble(paramIndex, x.doubleValue());
-          } else if (n.value() instanceof final BigDecimal x) {
-            sql.setBigDecimal(paramIndex, x);
-          } else {
-            throw new UnimplementedCodeException();
-          }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw interrupted(revision, e);
+      } catch (final ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+          failedStatement = members.get(index);
+        } else {
+          others.add(e.getCause());
         }
       }
+    }
 
-      sql.execute();
+    if (failure == null) {
+      return;
+    }
+    for (final var other : others) {
+      failure.addSuppressed(other);
     }
+    throw this.parallelFailure(
+      revision, failure, runner.text(failedStatement), skipped);
   }
 
-  private void executeStatement(
+  private TrException parallelFailure(
+    final TrSchemaRevision revision,
+    final Throwable failure,
+    final String failedStatement,
+    final int skipped)
+  {
+    if (failure instanceof final TrStatementTimedOutException e) {
+      return this.timedOut(e);
+    }
+    if (failure instanceof final RuntimeException e) {
+      throw e;
+    }
+    if (failure instanceof final Error e) {
+      throw e;
+    }
+
+    return new TrException(
+      failure.getMessage(),
+      failure,
+      Map.ofEntries(
+        entry("Revision", revision.version().toString()),
+        entry("Statement", failedStatement),
+        entry("Statements Skipped", Integer.toString(skipped))
+      ),
+      SQL_EXCEPTION
+    );
+  }
+
+  private void executeRevisionBatched(
     final Connection connection,
-    final TrStatement st)
-    throws SQLException
+    final TrStatementRunner runner,
+    final TrSchemaRevision revision,
+    final int batchSize)
+    throws SQLException, TrException
   {
-    final var stripped = st.text().strip();
-    LOG.trace("execute: {}", stripped);
+    final var statements = revision.statements();
+    final var batch = new ArrayList<TrStatement>(batchSize);
+    int batchStart = 0;
+
+    int index = 0;
+    while (index < statements.size()) {
+      final var statement = statements.get(index);
+      final var group = statement.options().parallelGroup();
+
+      if (group.isEmpty()
+          && statement instanceof final TrStatement st
+          && hasDefaultTimeouts(st)) {
+        if (batch.isEmpty()) {
+          batchStart = index;
+        }
+        batch.add(st);
+        if (batch.size() == batchSize) {
+          runner.executeBatch(connection, batch, batchStart);
+          batch.clear();
+        }
+        ++index;
+        continue;
+      }
 
-    this.configuration.events()
-      .accept(new TrEventExecutingSQL(stripped));
+      /*
+       * Other kinds of statements (statements with their own timeouts, and
+       * members of parallel groups) cannot be batched, so any pending
+       * statements must be executed first in order to preserve the
+       * declared statement order.
+       */
 
-    try (var sql = connection.prepareStatement(stripped)) {
-      sql.execute();
+      if (!batch.isEmpty()) {
+        runner.executeBatch(connection, batch, batchStart);
+        batch.clear();
+      }
+
+      if (group.isPresent()) {
+        final var end = groupEnd(statements, index);
+        this.executeParallelGroup(
+          connection,
+          runner,
+          revision,
+          statements.subList(index, end)
+        );
+        index = end;
+        continue;
+      }
+
+      runner.execute(connection, statement);
+      ++index;
     }
+
+    if (!batch.isEmpty()) {
+      runner.executeBatch(connection, batch, batchStart);
+      batch.clear();
+    }
+  }
+
+  private static boolean hasDefaultTimeouts(
+    final TrStatementType statement)
+  {
+    final var options = statement.options();
+    return options.queryTimeout().isEmpty()
+           && options.lockTimeout().isEmpty();
   }
 }
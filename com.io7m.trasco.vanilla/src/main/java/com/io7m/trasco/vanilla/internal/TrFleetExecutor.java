@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrFleetConfiguration;
+import com.io7m.trasco.api.TrFleetEvent;
+import com.io7m.trasco.api.TrFleetExecutorType;
+import com.io7m.trasco.api.TrFleetFailurePolicy;
+import com.io7m.trasco.api.TrFleetResult;
+import com.io7m.trasco.api.TrFleetTarget;
+import com.io7m.trasco.api.TrFleetTargetFailed;
+import com.io7m.trasco.api.TrFleetTargetResultType;
+import com.io7m.trasco.api.TrFleetTargetSkipped;
+import com.io7m.trasco.api.TrFleetTargetSucceeded;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.io7m.trasco.api.TrErrorCode.FLEET_TARGET_FAILED;
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+
+/**
+ * An executor that upgrades a fleet of databases concurrently. Each target
+ * is upgraded on its own virtual thread, and a semaphore limits the number
+ * of targets (and therefore open connections) in flight at any one time.
+ */
+
+public final class TrFleetExecutor implements TrFleetExecutorType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrFleetExecutor.class);
+
+  private final TrFleetConfiguration configuration;
+
+  /**
+   * An executor that upgrades a fleet of databases concurrently.
+   *
+   * @param inConfiguration The configuration
+   */
+
+  public TrFleetExecutor(
+    final TrFleetConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+  }
+
+  @Override
+  public TrFleetResult execute()
+    throws TrException
+  {
+    /*
+     * The revision set is compiled once on behalf of every target. This
+     * also checks the arguments against the parameters of the revision set.
+     */
+
+    final var compiled =
+      TrCompiledRevisionSet.compile(
+        this.configuration.revisions(),
+        this.configuration.arguments()
+      );
+
+    final var targets =
+      this.configuration.targets();
+    final var failed =
+      new AtomicBoolean(false);
+    final var semaphore =
+      new Semaphore(this.configuration.concurrency());
+    final var futures =
+      new ArrayList<Future<TrFleetTargetResultType>>(targets.size());
+    final var threads =
+      Thread.ofVirtual()
+        .name("com.io7m.trasco.fleet-", 0L)
+        .factory();
+
+    try (var executor = Executors.newThreadPerTaskExecutor(threads)) {
+      for (final var target : targets) {
+        semaphore.acquire();
+        futures.add(executor.submit(() -> {
+          try {
+            return this.executeTarget(compiled, target, failed);
+          } finally {
+            semaphore.release();
+          }
+        }));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+
+    return new TrFleetResult(collectResults(futures));
+  }
+
+  private static List<TrFleetTargetResultType> collectResults(
+    final List<Future<TrFleetTargetResultType>> futures)
+  {
+    final var results =
+      new ArrayList<TrFleetTargetResultType>(futures.size());
+
+    for (final var future : futures) {
+      try {
+        results.add(future.get());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof final RuntimeException re) {
+          throw re;
+        }
+        if (cause instanceof final Error er) {
+          throw er;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+    return results;
+  }
+
+  private TrFleetTargetResultType executeTarget(
+    final TrCompiledRevisionSet compiled,
+    final TrFleetTarget target,
+    final AtomicBoolean failed)
+  {
+    final var name = target.name();
+    if (failed.get()
+        && this.configuration.failurePolicy() == TrFleetFailurePolicy.FAIL_FAST) {
+      LOG.debug("[{}] skipped", name);
+      return new TrFleetTargetSkipped(name);
+    }
+
+    final var timeThen = System.nanoTime();
+    try {
+      this.executeTargetUpgrade(compiled, target);
+      final var duration = Duration.ofNanos(System.nanoTime() - timeThen);
+      LOG.debug("[{}] upgraded in {}", name, duration);
+      return new TrFleetTargetSucceeded(name, duration);
+    } catch (final TrException e) {
+      failed.set(true);
+      final var duration = Duration.ofNanos(System.nanoTime() - timeThen);
+      LOG.debug("[{}] failed: {}", name, e.getMessage());
+      return new TrFleetTargetFailed(name, e, duration);
+    } catch (final Throwable e) {
+      failed.set(true);
+      final var duration = Duration.ofNanos(System.nanoTime() - timeThen);
+      LOG.debug("[{}] failed unexpectedly: ", name, e);
+      return new TrFleetTargetFailed(name, unexpected(e), duration);
+    }
+  }
+
+  private static TrException unexpected(
+    final Throwable e)
+  {
+    return new TrException(
+      Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()),
+      e,
+      FLEET_TARGET_FAILED
+    );
+  }
+
+  private void executeTargetUpgrade(
+    final TrCompiledRevisionSet compiled,
+    final TrFleetTarget target)
+    throws TrException
+  {
+    final var name = target.name();
+    final var events = this.configuration.events();
+
+    try (var connection = target.connections().open()) {
+      final var builder =
+        TrExecutorConfiguration.builder(
+            this.configuration.versionGet(),
+            this.configuration.versionSet(),
+            event -> events.accept(new TrFleetEvent(name, event)),
+            this.configuration.revisions(),
+            this.configuration.upgrade(),
+            this.configuration.arguments(),
+            connection)
+          .withStatementBatchSize(this.configuration.statementBatchSize())
+          .withCommitPolicy(this.configuration.commitPolicy());
+
+      this.configuration.targetOptions().accept(target, builder);
+
+      final var executor =
+        new TrExecutor(builder.withCompiled(compiled).build());
+
+      try {
+        executor.executeWithCheckedArguments();
+        connection.commit();
+      } catch (final Throwable e) {
+        rollback(connection, e);
+        throw e;
+      }
+    } catch (final SQLException e) {
+      throw new TrException(e.getMessage(), e, SQL_EXCEPTION);
+    }
+  }
+
+  private static void rollback(
+    final Connection connection,
+    final Throwable cause)
+  {
+    try {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+      }
+    } catch (final SQLException e) {
+      cause.addSuppressed(e);
+    }
+  }
+}
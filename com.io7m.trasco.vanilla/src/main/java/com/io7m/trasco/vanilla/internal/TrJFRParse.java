@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A revision set was parsed.
+ */
+
+@Name("com.io7m.trasco.Parse")
+@Label("Parse Revision Set")
+@Category("Trasco")
+@Description("A revision set was parsed.")
+@StackTrace(false)
+public final class TrJFRParse extends Event
+{
+  /**
+   * The source of the revision set.
+   */
+
+  @Label("Source")
+  private String source;
+
+  /**
+   * The format of the revision set.
+   */
+
+  @Label("Format")
+  private String format;
+
+  /**
+   * The number of revisions parsed.
+   */
+
+  @Label("Revisions")
+  private int revisions;
+
+  /**
+   * A revision set was parsed.
+   */
+
+  public TrJFRParse()
+  {
+
+  }
+
+  /**
+   * Set the source of the revision set.
+   *
+   * @param value The value
+   */
+
+  public void setSource(
+    final String value)
+  {
+    this.source = value;
+  }
+
+  /**
+   * Set the format of the revision set.
+   *
+   * @param value The value
+   */
+
+  public void setFormat(
+    final String value)
+  {
+    this.format = value;
+  }
+
+  /**
+   * Set the number of revisions parsed.
+   *
+   * @param value The value
+   */
+
+  public void setRevisions(
+    final int value)
+  {
+    this.revisions = value;
+  }
+}
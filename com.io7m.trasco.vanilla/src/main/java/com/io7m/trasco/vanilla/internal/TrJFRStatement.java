@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An SQL statement (or a JDBC batch of statements) was executed.
+ */
+
+@Name("com.io7m.trasco.Statement")
+@Label("Execute SQL")
+@Category("Trasco")
+@Description("An SQL statement (or a JDBC batch of statements) was executed.")
+@StackTrace(false)
+public final class TrJFRStatement extends Event
+{
+  /**
+   * The maximum number of characters of SQL text recorded.
+   */
+
+  public static final int TEXT_LIMIT = 256;
+
+  /**
+   * The revision to which the statement belongs.
+   */
+
+  @Label("Revision")
+  private String revision;
+
+  /**
+   * The SQL text, truncated to {@link #TEXT_LIMIT} characters.
+   */
+
+  @Label("SQL")
+  private String sql;
+
+  /**
+   * The number of statements executed (greater than one for batches).
+   */
+
+  @Label("Statements")
+  private int statements;
+
+  /**
+   * An SQL statement (or a JDBC batch of statements) was executed.
+   */
+
+  public TrJFRStatement()
+  {
+
+  }
+
+  /**
+   * Truncate text to the recorded limit.
+   *
+   * @param text The text
+   *
+   * @return The truncated text
+   */
+
+  public static String truncate(
+    final String text)
+  {
+    if (text.length() <= TEXT_LIMIT) {
+      return text;
+    }
+    return text.substring(0, TEXT_LIMIT);
+  }
+
+  /**
+   * Set the revision to which the statement belongs.
+   *
+   * @param value The value
+   */
+
+  public void setRevision(
+    final String value)
+  {
+    this.revision = value;
+  }
+
+  /**
+   * Set the SQL text, truncated to {@link #TEXT_LIMIT} characters.
+   *
+   * @param value The value
+   */
+
+  public void setSql(
+    final String value)
+  {
+    this.sql = value;
+  }
+
+  /**
+   * Set the number of statements executed (greater than one for batches).
+   *
+   * @param value The value
+   */
+
+  public void setStatements(
+    final int value)
+  {
+    this.statements = value;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A database was upgraded from one revision to the next.
+ */
+
+@Name("com.io7m.trasco.Upgrade")
+@Label("Upgrade Revision")
+@Category("Trasco")
+@Description("A database was upgraded from one revision to the next.")
+@StackTrace(false)
+public final class TrJFRUpgrade extends Event
+{
+  /**
+   * The version before the upgrade.
+   */
+
+  @Label("Version From")
+  private String versionFrom;
+
+  /**
+   * The version after the upgrade.
+   */
+
+  @Label("Version To")
+  private String versionTo;
+
+  /**
+   * The number of statements executed.
+   */
+
+  @Label("Statements")
+  private int statements;
+
+  /**
+   * A database was upgraded from one revision to the next.
+   */
+
+  public TrJFRUpgrade()
+  {
+
+  }
+
+  /**
+   * Set the version before the upgrade.
+   *
+   * @param value The value
+   */
+
+  public void setVersionFrom(
+    final String value)
+  {
+    this.versionFrom = value;
+  }
+
+  /**
+   * Set the version after the upgrade.
+   *
+   * @param value The value
+   */
+
+  public void setVersionTo(
+    final String value)
+  {
+    this.versionTo = value;
+  }
+
+  /**
+   * Set the number of statements executed.
+   *
+   * @param value The value
+   */
+
+  public void setStatements(
+    final int value)
+  {
+    this.statements = value;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The schema version of a database was retrieved.
+ */
+
+@Name("com.io7m.trasco.VersionRetrieve")
+@Label("Retrieve Schema Version")
+@Category("Trasco")
+@Description("The schema version of a database was retrieved.")
+@StackTrace(false)
+public final class TrJFRVersionRetrieve extends Event
+{
+  /**
+   * The version retrieved, or the empty string if the database has no
+   * version.
+   */
+
+  @Label("Version")
+  private String version;
+
+  /**
+   * The schema version of a database was retrieved.
+   */
+
+  public TrJFRVersionRetrieve()
+  {
+
+  }
+
+  /**
+   * Set the version retrieved, or the empty string if the database has no version.
+   *
+   * @param value The value
+   */
+
+  public void setVersion(
+    final String value)
+  {
+    this.version = value;
+  }
+}
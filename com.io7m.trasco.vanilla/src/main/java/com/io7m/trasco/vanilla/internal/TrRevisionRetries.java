@@ -0,0 +1,346 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrExecutorRetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The execution of transactional revisions according to a retry policy.
+ *
+ * <p>Most retryable failures (such as deadlocks and lock timeouts) are
+ * retried by rolling back to a savepoint taken before the revision. A
+ * serialization failure ({@code 40001}) cannot be resolved that way, as the
+ * transaction keeps its snapshot and the retry would conflict in the same
+ * way, so the entire transaction is rolled back instead, and the executor
+ * applies every revision since the last commit again. This is only possible
+ * if the executor controls the transaction boundaries; otherwise,
+ * serialization failures are not retried.</p>
+ */
+
+public final class TrRevisionRetries
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrRevisionRetries.class);
+
+  private static final String SQL_STATE_SERIALIZATION_FAILURE = "40001";
+
+  private final TrExecutorRetryPolicy policy;
+  private final boolean transactionsRetryable;
+  private final ArrayList<Exception> transactionFailures;
+  private int transactionAttempt;
+  private RestartPoint restartPoint;
+
+  /**
+   * The execution of transactional revisions according to a retry policy.
+   *
+   * @param inPolicy                The retry policy
+   * @param inTransactionsRetryable {@code true} if the executor controls the
+   *                                transaction boundaries, and so entire
+   *                                transactions may be rolled back and
+   *                                retried
+   */
+
+  public TrRevisionRetries(
+    final TrExecutorRetryPolicy inPolicy,
+    final boolean inTransactionsRetryable)
+  {
+    this.policy =
+      Objects.requireNonNull(inPolicy, "policy");
+    this.transactionsRetryable =
+      inTransactionsRetryable;
+    this.transactionFailures =
+      new ArrayList<>();
+    this.transactionAttempt =
+      1;
+    this.restartPoint =
+      new RestartPoint(0, BigInteger.ZERO, 0, 0);
+  }
+
+  /**
+   * Indicate that a new transaction has started (because the previous one
+   * was committed), so earlier transaction retries no longer count against
+   * the retry policy.
+   *
+   * @param index      The index of the first revision in the transaction
+   * @param version    The schema version at the start of the transaction
+   * @param statements The number of statements executed so far
+   * @param revisions  The number of revisions applied so far
+   */
+
+  public void transactionStarted(
+    final int index,
+    final BigInteger version,
+    final int statements,
+    final int revisions)
+  {
+    this.transactionAttempt = 1;
+    this.transactionFailures.clear();
+    this.restartPoint = new RestartPoint(index, version, statements, revisions);
+  }
+
+  /**
+   * @return The state at the start of the current transaction, to be
+   * restored when the transaction is rolled back and applied again
+   */
+
+  public RestartPoint restartPoint()
+  {
+    return this.restartPoint;
+  }
+
+  /**
+   * Apply a revision, retrying it if it fails with a retryable error.
+   *
+   * @param connection The connection
+   * @param events     The events
+   * @param version    The revision version
+   * @param action     The function that applies the revision
+   *
+   * @return {@code false} if the revision failed with a serialization failure
+   * and the entire transaction was rolled back, in which case the executor
+   * must apply every revision since the last commit again
+   *
+   * @throws SQLException On errors
+   * @throws TrException  On errors
+   */
+
+  public boolean execute(
+    final Connection connection,
+    final TrEvents events,
+    final BigInteger version,
+    final ActionType action)
+    throws SQLException, TrException
+  {
+    if (!this.policy.isEnabled()) {
+      action.execute();
+      return true;
+    }
+
+    final var failures = new ArrayList<Exception>();
+    for (int attempt = this.transactionAttempt; true; ++attempt) {
+      final var savepoint = connection.setSavepoint();
+      final var timeThen = System.nanoTime();
+
+      try {
+        action.execute();
+      } catch (final SQLException | TrException e) {
+        final var sqlState =
+          sqlStateOf(e);
+        final var retryable =
+          attempt < this.policy.maximumAttempts()
+          && this.policy.isRetryable(sqlState);
+        final var serialization =
+          SQL_STATE_SERIALIZATION_FAILURE.equals(sqlState);
+
+        final boolean retrying;
+        if (serialization) {
+          retrying = retryable
+                     && this.transactionsRetryable
+                     && rollback(connection, e);
+        } else {
+          retrying = retryable && rollbackTo(connection, savepoint, e);
+        }
+
+        events.revisionAttempted(
+          version,
+          attempt,
+          false,
+          Optional.ofNullable(sqlState),
+          retrying,
+          System.nanoTime() - timeThen
+        );
+        if (!retrying) {
+          for (final var failure : this.transactionFailures) {
+            e.addSuppressed(failure);
+          }
+          for (final var failure : failures) {
+            e.addSuppressed(failure);
+          }
+          throw e;
+        }
+
+        LOG.debug(
+          "revision {} failed with retryable state {} (attempt {})",
+          version,
+          sqlState,
+          Integer.valueOf(attempt)
+        );
+
+        if (!sleep(jittered(this.delayOf(attempt)), e)) {
+          throw e;
+        }
+        if (serialization) {
+          this.transactionFailures.add(e);
+          this.transactionAttempt = attempt + 1;
+          return false;
+        }
+        failures.add(e);
+        continue;
+      }
+
+      events.revisionAttempted(
+        version,
+        attempt,
+        true,
+        Optional.empty(),
+        false,
+        System.nanoTime() - timeThen
+      );
+      releaseSavepoint(connection, savepoint);
+      return true;
+    }
+  }
+
+  /**
+   * @return The delay after the given failed attempt, starting at the
+   * initial delay and doubling up to the maximum delay
+   */
+
+  private long delayOf(
+    final int attempt)
+  {
+    final var maximum = this.policy.maximumDelay().toNanos();
+    var delay = this.policy.initialDelay().toNanos();
+    for (int index = 1; index < attempt; ++index) {
+      delay = Math.min(delay * 2L, maximum);
+    }
+    return delay;
+  }
+
+  private static String sqlStateOf(
+    final Exception e)
+  {
+    if (e instanceof final SQLException x) {
+      return x.getSQLState();
+    }
+    if (e.getCause() instanceof final SQLException x) {
+      return x.getSQLState();
+    }
+    return null;
+  }
+
+  private static boolean rollback(
+    final Connection connection,
+    final Exception failure)
+  {
+    try {
+      connection.rollback();
+      return true;
+    } catch (final SQLException e) {
+      failure.addSuppressed(e);
+      return false;
+    }
+  }
+
+  private static boolean rollbackTo(
+    final Connection connection,
+    final Savepoint savepoint,
+    final Exception failure)
+  {
+    try {
+      connection.rollback(savepoint);
+      return true;
+    } catch (final SQLException e) {
+      failure.addSuppressed(e);
+      return false;
+    }
+  }
+
+  private static void releaseSavepoint(
+    final Connection connection,
+    final Savepoint savepoint)
+  {
+    try {
+      connection.releaseSavepoint(savepoint);
+    } catch (final SQLException e) {
+      LOG.debug("unable to release savepoint: ", e);
+    }
+  }
+
+  /**
+   * Subtract a random amount of up to half of the delay, so that clients
+   * that failed at the same time do not retry at the same time.
+   */
+
+  private static long jittered(
+    final long delay)
+  {
+    return delay - ThreadLocalRandom.current().nextLong(delay / 2L + 1L);
+  }
+
+  private static boolean sleep(
+    final long delay,
+    final Exception failure)
+  {
+    try {
+      Thread.sleep(Duration.ofNanos(delay));
+      return true;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure.addSuppressed(e);
+      return false;
+    }
+  }
+
+  /**
+   * The state at the start of a transaction.
+   *
+   * @param index      The index of the first revision in the transaction
+   * @param version    The schema version at the start of the transaction
+   * @param statements The number of statements executed so far
+   * @param revisions  The number of revisions applied so far
+   */
+
+  public record RestartPoint(
+    int index,
+    BigInteger version,
+    int statements,
+    int revisions)
+  {
+
+  }
+
+  /**
+   * A function that applies a revision.
+   */
+
+  public interface ActionType
+  {
+    /**
+     * Apply the revision.
+     *
+     * @throws SQLException On errors
+     * @throws TrException  On errors
+     */
+
+    void execute()
+      throws SQLException, TrException;
+  }
+}
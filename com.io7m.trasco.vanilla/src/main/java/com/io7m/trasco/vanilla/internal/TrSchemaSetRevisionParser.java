@@ -25,8 +25,12 @@ import com.io7m.blackthorne.core.BTParseError;
 import com.io7m.blackthorne.core.BTPreserveLexical;
 import com.io7m.blackthorne.jxe.BlackthorneJXE;
 import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
 import com.io7m.trasco.api.TrSchemaRevisionSetParserType;
+import com.io7m.trasco.vanilla.internal.v1.TrV1;
 import com.io7m.trasco.vanilla.internal.v1.TrV1SchemaDeclSetParser;
+import com.io7m.trasco.vanilla.internal.v2.TrV2;
+import com.io7m.trasco.vanilla.internal.v2.TrV2SchemaDeclSetParser;
 import com.io7m.trasco.xml.schemas.TrSchemas;
 
 import java.io.IOException;
@@ -38,8 +42,6 @@ import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static com.io7m.trasco.vanilla.internal.v1.TrV1.element;
-
 /**
  * A parser of revision sets.
  */
@@ -50,20 +52,25 @@ public final class TrSchemaSetRevisionParser
   private final URI source;
   private final InputStream stream;
   private final Consumer<ParseStatus> statusConsumer;
+  private final TrSchemaRevisionSetParserOptions options;
 
   /**
    * A parser of revision sets.
    *
+   * @param inOptions        The parser options
    * @param inStream         The stream
    * @param inStatusConsumer A status consumer
    * @param inSource         The source
    */
 
   public TrSchemaSetRevisionParser(
+    final TrSchemaRevisionSetParserOptions inOptions,
     final URI inSource,
     final InputStream inStream,
     final Consumer<ParseStatus> inStatusConsumer)
   {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
     this.source =
       Objects.requireNonNull(inSource, "source");
     this.stream =
@@ -94,6 +101,9 @@ public final class TrSchemaSetRevisionParser
   public TrSchemaRevisionSet execute()
     throws ParsingException
   {
+    final var jfr = new TrJFRParse();
+    jfr.begin();
+
     try {
       final TrSchemaRevisionSet schemas =
         BlackthorneJXE.parse(
@@ -101,14 +111,25 @@ public final class TrSchemaSetRevisionParser
           this.stream,
           Map.ofEntries(
             Map.entry(
-              element("Schemas"),
-              TrV1SchemaDeclSetParser::new
+              TrV1.element("Schemas"),
+              c -> new TrV1SchemaDeclSetParser(c, this.options)
+            ),
+            Map.entry(
+              TrV2.element("Schemas"),
+              c -> new TrV2SchemaDeclSetParser(c, this.options)
             )
           ),
           TrSchemas.schemas(),
           BTPreserveLexical.PRESERVE_LEXICAL_INFORMATION
         );
 
+      jfr.end();
+      if (jfr.shouldCommit()) {
+        jfr.setSource(this.source.toString());
+        jfr.setFormat("xml");
+        jfr.setRevisions(schemas.revisions().size());
+        jfr.commit();
+      }
       return schemas;
     } catch (final BTException e) {
       final var statuses =
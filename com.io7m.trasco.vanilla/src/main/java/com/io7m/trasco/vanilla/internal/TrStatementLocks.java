@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Heuristics that recognize statements that typically take heavy locks.
+ */
+
+public final class TrStatementLocks
+{
+  private static final List<Pattern> HEAVY =
+    List.of(
+      Pattern.compile("^alter\\s+table\\b"),
+      Pattern.compile("^drop\\s+(table|index)\\b"),
+      Pattern.compile("^create\\s+(unique\\s+)?index\\b"),
+      Pattern.compile("^truncate\\b"),
+      Pattern.compile("^lock\\s+table\\b"),
+      Pattern.compile("^rename\\b"),
+      Pattern.compile("^reindex\\b"),
+      Pattern.compile("^cluster\\b"),
+      Pattern.compile("^vacuum\\s+full\\b")
+    );
+
+  private static final Pattern CONCURRENTLY =
+    Pattern.compile("\\bconcurrently\\b");
+
+  private TrStatementLocks()
+  {
+
+  }
+
+  /**
+   * Determine if the given statement is of a kind that typically takes a
+   * lock that blocks concurrent access to a table for the duration of the
+   * statement. Statements that request concurrent operation (such as
+   * PostgreSQL's {@code CREATE INDEX CONCURRENTLY}) are not considered to
+   * take heavy locks.
+   *
+   * @param text The statement text
+   *
+   * @return {@code true} if the statement typically takes a heavy lock
+   */
+
+  public static boolean isHeavyLock(
+    final String text)
+  {
+    final var normalized =
+      text.strip().toLowerCase(Locale.ROOT);
+
+    if (CONCURRENTLY.matcher(normalized).find()) {
+      return false;
+    }
+
+    for (final var pattern : HEAVY) {
+      if (pattern.matcher(normalized).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrException;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.trasco.api.TrErrorCode.SQL_EXCEPTION;
+import static java.util.Map.entry;
+
+/**
+ * The execution of the compiled statements of a single revision on a given
+ * connection. The members of parallel groups are executed by runners that
+ * share the compiled statements and timeouts of the executor, but that have
+ * their own connections and event consumers.
+ */
+
+public final class TrStatementRunner
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrStatementRunner.class);
+
+  private final TrCompiledRevisionSet compiled;
+  private final TrStatementTimeouts timeouts;
+  private final TrEvents events;
+  private final BigInteger revision;
+  private int statementsExecuted;
+
+  /**
+   * The execution of the compiled statements of a single revision.
+   *
+   * @param inCompiled The compiled revision set
+   * @param inTimeouts The statement timeouts
+   * @param inEvents   The events
+   * @param inRevision The revision to which the statements belong
+   */
+
+  public TrStatementRunner(
+    final TrCompiledRevisionSet inCompiled,
+    final TrStatementTimeouts inTimeouts,
+    final TrEvents inEvents,
+    final BigInteger inRevision)
+  {
+    this.compiled =
+      Objects.requireNonNull(inCompiled, "compiled");
+    this.timeouts =
+      Objects.requireNonNull(inTimeouts, "timeouts");
+    this.events =
+      Objects.requireNonNull(inEvents, "events");
+    this.revision =
+      Objects.requireNonNull(inRevision, "revision");
+  }
+
+  /**
+   * @param inEvents The events
+   *
+   * @return A runner for the same revision that publishes to the given events
+   */
+
+  public TrStatementRunner withEvents(
+    final TrEvents inEvents)
+  {
+    return new TrStatementRunner(
+      this.compiled,
+      this.timeouts,
+      inEvents,
+      this.revision
+    );
+  }
+
+  /**
+   * @return The number of statements executed by this runner
+   */
+
+  public int statementsExecuted()
+  {
+    return this.statementsExecuted;
+  }
+
+  /**
+   * @param statement The statement
+   *
+   * @return The text of the given statement after compilation
+   */
+
+  public String text(
+    final TrStatementType statement)
+  {
+    return this.compiled.statement(statement).text();
+  }
+
+  /**
+   * Execute a statement.
+   *
+   * @param connection The connection
+   * @param statement  The statement
+   *
+   * @throws SQLException On errors
+   */
+
+  public void execute(
+    final Connection connection,
+    final TrStatementType statement)
+    throws SQLException
+  {
+    if (statement instanceof final TrStatement st) {
+      this.executeStatement(connection, st);
+      return;
+    }
+    if (statement instanceof final TrStatementParameterized st) {
+      this.executeStatementParameterized(connection, st);
+      return;
+    }
+    if (statement instanceof final TrStatementBackfill st) {
+      this.executeStatementBackfill(connection, st);
+    }
+  }
+
+  /**
+   * Execute a list of statements as a single batch.
+   *
+   * @param connection The connection
+   * @param batch      The statements
+   * @param batchStart The index of the first statement in the revision
+   *
+   * @throws SQLException On errors
+   * @throws TrException  If any statement in the batch fails
+   */
+
+  public void executeBatch(
+    final Connection connection,
+    final List<TrStatement> batch,
+    final int batchStart)
+    throws SQLException, TrException
+  {
+    if (batch.size() == 1) {
+      this.executeStatement(connection, batch.get(0));
+      return;
+    }
+
+    if (LOG.isTraceEnabled()) {
+      LOG.trace("execute batch: {} statements", Integer.valueOf(batch.size()));
+    }
+
+    try (var sql = connection.createStatement()) {
+      for (final var st : batch) {
+        final var stripped = this.text(st);
+        LOG.trace("execute: {}", stripped);
+
+        this.events.executingSQL(stripped);
+
+        sql.addBatch(stripped);
+      }
+
+      try {
+        final var jfr = new TrJFRStatement();
+        jfr.begin();
+
+        final var first = this.text(batch.get(0));
+        final var timeThen = System.nanoTime();
+        final var counts =
+          this.timeouts.execute(
+            connection,
+            sql,
+            first,
+            TrStatementOptions.defaults(),
+            sql::executeBatch
+          );
+        final var elapsed = System.nanoTime() - timeThen;
+
+        this.statementsExecuted += batch.size();
+        this.events.executedSQLBatch(counts, elapsed);
+
+        this.jfrStatementCommit(jfr, first, batch.size());
+      } catch (final BatchUpdateException e) {
+        final var failed =
+          batchFailedIndex(e, batch.size());
+        final var statementIndex =
+          batchStart + failed;
+
+        throw new TrException(
+          e.getMessage(),
+          e,
+          Map.ofEntries(
+            entry("Revision", this.revision.toString()),
+            entry("Statement Index", Integer.toString(statementIndex)),
+            entry("Statement", this.text(batch.get(failed)))
+          ),
+          SQL_EXCEPTION
+        );
+      }
+    }
+  }
+
+  /**
+   * Determine the index of the statement that caused a batch to fail. Drivers
+   * either stop at the first failing statement (in which case the update
+   * counts cover only the statements that succeeded), or continue and mark
+   * the failing statements explicitly.
+   */
+
+  private static int batchFailedIndex(
+    final BatchUpdateException e,
+    final int batchSize)
+  {
+    final var counts = e.getUpdateCounts();
+    if (counts == null) {
+      return 0;
+    }
+
+    for (int index = 0; index < counts.length; ++index) {
+      if (counts[index] == Statement.EXECUTE_FAILED) {
+        return index;
+      }
+    }
+
+    return Math.min(counts.length, batchSize - 1);
+  }
+
+  private void executeStatementParameterized(
+    final Connection connection,
+    final TrStatementParameterized st)
+    throws SQLException
+  {
+    switch (st.interpolation()) {
+      case PREPARED_STATEMENT ->
+        this.executeStatementParameterizedPrepared(connection, st);
+      case STRING_FORMATTING ->
+        this.executeStatementParameterizedManual(connection, st);
+    }
+  }
+
+  private void executeStatementParameterizedManual(
+    final Connection connection,
+    final TrStatementParameterized st)
+    throws SQLException
+  {
+    final var formatted = this.text(st);
+    LOG.trace("execute: {}", formatted);
+
+    this.events.executingSQL(formatted);
+
+    try (Statement sql = connection.createStatement()) {
+      final var jfr = new TrJFRStatement();
+      jfr.begin();
+      final var timeThen = System.nanoTime();
+      this.timeouts.execute(
+        connection, sql, formatted, st.options(), () -> sql.execute(formatted));
+      this.publishExecuted(sql, formatted, timeThen, jfr);
+    }
+  }
+
+  private void executeStatementParameterizedPrepared(
+    final Connection connection,
+    final TrStatementParameterized st)
+    throws SQLException
+  {
+    final var compiledStatement = this.compiled.statement(st);
+    final var stripped = compiledStatement.text();
+    LOG.trace("execute: {}", stripped);
+
+    this.events.executingSQL(stripped);
+
+    try (var sql = connection.prepareStatement(stripped)) {
+      compiledStatement.bind(sql);
+
+      final var jfr = new TrJFRStatement();
+      jfr.begin();
+      final var timeThen = System.nanoTime();
+      this.timeouts.execute(connection, sql, stripped, st.options(), sql::execute);
+      this.publishExecuted(sql, stripped, timeThen, jfr);
+    }
+  }
+
+  private void executeStatement(
+    final Connection connection,
+    final TrStatement st)
+    throws SQLException
+  {
+    final var stripped = this.text(st);
+    LOG.trace("execute: {}", stripped);
+
+    this.events.executingSQL(stripped);
+
+    try (var sql = connection.prepareStatement(stripped)) {
+      final var jfr = new TrJFRStatement();
+      jfr.begin();
+      final var timeThen = System.nanoTime();
+      this.timeouts.execute(connection, sql, stripped, st.options(), sql::execute);
+      this.publishExecuted(sql, stripped, timeThen, jfr);
+    }
+  }
+
+  /**
+   * Execute a backfill statement repeatedly until it no longer updates any
+   * rows. Backfills are only executed in autocommit mode, so each chunk is
+   * committed as soon as it has been executed.
+   */
+
+  private void executeStatementBackfill(
+    final Connection connection,
+    final TrStatementBackfill st)
+    throws SQLException
+  {
+    final var stripped = this.text(st);
+    LOG.trace("execute backfill: {}", stripped);
+
+    this.events.executingSQL(stripped);
+
+    final var timeStart = System.nanoTime();
+    long chunks = 0L;
+    long rowsTotal = 0L;
+
+    try (var sql = connection.prepareStatement(stripped)) {
+      while (true) {
+        sql.setInt(1, st.chunkSize());
+
+        final var jfr = new TrJFRStatement();
+        jfr.begin();
+        final long rows =
+          this.timeouts.execute(
+            connection, sql, stripped, st.options(), sql::executeUpdate);
+        this.jfrStatementCommit(jfr, stripped, 1);
+
+        if (rows <= 0L) {
+          break;
+        }
+
+        ++chunks;
+        rowsTotal += rows;
+        this.events.backfillProgress(
+          stripped,
+          chunks,
+          rows,
+          rowsTotal,
+          System.nanoTime() - timeStart
+        );
+
+        throttle(st.throttle());
+      }
+    }
+
+    ++this.statementsExecuted;
+    this.events.executedSQL(
+      stripped,
+      rowsTotal,
+      System.nanoTime() - timeStart
+    );
+  }
+
+  private static void throttle(
+    final Duration delay)
+    throws SQLException
+  {
+    if (delay.isZero()) {
+      return;
+    }
+
+    try {
+      Thread.sleep(delay);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while throttling a backfill.", e);
+    }
+  }
+
+  private void publishExecuted(
+    final Statement sql,
+    final String text,
+    final long timeThen,
+    final TrJFRStatement jfr)
+    throws SQLException
+  {
+    final var elapsed = System.nanoTime() - timeThen;
+    ++this.statementsExecuted;
+
+    this.events.executedSQL(text, sql, elapsed);
+
+    this.jfrStatementCommit(jfr, text, 1);
+  }
+
+  private void jfrStatementCommit(
+    final TrJFRStatement jfr,
+    final String text,
+    final int count)
+  {
+    jfr.end();
+    if (jfr.shouldCommit()) {
+      jfr.setRevision(this.revision.toString());
+      jfr.setSql(TrJFRStatement.truncate(text));
+      jfr.setStatements(count);
+      jfr.commit();
+    }
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.trasco.api.TrArgumentNumeric;
+import com.io7m.trasco.api.TrArgumentString;
+import com.io7m.trasco.api.TrArgumentType;
+import com.io7m.trasco.api.TrStatementParameterized;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import static com.io7m.trasco.api.TrParameterInterpolation.STRING_FORMATTING;
+
+/**
+ * A statement template for {@code STRING_FORMATTING} interpolation, parsed
+ * into literal segments and argument slots. The template syntax is the
+ * subset of {@link String#format(String, Object...)} syntax that makes
+ * sense for SQL: {@code %s} refers to the next argument, {@code %n$s}
+ * refers to argument {@code n} (counting from 1), and {@code %%} is a
+ * literal percent sign. Templates are immutable.
+ */
+
+public final class TrStatementTemplate
+{
+  private final String[] literals;
+  private final int[] slots;
+  private final int literalLength;
+
+  private TrStatementTemplate(
+    final String[] inLiterals,
+    final int[] inSlots)
+  {
+    this.literals = inLiterals;
+    this.slots = inSlots;
+
+    int length = 0;
+    for (final var literal : inLiterals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Check that the template of the given statement is valid, if the
+   * statement uses {@code STRING_FORMATTING} interpolation.
+   *
+   * @param statement The statement
+   *
+   * @return {@code statement}
+   *
+   * @throws IllegalArgumentException If the template is invalid
+   */
+
+  public static TrStatementParameterized checked(
+    final TrStatementParameterized statement)
+  {
+    if (statement.interpolation() == STRING_FORMATTING) {
+      parse(statement.text().strip(), statement.references().inOrder().size());
+    }
+    return statement;
+  }
+
+  /**
+   * Parse a template.
+   *
+   * @param text      The template text
+   * @param arguments The number of arguments supplied to the template
+   *
+   * @return The parsed template
+   *
+   * @throws IllegalArgumentException If the template contains unrecognized
+   *                                  placeholders, refers to arguments that
+   *                                  do not exist, or does not refer to
+   *                                  every argument
+   */
+
+  public static TrStatementTemplate parse(
+    final String text,
+    final int arguments)
+  {
+    Objects.requireNonNull(text, "text");
+
+    final var literals = new ArrayList<String>();
+    final var slots = new ArrayList<Integer>();
+    final var used = new boolean[arguments];
+    final var literal = new StringBuilder(text.length());
+
+    int next = 0;
+    int index = 0;
+    while (index < text.length()) {
+      final var c = text.charAt(index);
+      if (c != '%') {
+        literal.append(c);
+        ++index;
+        continue;
+      }
+
+      final var end = placeholderEnd(text, index);
+      final var placeholder = text.substring(index, end);
+      index = end;
+
+      if ("%%".equals(placeholder)) {
+        literal.append('%');
+        continue;
+      }
+
+      final int slot;
+      if ("%s".equals(placeholder)) {
+        slot = next;
+        ++next;
+      } else {
+        slot = explicitSlot(placeholder);
+      }
+
+      if (slot >= arguments) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Placeholder %s (at offset %d) refers to argument %d, but %d %s",
+            placeholder,
+            Integer.valueOf(end - placeholder.length()),
+            Integer.valueOf(slot + 1),
+            Integer.valueOf(arguments),
+            arguments == 1 ? "argument is declared" : "arguments are declared"
+          ));
+      }
+
+      used[slot] = true;
+      literals.add(literal.toString());
+      slots.add(Integer.valueOf(slot));
+      literal.setLength(0);
+    }
+
+    for (int argument = 0; argument < arguments; ++argument) {
+      if (!used[argument]) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Argument %d is declared but not referenced by any placeholder",
+            Integer.valueOf(argument + 1)
+          ));
+      }
+    }
+
+    literals.add(literal.toString());
+    return new TrStatementTemplate(
+      literals.toArray(new String[0]),
+      slots.stream().mapToInt(Integer::intValue).toArray()
+    );
+  }
+
+  /**
+   * @return The index just past the placeholder starting at {@code start}
+   */
+
+  private static int placeholderEnd(
+    final String text,
+    final int start)
+  {
+    int index = start + 1;
+    while (index < text.length()) {
+      final var c = text.charAt(index);
+      if (c == '%' && index == start + 1) {
+        return index + 1;
+      }
+      if (Character.isLetter(c)) {
+        return index + 1;
+      }
+      if (!Character.isDigit(c) && c != '$') {
+        break;
+      }
+      ++index;
+    }
+
+    throw new IllegalArgumentException(
+      String.format(
+        "Unsupported placeholder %s (at offset %d)",
+        text.substring(start, Math.min(index + 1, text.length())),
+        Integer.valueOf(start)
+      ));
+  }
+
+  private static int explicitSlot(
+    final String placeholder)
+  {
+    if (placeholder.length() > 3 && placeholder.endsWith("$s")) {
+      final var digits = placeholder.substring(1, placeholder.length() - 2);
+      if (digits.chars().allMatch(Character::isDigit)) {
+        final var number = Integer.parseInt(digits);
+        if (number >= 1) {
+          return number - 1;
+        }
+      }
+    }
+
+    throw new IllegalArgumentException(
+      String.format(
+        "Unsupported placeholder %s (only %%s, %%n$s, and %%%% are supported)",
+        placeholder
+      ));
+  }
+
+  /**
+   * Render the template using the given arguments. Each argument is
+   * rendered as an SQL literal.
+   *
+   * @param arguments The arguments, in declaration order
+   *
+   * @return The rendered text
+   */
+
+  public String render(
+    final TrArgumentType[] arguments)
+  {
+    final var rendered = new String[arguments.length];
+    int length = this.literalLength;
+    for (int index = 0; index < arguments.length; ++index) {
+      rendered[index] = literalOf(arguments[index]);
+    }
+    for (final var slot : this.slots) {
+      length += rendered[slot].length();
+    }
+
+    final var text = new StringBuilder(length);
+    for (int index = 0; index < this.slots.length; ++index) {
+      text.append(this.literals[index]);
+      text.append(rendered[this.slots[index]]);
+    }
+    text.append(this.literals[this.slots.length]);
+    return text.toString();
+  }
+
+  /**
+   * Render an argument as an SQL literal. Strings are quoted using the SQL
+   * standard convention of doubling embedded single quotes; backslashes
+   * have no special meaning.
+   *
+   * @param argument The argument
+   *
+   * @return The argument as an SQL literal
+   */
+
+  public static String literalOf(
+    final TrArgumentType argument)
+  {
+    if (argument instanceof final TrArgumentString s) {
+      final var value = s.value();
+      final var text = new StringBuilder(value.length() + 2);
+      text.append('\'');
+      for (int index = 0; index < value.length(); ++index) {
+        final var c = value.charAt(index);
+        if (c == '\'') {
+          text.append('\'');
+        }
+        text.append(c);
+      }
+      text.append('\'');
+      return text.toString();
+    }
+
+    if (argument instanceof final TrArgumentNumeric n) {
+      final var value = n.value();
+      if (value instanceof final BigDecimal x) {
+        return x.toPlainString();
+      }
+      if (value instanceof final Double x) {
+        if (x.isNaN() || x.isInfinite()) {
+          throw new IllegalArgumentException(
+            String.format(
+              "Argument %s cannot be represented as an SQL literal",
+              x
+            ));
+        }
+      }
+      return value.toString();
+    }
+
+    throw new UnreachableCodeException();
+  }
+}
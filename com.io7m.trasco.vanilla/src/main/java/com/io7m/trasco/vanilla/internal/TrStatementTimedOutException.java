@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A statement exceeded its query or lock timeout.
+ */
+
+public final class TrStatementTimedOutException extends SQLTimeoutException
+{
+  private final String statement;
+  private final String kind;
+  private final Duration timeout;
+
+  /**
+   * A statement exceeded its query or lock timeout.
+   *
+   * @param inStatement The statement text
+   * @param inKind      The kind of timeout ("Query" or "Lock")
+   * @param inTimeout   The timeout
+   * @param inCause     The exception raised by the driver
+   */
+
+  public TrStatementTimedOutException(
+    final String inStatement,
+    final String inKind,
+    final Duration inTimeout,
+    final Throwable inCause)
+  {
+    super(
+      "%s timeout of %s exceeded.".formatted(inKind, inTimeout),
+      inCause
+    );
+
+    this.statement =
+      Objects.requireNonNull(inStatement, "statement");
+    this.kind =
+      Objects.requireNonNull(inKind, "kind");
+    this.timeout =
+      Objects.requireNonNull(inTimeout, "timeout");
+  }
+
+  /**
+   * @return The statement text
+   */
+
+  public String statement()
+  {
+    return this.statement;
+  }
+
+  /**
+   * @return The kind of timeout ("Query" or "Lock")
+   */
+
+  public String kind()
+  {
+    return this.kind;
+  }
+
+  /**
+   * @return The timeout
+   */
+
+  public Duration timeout()
+  {
+    return this.timeout;
+  }
+}
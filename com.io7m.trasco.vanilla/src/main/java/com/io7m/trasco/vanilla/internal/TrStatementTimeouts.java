@@ -0,0 +1,270 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrDialectType;
+import com.io7m.trasco.api.TrExecutorConfiguration;
+import com.io7m.trasco.api.TrStatementOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The application of query and lock timeouts to executing statements. A
+ * single instance is shared by all the threads executing statements on
+ * behalf of one execution.
+ */
+
+public final class TrStatementTimeouts implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrStatementTimeouts.class);
+
+  private final TrExecutorConfiguration configuration;
+  private final Optional<TrDialectType> dialect;
+  private final TrStatementWatchdog watchdog;
+  private final TrExecutionCancellation cancellation;
+  private final AtomicBoolean lockTimeoutWarned;
+
+  /**
+   * The application of query and lock timeouts to executing statements.
+   *
+   * @param inConfiguration The executor configuration
+   * @param inDialect       The dialect, if one is configured or detected
+   * @param inCancellation  The cancellation state of the execution
+   */
+
+  public TrStatementTimeouts(
+    final TrExecutorConfiguration inConfiguration,
+    final Optional<TrDialectType> inDialect,
+    final TrExecutionCancellation inCancellation)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.dialect =
+      Objects.requireNonNull(inDialect, "dialect");
+    this.cancellation =
+      Objects.requireNonNull(inCancellation, "cancellation");
+    this.watchdog =
+      new TrStatementWatchdog(inDialect);
+    this.lockTimeoutWarned =
+      new AtomicBoolean(false);
+  }
+
+  /**
+   * Execute a statement, applying the query and lock timeouts declared by
+   * the statement (or the executor defaults). The query timeout is given to
+   * the driver, and is also enforced by the watchdog for drivers that do not
+   * honour it in every situation (such as when blocked on the network). The
+   * statement is cancelled if the execution is cancelled.
+   *
+   * @param connection The connection on which the statement executes
+   * @param sql        The statement
+   * @param text       The statement text
+   * @param options    The statement options
+   * @param call       The function that executes the statement
+   * @param <T>        The type of returned values
+   *
+   * @return The value returned by {@code call}
+   *
+   * @throws SQLException On errors, including
+   *                      {@link TrStatementTimedOutException} if a timeout
+   *                      expired
+   */
+
+  public <T> T execute(
+    final Connection connection,
+    final Statement sql,
+    final String text,
+    final TrStatementOptions options,
+    final CallType<T> call)
+    throws SQLException
+  {
+    final var timeouts =
+      this.configuration.timeouts();
+    final var queryTimeout =
+      options.queryTimeout().or(timeouts::queryTimeout);
+    final var lockTimeout =
+      this.lockTimeoutSet(
+        connection, options.lockTimeout().or(timeouts::lockTimeout));
+
+    if (queryTimeout.isPresent()) {
+      sql.setQueryTimeout(driverSeconds(queryTimeout.get()));
+    }
+
+    SQLException failure = null;
+    final var guard = this.watchdog.watch(sql, queryTimeout);
+    this.cancellation.register(guard);
+    try {
+      this.cancellation.checkNotCancelled();
+      return call.call();
+    } catch (final SQLException e) {
+      failure = this.checkTimedOut(
+        e, text, guard.expired(), queryTimeout, lockTimeout);
+      throw failure;
+    } finally {
+      guard.close();
+      this.cancellation.unregister(guard);
+      this.lockTimeoutReset(connection, lockTimeout, failure);
+    }
+  }
+
+  private SQLException checkTimedOut(
+    final SQLException e,
+    final String text,
+    final boolean expired,
+    final Optional<Duration> queryTimeout,
+    final Optional<Duration> lockTimeout)
+  {
+    if (this.cancellation.isCancelled()) {
+      if (Objects.equals(
+        e.getSQLState(), TrExecutionCancellation.SQL_STATE_CANCELLED)) {
+        return e;
+      }
+      return TrExecutionCancellation.cancelledException(e);
+    }
+
+    if (queryTimeout.isPresent()) {
+      if (expired || e instanceof SQLTimeoutException) {
+        return new TrStatementTimedOutException(
+          text, "Query", queryTimeout.get(), e);
+      }
+    }
+
+    if (lockTimeout.isPresent()) {
+      if (this.dialect.orElseThrow().isLockTimeout(e)) {
+        return new TrStatementTimedOutException(
+          text, "Lock", lockTimeout.get(), e);
+      }
+    }
+    return e;
+  }
+
+  /**
+   * Drivers accept query timeouts in whole seconds, with zero meaning that
+   * no timeout applies, so timeouts are rounded up.
+   */
+
+  private static int driverSeconds(
+    final Duration timeout)
+  {
+    final var seconds = (timeout.toMillis() + 999L) / 1000L;
+    return (int) Math.max(1L, Math.min(seconds, Integer.MAX_VALUE));
+  }
+
+  /**
+   * Apply a lock timeout, if one is required and a dialect is available.
+   * Dialects that can only apply database-wide lock timeouts must be
+   * configured explicitly, as the timeout affects every other client of
+   * the database.
+   *
+   * @return The lock timeout that was applied
+   */
+
+  private Optional<Duration> lockTimeoutSet(
+    final Connection connection,
+    final Optional<Duration> timeout)
+    throws SQLException
+  {
+    if (timeout.isEmpty()) {
+      return timeout;
+    }
+
+    if (this.dialect.isEmpty()) {
+      if (this.lockTimeoutWarned.compareAndSet(false, true)) {
+        LOG.warn("lock timeouts are ignored because the database dialect is unknown");
+      }
+      return Optional.empty();
+    }
+
+    final var dialectNow = this.dialect.get();
+    if (dialectNow.isLockTimeoutDatabaseWide()
+        && this.configuration.dialect().isEmpty()) {
+      if (this.lockTimeoutWarned.compareAndSet(false, true)) {
+        LOG.warn(
+          "lock timeouts are ignored because the detected dialect {} "
+          + "applies them to the entire database; configure the dialect "
+          + "explicitly to use them",
+          dialectNow.name());
+      }
+      return Optional.empty();
+    }
+
+    dialectNow.lockTimeoutSet(connection, timeout.get());
+    return timeout;
+  }
+
+  private void lockTimeoutReset(
+    final Connection connection,
+    final Optional<Duration> timeout,
+    final SQLException failure)
+    throws SQLException
+  {
+    if (timeout.isEmpty()) {
+      return;
+    }
+
+    /*
+     * The reset may itself fail if the statement failed (some databases
+     * refuse all statements in a failed transaction), in which case the
+     * original failure is the one worth reporting.
+     */
+
+    try {
+      this.dialect.orElseThrow().lockTimeoutReset(connection);
+    } catch (final SQLException e) {
+      if (failure == null) {
+        throw e;
+      }
+      failure.addSuppressed(e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.watchdog.close();
+  }
+
+  /**
+   * A function that executes a statement.
+   *
+   * @param <T> The type of returned values
+   */
+
+  public interface CallType<T>
+  {
+    /**
+     * Execute the statement.
+     *
+     * @return The value returned by the statement
+     *
+     * @throws SQLException On errors
+     */
+
+    T call()
+      throws SQLException;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal;
+
+import com.io7m.trasco.api.TrDialectType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A watchdog that cancels statements that run for longer than their query
+ * timeout. Cancellation happens on the watchdog's own thread, as the thread
+ * executing the statement is blocked inside the JDBC driver. The watchdog
+ * thread is only started when the first statement with a timeout is
+ * watched. Statements are cancelled using the dialect, if there is one, as
+ * not every driver implements {@link Statement#cancel()}.
+ */
+
+public final class TrStatementWatchdog implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(TrStatementWatchdog.class);
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final Optional<TrDialectType> dialect;
+
+  /**
+   * A watchdog that cancels statements that run for longer than their query
+   * timeout.
+   *
+   * @param inDialect The dialect, if one is configured or detected
+   */
+
+  public TrStatementWatchdog(
+    final Optional<TrDialectType> inDialect)
+  {
+    this.dialect =
+      Objects.requireNonNull(inDialect, "dialect");
+    this.executor =
+      new ScheduledThreadPoolExecutor(
+        1,
+        Thread.ofPlatform()
+          .name("com.io7m.trasco.watchdog")
+          .daemon()
+          .factory()
+      );
+    this.executor.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Watch the given statement.
+   *
+   * @param statement The statement
+   * @param timeout   The query timeout, if any
+   *
+   * @return A guard that must be closed when the statement has finished
+   */
+
+  public Guard watch(
+    final Statement statement,
+    final Optional<Duration> timeout)
+  {
+    Objects.requireNonNull(statement, "statement");
+    Objects.requireNonNull(timeout, "timeout");
+
+    final var guard = new Guard(statement, this.dialect);
+    if (timeout.isPresent()) {
+      guard.future =
+        this.executor.schedule(
+          guard::expire,
+          timeout.get().toNanos(),
+          TimeUnit.NANOSECONDS
+        );
+    }
+    return guard;
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * A guard for a single watched statement.
+   */
+
+  public static final class Guard implements AutoCloseable
+  {
+    private final Statement statement;
+    private final Optional<TrDialectType> dialect;
+    private ScheduledFuture<?> future;
+    private boolean finished;
+    private boolean expired;
+
+    private Guard(
+      final Statement inStatement,
+      final Optional<TrDialectType> inDialect)
+    {
+      this.statement = inStatement;
+      this.dialect = inDialect;
+    }
+
+    /*
+     * Some drivers cancel whatever is currently executing on the connection
+     * rather than the statement itself, so the statement must never be
+     * cancelled after the guard has been closed.
+     */
+
+    private synchronized void expire()
+    {
+      if (this.finished) {
+        return;
+      }
+
+      this.expired = true;
+      this.cancelStatement();
+    }
+
+    /**
+     * Cancel the statement if it is still executing.
+     */
+
+    public synchronized void cancel()
+    {
+      if (this.finished) {
+        return;
+      }
+
+      this.cancelStatement();
+    }
+
+    private void cancelStatement()
+    {
+      try {
+        if (this.dialect.isPresent()) {
+          this.dialect.get().statementCancel(this.statement);
+        } else {
+          this.statement.cancel();
+        }
+      } catch (final SQLException e) {
+        LOG.debug("unable to cancel statement: ", e);
+      }
+    }
+
+    /**
+     * @return {@code true} if the statement ran for longer than its timeout
+     */
+
+    public synchronized boolean expired()
+    {
+      return this.expired;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+      this.finished = true;
+      if (this.future != null) {
+        this.future.cancel(false);
+      }
+    }
+  }
+}
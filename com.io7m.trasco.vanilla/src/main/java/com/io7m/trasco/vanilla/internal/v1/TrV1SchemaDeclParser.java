@@ -19,8 +19,10 @@ package com.io7m.trasco.vanilla.internal.v1;
 import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements;
 import com.io7m.blackthorne.core.BTQualifiedName;
 import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
 import com.io7m.trasco.api.TrStatement;
 import com.io7m.trasco.api.TrStatementParameterized;
 import com.io7m.trasco.api.TrStatementType;
@@ -30,28 +32,39 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+import static com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements.DO_NOT_IGNORE_UNRECOGNIZED_ELEMENTS;
+import static com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements.IGNORE_UNRECOGNIZED_ELEMENTS;
 import static com.io7m.trasco.vanilla.internal.v1.TrV1.element;
 
 /**
- * A V1 schema parser.
+ * A V1 schema parser. If the parser options specify that the revision is
+ * elided, the children of the schema element are skipped and no statements
+ * are constructed.
  */
 
 public final class TrV1SchemaDeclParser
   implements BTElementHandlerType<Object, TrSchemaRevision>
 {
   private final ArrayList<TrStatementType> statements;
+  private final TrSchemaRevisionSetParserOptions options;
   private BigInteger versionCurrent;
+  private boolean elided;
 
   /**
    * A V1 schema parser.
    *
-   * @param context A context
+   * @param context   A context
+   * @param inOptions The parser options
    */
 
   public TrV1SchemaDeclParser(
-    final BTElementParsingContextType context)
+    final BTElementParsingContextType context,
+    final TrSchemaRevisionSetParserOptions inOptions)
   {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
     this.statements = new ArrayList<>();
   }
 
@@ -60,6 +73,10 @@ public final class TrV1SchemaDeclParser
   onChildHandlersRequested(
     final BTElementParsingContextType context)
   {
+    if (this.elided) {
+      return Map.of();
+    }
+
     return Map.ofEntries(
       Map.entry(
         element("StatementParameterized"),
@@ -83,6 +100,18 @@ public final class TrV1SchemaDeclParser
   {
     this.versionCurrent =
       new BigInteger(attributes.getValue("versionCurrent"));
+    this.elided =
+      this.options.isElided(this.versionCurrent);
+  }
+
+  @Override
+  public BTIgnoreUnrecognizedElements onShouldIgnoreUnrecognizedElements(
+    final BTElementParsingContextType context)
+  {
+    if (this.elided) {
+      return IGNORE_UNRECOGNIZED_ELEMENTS;
+    }
+    return DO_NOT_IGNORE_UNRECOGNIZED_ELEMENTS;
   }
 
   @Override
@@ -111,6 +140,10 @@ public final class TrV1SchemaDeclParser
   public TrSchemaRevision onElementFinished(
     final BTElementParsingContextType context)
   {
+    if (this.elided) {
+      return TrSchemaRevision.elidedRevision(this.versionCurrent);
+    }
+
     return new TrSchemaRevision(
       this.versionCurrent,
       List.copyOf(this.statements)
@@ -23,11 +23,13 @@ import com.io7m.blackthorne.core.BTQualifiedName;
 import com.io7m.trasco.api.TrParameter;
 import com.io7m.trasco.api.TrSchemaRevision;
 import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -43,16 +45,21 @@ public final class TrV1SchemaDeclSetParser
 {
   private final List<TrSchemaRevision> revisions;
   private final HashMap<String, TrParameter> parameters;
+  private final TrSchemaRevisionSetParserOptions options;
 
   /**
    * A parser for database schemas.
    *
-   * @param context The context
+   * @param context   The context
+   * @param inOptions The parser options
    */
 
   public TrV1SchemaDeclSetParser(
-    final BTElementParsingContextType context)
+    final BTElementParsingContextType context,
+    final TrSchemaRevisionSetParserOptions inOptions)
   {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
     this.revisions = new ArrayList<>();
     this.parameters = new HashMap<>();
   }
@@ -69,7 +76,7 @@ public final class TrV1SchemaDeclSetParser
       ),
       Map.entry(
         element("Schema"),
-        TrV1SchemaDeclParser::new
+        c -> new TrV1SchemaDeclParser(c, this.options)
       )
     );
   }
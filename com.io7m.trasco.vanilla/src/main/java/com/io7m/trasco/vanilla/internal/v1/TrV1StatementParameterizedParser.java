@@ -24,6 +24,7 @@ import com.io7m.trasco.api.TrParameterInterpolation;
 import com.io7m.trasco.api.TrParameterReferences;
 import com.io7m.trasco.api.TrStatement;
 import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.vanilla.internal.TrStatementTemplate;
 import org.xml.sax.Attributes;
 
 import java.util.Map;
@@ -107,10 +108,11 @@ public final class TrV1StatementParameterizedParser
   public TrStatementParameterized onElementFinished(
     final BTElementParsingContextType context)
   {
-    return new TrStatementParameterized(
-      this.parameters,
-      this.text.toString().trim(),
-      this.interpolation
-    );
+    return TrStatementTemplate.checked(
+      new TrStatementParameterized(
+        this.parameters,
+        this.text.toString().trim(),
+        this.interpolation
+      ));
   }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.xml.schemas.TrSchemas;
+import org.xml.sax.Attributes;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * V2 convenience functions.
+ */
+
+public final class TrV2
+{
+  private TrV2()
+  {
+
+  }
+
+  /**
+   * The element with the given name.
+   *
+   * @param localName The local name
+   *
+   * @return The qualified name
+   */
+
+  public static BTQualifiedName element(
+    final String localName)
+  {
+    return BTQualifiedName.of(
+      TrSchemas.schema2_0().namespace().toString(),
+      localName
+    );
+  }
+
+  /**
+   * The statement options declared by the given attributes.
+   *
+   * @param attributes The statement element attributes
+   *
+   * @return The statement options
+   */
+
+  public static TrStatementOptions statementOptions(
+    final Attributes attributes)
+  {
+    final var transactional = attributes.getValue("transactional");
+    return new TrStatementOptions(
+      transactional == null
+      || Boolean.parseBoolean(transactional.strip())
+      || "1".equals(transactional.strip()),
+      OptionalInt.empty(),
+      milliseconds(attributes, "queryTimeoutMilliseconds"),
+      milliseconds(attributes, "lockTimeoutMilliseconds")
+    );
+  }
+
+  /**
+   * The options declared by the given attributes of a backfill statement.
+   * Backfills are always non-transactional.
+   *
+   * @param attributes The backfill element attributes
+   *
+   * @return The statement options
+   */
+
+  public static TrStatementOptions backfillOptions(
+    final Attributes attributes)
+  {
+    return new TrStatementOptions(
+      false,
+      OptionalInt.empty(),
+      milliseconds(attributes, "queryTimeoutMilliseconds"),
+      milliseconds(attributes, "lockTimeoutMilliseconds")
+    );
+  }
+
+  private static Optional<Duration> milliseconds(
+    final Attributes attributes,
+    final String name)
+  {
+    return Optional.ofNullable(attributes.getValue(name))
+      .map(v -> Duration.ofMillis(Long.parseLong(v.strip())));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.util.List;
+
+/**
+ * A parsed parallel group. The group number is assigned by the enclosing
+ * element, as groups are numbered in declaration order within a revision.
+ *
+ * @param statements The statements in the group
+ */
+
+public record TrV2Parallel(
+  List<TrStatementType> statements)
+{
+  /**
+   * A parsed parallel group.
+   *
+   * @param statements The statements in the group
+   */
+
+  public TrV2Parallel
+  {
+    statements = List.copyOf(statements);
+  }
+
+  /**
+   * @param group The group number
+   *
+   * @return The statements of the group, marked as belonging to {@code group}
+   */
+
+  public List<TrStatementType> statementsInGroup(
+    final int group)
+  {
+    return this.statements.stream()
+      .map(s -> withOptions(s, s.options().withParallelGroup(group)))
+      .toList();
+  }
+
+  private static TrStatementType withOptions(
+    final TrStatementType statement,
+    final TrStatementOptions options)
+  {
+    return switch (statement) {
+      case final TrStatement st -> new TrStatement(st.text(), options);
+      case final TrStatementBackfill st -> new TrStatementBackfill(
+        st.text(),
+        st.chunkSize(),
+        st.throttle(),
+        options
+      );
+      case final TrStatementParameterized st -> new TrStatementParameterized(
+        st.references(),
+        st.text(),
+        st.interpolation(),
+        options
+      );
+    };
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static com.io7m.trasco.vanilla.internal.v2.TrV2.element;
+
+/**
+ * A V2 parallel group parser.
+ */
+
+public final class TrV2ParallelParser
+  implements BTElementHandlerType<Object, TrV2Parallel>
+{
+  private final ArrayList<TrStatementType> statements;
+
+  /**
+   * A V2 parallel group parser.
+   *
+   * @param context A context
+   */
+
+  public TrV2ParallelParser(
+    final BTElementParsingContextType context)
+  {
+    this.statements = new ArrayList<>();
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      Map.entry(
+        element("StatementParameterized"),
+        TrV2StatementParameterizedParser::new
+      ),
+      Map.entry(
+        element("Statement"),
+        TrV2StatementParser::new
+      ),
+      Map.entry(
+        element("Backfill"),
+        TrV2BackfillParser::new
+      ),
+      Map.entry(
+        element("Comment"),
+        TrV2CommentParser::new
+      )
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    if (result instanceof final TrStatement st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof final TrStatementParameterized st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof final TrStatementBackfill st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof TrV2Comment) {
+      return;
+    }
+
+    throw new IllegalArgumentException("Unexpected: %s".formatted(result));
+  }
+
+  @Override
+  public TrV2Parallel onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    return new TrV2Parallel(this.statements);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrParameterKind;
+import org.xml.sax.Attributes;
+
+/**
+ * A V2 schema parser.
+ */
+
+public final class TrV2ParameterDeclParser
+  implements BTElementHandlerType<Object, TrParameter>
+{
+  private String name;
+  private TrParameterKind type;
+
+  /**
+   * A V2 schema parser.
+   *
+   * @param context A context
+   */
+
+  public TrV2ParameterDeclParser(
+    final BTElementParsingContextType context)
+  {
+
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    this.name =
+      attributes.getValue("name");
+    this.type =
+      TrParameterKind.valueOf(attributes.getValue("type"));
+  }
+
+  @Override
+  public TrParameter onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    return new TrParameter(this.name, this.type);
+  }
+}
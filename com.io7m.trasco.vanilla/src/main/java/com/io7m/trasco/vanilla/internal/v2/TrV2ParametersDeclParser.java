@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrParameter;
+import org.xml.sax.Attributes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.io7m.trasco.vanilla.internal.v2.TrV2.element;
+
+/**
+ * A V2 schema parser.
+ */
+
+public final class TrV2ParametersDeclParser
+  implements BTElementHandlerType<TrParameter, Map<String, TrParameter>>
+{
+  private final HashMap<String, TrParameter> parameters;
+
+  /**
+   * A V2 schema parser.
+   *
+   * @param context A context
+   */
+
+  public TrV2ParametersDeclParser(
+    final BTElementParsingContextType context)
+  {
+    this.parameters = new HashMap<String, TrParameter>();
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ? extends TrParameter>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      Map.entry(
+        element("Parameter"),
+        TrV2ParameterDeclParser::new
+      )
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final TrParameter result)
+  {
+    this.parameters.put(result.name(), result);
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+
+  }
+
+  @Override
+  public Map<String, TrParameter> onElementFinished(
+    final BTElementParsingContextType context)
+    throws Exception
+  {
+    return Map.copyOf(this.parameters);
+  }
+}
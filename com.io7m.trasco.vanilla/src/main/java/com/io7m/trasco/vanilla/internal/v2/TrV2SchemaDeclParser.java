@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements;
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+import org.xml.sax.Attributes;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements.DO_NOT_IGNORE_UNRECOGNIZED_ELEMENTS;
+import static com.io7m.blackthorne.core.BTIgnoreUnrecognizedElements.IGNORE_UNRECOGNIZED_ELEMENTS;
+import static com.io7m.trasco.vanilla.internal.v2.TrV2.element;
+
+/**
+ * A V2 schema parser. If the parser options specify that the revision is
+ * elided, the children of the schema element are skipped and no statements
+ * are constructed.
+ */
+
+public final class TrV2SchemaDeclParser
+  implements BTElementHandlerType<Object, TrSchemaRevision>
+{
+  private final ArrayList<TrStatementType> statements;
+  private final TrSchemaRevisionSetParserOptions options;
+  private BigInteger versionCurrent;
+  private int parallelGroups;
+  private boolean elided;
+
+  /**
+   * A V2 schema parser.
+   *
+   * @param context   A context
+   * @param inOptions The parser options
+   */
+
+  public TrV2SchemaDeclParser(
+    final BTElementParsingContextType context,
+    final TrSchemaRevisionSetParserOptions inOptions)
+  {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
+    this.statements = new ArrayList<>();
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    if (this.elided) {
+      return Map.of();
+    }
+
+    return Map.ofEntries(
+      Map.entry(
+        element("StatementParameterized"),
+        TrV2StatementParameterizedParser::new
+      ),
+      Map.entry(
+        element("Statement"),
+        TrV2StatementParser::new
+      ),
+      Map.entry(
+        element("Backfill"),
+        TrV2BackfillParser::new
+      ),
+      Map.entry(
+        element("Parallel"),
+        TrV2ParallelParser::new
+      ),
+      Map.entry(
+        element("Comment"),
+        TrV2CommentParser::new
+      )
+    );
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    this.versionCurrent =
+      new BigInteger(attributes.getValue("versionCurrent"));
+    this.elided =
+      this.options.isElided(this.versionCurrent);
+  }
+
+  @Override
+  public BTIgnoreUnrecognizedElements onShouldIgnoreUnrecognizedElements(
+    final BTElementParsingContextType context)
+  {
+    if (this.elided) {
+      return IGNORE_UNRECOGNIZED_ELEMENTS;
+    }
+    return DO_NOT_IGNORE_UNRECOGNIZED_ELEMENTS;
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    if (result instanceof final TrStatement st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof final TrStatementParameterized st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof final TrStatementBackfill st) {
+      this.statements.add(st);
+      return;
+    }
+
+    if (result instanceof final TrV2Parallel group) {
+      this.statements.addAll(group.statementsInGroup(this.parallelGroups));
+      ++this.parallelGroups;
+      return;
+    }
+
+    if (result instanceof TrV2Comment) {
+      return;
+    }
+
+    throw new IllegalArgumentException("Unexpected: %s".formatted(result));
+  }
+
+  @Override
+  public TrSchemaRevision onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    if (this.elided) {
+      return TrSchemaRevision.elidedRevision(this.versionCurrent);
+    }
+
+    return new TrSchemaRevision(
+      this.versionCurrent,
+      List.copyOf(this.statements)
+    );
+  }
+}
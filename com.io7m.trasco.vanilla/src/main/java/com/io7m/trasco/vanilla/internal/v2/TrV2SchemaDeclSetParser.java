@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrSchemaBaseline;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetParserOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.io7m.trasco.vanilla.internal.v2.TrV2.element;
+import static java.util.function.Function.identity;
+
+/**
+ * A parser for database schemas.
+ */
+
+public final class TrV2SchemaDeclSetParser
+  implements BTElementHandlerType<Object, TrSchemaRevisionSet>
+{
+  private final List<TrSchemaRevision> revisions;
+  private final HashMap<String, TrParameter> parameters;
+  private final TrSchemaRevisionSetParserOptions options;
+  private TrSchemaBaseline baseline;
+
+  /**
+   * A parser for database schemas.
+   *
+   * @param context   The context
+   * @param inOptions The parser options
+   */
+
+  public TrV2SchemaDeclSetParser(
+    final BTElementParsingContextType context,
+    final TrSchemaRevisionSetParserOptions inOptions)
+  {
+    this.options =
+      Objects.requireNonNull(inOptions, "options");
+    this.revisions = new ArrayList<>();
+    this.parameters = new HashMap<>();
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      Map.entry(
+        element("Parameters"),
+        TrV2ParametersDeclParser::new
+      ),
+      Map.entry(
+        element("Schema"),
+        c -> new TrV2SchemaDeclParser(c, this.options)
+      ),
+      Map.entry(
+        element("Baseline"),
+        TrV2BaselineDeclParser::new
+      )
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    if (result instanceof final TrSchemaRevision revision) {
+      this.revisions.add(revision);
+      return;
+    }
+
+    if (result instanceof final TrSchemaBaseline b) {
+      this.baseline = b;
+      return;
+    }
+
+    if (result instanceof final Map<?, ?> map) {
+      this.parameters.putAll((Map<? extends String, ? extends TrParameter>) map);
+      return;
+    }
+
+    throw new IllegalArgumentException("Unexpected: %s".formatted(result));
+  }
+
+  @Override
+  public TrSchemaRevisionSet onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    this.revisions.sort(TrSchemaRevision::compareTo);
+
+    return new TrSchemaRevisionSet(
+      Map.copyOf(this.parameters),
+      new TreeMap<>(
+        this.revisions.stream()
+          .collect(Collectors.toMap(TrSchemaRevision::version, identity()))
+      ),
+      Optional.ofNullable(this.baseline)
+    );
+  }
+}
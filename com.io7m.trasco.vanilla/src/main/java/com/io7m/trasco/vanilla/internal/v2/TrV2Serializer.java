@@ -0,0 +1,350 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.trasco.api.TrParameter;
+import com.io7m.trasco.api.TrSchemaBaseline;
+import com.io7m.trasco.api.TrSchemaRevision;
+import com.io7m.trasco.api.TrSchemaRevisionSet;
+import com.io7m.trasco.api.TrSchemaRevisionSetSerializerType;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementBackfill;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.api.TrStatementType;
+import com.io7m.trasco.xml.schemas.TrSchemas;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A serializer of revision sets in the version 2 XML format.
+ */
+
+public final class TrV2Serializer
+  implements TrSchemaRevisionSetSerializerType
+{
+  private static final String NAMESPACE =
+    TrSchemas.schema2_0().namespace().toString();
+
+  private final URI target;
+  private final OutputStream stream;
+
+  /**
+   * A serializer of revision sets in the version 2 XML format.
+   *
+   * @param inTarget The target
+   * @param inStream The output stream
+   */
+
+  public TrV2Serializer(
+    final URI inTarget,
+    final OutputStream inStream)
+  {
+    this.target =
+      Objects.requireNonNull(inTarget, "target");
+    this.stream =
+      Objects.requireNonNull(inStream, "stream");
+  }
+
+  @Override
+  public void execute(
+    final TrSchemaRevisionSet value)
+    throws SerializationException
+  {
+    Objects.requireNonNull(value, "value");
+
+    for (final var revision : value.revisions().values()) {
+      if (revision.elided()) {
+        throw new SerializationException(
+          "Cannot serialize revision set to %s: Revision %s is elided."
+            .formatted(this.target, revision.version())
+        );
+      }
+    }
+
+    try {
+      final var output =
+        XMLOutputFactory.newFactory()
+          .createXMLStreamWriter(this.stream, UTF_8.name());
+
+      output.writeStartDocument(UTF_8.name(), "1.0");
+      output.writeCharacters("\n\n");
+      output.setDefaultNamespace(NAMESPACE);
+      output.writeStartElement(NAMESPACE, "Schemas");
+      output.writeDefaultNamespace(NAMESPACE);
+
+      writeParameters(output, value);
+      for (final var revision : value.revisions().values()) {
+        writeRevision(output, revision);
+      }
+      if (value.baseline().isPresent()) {
+        writeBaseline(output, value.baseline().get());
+      }
+
+      output.writeCharacters("\n");
+      output.writeEndElement();
+      output.writeCharacters("\n");
+      output.writeEndDocument();
+      output.flush();
+      output.close();
+      this.stream.flush();
+    } catch (final XMLStreamException | IOException e) {
+      throw new SerializationException(
+        "Failed to serialize revision set to %s: %s"
+          .formatted(this.target, e.getMessage()),
+        e
+      );
+    }
+  }
+
+  private static void writeParameters(
+    final XMLStreamWriter output,
+    final TrSchemaRevisionSet value)
+    throws XMLStreamException
+  {
+    /*
+     * The schema requires at least one parameter if the Parameters
+     * element is present.
+     */
+
+    if (value.parameters().isEmpty()) {
+      return;
+    }
+
+    final var parameters =
+      value.parameters()
+        .values()
+        .stream()
+        .sorted(Comparator.comparing(TrParameter::name))
+        .toList();
+
+    indent(output, 1);
+    output.writeStartElement(NAMESPACE, "Parameters");
+    for (final var parameter : parameters) {
+      indent(output, 2);
+      output.writeEmptyElement(NAMESPACE, "Parameter");
+      output.writeAttribute("name", parameter.name());
+      output.writeAttribute("type", parameter.kind().name());
+    }
+    indent(output, 1);
+    output.writeEndElement();
+  }
+
+  private static void writeRevision(
+    final XMLStreamWriter output,
+    final TrSchemaRevision revision)
+    throws XMLStreamException
+  {
+    indent(output, 1);
+    output.writeStartElement(NAMESPACE, "Schema");
+    output.writeAttribute("versionCurrent", revision.version().toString());
+    writeStatements(output, revision.statements());
+    indent(output, 1);
+    output.writeEndElement();
+  }
+
+  private static void writeBaseline(
+    final XMLStreamWriter output,
+    final TrSchemaBaseline baseline)
+    throws XMLStreamException
+  {
+    indent(output, 1);
+    output.writeStartElement(NAMESPACE, "Baseline");
+    output.writeAttribute("versionCurrent", baseline.version().toString());
+    writeStatements(output, baseline.statements());
+    indent(output, 1);
+    output.writeEndElement();
+  }
+
+  private static void writeStatements(
+    final XMLStreamWriter output,
+    final List<TrStatementType> statements)
+    throws XMLStreamException
+  {
+    var index = 0;
+    while (index < statements.size()) {
+      final var group = statements.get(index).options().parallelGroup();
+      if (group.isEmpty()) {
+        writeStatement(output, statements.get(index), 2);
+        ++index;
+        continue;
+      }
+
+      indent(output, 2);
+      output.writeStartElement(NAMESPACE, "Parallel");
+      while (index < statements.size()
+             && statements.get(index).options().parallelGroup().equals(group)) {
+        writeStatement(output, statements.get(index), 3);
+        ++index;
+      }
+      indent(output, 2);
+      output.writeEndElement();
+    }
+  }
+
+  private static void writeStatement(
+    final XMLStreamWriter output,
+    final TrStatementType statement,
+    final int depth)
+    throws XMLStreamException
+  {
+    if (statement instanceof final TrStatement st) {
+      indent(output, depth);
+      output.writeStartElement(NAMESPACE, "Statement");
+      writeOptions(output, st.options());
+      writeText(output, st.text());
+      output.writeEndElement();
+      return;
+    }
+
+    if (statement instanceof final TrStatementBackfill st) {
+      writeBackfill(output, st, depth);
+      return;
+    }
+
+    if (statement instanceof final TrStatementParameterized st) {
+      indent(output, depth);
+      output.writeStartElement(NAMESPACE, "StatementParameterized");
+      output.writeAttribute(
+        "parameterInterpolation", st.interpolation().name());
+      writeOptions(output, st.options());
+
+      indent(output, depth + 1);
+      output.writeStartElement(NAMESPACE, "ParameterReferences");
+      for (final var reference : st.references().inOrder().values()) {
+        indent(output, depth + 2);
+        output.writeEmptyElement(NAMESPACE, "ParameterReference");
+        output.writeAttribute("order", Integer.toString(reference.order()));
+        output.writeAttribute("name", reference.name());
+      }
+      indent(output, depth + 1);
+      output.writeEndElement();
+
+      indent(output, depth + 1);
+      output.writeStartElement(NAMESPACE, "Text");
+      writeText(output, st.text());
+      output.writeEndElement();
+
+      indent(output, depth);
+      output.writeEndElement();
+    }
+  }
+
+  private static void writeBackfill(
+    final XMLStreamWriter output,
+    final TrStatementBackfill st,
+    final int depth)
+    throws XMLStreamException
+  {
+    indent(output, depth);
+    output.writeStartElement(NAMESPACE, "Backfill");
+    output.writeAttribute("chunkSize", Integer.toString(st.chunkSize()));
+    if (!st.throttle().isZero()) {
+      output.writeAttribute(
+        "throttleMilliseconds", Long.toString(st.throttle().toMillis()));
+    }
+    writeTimeouts(output, st.options());
+
+    indent(output, depth + 1);
+    output.writeStartElement(NAMESPACE, "Text");
+    writeText(output, st.text());
+    output.writeEndElement();
+
+    indent(output, depth);
+    output.writeEndElement();
+  }
+
+  private static void writeOptions(
+    final XMLStreamWriter output,
+    final TrStatementOptions options)
+    throws XMLStreamException
+  {
+    /*
+     * Statements in parallel groups are implicitly non-transactional.
+     */
+
+    if (!options.transactional() && options.parallelGroup().isEmpty()) {
+      output.writeAttribute("transactional", "false");
+    }
+    writeTimeouts(output, options);
+  }
+
+  private static void writeTimeouts(
+    final XMLStreamWriter output,
+    final TrStatementOptions options)
+    throws XMLStreamException
+  {
+    final var queryTimeout = options.queryTimeout();
+    if (queryTimeout.isPresent()) {
+      output.writeAttribute(
+        "queryTimeoutMilliseconds",
+        Long.toString(queryTimeout.get().toMillis())
+      );
+    }
+
+    final var lockTimeout = options.lockTimeout();
+    if (lockTimeout.isPresent()) {
+      output.writeAttribute(
+        "lockTimeoutMilliseconds",
+        Long.toString(lockTimeout.get().toMillis())
+      );
+    }
+  }
+
+  private static void writeText(
+    final XMLStreamWriter output,
+    final String text)
+    throws XMLStreamException
+  {
+    /*
+     * A CDATA section cannot contain its own terminator, so text that
+     * contains one is written as escaped character data instead.
+     */
+
+    if (text.contains("]]>")) {
+      output.writeCharacters(text);
+    } else {
+      output.writeCData(text);
+    }
+  }
+
+  private static void indent(
+    final XMLStreamWriter output,
+    final int depth)
+    throws XMLStreamException
+  {
+    output.writeCharacters("\n" + "  ".repeat(depth));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.stream.close();
+  }
+}
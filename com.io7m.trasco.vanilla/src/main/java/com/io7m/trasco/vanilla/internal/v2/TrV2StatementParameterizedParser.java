@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.trasco.vanilla.internal.v2;
+
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
+import com.io7m.trasco.api.TrParameterInterpolation;
+import com.io7m.trasco.api.TrParameterReferences;
+import com.io7m.trasco.api.TrStatement;
+import com.io7m.trasco.api.TrStatementOptions;
+import com.io7m.trasco.api.TrStatementParameterized;
+import com.io7m.trasco.vanilla.internal.TrStatementTemplate;
+import org.xml.sax.Attributes;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.trasco.vanilla.internal.v2.TrV2.element;
+
+/**
+ * A parameterized statement parser.
+ */
+
+public final class TrV2StatementParameterizedParser
+  implements BTElementHandlerType<Object, TrStatementParameterized>
+{
+  private final StringBuilder text;
+  private TrParameterReferences parameters;
+  private TrParameterInterpolation interpolation;
+  private TrStatementOptions options;
+
+  /**
+   * A statement parser.
+   *
+   * @param context The context
+   */
+
+  public TrV2StatementParameterizedParser(
+    final BTElementParsingContextType context)
+  {
+    this.parameters = TrParameterReferences.of();
+    this.text = new StringBuilder(128);
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      Map.entry(
+        element("ParameterReferences"),
+        TrV2ParameterReferencesDeclParser::new
+      ),
+      Map.entry(
+        element("Text"),
+        TrV2StatementParser::new
+      )
+    );
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    this.interpolation =
+      TrParameterInterpolation.valueOf(
+        Objects.requireNonNullElse(
+          attributes.getValue("parameterInterpolation"),
+          TrParameterInterpolation.PREPARED_STATEMENT.name()
+        )
+      );
+    this.options =
+      TrV2.statementOptions(attributes);
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    if (result instanceof final TrStatement st) {
+      this.text.append(st.text());
+      return;
+    }
+    if (result instanceof final TrParameterReferences refs) {
+      this.parameters = refs;
+      return;
+    }
+
+    throw new IllegalArgumentException("Unexpected: %s".formatted(result));
+  }
+
+  @Override
+  public TrStatementParameterized onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    return TrStatementTemplate.checked(
+      new TrStatementParameterized(
+        this.parameters,
+        this.text.toString().trim(),
+        this.interpolation,
+        this.options
+      ));
+  }
+}
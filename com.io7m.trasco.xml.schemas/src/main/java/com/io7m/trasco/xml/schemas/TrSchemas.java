@@ -35,9 +35,18 @@ public final class TrSchemas
       .setNamespace(URI.create("urn:com.io7m.trasco.database.statements:1:0"))
       .build();
 
+  private static final JXESchemaDefinition SCHEMA_2_0 =
+    JXESchemaDefinition.builder()
+      .setFileIdentifier("statements-2.xsd")
+      .setLocation(TrSchemas.class.getResource(
+        "/com/io7m/trasco/xml/schemas/statements-2.xsd"))
+      .setNamespace(URI.create("urn:com.io7m.trasco.database.statements:2:0"))
+      .build();
+
   private static final JXESchemaResolutionMappings SCHEMA_MAPPINGS =
     JXESchemaResolutionMappings.builder()
       .putMappings(SCHEMA_1_0.namespace(), SCHEMA_1_0)
+      .putMappings(SCHEMA_2_0.namespace(), SCHEMA_2_0)
       .build();
 
   /**
@@ -49,6 +58,15 @@ public final class TrSchemas
     return SCHEMA_1_0;
   }
 
+  /**
+   * @return The 2.0 schema
+   */
+
+  public static JXESchemaDefinition schema2_0()
+  {
+    return SCHEMA_2_0;
+  }
+
   /**
    * @return The set of supported schemas.
    */